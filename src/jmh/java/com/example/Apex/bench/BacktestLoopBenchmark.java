@@ -0,0 +1,71 @@
+package com.example.Apex.bench;
+
+import com.example.Apex.market.MarketTick;
+import com.example.Apex.market.PriceSeries;
+import com.example.Apex.service.BacktestSimulator;
+import com.example.Apex.strategy.StatefulStrategy;
+import com.example.Apex.strategy.StrategySignal;
+import com.example.Apex.strategy.impl.SimpleMovingAverageStrategy;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One complete backtest over a synthetic random-walk series held in memory:
+ * strategy evaluation plus {@link BacktestSimulator} bookkeeping, without any
+ * database I/O. Reported per tick.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BacktestLoopBenchmark {
+
+    private static final int TICKS = 100_000;
+    private static final int HISTORY_WINDOW = 200;
+
+    private PriceSeries series;
+    private SimpleMovingAverageStrategy strategy;
+
+    @Setup
+    public void setUp() {
+        PriceSeries.Builder builder = PriceSeries.builder(TICKS);
+        Random random = new Random(42);
+        LocalDateTime t0 = LocalDateTime.of(2024, 1, 1, 0, 0);
+        double price = 30_000;
+        for (int i = 0; i < TICKS; i++) {
+            price += random.nextGaussian() * 10;
+            builder.add(new MarketTick("BTCUSDT", BigDecimal.valueOf(price), t0.plusSeconds(i)));
+        }
+        series = builder.build();
+        strategy = new SimpleMovingAverageStrategy();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TICKS)
+    public Object stateful() {
+        BacktestSimulator simulator = new BacktestSimulator();
+        StatefulStrategy instance = strategy.newInstance();
+        for (int i = 0; i < series.size(); i++) {
+            StrategySignal signal = instance.onTick(series.epochMillis(i), series.price(i), 1.0);
+            simulator.onSignal(signal.type(), series.price(i));
+        }
+        return simulator.toResult(strategy.getStrategyName());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TICKS)
+    public Object historyWindow() {
+        BacktestSimulator simulator = new BacktestSimulator();
+        for (int i = 0; i < series.size(); i++) {
+            StrategySignal signal = strategy.analyze(series.tick(i), series.history(i, HISTORY_WINDOW));
+            simulator.onSignal(signal.type(), series.price(i));
+        }
+        return simulator.toResult(strategy.getStrategyName());
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.Apex.bench;
+
+import com.example.Apex.ApexApplication;
+import com.example.Apex.service.UserService;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Boots the application against an in-memory H2 database (PostgreSQL
+ * compatibility mode) for the benchmarks that exercise JPA paths.
+ *
+ * No Binance stream, and no web server unless asked for; SQL and per-call
+ * INFO logging are off so the numbers reflect the code path rather than the
+ * console.
+ */
+final class BenchmarkContext {
+
+    private static final Map<String, Object> PROPERTIES = Map.of(
+            "spring.datasource.url", "jdbc:h2:mem:bench;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+            "spring.datasource.driver-class-name", "org.h2.Driver",
+            "spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect",
+            "spring.jpa.hibernate.ddl-auto", "create-drop",
+            "spring.jpa.show-sql", "false",
+            "apex.websocket.enabled", "false",
+            "logging.level.root", "WARN",
+            "logging.level.com.example.Apex", "WARN",
+            "logging.level.org.hibernate.SQL", "WARN",
+            "logging.level.org.hibernate.type.descriptor.sql.BasicBinder", "WARN");
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start(Map<String, Object> overrides) {
+        return start(overrides, WebApplicationType.NONE);
+    }
+
+    static ConfigurableApplicationContext start(Map<String, Object> overrides, WebApplicationType webType) {
+        SpringApplication application = new SpringApplication(ApexApplication.class);
+        application.setWebApplicationType(webType);
+        application.setLogStartupInfo(false);
+        Map<String, Object> properties = new HashMap<>(PROPERTIES);
+        properties.putAll(overrides);
+        // As command-line arguments so they take precedence over application.properties.
+        String[] args = properties.entrySet().stream()
+                .map(e -> "--" + e.getKey() + "=" + e.getValue())
+                .toArray(String[]::new);
+        return application.run(args);
+    }
+
+    /**
+     * Creates a user with a funded wallet and returns its id.
+     */
+    static Long createFundedUser(ConfigurableApplicationContext context, BigDecimal balance) {
+        String name = "bench-" + UUID.randomUUID();
+        return context.getBean(UserService.class).createUser(name, name + "@bench.local", balance).getId();
+    }
+}
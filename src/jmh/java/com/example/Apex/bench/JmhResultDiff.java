@@ -0,0 +1,66 @@
+package com.example.Apex.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares two JMH JSON result files (-rf json) and prints the change in
+ * primary score per benchmark, e.g. a saved baseline against the current
+ * build:
+ *
+ * mvn -Pbenchmark test-compile exec:exec@jmh-diff -Djmh.baseline=baseline.json
+ */
+public final class JmhResultDiff {
+
+    private JmhResultDiff() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: JmhResultDiff <baseline.json> <current.json>");
+            System.exit(2);
+        }
+        Map<String, JsonNode> baseline = read(args[0]);
+        Map<String, JsonNode> current = read(args[1]);
+
+        System.out.printf("%-70s %14s %14s %9s  %s%n", "Benchmark", "Baseline", "Current", "Change", "Unit");
+        current.forEach((key, result) -> {
+            JsonNode metric = result.path("primaryMetric");
+            double score = metric.path("score").asDouble();
+            JsonNode before = baseline.get(key);
+            if (before == null) {
+                System.out.printf("%-70s %14s %14.3f %9s  %s%n", key, "-", score, "new", metric.path("scoreUnit").asText());
+                return;
+            }
+            double previous = before.path("primaryMetric").path("score").asDouble();
+            double change = previous == 0.0 ? 0.0 : (score - previous) / previous * 100.0;
+            System.out.printf("%-70s %14.3f %14.3f %+8.1f%%  %s%n", key, previous, score, change,
+                    metric.path("scoreUnit").asText());
+        });
+        baseline.keySet().stream()
+                .filter(key -> !current.containsKey(key))
+                .forEach(key -> System.out.printf("%-70s %14s %14s %9s%n", key, "", "-", "removed"));
+    }
+
+    /**
+     * Results keyed by benchmark, mode and parameters, which together
+     * identify one row of the JMH report.
+     */
+    private static Map<String, JsonNode> read(String path) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(new File(path))) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText()
+                    .replace("com.example.Apex.bench.", ""))
+                    .append(" [").append(result.path("mode").asText()).append(']');
+            result.path("params").fields()
+                    .forEachRemaining(p -> key.append(' ').append(p.getKey()).append('=').append(p.getValue().asText()));
+            results.put(key.toString(), result);
+        }
+        return results;
+    }
+}
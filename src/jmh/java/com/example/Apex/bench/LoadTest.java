@@ -0,0 +1,208 @@
+package com.example.Apex.bench;
+
+import com.example.Apex.market.LatestPriceCache;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop HTTP load test: keeps {@code --connections} requests in flight
+ * (one connection each) for {@code --duration} seconds after a warm-up, then
+ * prints throughput, status codes and latency percentiles.
+ *
+ * Unlike the JMH suites this goes through Tomcat, so it shows what the
+ * request threading model does under many concurrent connections: on JDK 17
+ * (or with {@code spring.threads.virtual.enabled=false}) at most
+ * {@code server.tomcat.threads.max} requests run at once and the rest queue
+ * on their sockets; with virtual threads every connection gets a thread and
+ * the Hikari pool becomes the limit.
+ *
+ * Scenarios: {@code orders} (POST /api/orders, MARKET BUY 1, a fresh
+ * idempotency key each), {@code portfolio} (GET /portfolio/{userId}) and
+ * {@code ping} (GET /trade/ping, no database). Without {@code --target} the
+ * application is started in-process on H2 with a random port; any other
+ * {@code --key=value} argument is passed to it as a property, e.g.
+ * {@code --spring.profiles.active=virtual-threads}.
+ *
+ * Client and server share the file descriptor limit, so raise
+ * {@code ulimit -n} above twice the connection count.
+ */
+public final class LoadTest {
+
+    private static final String SYMBOL = "BTCUSDT";
+
+    private final HttpClient client;
+    private final String target;
+    private final String scenario;
+    private final List<Long> userIds;
+    private final AtomicLong sequence = new AtomicLong();
+
+    private LoadTest(HttpClient client, String target, String scenario, List<Long> userIds) {
+        this.client = client;
+        this.target = target;
+        this.scenario = scenario;
+        this.userIds = userIds;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>(Map.of(
+                "connections", "10000",
+                "duration", "30",
+                "warmup", "5",
+                "users", "100",
+                "scenario", "orders"));
+        Map<String, Object> overrides = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --key=value, got " + arg);
+            }
+            String key = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            if (options.containsKey(key) || key.equals("target")) {
+                options.put(key, value);
+            } else {
+                overrides.put(key, value);
+            }
+        }
+        int connections = Integer.parseInt(options.get("connections"));
+        int users = Integer.parseInt(options.get("users"));
+
+        ConfigurableApplicationContext context = null;
+        String target = options.get("target");
+        List<Long> userIds = new ArrayList<>(users);
+        if (target == null) {
+            overrides.putIfAbsent("server.port", "0");
+            overrides.putIfAbsent("server.tomcat.max-connections", Math.max(10_000, connections));
+            // The cached price is seeded once, so do not let it go stale mid-run.
+            overrides.putIfAbsent("apex.market.reject-stale-prices", "false");
+            // Shed requests are counted below; one log line each would swamp the console.
+            overrides.putIfAbsent("logging.level.com.example.Apex.config.GlobalExceptionHandler", "ERROR");
+            overrides.putIfAbsent("logging.level.org.hibernate.engine.jdbc.spi.SqlExceptionHelper", "OFF");
+            context = BenchmarkContext.start(overrides, WebApplicationType.SERVLET);
+            context.getBean(LatestPriceCache.class).update(SYMBOL, new BigDecimal("100.00"),
+                    System.currentTimeMillis());
+            for (int i = 0; i < users; i++) {
+                userIds.add(BenchmarkContext.createFundedUser(context, new BigDecimal("1000000000000.00")));
+            }
+            target = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            System.out.printf("Started in-process on %s (JDK %s, virtual threads %s)%n", target,
+                    Runtime.version().feature(),
+                    context.getEnvironment().getProperty("spring.threads.virtual.enabled", "false"));
+        } else {
+            for (long id = 1; id <= users; id++) {
+                userIds.add(id);
+            }
+        }
+
+        ExecutorService clientThreads = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(clientThreads)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+        LoadTest test = new LoadTest(client, target, options.get("scenario"), userIds);
+        try {
+            System.out.printf("Warm-up: %s s with %d connections%n", options.get("warmup"), connections);
+            test.run(connections, Integer.parseInt(options.get("warmup")));
+            Result result = test.run(connections, Integer.parseInt(options.get("duration")));
+            result.print(test.scenario, connections);
+        } finally {
+            clientThreads.shutdownNow();
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    /**
+     * Keeps {@code connections} requests in flight for {@code seconds}, then
+     * waits for the stragglers.
+     */
+    private Result run(int connections, int seconds) throws InterruptedException {
+        Result result = new Result();
+        Semaphore inFlight = new Semaphore(connections);
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(seconds);
+        while (System.nanoTime() < end) {
+            if (!inFlight.tryAcquire(10, TimeUnit.MILLISECONDS)) {
+                continue;
+            }
+            long sent = System.nanoTime();
+            client.sendAsync(nextRequest(), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, failure) -> {
+                        result.record(response == null ? -1 : response.statusCode(), System.nanoTime() - sent);
+                        inFlight.release();
+                    });
+        }
+        if (!inFlight.tryAcquire(connections, 60, TimeUnit.SECONDS)) {
+            System.out.printf("%d requests still in flight after 60 s%n", connections - inFlight.availablePermits());
+        }
+        result.elapsedNanos = System.nanoTime() - start;
+        return result;
+    }
+
+    private HttpRequest nextRequest() {
+        long n = sequence.incrementAndGet();
+        Long userId = userIds.get((int) (n % userIds.size()));
+        HttpRequest.Builder request = HttpRequest.newBuilder().timeout(Duration.ofSeconds(60));
+        return switch (scenario) {
+            case "orders" -> request.uri(URI.create(target + "/api/orders"))
+                    .header("Content-Type", "application/json")
+                    .header("Idempotency-Key", "load-" + System.nanoTime() + "-" + n)
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"userId\":" + userId + ",\"symbol\":\"" + SYMBOL
+                            + "\",\"side\":\"BUY\",\"quantity\":1}"))
+                    .build();
+            case "portfolio" -> request.uri(URI.create(target + "/portfolio/" + userId)).GET().build();
+            case "ping" -> request.uri(URI.create(target + "/trade/ping")).GET().build();
+            default -> throw new IllegalArgumentException("Unknown scenario " + scenario);
+        };
+    }
+
+    private static final class Result {
+
+        /** Microseconds, auto-resizing. */
+        private final Histogram latency = new ConcurrentHistogram(3);
+        /** Status code, -1 for a connection-level failure. */
+        private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        private long elapsedNanos;
+
+        void record(int status, long nanos) {
+            latency.recordValue(TimeUnit.NANOSECONDS.toMicros(nanos));
+            statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+        }
+
+        void print(String scenario, int connections) {
+            long total = latency.getTotalCount();
+            double seconds = elapsedNanos / 1e9;
+            System.out.printf("%nScenario %s, %d connections, %.1f s%n", scenario, connections, seconds);
+            System.out.printf("Requests: %d (%.1f/s)%n", total, total / seconds);
+            Map<Integer, Long> byStatus = new TreeMap<>();
+            statuses.forEach((status, count) -> byStatus.put(status, count.sum()));
+            System.out.printf("Status:   %s%n", byStatus);
+            System.out.printf("Latency:  p50 %.1f ms, p90 %.1f ms, p99 %.1f ms, p99.9 %.1f ms, max %.1f ms%n",
+                    latency.getValueAtPercentile(50) / 1000.0, latency.getValueAtPercentile(90) / 1000.0,
+                    latency.getValueAtPercentile(99) / 1000.0, latency.getValueAtPercentile(99.9) / 1000.0,
+                    latency.getMaxValue() / 1000.0);
+        }
+    }
+}
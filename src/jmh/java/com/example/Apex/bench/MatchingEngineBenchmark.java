@@ -0,0 +1,132 @@
+package com.example.Apex.bench;
+
+import com.example.Apex.market.FixedPoint;
+import com.example.Apex.matching.MatchingEngine;
+import com.example.Apex.matching.OrderBook;
+import com.example.Apex.model.Order;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order book throughput on a steady-state mix of 70% passive limit orders,
+ * 20% cancels and 10% market orders, directly on an {@link OrderBook} and
+ * through the synchronised {@link MatchingEngine}.
+ *
+ * The op sequence is precomputed; cancels target the oldest live order id,
+ * which may already have been filled, as happens in a real book.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MatchingEngineBenchmark {
+
+    private static final int OPS = 1 << 16;
+    private static final int LIVE_ORDERS = 1 << 14;
+    private static final long MID = 30_000 * FixedPoint.ONE;
+    private static final long TICK = FixedPoint.ONE / 100;
+    private static final String SYMBOL = "BTCUSDT";
+
+    @Param({ "50" })
+    public int levels;
+
+    private byte[] ops;
+    private long[] prices;
+    private long[] quantities;
+    private boolean[] buys;
+
+    private OrderBook book;
+    private MatchingEngine engine;
+    private long[] live;
+    private int liveHead;
+    private int liveTail;
+    private long nextId;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        ops = new byte[OPS];
+        prices = new long[OPS];
+        quantities = new long[OPS];
+        buys = new boolean[OPS];
+        for (int i = 0; i < OPS; i++) {
+            int roll = random.nextInt(100);
+            ops[i] = (byte) (roll < 70 ? 0 : roll < 90 ? 1 : 2);
+            buys[i] = random.nextBoolean();
+            long offset = (1 + random.nextInt(levels)) * TICK;
+            prices[i] = buys[i] ? MID - offset : MID + offset;
+            quantities[i] = (1 + random.nextInt(5)) * FixedPoint.ONE;
+        }
+
+        book = new OrderBook(SYMBOL, (symbol, taker, maker, takerBuy, price, quantity, takerLeft, makerLeft) -> {
+        });
+        engine = new MatchingEngine(List.of());
+        live = new long[LIVE_ORDERS];
+        for (int i = 0; i < LIVE_ORDERS / 2; i++) {
+            add(i);
+        }
+    }
+
+    @Benchmark
+    public long orderBookMix() {
+        return step(false);
+    }
+
+    @Benchmark
+    public long matchingEngineMix() {
+        return step(true);
+    }
+
+    @Benchmark
+    public boolean addCancel() {
+        long id = ++nextId;
+        book.submitLimit(id, Order.Side.BUY, MID - (levels + 1) * TICK, FixedPoint.ONE);
+        return book.cancel(id);
+    }
+
+    private long step(boolean viaEngine) {
+        int i = cursor++ & (OPS - 1);
+        switch (ops[i]) {
+            case 0 -> {
+                if (liveTail - liveHead == LIVE_ORDERS) {
+                    return cancelOldest(viaEngine) ? 1 : 0;
+                }
+                long id = ++nextId;
+                live[liveTail++ & (LIVE_ORDERS - 1)] = id;
+                Order.Side side = buys[i] ? Order.Side.BUY : Order.Side.SELL;
+                return viaEngine ? engine.submitLimit(SYMBOL, id, side, prices[i], quantities[i])
+                        : book.submitLimit(id, side, prices[i], quantities[i]);
+            }
+            case 1 -> {
+                return cancelOldest(viaEngine) ? 1 : 0;
+            }
+            default -> {
+                Order.Side side = buys[i] ? Order.Side.BUY : Order.Side.SELL;
+                return viaEngine ? engine.submitMarket(SYMBOL, ++nextId, side, quantities[i]).filledQuantity()
+                        : book.submitMarket(++nextId, side, quantities[i]);
+            }
+        }
+    }
+
+    private boolean cancelOldest(boolean viaEngine) {
+        if (liveHead == liveTail) {
+            return false;
+        }
+        long id = live[liveHead++ & (LIVE_ORDERS - 1)];
+        return viaEngine ? engine.cancel(SYMBOL, id) : book.cancel(id);
+    }
+
+    private void add(int i) {
+        long id = ++nextId;
+        live[liveTail++ & (LIVE_ORDERS - 1)] = id;
+        Order.Side side = buys[i] ? Order.Side.BUY : Order.Side.SELL;
+        book.submitLimit(id, side, prices[i], quantities[i]);
+        engine.submitLimit(SYMBOL, id, side, prices[i], quantities[i]);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.Apex.bench;
+
+import com.example.Apex.market.LatestPriceCache;
+import com.example.Apex.model.Order;
+import com.example.Apex.service.OrderExecutionService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * End-to-end market order placement through
+ * {@link OrderExecutionService#executeOrder}: idempotency lookup, pricing from
+ * the latest-price cache, risk validation, state machine audit rows and the
+ * wallet update, all in one transaction against H2.
+ *
+ * {@code auditMode} compares saving audit rows inside the order transaction
+ * with queueing them for the batched background writer.
+ *
+ * Also run with {@code -t 8} to see contention on the per-user wallet lock.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderPlacementBenchmark {
+
+    private static final String SYMBOL = "BTCUSDT";
+
+    @Param({ "ASYNC", "IN_TRANSACTION" })
+    public String auditMode;
+
+    private final AtomicLong keys = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+    private OrderExecutionService orderExecutionService;
+    private Long userId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // The cached price is seeded once, so do not let it go stale mid-run.
+        context = BenchmarkContext.start(Map.of(
+                "apex.market.reject-stale-prices", "false",
+                "apex.audit.mode", auditMode));
+        orderExecutionService = context.getBean(OrderExecutionService.class);
+        context.getBean(LatestPriceCache.class).update(SYMBOL, new BigDecimal("100.00"), System.currentTimeMillis());
+        userId = BenchmarkContext.createFundedUser(context, new BigDecimal("1000000000.00"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Order placeMarketOrder() {
+        return orderExecutionService.executeOrder(userId, SYMBOL, Order.Side.BUY, 1,
+                "bench-" + keys.incrementAndGet());
+    }
+}
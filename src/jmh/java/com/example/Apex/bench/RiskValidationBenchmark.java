@@ -0,0 +1,57 @@
+package com.example.Apex.bench;
+
+import com.example.Apex.model.Order;
+import com.example.Apex.risk.RiskGuard;
+import com.example.Apex.service.RiskManagementService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pre-trade risk checks as wired today: {@link RiskManagementService#validateOrder}
+ * for the order API and {@link RiskGuard#validateTrade} for the trade API.
+ * Both evaluate the compiled {@link com.example.Apex.risk.RiskRuleEngine}
+ * chains against the in-memory {@link com.example.Apex.risk.RiskState};
+ * neither queries the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RiskValidationBenchmark {
+
+    private static final BigDecimal PRICE = new BigDecimal("100.00");
+
+    private ConfigurableApplicationContext context;
+    private RiskManagementService riskManagementService;
+    private RiskGuard riskGuard;
+    private Long userId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(Map.of());
+        riskManagementService = context.getBean(RiskManagementService.class);
+        riskGuard = context.getBean(RiskGuard.class);
+        userId = BenchmarkContext.createFundedUser(context, new BigDecimal("1000000.00"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void validateOrder() {
+        riskManagementService.validateOrder(null, userId, "BTCUSDT", Order.Side.BUY, 1, PRICE);
+    }
+
+    @Benchmark
+    public void validateTrade() {
+        riskGuard.validateTrade(userId, new BigDecimal("1000000.00"), PRICE, 1);
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.Apex.bench;
+
+import com.example.Apex.market.MarketTick;
+import com.example.Apex.strategy.RollingWindow;
+import com.example.Apex.strategy.StatefulStrategy;
+import com.example.Apex.strategy.StrategySignal;
+import com.example.Apex.strategy.impl.SimpleMovingAverageStrategy;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one strategy evaluation per tick: the history-based
+ * {@code analyze(tick, history)} contract over a rolling window, versus
+ * {@code onTick} on incremental indicator state.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StrategyBenchmark {
+
+    private static final int SERIES_LENGTH = 4096;
+
+    @Param({ "20", "200" })
+    public int historySize;
+
+    private MarketTick[] ticks;
+    private double[] prices;
+    private RollingWindow<MarketTick> history;
+    private SimpleMovingAverageStrategy strategy;
+    private StatefulStrategy instance;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        ticks = new MarketTick[SERIES_LENGTH];
+        prices = new double[SERIES_LENGTH];
+        LocalDateTime t0 = LocalDateTime.of(2024, 1, 1, 0, 0);
+        for (int i = 0; i < SERIES_LENGTH; i++) {
+            prices[i] = 30_000 + 500 * Math.sin(i / 50.0);
+            ticks[i] = new MarketTick("BTCUSDT", BigDecimal.valueOf(prices[i]), t0.plusSeconds(i));
+        }
+        history = new RollingWindow<>(historySize);
+        for (int i = 0; i < historySize; i++) {
+            history.add(ticks[i]);
+        }
+        strategy = new SimpleMovingAverageStrategy();
+        instance = strategy.newInstance();
+    }
+
+    @Benchmark
+    public StrategySignal analyzeHistory() {
+        MarketTick tick = ticks[cursor++ & (SERIES_LENGTH - 1)];
+        history.add(tick);
+        return strategy.analyze(tick, history);
+    }
+
+    @Benchmark
+    public StrategySignal onTick() {
+        int i = cursor++ & (SERIES_LENGTH - 1);
+        return instance.onTick(i, prices[i], 1.0);
+    }
+}
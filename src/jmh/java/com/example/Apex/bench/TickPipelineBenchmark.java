@@ -0,0 +1,86 @@
+package com.example.Apex.bench;
+
+import com.example.Apex.market.MarketTick;
+import com.example.Apex.market.MarketTickPersistenceHandler;
+import com.example.Apex.market.MarketTickRepository;
+import com.example.Apex.market.TradeFrame;
+import com.example.Apex.market.TradeFrameParser;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The tick ingestion path against H2: decoding a frame and handing it to
+ * {@link MarketTickPersistenceHandler} (price cache, trade listeners, ingestion
+ * queue), and the batched {@code saveAll} the flusher thread performs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TickPipelineBenchmark {
+
+    private static final String FRAME = "{\"stream\":\"btcusdt@trade\",\"data\":{\"e\":\"trade\","
+            + "\"E\":1718000000100,\"s\":\"BTCUSDT\",\"t\":3611000001,\"p\":\"67234.50000000\","
+            + "\"q\":\"0.00120000\",\"T\":1718000000099,\"m\":true,\"M\":true}}";
+    private static final int BATCH_SIZE = 500;
+
+    private ConfigurableApplicationContext context;
+    private MarketTickPersistenceHandler handler;
+    private MarketTickRepository repository;
+    private ByteBuf buffer;
+    private TradeFrameParser parser;
+    private TradeFrame frame;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // DROP_OLDEST keeps the producer side non-blocking however fast it runs.
+        context = BenchmarkContext.start(Map.of("apex.ticks.overflow-policy", "DROP_OLDEST"));
+        handler = context.getBean(MarketTickPersistenceHandler.class);
+        repository = context.getBean(MarketTickRepository.class);
+        byte[] bytes = FRAME.getBytes(StandardCharsets.UTF_8);
+        buffer = Unpooled.directBuffer(bytes.length).writeBytes(bytes);
+        parser = new TradeFrameParser();
+        frame = new TradeFrame();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        buffer.release();
+        context.close();
+    }
+
+    /**
+     * What the WebSocket thread pays per frame.
+     */
+    @Benchmark
+    public void parseAndPublish() {
+        parser.parse(buffer, frame);
+        handler.persist(frame);
+    }
+
+    /**
+     * One flusher batch; divide by 500 for the per-tick cost.
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public Object saveBatch() {
+        List<MarketTick> batch = new ArrayList<>(BATCH_SIZE);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(new MarketTick("BTCUSDT", BigDecimal.valueOf(67_000 + i), now));
+        }
+        return repository.saveAll(batch);
+    }
+}
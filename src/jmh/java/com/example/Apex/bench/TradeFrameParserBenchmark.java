@@ -0,0 +1,63 @@
+package com.example.Apex.bench;
+
+import com.example.Apex.market.BinanceStreamEnvelope;
+import com.example.Apex.market.TradeFrame;
+import com.example.Apex.market.TradeFrameParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the original Jackson path (payload -> String -> DTO) against
+ * {@link TradeFrameParser} decoding in place from the Netty buffer.
+ *
+ * Run with -prof gc to compare allocation per frame (gc.alloc.rate.norm).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TradeFrameParserBenchmark {
+
+    private static final String FRAME = "{\"stream\":\"btcusdt@trade\",\"data\":{\"e\":\"trade\","
+            + "\"E\":1718000000100,\"s\":\"BTCUSDT\",\"t\":3611000001,\"p\":\"67234.50000000\","
+            + "\"q\":\"0.00120000\",\"T\":1718000000099,\"m\":true,\"M\":true}}";
+
+    private ByteBuf buffer;
+    private ObjectMapper objectMapper;
+    private TradeFrameParser parser;
+    private TradeFrame frame;
+
+    @Setup
+    public void setUp() {
+        byte[] bytes = FRAME.getBytes(StandardCharsets.UTF_8);
+        buffer = Unpooled.directBuffer(bytes.length).writeBytes(bytes);
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        parser = new TradeFrameParser();
+        frame = new TradeFrame();
+    }
+
+    @TearDown
+    public void tearDown() {
+        buffer.release();
+    }
+
+    @Benchmark
+    public Object jackson() throws Exception {
+        String raw = buffer.toString(StandardCharsets.UTF_8);
+        return objectMapper.readValue(raw, BinanceStreamEnvelope.class).getData().getPrice();
+    }
+
+    @Benchmark
+    public long streaming() {
+        parser.parse(buffer, frame);
+        return frame.getPriceE8();
+    }
+}
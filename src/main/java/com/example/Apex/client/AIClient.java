@@ -13,6 +13,17 @@ public interface AIClient {
      */
     Sentiment getSentiment(String symbol);
 
+    /**
+     * Get the sentiment for a symbol as of a point in time, e.g. the timestamp
+     * of the tick a strategy is evaluating. Backends without history answer
+     * with the current sentiment.
+     *
+     * @param asOfEpochMillis UTC epoch millis the sentiment should reflect
+     */
+    default Sentiment getSentiment(String symbol, long asOfEpochMillis) {
+        return getSentiment(symbol);
+    }
+
     enum Sentiment {
         POSITIVE, NEGATIVE, NEUTRAL
     }
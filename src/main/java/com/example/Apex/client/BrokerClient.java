@@ -25,4 +25,23 @@ public interface BrokerClient {
      * @return execution confirmation details
      */
     String executeOrder(Order order);
+
+    /**
+     * Worst price a marketable order may fill at while the market is at
+     * {@code marketPrice}; BUY funds are reserved at it before execution.
+     * Brokers that fill at the market price return it unchanged.
+     */
+    default BigDecimal worstFillPrice(Order.Side side, BigDecimal marketPrice) {
+        return marketPrice;
+    }
+
+    /**
+     * Execute an order that must not fill beyond {@code worstPrice} (above it
+     * for a BUY, below it for a SELL); if it cannot, nothing is executed.
+     *
+     * @param worstPrice price bound, or null for none
+     */
+    default String executeOrder(Order order, BigDecimal worstPrice) {
+        return executeOrder(order);
+    }
 }
@@ -0,0 +1,11 @@
+package com.example.Apex.client;
+
+/**
+ * Selects the {@link BrokerClient} implementation via apex.broker.type.
+ */
+public enum BrokerType {
+    /** Random prices, every order fills at the requested price. */
+    MOCK,
+    /** Orders match against the in-memory order books of the MatchingEngine. */
+    MATCHING
+}
@@ -0,0 +1,190 @@
+package com.example.Apex.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * {@link AIClient} decorator that keeps the latest sentiment per symbol for a
+ * fixed TTL.
+ *
+ * <ul>
+ * <li>Concurrent misses for the same symbol are coalesced onto a single
+ * backend call; the other callers wait for its result.</li>
+ * <li>A hit within {@code refreshAhead} of expiry triggers a background
+ * reload, so hot symbols are refreshed before they ever miss.</li>
+ * <li>Point-in-time lookups older than the TTL (backtests) are answered in
+ * replay mode without touching the backend: a pseudo-random sentiment
+ * derived only from the seed, the symbol and the time bucket, so the same
+ * backtest always sees the same sentiments.</li>
+ * </ul>
+ *
+ * Metrics: apex.ai.sentiment.requests{result=hit|miss|coalesced|replay},
+ * apex.ai.sentiment.refreshes, apex.ai.sentiment.latency,
+ * apex.ai.sentiment.cache.size.
+ */
+@Slf4j
+public class CachingAIClient implements AIClient {
+
+    private static final Sentiment[] SENTIMENTS = Sentiment.values();
+
+    private final AIClient delegate;
+    private final Clock clock;
+    private final long ttlMillis;
+    private final long refreshAheadMillis;
+    private final boolean replayEnabled;
+    private final long replaySeed;
+    private final long replayBucketMillis;
+
+    private final Map<String, CachedSentiment> cache = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Sentiment>> inFlight = new ConcurrentHashMap<>();
+    private final ExecutorService refresher;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter coalesced;
+    private final Counter replayed;
+    private final Counter refreshes;
+    private final Timer latency;
+
+    public CachingAIClient(AIClient delegate, MeterRegistry meterRegistry, Clock clock, Duration ttl,
+            Duration refreshAhead, boolean replayEnabled, long replaySeed, Duration replayBucket) {
+        this.delegate = delegate;
+        this.clock = clock;
+        this.ttlMillis = ttl.toMillis();
+        this.refreshAheadMillis = Math.min(refreshAhead.toMillis(), ttlMillis);
+        this.replayEnabled = replayEnabled;
+        this.replaySeed = replaySeed;
+        this.replayBucketMillis = Math.max(1, replayBucket.toMillis());
+        this.refresher = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "sentiment-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        hits = meterRegistry.counter("apex.ai.sentiment.requests", "result", "hit");
+        misses = meterRegistry.counter("apex.ai.sentiment.requests", "result", "miss");
+        coalesced = meterRegistry.counter("apex.ai.sentiment.requests", "result", "coalesced");
+        replayed = meterRegistry.counter("apex.ai.sentiment.requests", "result", "replay");
+        refreshes = meterRegistry.counter("apex.ai.sentiment.refreshes");
+        latency = Timer.builder("apex.ai.sentiment.latency")
+                .description("Time taken by the sentiment backend")
+                .register(meterRegistry);
+        Gauge.builder("apex.ai.sentiment.cache.size", cache, Map::size).register(meterRegistry);
+    }
+
+    @Override
+    public Sentiment getSentiment(String symbol) {
+        long now = clock.millis();
+        CachedSentiment cached = cache.get(symbol);
+        if (cached != null && now - cached.fetchedAt() < ttlMillis) {
+            hits.increment();
+            if (now - cached.fetchedAt() >= ttlMillis - refreshAheadMillis) {
+                refreshAsync(symbol);
+            }
+            return cached.sentiment();
+        }
+
+        CompletableFuture<Sentiment> load = new CompletableFuture<>();
+        CompletableFuture<Sentiment> existing = inFlight.putIfAbsent(symbol, load);
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing);
+        }
+        misses.increment();
+        return load(symbol, load);
+    }
+
+    @Override
+    public Sentiment getSentiment(String symbol, long asOfEpochMillis) {
+        if (clock.millis() - asOfEpochMillis <= ttlMillis) {
+            return getSentiment(symbol);
+        }
+        if (!replayEnabled) {
+            return delegate.getSentiment(symbol, asOfEpochMillis);
+        }
+        replayed.increment();
+        return replay(symbol, asOfEpochMillis);
+    }
+
+    /**
+     * Stops the background refresher. Inferred as the destroy method when
+     * registered as a {@code @Bean}.
+     */
+    public void close() {
+        refresher.shutdownNow();
+    }
+
+    private void refreshAsync(String symbol) {
+        CompletableFuture<Sentiment> load = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(symbol, load) != null) {
+            return;
+        }
+        refreshes.increment();
+        try {
+            refresher.execute(() -> {
+                try {
+                    load(symbol, load);
+                } catch (RuntimeException e) {
+                    // Keep serving the cached value until it expires.
+                    log.warn("[SENTIMENT] Background refresh for {} failed: {}", symbol, e.getMessage());
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(symbol, load);
+            load.cancel(false);
+        }
+    }
+
+    private Sentiment load(String symbol, CompletableFuture<Sentiment> load) {
+        try {
+            Sentiment sentiment = latency.record(() -> delegate.getSentiment(symbol));
+            cache.put(symbol, new CachedSentiment(sentiment, clock.millis()));
+            load.complete(sentiment);
+            return sentiment;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(symbol, load);
+        }
+    }
+
+    private static Sentiment await(CompletableFuture<Sentiment> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Deterministic sentiment for (symbol, time bucket): a SplitMix64 hash of
+     * the seed, symbol and bucket.
+     */
+    private Sentiment replay(String symbol, long asOfEpochMillis) {
+        long bucket = Math.floorDiv(asOfEpochMillis, replayBucketMillis);
+        long z = replaySeed + symbol.hashCode() * 0x9E3779B97F4A7C15L + bucket;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z = z ^ (z >>> 31);
+        return SENTIMENTS[(int) Math.floorMod(z, (long) SENTIMENTS.length)];
+    }
+
+    private record CachedSentiment(Sentiment sentiment, long fetchedAt) {
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.Apex.client;
+
+import com.example.Apex.market.FixedPoint;
+import com.example.Apex.market.MarketDataService;
+import com.example.Apex.matching.MatchingEngine;
+import com.example.Apex.model.Order;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * BrokerClient backed by the in-memory {@link MatchingEngine}.
+ *
+ * Orders are sent to the book as fill-or-kill market orders: an order either
+ * fills completely at the prices of the resting liquidity it takes, and its
+ * executionPrice is set to the volume-weighted average, or it is rejected and
+ * the book is left untouched. Orders take no liquidity more than
+ * maxSlippageBps away from the price they were checked and reserved at, so a
+ * fill never costs more than the funds set aside for it.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class MatchingBrokerClient implements BrokerClient {
+
+    private final MatchingEngine matchingEngine;
+    private final MarketDataService marketDataService;
+    private final int maxSlippageBps;
+
+    /**
+     * Last trade in the book, else the mid of the touch, else the latest
+     * streamed market price.
+     */
+    @Override
+    public BigDecimal getPrice(String symbol) {
+        return matchingEngine.getReferencePrice(symbol)
+                .orElseGet(() -> marketDataService.getLatestPrice(symbol));
+    }
+
+    @Override
+    public BigDecimal worstFillPrice(Order.Side side, BigDecimal marketPrice) {
+        BigDecimal band = BigDecimal.valueOf(maxSlippageBps, 4);
+        return side == Order.Side.BUY
+                ? marketPrice.multiply(BigDecimal.ONE.add(band)).setScale(2, RoundingMode.CEILING)
+                : marketPrice.multiply(BigDecimal.ONE.subtract(band)).setScale(2, RoundingMode.FLOOR);
+    }
+
+    @Override
+    public String executeOrder(Order order) {
+        return executeOrder(order, null);
+    }
+
+    @Override
+    public String executeOrder(Order order, BigDecimal worstPrice) {
+        long quantity = order.getQuantity() * FixedPoint.ONE;
+        boolean buy = order.getSide() == Order.Side.BUY;
+        long limit = worstPrice != null ? FixedPoint.fromBigDecimal(worstPrice)
+                : buy ? Long.MAX_VALUE : Long.MIN_VALUE;
+        MatchingEngine.Execution execution = matchingEngine.submitFillOrKill(order.getSymbol(), order.getId(),
+                order.getSide(), limit, quantity);
+        if (execution.filledQuantity() == 0) {
+            throw new IllegalStateException("Insufficient liquidity in the " + order.getSymbol() + " book for "
+                    + order.getQuantity() + " units" + (worstPrice == null ? "" : " within " + worstPrice));
+        }
+
+        BigDecimal averagePrice = execution.averagePrice();
+        order.setExecutionPrice(averagePrice.setScale(2, RoundingMode.HALF_UP));
+        log.info("[MATCHING] Order {} {} {} {} filled at avg {}", order.getId(), order.getSide(),
+                order.getQuantity(), order.getSymbol(), averagePrice);
+        return "MATCH-" + order.getId();
+    }
+}
@@ -2,11 +2,21 @@ package com.example.Apex.config;
 
 import com.example.Apex.client.AIClient;
 import com.example.Apex.client.BrokerClient;
+import com.example.Apex.client.BrokerType;
+import com.example.Apex.client.CachingAIClient;
 import com.example.Apex.client.MockAIClient;
+import com.example.Apex.client.MatchingBrokerClient;
 import com.example.Apex.client.MockBrokerClient;
+import com.example.Apex.market.MarketDataService;
+import com.example.Apex.matching.MatchingEngine;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Clock;
+import java.time.Duration;
+
 /**
  * Configuration for external client beans.
  * Allows easy switching between mock and real implementations.
@@ -15,20 +25,34 @@ import org.springframework.context.annotation.Configuration;
 public class ClientConfig {
 
     /**
-     * Default broker client (mock for now).
+     * Broker client selected by apex.broker.type: MOCK (default) or MATCHING,
+     * which routes orders to the in-memory order books.
      * Replace with @Profile("prod") real implementation when available.
      */
     @Bean
-    public BrokerClient brokerClient() {
-        return new MockBrokerClient();
+    public BrokerClient brokerClient(@Value("${apex.broker.type:MOCK}") BrokerType brokerType,
+            MatchingEngine matchingEngine, MarketDataService marketDataService,
+            @Value("${apex.broker.max-slippage-bps:50}") int maxSlippageBps) {
+        return switch (brokerType) {
+            case MOCK -> new MockBrokerClient();
+            case MATCHING -> new MatchingBrokerClient(matchingEngine, marketDataService, maxSlippageBps);
+        };
     }
 
     /**
-     * Default AI client (mock for now).
-     * Replace with @Profile("prod") real implementation when available.
+     * Default AI client (mock for now), behind a per-symbol sentiment cache.
+     * Replace the delegate with a @Profile("prod") real implementation when
+     * available.
      */
     @Bean
-    public AIClient aiClient() {
-        return new MockAIClient();
+    public AIClient aiClient(MeterRegistry meterRegistry,
+            @Value("${apex.ai.cache.ttl-ms:30000}") long ttlMs,
+            @Value("${apex.ai.cache.refresh-ahead-ms:5000}") long refreshAheadMs,
+            @Value("${apex.ai.replay.enabled:true}") boolean replayEnabled,
+            @Value("${apex.ai.replay.seed:0}") long replaySeed,
+            @Value("${apex.ai.replay.bucket-ms:60000}") long replayBucketMs) {
+        return new CachingAIClient(new MockAIClient(), meterRegistry, Clock.systemUTC(),
+                Duration.ofMillis(ttlMs), Duration.ofMillis(refreshAheadMs),
+                replayEnabled, replaySeed, Duration.ofMillis(replayBucketMs));
     }
 }
@@ -1,11 +1,19 @@
 package com.example.Apex.config;
 
+import com.example.Apex.exception.DuplicateRequestInProgressException;
 import com.example.Apex.exception.InsufficientBalanceException;
+import com.example.Apex.exception.InvalidOrderStateTransitionException;
+import com.example.Apex.exception.InvalidRequestException;
 import com.example.Apex.exception.OrderExecutionException;
+import com.example.Apex.exception.OrderNotFoundException;
 import com.example.Apex.exception.RiskViolationException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -23,6 +31,9 @@ import java.util.Map;
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+    @Value("${apex.db.shed-load:false}")
+    private boolean shedLoad;
+
     @ExceptionHandler(InsufficientBalanceException.class)
     public ResponseEntity<Map<String, Object>> handleInsufficientBalance(InsufficientBalanceException ex) {
         log.error("Insufficient balance: {}", ex.getMessage());
@@ -41,6 +52,49 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(ex.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
+    @ExceptionHandler(InvalidOrderStateTransitionException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidTransition(InvalidOrderStateTransitionException ex) {
+        log.warn("Invalid order transition: {}", ex.getMessage());
+        return buildErrorResponse(ex.getMessage(), HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(DuplicateRequestInProgressException.class)
+    public ResponseEntity<Map<String, Object>> handleDuplicateInProgress(DuplicateRequestInProgressException ex) {
+        log.warn("Duplicate request: {}", ex.getMessage());
+        return buildErrorResponse(ex.getMessage(), HttpStatus.CONFLICT);
+    }
+
+    /**
+     * No database connection within the pool's connection-timeout, usually
+     * because every connection is busy: with apex.db.shed-load, shed the
+     * request with 503 instead of queueing it behind the others; otherwise
+     * it is an unexpected error like any other.
+     */
+    @ExceptionHandler({ CannotCreateTransactionException.class, DataAccessResourceFailureException.class })
+    public ResponseEntity<Map<String, Object>> handleDatabaseUnavailable(Exception ex) {
+        if (!shedLoad) {
+            return handleGenericException(ex);
+        }
+        log.warn("Database unavailable: {}", ex.getMessage());
+        ResponseEntity<Map<String, Object>> response = buildErrorResponse("Service busy, please retry",
+                HttpStatus.SERVICE_UNAVAILABLE);
+        return ResponseEntity.status(response.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(response.getBody());
+    }
+
+    @ExceptionHandler(OrderNotFoundException.class)
+    public ResponseEntity<Map<String, Object>> handleOrderNotFound(OrderNotFoundException ex) {
+        log.warn("Order not found: {}", ex.getMessage());
+        return buildErrorResponse(ex.getMessage(), HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidRequest(InvalidRequestException ex) {
+        log.warn("Bad request: {}", ex.getMessage());
+        return buildErrorResponse(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, Object>> handleValidationErrors(MethodArgumentNotValidException ex) {
         Map<String, String> errors = new HashMap<>();
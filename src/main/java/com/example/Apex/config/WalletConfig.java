@@ -0,0 +1,44 @@
+package com.example.Apex.config;
+
+import com.example.Apex.repo.TransactionLedgerRepository;
+import com.example.Apex.repo.WalletRepository;
+import com.example.Apex.wallet.InMemoryWalletStore;
+import com.example.Apex.wallet.LockingWalletStore;
+import com.example.Apex.wallet.OptimisticWalletStore;
+import com.example.Apex.wallet.WalletMode;
+import com.example.Apex.wallet.WalletStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Selects how wallet balances are kept consistent.
+ */
+@Configuration
+public class WalletConfig {
+
+    /**
+     * Wallet store selected by apex.wallet.mode: IN_MEMORY (default, single
+     * node, balances in memory with write-behind), OPTIMISTIC (version-checked
+     * updates, safe with several nodes) or LOCKING (row lock per movement).
+     */
+    @Bean
+    public WalletStore walletStore(@Value("${apex.wallet.mode:IN_MEMORY}") WalletMode mode,
+            WalletRepository walletRepository, TransactionLedgerRepository ledgerRepository,
+            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+            @Value("${apex.wallet.optimistic.max-attempts:10}") int maxAttempts,
+            @Value("${apex.wallet.write-behind.capacity:65536}") int capacity,
+            @Value("${apex.wallet.write-behind.batch-size:500}") int batchSize,
+            @Value("${apex.wallet.write-behind.flush-interval-ms:50}") long flushIntervalMs,
+            @Value("${apex.wallet.write-behind.retry-backoff-ms:500}") long retryBackoffMs) {
+        return switch (mode) {
+            case IN_MEMORY -> new InMemoryWalletStore(walletRepository, ledgerRepository, transactionManager,
+                    meterRegistry, capacity, batchSize, flushIntervalMs, retryBackoffMs);
+            case OPTIMISTIC -> new OptimisticWalletStore(walletRepository, ledgerRepository, transactionManager,
+                    meterRegistry, maxAttempts);
+            case LOCKING -> new LockingWalletStore(walletRepository, ledgerRepository);
+        };
+    }
+}
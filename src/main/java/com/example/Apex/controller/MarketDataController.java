@@ -0,0 +1,139 @@
+package com.example.Apex.controller;
+
+import com.example.Apex.exception.InvalidRequestException;
+import com.example.Apex.market.BinanceWebSocketClient;
+import com.example.Apex.market.Candle;
+import com.example.Apex.market.CandleInterval;
+import com.example.Apex.market.MarketDataService;
+import com.example.Apex.matching.MatchingEngine;
+import com.example.Apex.stream.MarketStreamHub;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * REST controller for market data operations.
+ * Serves aggregated candles and manages the live Binance trade-stream
+ * subscriptions at runtime.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/market")
+@RequiredArgsConstructor
+public class MarketDataController {
+
+    private final BinanceWebSocketClient webSocketClient;
+    private final MarketDataService marketDataService;
+    private final MatchingEngine matchingEngine;
+    private final MarketStreamHub marketStreamHub;
+
+    /**
+     * Get OHLCV candles for a symbol, oldest first. Times are UTC; the range
+     * defaults to the last hour.
+     * GET /api/market/candles/{symbol}?interval=1m&start=...&end=...
+     */
+    @GetMapping("/candles/{symbol}")
+    public ResponseEntity<?> getCandles(
+            @PathVariable String symbol,
+            @RequestParam(defaultValue = "1m") String interval,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        try {
+            CandleInterval candleInterval = CandleInterval.fromCode(interval);
+            LocalDateTime to = end != null ? end : LocalDateTime.now(ZoneOffset.UTC);
+            LocalDateTime from = start != null ? start : to.minusHours(1);
+            List<Candle> candles = marketDataService.getCandles(symbol.toUpperCase(), candleInterval, from, to);
+            return ResponseEntity.ok(candles);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Server-sent events: a "candle" event with the open bar of the interval
+     * after each trade, conflated for slow clients.
+     * GET /api/market/candles/{symbol}/stream?interval=1m
+     */
+    @GetMapping(value = "/candles/{symbol}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> streamCandles(@PathVariable String symbol,
+            @RequestParam(defaultValue = "1m") String interval) {
+        try {
+            return marketStreamHub.candles(symbol.toUpperCase(), CandleInterval.fromCode(interval));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException(e.getMessage());
+        }
+    }
+
+    /**
+     * Server-sent events: a "tick" event per trade, conflated to the latest
+     * for slow clients.
+     * GET /api/market/ticks/{symbol}/stream
+     */
+    @GetMapping(value = "/ticks/{symbol}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> streamTicks(@PathVariable String symbol) {
+        try {
+            return marketStreamHub.ticks(symbol.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException(e.getMessage());
+        }
+    }
+
+    /**
+     * Aggregated price levels of the in-memory order book, best first.
+     * GET /api/market/book/{symbol}?depth=10
+     */
+    @GetMapping("/book/{symbol}")
+    public MatchingEngine.BookSnapshot getBook(@PathVariable String symbol,
+            @RequestParam(defaultValue = "10") int depth) {
+        return matchingEngine.snapshot(symbol.toUpperCase(), Math.max(1, depth));
+    }
+
+    /**
+     * List currently streamed symbols.
+     * GET /api/market/subscriptions
+     */
+    @GetMapping("/subscriptions")
+    public Set<String> getSubscriptions() {
+        return webSocketClient.getSubscribedSymbols();
+    }
+
+    /**
+     * Start streaming a symbol.
+     * POST /api/market/subscriptions/{symbol}
+     */
+    @PostMapping("/subscriptions/{symbol}")
+    public ResponseEntity<?> subscribe(@PathVariable String symbol) {
+        log.info("Subscribing to {}", symbol);
+        try {
+            webSocketClient.subscribe(symbol);
+            return ResponseEntity.ok(webSocketClient.getSubscribedSymbols());
+        } catch (IllegalStateException | IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Stop streaming a symbol.
+     * DELETE /api/market/subscriptions/{symbol}
+     */
+    @DeleteMapping("/subscriptions/{symbol}")
+    public ResponseEntity<?> unsubscribe(@PathVariable String symbol) {
+        log.info("Unsubscribing from {}", symbol);
+        try {
+            webSocketClient.unsubscribe(symbol);
+            return ResponseEntity.ok(webSocketClient.getSubscribedSymbols());
+        } catch (IllegalStateException | IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
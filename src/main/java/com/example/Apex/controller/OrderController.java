@@ -1,7 +1,9 @@
 package com.example.Apex.controller;
 
+import com.example.Apex.idempotency.IdempotencyCache;
 import com.example.Apex.model.Order;
 import com.example.Apex.model.dto.OrderRequest;
+import com.example.Apex.sequencer.OrderSequencer;
 import com.example.Apex.service.OrderExecutionService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -15,23 +17,38 @@ import org.springframework.web.bind.annotation.*;
 public class OrderController {
 
     private final OrderExecutionService orderExecutionService;
+    private final OrderSequencer orderSequencer;
+    private final IdempotencyCache idempotencyCache;
 
     @PostMapping
     public ResponseEntity<Order> createOrder(
             @RequestHeader("Idempotency-Key") String idempotencyKey,
             @Valid @RequestBody OrderRequest request) {
 
-        Order order = orderExecutionService.executeOrder(
-                request.getUserId(),
-                request.getSymbol(),
-                request.getSide(),
-                request.getQuantity(),
-                idempotencyKey);
+        boolean sequenced = orderSequencer.isEnabled()
+                && (request.getType() == null || request.getType() == Order.OrderType.MARKET);
+        Order order = sequenced
+                ? orderSequencer.submit(request, idempotencyKey)
+                : idempotencyCache.execute(idempotencyKey,
+                        () -> orderExecutionService.executeOrder(request, idempotencyKey));
 
         if (order.getStatus() == Order.OrderStatus.REJECTED) {
             return ResponseEntity.badRequest().body(order);
         }
+        if (order.getId() == null) {
+            // Journaled by the sequencer but not yet written to the database.
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(order);
+        }
 
         return ResponseEntity.status(HttpStatus.CREATED).body(order);
     }
+
+    /**
+     * Cancels the unfilled remainder of a working limit or stop order.
+     * DELETE /api/orders/{id}
+     */
+    @DeleteMapping("/{id}")
+    public Order cancelOrder(@PathVariable Long id) {
+        return orderExecutionService.cancelOrder(id);
+    }
 }
@@ -2,13 +2,17 @@ package com.example.Apex.controller;
 
 import com.example.Apex.model.dto.PortfolioSummary;
 import com.example.Apex.portfolio.PortfolioService;
+import com.example.Apex.stream.PortfolioStreamService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
 
 /**
  * REST controller for portfolio operations.
@@ -21,6 +25,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class PortfolioController {
 
     private final PortfolioService portfolioService;
+    private final PortfolioStreamService portfolioStreamService;
 
     /**
      * Get complete portfolio summary for a user.
@@ -32,4 +37,15 @@ public class PortfolioController {
         PortfolioSummary summary = portfolioService.getPortfolioSummary(userId);
         return ResponseEntity.ok(summary);
     }
+
+    /**
+     * Server-sent events: "portfolio" snapshots whenever the valuation changes
+     * and "order" events for each status change of the user's orders.
+     * GET /portfolio/{userId}/stream
+     */
+    @GetMapping(value = "/{userId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> streamPortfolio(@PathVariable Long userId) {
+        log.info("Opening portfolio stream for user {}", userId);
+        return portfolioStreamService.subscribe(userId);
+    }
 }
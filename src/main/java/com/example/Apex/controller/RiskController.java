@@ -0,0 +1,86 @@
+package com.example.Apex.controller;
+
+import com.example.Apex.risk.RiskRuleEngine;
+import com.example.Apex.risk.RiskRuleSet;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST controller for the risk rules.
+ * Shows the active rules and their compiled chains and swaps rules at
+ * runtime without a restart. Rules sent in a request are only accepted with
+ * apex.risk.api-replace-enabled, as the API is not authenticated; reloading
+ * from apex.risk.rules always is. Every change is audit-logged.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/risk")
+@RequiredArgsConstructor
+public class RiskController {
+
+    private final RiskRuleEngine riskRuleEngine;
+
+    @Value("${apex.risk.api-replace-enabled:false}")
+    private boolean replaceEnabled;
+
+    /**
+     * Active rules.
+     * GET /api/risk/rules
+     */
+    @GetMapping("/rules")
+    public RiskRuleSet getRules() {
+        return riskRuleEngine.current();
+    }
+
+    /**
+     * Replace the active rules until the next reload or restart; 403 unless
+     * apex.risk.api-replace-enabled is set, 400 if the rules are invalid.
+     * PUT /api/risk/rules
+     */
+    @PutMapping("/rules")
+    public ResponseEntity<?> replaceRules(@RequestBody RiskRuleSet rules,
+            HttpServletRequest request) {
+        if (!replaceEnabled) {
+            log.warn("[RISK AUDIT] Refused rule replacement from {}: apex.risk.api-replace-enabled is off",
+                    request.getRemoteAddr());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        RiskRuleSet previous = riskRuleEngine.current();
+        try {
+            riskRuleEngine.replace(rules);
+        } catch (IllegalArgumentException e) {
+            log.warn("[RISK AUDIT] Rejected invalid rules from {}: {}", request.getRemoteAddr(), e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        log.warn("[RISK AUDIT] Rules replaced by {}: {} -> {}", request.getRemoteAddr(), previous, rules);
+        return ResponseEntity.ok(riskRuleEngine.chains());
+    }
+
+    /**
+     * Re-read the rules from apex.risk.rules.
+     * POST /api/risk/rules/reload
+     */
+    @PostMapping("/rules/reload")
+    public List<RiskRuleEngine.RuleView> reloadRules(HttpServletRequest request) {
+        RiskRuleSet previous = riskRuleEngine.current();
+        RiskRuleSet rules = riskRuleEngine.reload();
+        log.warn("[RISK AUDIT] Rules reloaded by {}: {} -> {}", request.getRemoteAddr(), previous, rules);
+        return riskRuleEngine.chains();
+    }
+
+    /**
+     * Compiled chains in evaluation order, with evaluation and rejection counts.
+     * GET /api/risk/rules/chains
+     */
+    @GetMapping("/rules/chains")
+    public List<RiskRuleEngine.RuleView> getChains() {
+        return riskRuleEngine.chains();
+    }
+}
@@ -1,20 +1,27 @@
 package com.example.Apex.controller;
 
+import com.example.Apex.market.CandleInterval;
 import com.example.Apex.market.MarketDataService;
 import com.example.Apex.market.MarketTick;
 import com.example.Apex.market.MarketTickRepository;
 import com.example.Apex.model.dto.BacktestRequest;
+import com.example.Apex.model.dto.SweepRequest;
 import com.example.Apex.service.BacktestService;
+import com.example.Apex.service.ParameterSweepService;
+import com.example.Apex.service.SweepJob;
+import com.example.Apex.strategy.LiveSignalEngine;
 import com.example.Apex.strategy.StrategyRegistry;
 import com.example.Apex.strategy.StrategySignal;
 import com.example.Apex.strategy.TradingStrategy;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
 @RestController
@@ -22,24 +29,58 @@ import java.util.Set;
 @RequiredArgsConstructor
 public class StrategyController {
 
+    private static final int MAX_BARS = 1000;
+
     private final StrategyRegistry strategyRegistry;
     private final BacktestService backtestService;
     private final MarketTickRepository marketTickRepository; // Direct access for MVP signal generation
     private final MarketDataService marketDataService;
+    private final ParameterSweepService parameterSweepService;
+    private final LiveSignalEngine liveSignalEngine;
 
     @GetMapping
     public Set<String> listStrategies() {
         return strategyRegistry.getAllStrategyNames();
     }
 
+    /**
+     * With symbol alone, stateful strategies answer from the live stream in
+     * O(1). With symbol and interval, the strategy runs over the most recent
+     * {@code bars} candles (clamped to 1..MAX_BARS) instead of every stored
+     * tick.
+     */
     @PostMapping("/{name}/signal")
-    public ResponseEntity<?> getSignal(@PathVariable String name) {
+    public ResponseEntity<?> getSignal(@PathVariable String name,
+            @RequestParam(required = false) String symbol,
+            @RequestParam(required = false) String interval,
+            @RequestParam(defaultValue = "200") int bars) {
         TradingStrategy strategy = strategyRegistry.getStrategy(name);
         if (strategy == null) {
             return ResponseEntity.notFound().build();
         }
 
-        List<MarketTick> history = marketTickRepository.findAll(); // Simplified for MVP: fetch all.
+        if (symbol != null && interval == null) {
+            Optional<StrategySignal> live = liveSignalEngine.getLatestSignal(symbol, name);
+            if (live.isPresent()) {
+                return ResponseEntity.ok(live.get());
+            }
+        }
+
+        List<MarketTick> history;
+        if (symbol != null && interval != null) {
+            CandleInterval candleInterval;
+            try {
+                candleInterval = CandleInterval.fromCode(interval);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(e.getMessage());
+            }
+            int count = Math.max(1, Math.min(bars, MAX_BARS));
+            history = marketDataService.getRecentCandles(symbol, candleInterval, count).stream()
+                    .map(c -> new MarketTick(c.getSymbol(), c.getClose(), c.getCloseTime()))
+                    .toList();
+        } else {
+            history = marketTickRepository.findAll(); // Simplified for MVP: fetch all.
+        }
 
         if (history.isEmpty()) {
             return ResponseEntity.badRequest().body("No market data available");
@@ -56,6 +97,8 @@ public class StrategyController {
         try {
             BacktestService.BacktestResult result = backtestService.runBacktest(
                     request.getStrategyName(),
+                    request.getSymbol(),
+                    request.getInterval(),
                     request.getStart(),
                     request.getEnd());
             return ResponseEntity.ok(result);
@@ -63,4 +106,37 @@ public class StrategyController {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
+
+    /**
+     * Starts a parameter sweep in the background. Poll the returned job for
+     * progress and the ranked results.
+     */
+    @PostMapping("/sweeps")
+    public ResponseEntity<?> startSweep(@RequestBody SweepRequest request) {
+        try {
+            SweepJob job = parameterSweepService.submit(request);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/sweeps")
+    public Collection<SweepJob> listSweeps() {
+        return parameterSweepService.getJobs();
+    }
+
+    @GetMapping("/sweeps/{id}")
+    public ResponseEntity<SweepJob> getSweep(@PathVariable String id) {
+        return ResponseEntity.of(parameterSweepService.getJob(id));
+    }
+
+    @DeleteMapping("/sweeps/{id}")
+    public ResponseEntity<Void> cancelSweep(@PathVariable String id) {
+        if (parameterSweepService.getJob(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        parameterSweepService.cancel(id);
+        return ResponseEntity.noContent().build();
+    }
 }
@@ -0,0 +1,11 @@
+package com.example.Apex.exception;
+
+/**
+ * Exception thrown when a request reuses an idempotency key whose first
+ * request is still being processed and did not finish in time.
+ */
+public class DuplicateRequestInProgressException extends RuntimeException {
+    public DuplicateRequestInProgressException(String idempotencyKey) {
+        super("A request with idempotency key " + idempotencyKey + " is still in progress");
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.Apex.exception;
+
+/**
+ * Exception thrown when a request is well-formed but one of its values is
+ * invalid, e.g. a LIMIT order without a limit price.
+ */
+public class InvalidRequestException extends RuntimeException {
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.Apex.exception;
+
+/**
+ * Exception thrown when a request refers to an order that does not exist.
+ */
+public class OrderNotFoundException extends RuntimeException {
+    public OrderNotFoundException(Long orderId) {
+        super("Order not found: " + orderId);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.Apex.exception;
+
+/**
+ * Exception thrown when a concurrent order pipeline stage, e.g. a broker or
+ * AI lookup, does not finish within its configured timeout.
+ */
+public class StageTimeoutException extends RuntimeException {
+    public StageTimeoutException(String message) {
+        super(message);
+    }
+}
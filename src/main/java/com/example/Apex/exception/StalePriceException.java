@@ -0,0 +1,11 @@
+package com.example.Apex.exception;
+
+/**
+ * Exception thrown when the latest known price for a symbol is older than the
+ * configured staleness threshold and cannot be used to price an order.
+ */
+public class StalePriceException extends RuntimeException {
+    public StalePriceException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.Apex.execution;
+
+/**
+ * How {@link AuditTrailWriter} stores order state transitions, selected via
+ * apex.audit.mode.
+ */
+public enum AuditMode {
+    /** Saved in the order's own transaction; commits or rolls back with it. */
+    IN_TRANSACTION,
+    /** Queued after commit and written in JDBC batches by a background thread. */
+    ASYNC
+}
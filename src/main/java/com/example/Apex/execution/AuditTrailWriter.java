@@ -0,0 +1,281 @@
+package com.example.Apex.execution;
+
+import com.example.Apex.model.OrderAuditLog;
+import com.example.Apex.repo.OrderAuditLogRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stores the audit rows produced by {@link OrderStateMachine}.
+ *
+ * In {@link AuditMode#IN_TRANSACTION} mode each row is saved in the caller's
+ * transaction. In {@link AuditMode#ASYNC} mode rows are queued once the
+ * order's transaction commits (so rolled-back transitions are never audited)
+ * and a single writer thread inserts them with one JDBC batch per flush; JPA
+ * cannot batch these inserts because of the IDENTITY key.
+ *
+ * Delivery is at-least-once: a failed batch is retried until it commits, and
+ * when the buffer is full the committing thread writes its row itself rather
+ * than dropping it. Rows still queued when the process dies are lost, which
+ * is what IN_TRANSACTION mode is for.
+ *
+ * A batch the database rejects as invalid is split in halves until the
+ * offending rows are isolated; those are dead-lettered (logged with their
+ * contents and counted) and the rest are written, so one bad row cannot stall
+ * the writer. Rows missing a required column are dead-lettered before they
+ * are queued.
+ *
+ * Metrics: apex.audit.queue.depth, apex.audit.flush.latency,
+ * apex.audit.written, apex.audit.retries, apex.audit.caller-writes,
+ * apex.audit.dead-lettered.
+ */
+@Component
+@Slf4j
+public class AuditTrailWriter {
+
+    static final String INSERT_SQL =
+            "INSERT INTO order_audit_logs (order_id, old_status, new_status, timestamp) VALUES (?, ?, ?, ?)";
+
+    private final OrderAuditLogRepository auditLogRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${apex.audit.mode:ASYNC}")
+    private AuditMode mode;
+
+    @Value("${apex.audit.buffer-capacity:16384}")
+    private int capacity;
+
+    @Value("${apex.audit.batch-size:500}")
+    private int batchSize;
+
+    @Value("${apex.audit.flush-interval-ms:50}")
+    private long flushIntervalMs;
+
+    @Value("${apex.audit.retry-backoff-ms:500}")
+    private long retryBackoffMs;
+
+    private ArrayBlockingQueue<OrderAuditLog> buffer;
+    private Thread writer;
+    private volatile boolean running;
+
+    private Timer flushLatency;
+    private Counter written;
+    private Counter retries;
+    private Counter callerWrites;
+    private Counter deadLettered;
+
+    public AuditTrailWriter(OrderAuditLogRepository auditLogRepository, JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.auditLogRepository = auditLogRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        // Rows are written from afterCommit callbacks, where joining the finished transaction is not allowed.
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void start() {
+        buffer = new ArrayBlockingQueue<>(capacity);
+        Gauge.builder("apex.audit.queue.depth", buffer, ArrayBlockingQueue::size)
+                .description("Audit rows waiting to be written")
+                .register(meterRegistry);
+        flushLatency = Timer.builder("apex.audit.flush.latency")
+                .description("Time taken to write one batch of audit rows")
+                .register(meterRegistry);
+        written = meterRegistry.counter("apex.audit.written");
+        retries = meterRegistry.counter("apex.audit.retries");
+        callerWrites = meterRegistry.counter("apex.audit.caller-writes");
+        deadLettered = meterRegistry.counter("apex.audit.dead-lettered");
+
+        if (mode == AuditMode.ASYNC) {
+            running = true;
+            writer = new Thread(this::drainLoop, "audit-writer");
+            writer.setDaemon(true);
+            writer.start();
+        }
+        log.info("[AUDIT] Audit trail mode {}, capacity={}, batchSize={}", mode, capacity, batchSize);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        if (!buffer.isEmpty()) {
+            log.error("[AUDIT] {} audit rows were not written before shutdown", buffer.size());
+        }
+    }
+
+    /**
+     * Stores one transition according to the configured {@link AuditMode}.
+     */
+    public void record(OrderAuditLog entry) {
+        if (mode == AuditMode.IN_TRANSACTION) {
+            auditLogRepository.save(entry);
+            return;
+        }
+        if (entry.getOrderId() == null || entry.getNewStatus() == null || entry.getTimestamp() == null) {
+            deadLetter(entry, "missing order id, status or timestamp");
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(entry);
+                }
+            });
+        } else {
+            enqueue(entry);
+        }
+    }
+
+    public int getQueueDepth() {
+        return buffer.size();
+    }
+
+    private void enqueue(OrderAuditLog entry) {
+        if (buffer.offer(entry)) {
+            return;
+        }
+        // Backpressure instead of loss: the committing thread pays for its own row.
+        callerWrites.increment();
+        try {
+            write(List.of(entry));
+        } catch (DataIntegrityViolationException e) {
+            deadLetter(entry, e.getMessage());
+        }
+    }
+
+    private void drainLoop() {
+        List<OrderAuditLog> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            try {
+                collectBatch(batch);
+            } catch (InterruptedException e) {
+                // Shutdown requested: drain whatever is left without waiting.
+                buffer.drainTo(batch, batchSize - batch.size());
+            }
+            if (batch.isEmpty()) {
+                continue;
+            }
+            List<OrderAuditLog> pending = tryWrite(batch);
+            while (!pending.isEmpty()) {
+                retries.increment();
+                if (!running) {
+                    // One last attempt was made during shutdown; hand the rows back for the final report.
+                    pending.forEach(buffer::offer);
+                    return;
+                }
+                try {
+                    Thread.sleep(retryBackoffMs);
+                } catch (InterruptedException e) {
+                    // Shutdown: retry once more without waiting.
+                }
+                pending = tryWrite(pending);
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Fills the batch until it reaches batchSize or the flush interval since
+     * the first row has elapsed.
+     */
+    private void collectBatch(List<OrderAuditLog> batch) throws InterruptedException {
+        OrderAuditLog first = buffer.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        while (batch.size() < batchSize) {
+            buffer.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0) {
+                break;
+            }
+            OrderAuditLog next = buffer.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+    }
+
+    /**
+     * Writes the batch, isolating rows the database rejects as invalid.
+     *
+     * @return the rows to retry after a failure that is not about the rows
+     *         themselves (connection loss, timeout); empty when all are written
+     *         or dead-lettered
+     */
+    private List<OrderAuditLog> tryWrite(List<OrderAuditLog> batch) {
+        try {
+            write(batch);
+            return List.of();
+        } catch (DataIntegrityViolationException e) {
+            if (batch.size() == 1) {
+                deadLetter(batch.get(0), e.getMessage());
+                return List.of();
+            }
+            int half = batch.size() / 2;
+            List<OrderAuditLog> failed = new ArrayList<>(tryWrite(batch.subList(0, half)));
+            failed.addAll(tryWrite(batch.subList(half, batch.size())));
+            return failed;
+        } catch (RuntimeException e) {
+            log.error("[AUDIT] Failed to write {} audit rows, will retry: {}", batch.size(), e.getMessage());
+            return new ArrayList<>(batch);
+        }
+    }
+
+    private void deadLetter(OrderAuditLog entry, String reason) {
+        deadLettered.increment();
+        log.error("[AUDIT] Dead-lettered audit row order={} {} -> {} at {}: {}", entry.getOrderId(),
+                entry.getOldStatus(), entry.getNewStatus(), entry.getTimestamp(), reason);
+    }
+
+    private void write(List<OrderAuditLog> batch) {
+        long start = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, batch,
+                    batch.size(), (ps, entry) -> {
+                        ps.setLong(1, entry.getOrderId());
+                        ps.setString(2, entry.getOldStatus() == null ? null : entry.getOldStatus().name());
+                        ps.setString(3, entry.getNewStatus().name());
+                        ps.setTimestamp(4, Timestamp.valueOf(entry.getTimestamp()));
+                    }));
+            written.increment(batch.size());
+            log.debug("[AUDIT] Wrote {} audit rows", batch.size());
+        } finally {
+            flushLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
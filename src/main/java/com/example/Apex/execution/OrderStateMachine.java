@@ -4,14 +4,16 @@ import com.example.Apex.exception.InvalidOrderStateTransitionException;
 import com.example.Apex.model.Order;
 import com.example.Apex.model.Order.OrderStatus;
 import com.example.Apex.model.OrderAuditLog;
-import com.example.Apex.repo.OrderAuditLogRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 import java.util.EnumMap;
 import java.util.EnumSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -26,15 +28,24 @@ import java.util.Set;
  * PENDING_VALIDATION → REJECTED
  * VALIDATED → FILLED
  * VALIDATED → REJECTED
+ * VALIDATED → WORKING (resting limit/stop order)
+ * WORKING → PARTIALLY_FILLED, FILLED, CANCELLED, REJECTED
+ * PARTIALLY_FILLED → PARTIALLY_FILLED (a further partial fill), FILLED, CANCELLED
  *
  * All other transitions throw {@link InvalidOrderStateTransitionException}.
+ *
+ * Audit rows are handed to {@link AuditTrailWriter}, which either saves them
+ * in the caller's transaction or batches them after commit (apex.audit.mode).
+ * Each transition is also published to the {@link OrderStatusListener}s once
+ * it commits.
  */
 @Component
 @Slf4j
 @RequiredArgsConstructor
 public class OrderStateMachine {
 
-    private final OrderAuditLogRepository auditLogRepository;
+    private final AuditTrailWriter auditTrailWriter;
+    private final List<OrderStatusListener> statusListeners;
 
     /**
      * Central transition map — the one and only definition of valid state changes.
@@ -47,8 +58,13 @@ public class OrderStateMachine {
         ALLOWED_TRANSITIONS.put(OrderStatus.PENDING_VALIDATION,
                 EnumSet.of(OrderStatus.VALIDATED, OrderStatus.REJECTED));
         ALLOWED_TRANSITIONS.put(OrderStatus.VALIDATED,
-                EnumSet.of(OrderStatus.FILLED, OrderStatus.REJECTED));
-        // FILLED and REJECTED are terminal — no outgoing transitions
+                EnumSet.of(OrderStatus.FILLED, OrderStatus.REJECTED, OrderStatus.WORKING));
+        ALLOWED_TRANSITIONS.put(OrderStatus.WORKING,
+                EnumSet.of(OrderStatus.PARTIALLY_FILLED, OrderStatus.FILLED, OrderStatus.CANCELLED,
+                        OrderStatus.REJECTED));
+        ALLOWED_TRANSITIONS.put(OrderStatus.PARTIALLY_FILLED,
+                EnumSet.of(OrderStatus.PARTIALLY_FILLED, OrderStatus.FILLED, OrderStatus.CANCELLED));
+        // FILLED, REJECTED and CANCELLED are terminal — no outgoing transitions
     }
 
     /**
@@ -60,6 +76,55 @@ public class OrderStateMachine {
      *                                              allowed map
      */
     public void transition(Order order, OrderStatus targetStatus) {
+        OrderStatus previousStatus = order.getStatus();
+        // Record audit trail for every valid transition
+        auditTrailWriter.record(transitionDeferred(order, targetStatus));
+        publishAfterCommit(List.of(OrderStatusEvent.of(order, previousStatus)));
+    }
+
+    /**
+     * Hands events to the status listeners once the current transaction
+     * commits; callers of {@link #transitionDeferred} publish their own.
+     */
+    public void publishAfterCommit(List<OrderStatusEvent> events) {
+        if (statusListeners.isEmpty() || events.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(events);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish(events);
+            }
+        });
+    }
+
+    private void publish(List<OrderStatusEvent> events) {
+        for (OrderStatusEvent event : events) {
+            for (OrderStatusListener listener : statusListeners) {
+                try {
+                    listener.onOrderStatus(event);
+                } catch (RuntimeException e) {
+                    log.error("[STATE_MACHINE] Status listener {} failed for Order#{}: {}",
+                            listener.getClass().getSimpleName(), event.orderId(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Validates and commits a transition exactly like {@link #transition} but
+     * returns the audit record instead of saving it, for callers that persist
+     * in batches. The record carries the order's id at call time, which may
+     * still be null.
+     *
+     * @throws InvalidOrderStateTransitionException if the transition is not in the
+     *                                              allowed map
+     */
+    public OrderAuditLog transitionDeferred(Order order, OrderStatus targetStatus) {
         OrderStatus currentStatus = order.getStatus();
         Set<OrderStatus> allowedTargets = ALLOWED_TRANSITIONS.getOrDefault(currentStatus,
                 EnumSet.noneOf(OrderStatus.class));
@@ -70,18 +135,16 @@ public class OrderStateMachine {
             throw new InvalidOrderStateTransitionException(currentStatus, targetStatus);
         }
 
-        log.info("[STATE_MACHINE] Order#{} transitioning: {} → {}", order.getId(), currentStatus, targetStatus);
+        log.debug("[STATE_MACHINE] Order#{} transitioning: {} → {}", order.getId(), currentStatus, targetStatus);
 
         // Commit the transition
         order.setStatus(targetStatus);
 
-        // Persist audit trail for every valid transition
-        OrderAuditLog auditLog = OrderAuditLog.builder()
+        return OrderAuditLog.builder()
                 .orderId(order.getId())
                 .oldStatus(currentStatus)
                 .newStatus(targetStatus)
                 .timestamp(LocalDateTime.now())
                 .build();
-        auditLogRepository.save(auditLog);
     }
 }
@@ -0,0 +1,20 @@
+package com.example.Apex.execution;
+
+import com.example.Apex.model.Order;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Immutable view of an order right after one status transition.
+ */
+public record OrderStatusEvent(Long orderId, Long userId, String symbol, Order.Side side, Order.OrderType type,
+        Integer quantity, Integer filledQuantity, Order.OrderStatus previousStatus, Order.OrderStatus status,
+        BigDecimal price, BigDecimal executionPrice, String rejectionReason, LocalDateTime timestamp) {
+
+    public static OrderStatusEvent of(Order order, Order.OrderStatus previousStatus) {
+        return new OrderStatusEvent(order.getId(), order.getUserId(), order.getSymbol(), order.getSide(),
+                order.getType(), order.getQuantity(), order.getFilledQuantity(), previousStatus, order.getStatus(),
+                order.getPrice(), order.getExecutionPrice(), order.getRejectionReason(), LocalDateTime.now());
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.Apex.execution;
+
+/**
+ * Callback for consumers of order status changes.
+ *
+ * Invoked by {@link OrderStateMachine} once the transaction that made the
+ * change has committed (immediately outside a transaction), on the
+ * committing thread. Implementations must be fast and must not block; an
+ * exception is logged and does not affect the order.
+ */
+public interface OrderStatusListener {
+
+    void onOrderStatus(OrderStatusEvent event);
+}
@@ -0,0 +1,161 @@
+package com.example.Apex.execution;
+
+import com.example.Apex.market.FixedPoint;
+import com.example.Apex.market.TradeListener;
+import com.example.Apex.model.Order;
+import com.example.Apex.repo.OrderRepository;
+import com.example.Apex.service.RestingOrderService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Triggers working limit and stop orders from the live trade stream.
+ *
+ * Each symbol has a {@link TriggerBook}; a trade only visits the price levels
+ * it crossed, and symbols without working orders cost one map lookup. Fills
+ * found on the stream thread are handed to a single "order-fills" thread that
+ * applies them through {@link RestingOrderService}, so the stream never waits
+ * on the database. Cancels run on the same thread, after any fill already
+ * queued for the order.
+ *
+ * Working orders are reloaded from the database on startup.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderTriggerEngine implements TradeListener {
+
+    private final RestingOrderService restingOrderService;
+    private final OrderRepository orderRepository;
+
+    /** Share of each crossing trade's volume that resting limit orders may fill. */
+    @Value("${apex.orders.fill-participation:1.0}")
+    private double fillParticipation;
+
+    private final Map<String, TriggerBook> books = new ConcurrentHashMap<>();
+    private final Map<Long, String> workingSymbols = new ConcurrentHashMap<>();
+    private ExecutorService fillExecutor;
+
+    @PostConstruct
+    void start() {
+        fillExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "order-fills");
+            thread.setDaemon(true);
+            return thread;
+        });
+        List<Order> working = orderRepository.findByStatusIn(
+                EnumSet.of(Order.OrderStatus.WORKING, Order.OrderStatus.PARTIALLY_FILLED));
+        working.forEach(this::register);
+        log.info("[TRIGGER] Reloaded {} working orders", working.size());
+    }
+
+    @PreDestroy
+    void stop() {
+        fillExecutor.shutdown();
+    }
+
+    /**
+     * Starts watching a WORKING or PARTIALLY_FILLED limit or stop order.
+     * Call only once the order is committed.
+     */
+    public void register(Order order) {
+        boolean stop = order.getType() == Order.OrderType.STOP;
+        long price = FixedPoint.fromBigDecimal(stop ? order.getStopPrice() : order.getLimitPrice());
+        TriggerBook book = books.computeIfAbsent(order.getSymbol(), s -> new TriggerBook());
+        synchronized (book) {
+            book.add(order.getId(), order.getSide() == Order.Side.BUY, stop, price, order.getRemainingQuantity());
+        }
+        workingSymbols.put(order.getId(), order.getSymbol());
+    }
+
+    /**
+     * Withdraws a working order and cancels its remainder.
+     *
+     * @throws com.example.Apex.exception.OrderNotFoundException if the order
+     *         does not exist
+     * @throws com.example.Apex.exception.InvalidOrderStateTransitionException
+     *         if it is no longer working
+     */
+    public Order cancel(Long orderId) {
+        try {
+            return fillExecutor.submit(() -> {
+                withdraw(orderId);
+                return restingOrderService.cancel(orderId);
+            }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while cancelling order " + orderId, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    public int getWorkingOrderCount() {
+        return workingSymbols.size();
+    }
+
+    @Override
+    public void onTrade(String symbol, long eventTime, long priceE8, long quantityE8) {
+        TriggerBook book = books.get(symbol);
+        if (book == null) {
+            return;
+        }
+        List<TriggerBook.Fill> fills;
+        synchronized (book) {
+            if (book.isEmpty()) {
+                return;
+            }
+            fills = new ArrayList<>(2);
+            book.onTrade(priceE8, (long) (quantityE8 * fillParticipation), fills);
+        }
+        if (fills.isEmpty()) {
+            return;
+        }
+        for (TriggerBook.Fill fill : fills) {
+            if (fill.complete()) {
+                workingSymbols.remove(fill.orderId());
+            }
+        }
+        fillExecutor.execute(() -> fills.forEach(this::apply));
+    }
+
+    private void apply(TriggerBook.Fill fill) {
+        try {
+            restingOrderService.applyFill(fill.orderId(), fill.quantity(), FixedPoint.toBigDecimal(fill.price()));
+        } catch (Exception e) {
+            log.error("[TRIGGER] Fill of order {} failed, abandoning it: {}", fill.orderId(), e.getMessage());
+            withdraw(fill.orderId());
+            try {
+                restingOrderService.abandon(fill.orderId(), e.getMessage());
+            } catch (Exception abandonFailure) {
+                log.error("[TRIGGER] Could not abandon order {}: {}", fill.orderId(), abandonFailure.getMessage());
+            }
+        }
+    }
+
+    private void withdraw(Long orderId) {
+        String symbol = workingSymbols.remove(orderId);
+        TriggerBook book = symbol == null ? null : books.get(symbol);
+        if (book != null) {
+            synchronized (book) {
+                book.remove(orderId);
+            }
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.Apex.execution;
+
+import com.example.Apex.market.FixedPoint;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Resting limit and stop orders of one symbol, indexed by trigger price so a
+ * trade only visits the price levels it crossed.
+ *
+ * Each of the four order kinds lives in its own price-sorted map whose first
+ * key is the next one to trigger: buy limits highest first (fill when the
+ * trade is at or below), sell limits lowest first (at or above), buy stops
+ * lowest first (at or above) and sell stops highest first (at or below).
+ * Within a level orders keep arrival order.
+ *
+ * Limit orders are filled from the volume of the crossing trades, oldest
+ * order first, accumulating fractional volume until a whole unit is
+ * available; this is what produces partial fills. A triggered stop fills its
+ * whole remainder at the trade price.
+ *
+ * Not thread-safe; {@link OrderTriggerEngine} locks each book.
+ */
+final class TriggerBook {
+
+    /**
+     * @param complete whether this fill leaves the order with nothing to fill
+     */
+    record Fill(long orderId, int quantity, long price, boolean complete) {
+    }
+
+    private final NavigableMap<Long, ArrayDeque<Entry>> buyLimits = new TreeMap<>(Comparator.reverseOrder());
+    private final NavigableMap<Long, ArrayDeque<Entry>> sellLimits = new TreeMap<>();
+    private final NavigableMap<Long, ArrayDeque<Entry>> buyStops = new TreeMap<>();
+    private final NavigableMap<Long, ArrayDeque<Entry>> sellStops = new TreeMap<>(Comparator.reverseOrder());
+    private final Map<Long, Entry> entries = new HashMap<>();
+
+    /**
+     * @param price trigger price: the limit price for limits, the stop price
+     *              for stops, 10^8 fixed point
+     * @throws IllegalArgumentException if the order is already in the book
+     */
+    void add(long orderId, boolean buy, boolean stop, long price, int remaining) {
+        if (entries.containsKey(orderId)) {
+            throw new IllegalArgumentException("Order " + orderId + " is already working");
+        }
+        Entry entry = new Entry(orderId, buy, stop, price, remaining);
+        entries.put(orderId, entry);
+        side(buy, stop).computeIfAbsent(price, p -> new ArrayDeque<>()).addLast(entry);
+    }
+
+    /**
+     * @return false if the order is not in the book
+     */
+    boolean remove(long orderId) {
+        Entry entry = entries.remove(orderId);
+        if (entry == null) {
+            return false;
+        }
+        NavigableMap<Long, ArrayDeque<Entry>> side = side(entry.buy, entry.stop);
+        ArrayDeque<Entry> level = side.get(entry.price);
+        level.remove(entry);
+        if (level.isEmpty()) {
+            side.remove(entry.price);
+        }
+        return true;
+    }
+
+    boolean contains(long orderId) {
+        return entries.containsKey(orderId);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    /**
+     * Applies one trade and appends the resulting fills to {@code fills}.
+     *
+     * @param volume trade quantity available to resting limit orders on each
+     *               side, 10^8 fixed point
+     */
+    void onTrade(long price, long volume, List<Fill> fills) {
+        triggerStops(buyStops, price, true, fills);
+        triggerStops(sellStops, price, false, fills);
+        fillLimits(buyLimits, price, true, volume, fills);
+        fillLimits(sellLimits, price, false, volume, fills);
+    }
+
+    private void triggerStops(NavigableMap<Long, ArrayDeque<Entry>> stops, long price, boolean buy,
+            List<Fill> fills) {
+        Map.Entry<Long, ArrayDeque<Entry>> level;
+        while ((level = stops.firstEntry()) != null && crossed(level.getKey(), price, buy)) {
+            stops.pollFirstEntry();
+            for (Entry entry : level.getValue()) {
+                entries.remove(entry.orderId);
+                fills.add(new Fill(entry.orderId, entry.remaining, price, true));
+            }
+        }
+    }
+
+    private void fillLimits(NavigableMap<Long, ArrayDeque<Entry>> limits, long price, boolean buy, long volume,
+            List<Fill> fills) {
+        Map.Entry<Long, ArrayDeque<Entry>> level;
+        while (volume > 0 && (level = limits.firstEntry()) != null && crossed(level.getKey(), price, !buy)) {
+            ArrayDeque<Entry> queue = level.getValue();
+            while (volume > 0 && !queue.isEmpty()) {
+                Entry entry = queue.peekFirst();
+                long take = Math.min(volume, entry.remaining * FixedPoint.ONE - entry.credit);
+                entry.credit += take;
+                volume -= take;
+
+                int units = (int) (entry.credit / FixedPoint.ONE);
+                if (units == 0) {
+                    continue;
+                }
+                entry.credit -= units * FixedPoint.ONE;
+                entry.remaining -= units;
+                boolean complete = entry.remaining == 0;
+                if (complete) {
+                    queue.pollFirst();
+                    entries.remove(entry.orderId);
+                }
+                fills.add(new Fill(entry.orderId, units, price, complete));
+            }
+            if (queue.isEmpty()) {
+                limits.pollFirstEntry();
+            }
+        }
+    }
+
+    /**
+     * Whether a trade at {@code price} reaches {@code trigger} from below
+     * ({@code upward}, buy stops and sell limits) or from above.
+     */
+    private static boolean crossed(long trigger, long price, boolean upward) {
+        return upward ? price >= trigger : price <= trigger;
+    }
+
+    private NavigableMap<Long, ArrayDeque<Entry>> side(boolean buy, boolean stop) {
+        if (stop) {
+            return buy ? buyStops : sellStops;
+        }
+        return buy ? buyLimits : sellLimits;
+    }
+
+    private static final class Entry {
+
+        private final long orderId;
+        private final boolean buy;
+        private final boolean stop;
+        private final long price;
+        private int remaining;
+        /** Crossing volume credited but not yet a whole unit, 10^8 fixed point. */
+        private long credit;
+
+        Entry(long orderId, boolean buy, boolean stop, long price, int remaining) {
+            this.orderId = orderId;
+            this.buy = buy;
+            this.stop = stop;
+            this.price = price;
+            this.remaining = remaining;
+        }
+    }
+}
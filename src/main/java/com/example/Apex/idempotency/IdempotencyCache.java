@@ -0,0 +1,244 @@
+package com.example.Apex.idempotency;
+
+import com.example.Apex.exception.DuplicateRequestInProgressException;
+import com.example.Apex.model.Order;
+import com.example.Apex.repo.OrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * In-memory idempotency layer in front of the unique index on
+ * {@code orders.idempotency_key}.
+ *
+ * <ul>
+ * <li>{@link #find}: a bounded LRU of recent key → order id answers repeats
+ * with a primary-key read; a {@link TimeWindowedBloomFilter} answers
+ * "definitely new" for most fresh keys without touching the database; only
+ * probable repeats fall through to {@code findByIdempotencyKey}.</li>
+ * <li>{@link #execute}: concurrent requests with the same key are collapsed;
+ * later callers wait for the first one's result instead of racing it to the
+ * unique constraint.</li>
+ * </ul>
+ *
+ * Keys expire from memory after {@code apex.idempotency.ttl} (the filter
+ * keeps them for up to twice that). The unique index stays the backstop:
+ * an expired key, or one placed on another instance, fails the insert and is
+ * answered with the stored order.
+ *
+ * Metrics: apex.idempotency.lookups tagged path=fast|cache|database,
+ * apex.idempotency.joined, apex.idempotency.constraint-fallbacks.
+ */
+@Component
+@Slf4j
+public class IdempotencyCache {
+
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${apex.idempotency.ttl:PT24H}")
+    private Duration ttl;
+
+    @Value("${apex.idempotency.expected-keys:1000000}")
+    private int expectedKeys;
+
+    @Value("${apex.idempotency.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Value("${apex.idempotency.recent-keys:100000}")
+    private int recentKeys;
+
+    @Value("${apex.idempotency.wait-timeout-ms:5000}")
+    private long waitTimeoutMs;
+
+    private TimeWindowedBloomFilter filter;
+    private Map<String, RecentKey> recent;
+    private final Map<String, CompletableFuture<Order>> inFlight = new ConcurrentHashMap<>();
+
+    private Counter fastPath;
+    private Counter cacheHits;
+    private Counter databaseLookups;
+    private Counter joined;
+    private Counter constraintFallbacks;
+
+    private record RecentKey(Long orderId, long expiresAt) {
+    }
+
+    public IdempotencyCache(OrderRepository orderRepository, PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.orderRepository = orderRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void start() {
+        long now = System.currentTimeMillis();
+        filter = new TimeWindowedBloomFilter(expectedKeys, falsePositiveRate, ttl.toMillis(), now);
+        int limit = recentKeys;
+        recent = new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, RecentKey> eldest) {
+                return size() > limit;
+            }
+        };
+
+        fastPath = meterRegistry.counter("apex.idempotency.lookups", "path", "fast");
+        cacheHits = meterRegistry.counter("apex.idempotency.lookups", "path", "cache");
+        databaseLookups = meterRegistry.counter("apex.idempotency.lookups", "path", "database");
+        joined = meterRegistry.counter("apex.idempotency.joined");
+        constraintFallbacks = meterRegistry.counter("apex.idempotency.constraint-fallbacks");
+
+        // Keys placed before a restart must not take the "definitely new" path.
+        long warmed = readOnlyTransaction.execute(status -> {
+            try (Stream<String> keys = orderRepository.streamIdempotencyKeysCreatedSince(
+                    LocalDateTime.now().minus(ttl))) {
+                return keys.peek(key -> filter.put(key, now)).count();
+            }
+        });
+        log.info("[IDEMPOTENCY] Bloom filter {} bits x {} hashes, ttl {}, warmed with {} keys",
+                filter.bitsPerGeneration(), filter.hashFunctions(), ttl, warmed);
+    }
+
+    /**
+     * Looks up the order placed with {@code key}, touching the database only
+     * when the key is probably known.
+     */
+    public Optional<Order> find(String key) {
+        long now = System.currentTimeMillis();
+        RecentKey cached = recentKey(key, now);
+        if (cached != null) {
+            Optional<Order> order = orderRepository.findById(cached.orderId());
+            if (order.isPresent()) {
+                cacheHits.increment();
+                return order;
+            }
+        }
+        if (!filter.mightContain(key, now)) {
+            fastPath.increment();
+            return Optional.empty();
+        }
+        databaseLookups.increment();
+        Optional<Order> order = orderRepository.findByIdempotencyKey(key);
+        order.ifPresent(o -> cache(key, o.getId(), now));
+        return order;
+    }
+
+    /**
+     * Records that an order was saved with {@code key}. The filter learns the
+     * key at once (a rollback only costs a false positive); the key → id
+     * mapping is cached once the surrounding transaction commits.
+     */
+    public void remember(String key, Long orderId) {
+        long now = System.currentTimeMillis();
+        filter.put(key, now);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache(key, orderId, System.currentTimeMillis());
+                }
+            });
+        } else {
+            cache(key, orderId, now);
+        }
+    }
+
+    /**
+     * Runs {@code placement} at most once at a time per key on this instance.
+     * A caller arriving while the same key is in flight waits for that result;
+     * a placement that loses the unique-constraint race to an order it could
+     * not see is answered with the stored order.
+     *
+     * Must be called outside a transaction so the placement commits before
+     * waiting callers are released.
+     *
+     * @throws DuplicateRequestInProgressException if the first request does not
+     *                                             finish within the wait timeout
+     */
+    public Order execute(String key, Supplier<Order> placement) {
+        CompletableFuture<Order> mine = new CompletableFuture<>();
+        CompletableFuture<Order> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            joined.increment();
+            return await(key, running);
+        }
+        try {
+            Order order = placement.get();
+            mine.complete(order);
+            return order;
+        } catch (DataIntegrityViolationException e) {
+            Optional<Order> existing = orderRepository.findByIdempotencyKey(key);
+            if (existing.isEmpty()) {
+                mine.completeExceptionally(e);
+                throw e;
+            }
+            constraintFallbacks.increment();
+            log.info("[IDEMPOTENCY] Key {} already stored as order {}", key, existing.get().getId());
+            remember(key, existing.get().getId());
+            mine.complete(existing.get());
+            return existing.get();
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private Order await(String key, CompletableFuture<Order> running) {
+        try {
+            return running.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new DuplicateRequestInProgressException(key);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DuplicateRequestInProgressException(key);
+        }
+    }
+
+    private RecentKey recentKey(String key, long now) {
+        synchronized (recent) {
+            RecentKey cached = recent.get(key);
+            if (cached != null && cached.expiresAt() <= now) {
+                recent.remove(key);
+                return null;
+            }
+            return cached;
+        }
+    }
+
+    private void cache(String key, Long orderId, long now) {
+        synchronized (recent) {
+            recent.put(key, new RecentKey(orderId, now + ttl.toMillis()));
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.Apex.idempotency;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over strings that forgets entries after a time window.
+ *
+ * Two generations are kept; keys go into the current one and are looked up
+ * in both. When the current generation is older than the window it becomes
+ * the previous one and the old previous one is discarded, so a key is
+ * remembered for between one and two windows. A negative answer is exact
+ * for keys added within the last window; a positive one is only probable.
+ *
+ * Thread-safe: bits are set with CAS and generations are swapped under a
+ * lock that lookups never take.
+ */
+public final class TimeWindowedBloomFilter {
+
+    private final int bits;
+    private final int hashes;
+    private final long windowMillis;
+
+    private volatile Generation current;
+    private volatile Generation previous;
+
+    private record Generation(AtomicLongArray words, long createdAt) {
+    }
+
+    /**
+     * @param expectedKeys      keys expected per window; the filter is sized for this
+     * @param falsePositiveRate target false-positive rate at {@code expectedKeys}
+     */
+    public TimeWindowedBloomFilter(int expectedKeys, double falsePositiveRate, long windowMillis, long now) {
+        double ln2 = Math.log(2);
+        long optimalBits = (long) Math.ceil(-expectedKeys * Math.log(falsePositiveRate) / (ln2 * ln2));
+        this.bits = (int) Math.min(Integer.MAX_VALUE - 63L, Math.max(64, optimalBits));
+        this.hashes = Math.max(1, (int) Math.round((double) bits / expectedKeys * ln2));
+        this.windowMillis = windowMillis;
+        this.current = newGeneration(now);
+        this.previous = newGeneration(now - windowMillis);
+    }
+
+    public void put(String key, long now) {
+        rotateIfDue(now);
+        AtomicLongArray words = current.words();
+        long hash = hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashes; i++) {
+            int bit = Math.floorMod(h1 + i * h2, bits);
+            long mask = 1L << bit;
+            int index = bit >>> 6;
+            long word;
+            while (((word = words.get(index)) & mask) == 0 && !words.compareAndSet(index, word, word | mask)) {
+                // Retry: another key set a bit in the same word.
+            }
+        }
+    }
+
+    /**
+     * @return false if the key was definitely not added within the last
+     *         window; true if it probably was
+     */
+    public boolean mightContain(String key, long now) {
+        rotateIfDue(now);
+        long hash = hash64(key);
+        return contains(current, hash) || contains(previous, hash);
+    }
+
+    public int bitsPerGeneration() {
+        return bits;
+    }
+
+    public int hashFunctions() {
+        return hashes;
+    }
+
+    private boolean contains(Generation generation, long hash) {
+        AtomicLongArray words = generation.words();
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashes; i++) {
+            int bit = Math.floorMod(h1 + i * h2, bits);
+            if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void rotateIfDue(long now) {
+        if (now - current.createdAt() < windowMillis) {
+            return;
+        }
+        synchronized (this) {
+            if (now - current.createdAt() < windowMillis) {
+                return;
+            }
+            // After a long idle gap the current generation may be stale too.
+            previous = now - current.createdAt() < 2 * windowMillis ? current : newGeneration(now - windowMillis);
+            current = newGeneration(now);
+        }
+    }
+
+    private Generation newGeneration(long createdAt) {
+        return new Generation(new AtomicLongArray((bits + 63) >>> 6), createdAt);
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-8 bytes followed by a murmur3 finalizer;
+     * the two halves feed double hashing.
+     */
+    static long hash64(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,209 @@
+package com.example.Apex.market;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.client.WebSocketClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.publisher.Sinks;
+import reactor.util.retry.Retry;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * One shard of the Binance combined-stream subscription: a single WebSocket
+ * connection carrying the trade streams of a subset of symbols. Frames are
+ * handed to the handler one at a time, on the connection's own thread.
+ *
+ * The connection URL is rebuilt from the current stream set on every
+ * (re)connect, so runtime SUBSCRIBE/UNSUBSCRIBE changes survive reconnects.
+ * While connected, changes are sent as control frames so they take effect
+ * without dropping the session; changes made while a handshake is in flight
+ * are reconciled as soon as the session opens.
+ *
+ * If every reconnect attempt fails, or the server ends the stream, the
+ * connection starts over after the maximum backoff instead of staying down.
+ */
+@Slf4j
+class BinanceStreamConnection {
+
+    private static final int MAX_RECONNECT_ATTEMPTS = 10;
+    private static final Duration INITIAL_BACKOFF = Duration.ofSeconds(2);
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(60);
+
+    private final int shardId;
+    private final String baseUrl;
+    private final WebSocketClient client;
+    private final Consumer<DataBuffer> frameHandler;
+    private final ObjectMapper objectMapper;
+
+    private final Set<String> streams = new TreeSet<>();
+    private final AtomicLong requestIds = new AtomicLong();
+
+    /** Outbound control frames of the open session; null while disconnected. */
+    private Sinks.Many<String> controlFrames;
+    private Disposable subscription;
+    /** Bumped per connect and stop, so callbacks of an older connection are ignored. */
+    private long generation;
+
+    BinanceStreamConnection(int shardId, String baseUrl, WebSocketClient client,
+            Consumer<DataBuffer> frameHandler, ObjectMapper objectMapper) {
+        this.shardId = shardId;
+        this.baseUrl = baseUrl;
+        this.client = client;
+        this.frameHandler = frameHandler;
+        this.objectMapper = objectMapper;
+    }
+
+    synchronized void subscribe(String stream) {
+        if (!streams.add(stream)) {
+            return;
+        }
+        if (subscription == null) {
+            connect();
+        } else if (controlFrames != null) {
+            sendControl("SUBSCRIBE", stream);
+        }
+    }
+
+    synchronized void unsubscribe(String stream) {
+        if (!streams.remove(stream)) {
+            return;
+        }
+        if (streams.isEmpty()) {
+            // The combined endpoint needs at least one stream; reconnect on next subscribe.
+            stop();
+        } else if (controlFrames != null) {
+            sendControl("UNSUBSCRIBE", stream);
+        }
+    }
+
+    synchronized Set<String> getStreams() {
+        return Set.copyOf(streams);
+    }
+
+    synchronized boolean isConnected() {
+        return controlFrames != null;
+    }
+
+    synchronized void stop() {
+        generation++;
+        if (subscription != null) {
+            subscription.dispose();
+            subscription = null;
+        }
+    }
+
+    /**
+     * Connects with exponential backoff retry. Runs entirely on Reactor
+     * scheduler threads — does not block application threads.
+     */
+    private void connect() {
+        long current = ++generation;
+        subscription = Mono.defer(() -> {
+            Set<String> requested = getStreams();
+            URI uri = URI.create(baseUrl + "/stream?streams=" + String.join("/", requested));
+            return client.execute(uri, session -> {
+                Sinks.Many<String> control = Sinks.many().unicast().onBackpressureBuffer();
+                onSessionOpened(requested, control);
+                log.info("[CONNECT] Shard {} connected to Binance WebSocket: {}", shardId, uri);
+
+                Mono<Void> outbound = session.send(control.asFlux().map(session::textMessage));
+                Mono<Void> inbound = session.receive()
+                        .filter(msg -> msg.getType() == WebSocketMessage.Type.TEXT)
+                        // Handled synchronously: the payload is released once this returns.
+                        .doOnNext(msg -> frameHandler.accept(msg.getPayload()))
+                        .doOnError(err -> log.error("[ERROR] Shard {} stream error: {}", shardId,
+                                err.getMessage(), err))
+                        .doFinally(signal -> {
+                            onSessionClosed();
+                            log.warn("[DISCONNECT] Shard {} session ended. Signal: {}", shardId, signal);
+                        })
+                        .then();
+                return Mono.firstWithSignal(inbound, outbound.then(Mono.never()));
+            });
+        })
+                .retryWhen(
+                        Retry.backoff(MAX_RECONNECT_ATTEMPTS, INITIAL_BACKOFF)
+                                .maxBackoff(MAX_BACKOFF)
+                                .doBeforeRetry(retrySignal -> log.warn(
+                                        "[RECONNECT_ATTEMPT] Shard {} attempt #{} after error: {}",
+                                        shardId,
+                                        retrySignal.totalRetries() + 1,
+                                        retrySignal.failure().getMessage())))
+                .doOnError(err -> log.error(
+                        "[FATAL] Shard {} exhausted all reconnect attempts, starting over in {}. Error: {}",
+                        shardId, MAX_BACKOFF, err.getMessage(), err))
+                .onErrorComplete()
+                .doFinally(signal -> {
+                    if (signal != SignalType.CANCEL) {
+                        onConnectionEnded(current);
+                    }
+                })
+                .subscribe();
+    }
+
+    /**
+     * Forgets a connection that gave up or was ended by the server, so the
+     * next subscribe connects right away, and schedules a fresh connect.
+     */
+    private synchronized void onConnectionEnded(long ended) {
+        if (ended != generation) {
+            return;
+        }
+        subscription = null;
+        Mono.delay(MAX_BACKOFF).subscribe(tick -> reconnect(ended));
+    }
+
+    private synchronized void reconnect(long ended) {
+        if (ended == generation && subscription == null && !streams.isEmpty()) {
+            log.info("[RECONNECT] Shard {} reconnecting", shardId);
+            connect();
+        }
+    }
+
+    /**
+     * Publishes the session's control sink and sends whatever changed between
+     * building the connection URL and the handshake completing.
+     */
+    private synchronized void onSessionOpened(Set<String> requested, Sinks.Many<String> control) {
+        controlFrames = control;
+        for (String stream : streams) {
+            if (!requested.contains(stream)) {
+                sendControl("SUBSCRIBE", stream);
+            }
+        }
+        for (String stream : requested) {
+            if (!streams.contains(stream)) {
+                sendControl("UNSUBSCRIBE", stream);
+            }
+        }
+    }
+
+    private synchronized void onSessionClosed() {
+        controlFrames = null;
+    }
+
+    private void sendControl(String method, String stream) {
+        ObjectNode frame = objectMapper.createObjectNode()
+                .put("method", method);
+        frame.putArray("params").add(stream);
+        frame.put("id", requestIds.incrementAndGet());
+        try {
+            controlFrames.tryEmitNext(objectMapper.writeValueAsString(frame));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot encode " + method + " frame for " + stream, e);
+        }
+        log.info("[{}] Shard {}: {}", method, shardId, stream);
+    }
+}
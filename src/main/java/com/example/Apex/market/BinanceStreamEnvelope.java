@@ -0,0 +1,26 @@
+package com.example.Apex.market;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+
+/**
+ * Wrapper used by Binance's combined-stream endpoint:
+ * wss://stream.binance.com:9443/stream?streams=btcusdt@trade/ethusdt@trade
+ *
+ * Sample payload:
+ * {
+ * "stream": "btcusdt@trade",
+ * "data": { ...trade event... }
+ * }
+ *
+ * Replies to SUBSCRIBE/UNSUBSCRIBE requests ({"result":null,"id":1}) arrive on
+ * the same connection and deserialize with a null {@code data}.
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class BinanceStreamEnvelope {
+
+    private String stream;
+
+    private BinanceTradeEvent data;
+}
@@ -1,5 +1,6 @@
 package com.example.Apex.market;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
 
@@ -14,10 +15,16 @@ import java.math.BigDecimal;
  * "e": "trade",
  * "E": 1672515782136, <- Event time (epoch ms)
  * "s": "BTCUSDT", <- Symbol
- * "p": "67234.50000000" <- Price
+ * "t": 12345, <- Trade id
+ * "p": "67234.50000000", <- Price
+ * "q": "0.00120000" <- Quantity
  * }
+ *
+ * Used by the Jackson parsing path (apex.websocket.parser=jackson); the
+ * default path decodes frames with {@link TradeFrameParser} instead.
  */
 @Data
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class BinanceTradeEvent {
 
     @JsonProperty("e")
@@ -29,6 +36,12 @@ public class BinanceTradeEvent {
     @JsonProperty("s")
     private String symbol;
 
+    @JsonProperty("t")
+    private Long tradeId;
+
     @JsonProperty("p")
     private BigDecimal price;
+
+    @JsonProperty("q")
+    private BigDecimal quantity;
 }
@@ -1,30 +1,47 @@
 package com.example.Apex.market;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.ApplicationListener;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.NettyDataBuffer;
 import org.springframework.stereotype.Component;
-import org.springframework.web.reactive.socket.WebSocketMessage;
 import org.springframework.web.reactive.socket.client.ReactorNettyWebSocketClient;
-import reactor.core.publisher.Mono;
-import reactor.util.retry.Retry;
 
-import java.net.URI;
-import java.time.Duration;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
 
 /**
  * Production-grade Binance WebSocket streaming client.
  *
- * Connects to the Binance public trade stream for BTCUSDT, parses each trade
- * event,
- * and delegates persistence to {@link MarketTickPersistenceHandler}.
+ * Subscribes to the trade streams of a configurable set of symbols over
+ * Binance's combined-stream endpoint, parses each trade event, and delegates
+ * persistence to {@link MarketTickPersistenceHandler}.
+ *
+ * Frames are decoded in place from the Netty buffer by a per-connection
+ * {@link TradeFrameParser} (apex.websocket.parser=STREAMING, the default);
+ * JACKSON keeps the original String + ObjectMapper path.
  *
  * Features:
  * - Fully asynchronous and non-blocking (Reactor Netty)
- * - Automatic reconnection with exponential backoff (max 5 attempts, up to 32s)
+ * - Symbols spread across apex.websocket.connections connections (least-loaded
+ * first), so one hot symbol cannot back-pressure the rest
+ * - Runtime SUBSCRIBE/UNSUBSCRIBE without reconnecting
+ * - Automatic reconnection with exponential backoff (max 10 attempts, up to 60s)
  * - Structured logging for CONNECT, DISCONNECT, ERROR, RECONNECT events
  * - Configurable via apex.websocket.enabled (set to false in tests)
  */
@@ -33,17 +50,29 @@ import java.time.Duration;
 @RequiredArgsConstructor
 public class BinanceWebSocketClient implements ApplicationListener<ApplicationReadyEvent> {
 
-    private static final String BINANCE_WS_URL = "wss://stream.binance.com:9443/ws/btcusdt@trade";
-    private static final int MAX_RECONNECT_ATTEMPTS = 10;
-    private static final Duration INITIAL_BACKOFF = Duration.ofSeconds(2);
-    private static final Duration MAX_BACKOFF = Duration.ofSeconds(60);
+    private static final String TRADE_STREAM_SUFFIX = "@trade";
 
     private final MarketTickPersistenceHandler persistenceHandler;
     private final ObjectMapper objectMapper;
 
+    private final List<BinanceStreamConnection> shards = new ArrayList<>();
+    private final Map<String, BinanceStreamConnection> assignments = new HashMap<>();
+
     @Value("${apex.websocket.enabled:true}")
     private boolean enabled;
 
+    @Value("${apex.websocket.base-url:wss://stream.binance.com:9443}")
+    private String baseUrl;
+
+    @Value("${apex.websocket.symbols:BTCUSDT}")
+    private String[] symbols;
+
+    @Value("${apex.websocket.connections:1}")
+    private int connections;
+
+    @Value("${apex.websocket.parser:STREAMING}")
+    private ParserMode parserMode;
+
     @Override
     public void onApplicationEvent(ApplicationReadyEvent event) {
         if (!enabled) {
@@ -54,49 +83,130 @@ public class BinanceWebSocketClient implements ApplicationListener<ApplicationRe
     }
 
     /**
-     * Initiates the WebSocket connection with exponential backoff retry.
-     * Runs entirely on Reactor scheduler threads — does not block application
-     * threads.
+     * Creates one connection per shard and subscribes the configured symbols.
+     * Shards without symbols stay idle until a symbol is subscribed at runtime.
      */
-    private void startStreaming() {
+    synchronized void startStreaming() {
         ReactorNettyWebSocketClient client = new ReactorNettyWebSocketClient();
+        for (int i = 0; i < Math.max(1, connections); i++) {
+            shards.add(new BinanceStreamConnection(i, baseUrl, client, newFrameHandler(), objectMapper));
+        }
+        for (String symbol : symbols) {
+            if (!symbol.isBlank()) {
+                subscribe(symbol);
+            }
+        }
+    }
 
-        client.execute(URI.create(BINANCE_WS_URL), session -> {
-            log.info("[CONNECT] Connected to Binance WebSocket: {}", BINANCE_WS_URL);
-
-            return session.receive()
-                    .filter(msg -> msg.getType() == WebSocketMessage.Type.TEXT)
-                    .map(WebSocketMessage::getPayloadAsText)
-                    .flatMap(this::handleMessage)
-                    .doOnError(err -> log.error("[ERROR] WebSocket stream error: {}", err.getMessage(), err))
-                    .doFinally(signal -> log.warn("[DISCONNECT] WebSocket session ended. Signal: {}", signal))
-                    .then();
-        })
-                .retryWhen(
-                        Retry.backoff(MAX_RECONNECT_ATTEMPTS, INITIAL_BACKOFF)
-                                .maxBackoff(MAX_BACKOFF)
-                                .doBeforeRetry(retrySignal -> log.warn(
-                                        "[RECONNECT_ATTEMPT] Attempt #{} after error: {}",
-                                        retrySignal.totalRetries() + 1,
-                                        retrySignal.failure().getMessage())))
-                .doOnError(err -> log.error(
-                        "[FATAL] WebSocket client exhausted all reconnect attempts. Manual restart required. Error: {}",
-                        err.getMessage(), err))
-                .subscribe();
+    @PreDestroy
+    synchronized void stopStreaming() {
+        shards.forEach(BinanceStreamConnection::stop);
+        shards.clear();
+        assignments.clear();
     }
 
     /**
-     * Parses a raw JSON text frame from Binance into a {@link BinanceTradeEvent}
-     * and delegates it to the persistence handler.
+     * Starts streaming trades for a symbol on the least-loaded shard.
+     *
+     * @throws IllegalArgumentException if the symbol is not 1-20 letters or digits
      */
-    private Mono<Void> handleMessage(String rawJson) {
-        return Mono.fromRunnable(() -> {
-            try {
-                BinanceTradeEvent event = objectMapper.readValue(rawJson, BinanceTradeEvent.class);
-                persistenceHandler.persist(event);
-            } catch (Exception e) {
-                log.error("[ERROR] Failed to parse trade event: {}. Raw: {}", e.getMessage(), rawJson);
+    public synchronized void subscribe(String symbol) {
+        requireStarted();
+        String stream = toStream(symbol);
+        if (assignments.containsKey(stream)) {
+            return;
+        }
+        BinanceStreamConnection shard = shards.stream()
+                .min(Comparator.comparingInt(c -> c.getStreams().size()))
+                .orElseThrow();
+        assignments.put(stream, shard);
+        shard.subscribe(stream);
+    }
+
+    /**
+     * Stops streaming trades for a symbol.
+     *
+     * @throws IllegalArgumentException if the symbol is not 1-20 letters or digits
+     */
+    public synchronized void unsubscribe(String symbol) {
+        requireStarted();
+        String stream = toStream(symbol);
+        BinanceStreamConnection shard = assignments.remove(stream);
+        if (shard != null) {
+            shard.unsubscribe(stream);
+        }
+    }
+
+    /**
+     * @return currently subscribed symbols, upper-cased as Binance reports them
+     */
+    public synchronized Set<String> getSubscribedSymbols() {
+        Set<String> result = new TreeSet<>();
+        for (String stream : assignments.keySet()) {
+            result.add(stream.substring(0, stream.length() - TRADE_STREAM_SUFFIX.length())
+                    .toUpperCase(Locale.ROOT));
+        }
+        return result;
+    }
+
+    private void requireStarted() {
+        if (shards.isEmpty()) {
+            throw new IllegalStateException("WebSocket client is not running (apex.websocket.enabled=false)");
+        }
+    }
+
+    private static String toStream(String symbol) {
+        return Symbols.require(symbol).toLowerCase(Locale.ROOT) + TRADE_STREAM_SUFFIX;
+    }
+
+    /**
+     * Creates the frame handler for one connection. Streaming handlers own
+     * their parser and frame, so connections never share mutable state.
+     */
+    private Consumer<DataBuffer> newFrameHandler() {
+        if (parserMode == ParserMode.JACKSON) {
+            return payload -> handleMessage(payload.toString(StandardCharsets.UTF_8));
+        }
+        TradeFrameParser parser = new TradeFrameParser();
+        TradeFrame frame = new TradeFrame();
+        return payload -> handleFrame(payload, parser, frame);
+    }
+
+    /**
+     * Decodes a combined-stream frame straight from its Netty buffer.
+     * Subscription acknowledgements carry no trade payload and are skipped.
+     */
+    private void handleFrame(DataBuffer payload, TradeFrameParser parser, TradeFrame frame) {
+        ByteBuf buf = payload instanceof NettyDataBuffer netty
+                ? netty.getNativeBuffer()
+                : Unpooled.wrappedBuffer(payload.toString(StandardCharsets.UTF_8).getBytes(StandardCharsets.UTF_8));
+        try {
+            if (parser.parse(buf, frame)) {
+                persistenceHandler.persist(frame);
             }
-        });
+        } catch (Exception e) {
+            log.error("[ERROR] Failed to parse trade frame: {}. Raw: {}", e.getMessage(),
+                    buf.toString(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Parses a raw combined-stream frame from Binance into a
+     * {@link BinanceTradeEvent} and delegates it to the persistence handler.
+     * Subscription acknowledgements carry no trade payload and are skipped.
+     */
+    private void handleMessage(String rawJson) {
+        try {
+            BinanceStreamEnvelope envelope = objectMapper.readValue(rawJson, BinanceStreamEnvelope.class);
+            if (envelope.getData() != null) {
+                persistenceHandler.persist(envelope.getData());
+            }
+        } catch (Exception e) {
+            log.error("[ERROR] Failed to parse trade event: {}. Raw: {}", e.getMessage(), rawJson);
+        }
+    }
+
+    public enum ParserMode {
+        STREAMING, JACKSON
     }
 }
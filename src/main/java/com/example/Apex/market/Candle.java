@@ -0,0 +1,64 @@
+package com.example.Apex.market;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * OHLCV bar aggregated from the live trade stream by {@link CandleAggregator}.
+ * Times are UTC; {@code openTime} is the inclusive bucket start and
+ * {@code closeTime} the exclusive bucket end.
+ */
+@Entity
+@Table(name = "candles", uniqueConstraints = {
+        @UniqueConstraint(columnNames = { "symbol", "candle_interval", "open_time" })
+}, indexes = {
+        @Index(name = "idx_candles_symbol_interval_open", columnList = "symbol, candle_interval, open_time")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Candle {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "candle_seq")
+    @SequenceGenerator(name = "candle_seq", sequenceName = "candle_seq", allocationSize = 100)
+    private Long id;
+
+    @Column(nullable = false)
+    private String symbol;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "candle_interval", nullable = false)
+    private CandleInterval interval;
+
+    @Column(name = "open_time", nullable = false)
+    private LocalDateTime openTime;
+
+    @Column(name = "close_time", nullable = false)
+    private LocalDateTime closeTime;
+
+    @Column(nullable = false, precision = 19, scale = 8)
+    private BigDecimal open;
+
+    @Column(nullable = false, precision = 19, scale = 8)
+    private BigDecimal high;
+
+    @Column(nullable = false, precision = 19, scale = 8)
+    private BigDecimal low;
+
+    @Column(nullable = false, precision = 19, scale = 8)
+    private BigDecimal close;
+
+    @Column(nullable = false, precision = 28, scale = 8)
+    private BigDecimal volume;
+
+    @Column(name = "trade_count", nullable = false)
+    private long tradeCount;
+}
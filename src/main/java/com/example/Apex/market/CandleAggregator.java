@@ -0,0 +1,279 @@
+package com.example.Apex.market;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Incrementally aggregates the live trade stream into OHLCV candles for every
+ * {@link CandleInterval}, per symbol.
+ *
+ * Each (symbol, interval) pair keeps one open bar of primitive fields that is
+ * updated in O(1) per trade. A bar closes when the first trade of a later
+ * bucket arrives, or when the periodic sweep finds its bucket has ended (plus
+ * a grace period for late frames). Closed bars are queued and written in
+ * batches to the {@code candles} table.
+ *
+ * A batch the database rejects as invalid (e.g. a bar already stored for its
+ * symbol, interval and open time) is split in halves until the offending
+ * rows are isolated; those are dead-lettered and the rest are written. Any
+ * other failure keeps the batch for the next flush, after a backoff that
+ * doubles up to a minute. At most apex.candles.max-pending bars wait in the
+ * queue; bars closed while it is full are dropped and counted.
+ *
+ * Metrics: apex.candles.dead-lettered, apex.candles.dropped.
+ *
+ * Trades older than the open bar's bucket are still persisted as ticks but do
+ * not reopen a closed candle.
+ */
+@Component
+@Slf4j
+@Order(0) // before listeners that read open bars for the same trade
+public class CandleAggregator implements TradeListener {
+
+    private static final CandleInterval[] INTERVALS = CandleInterval.values();
+    private static final long MAX_RETRY_BACKOFF_MS = 60_000;
+
+    private final CandleRepository candleRepository;
+    private final int maxPending;
+    private final long retryBackoffMs;
+    private final Counter deadLettered;
+    private final Counter dropped;
+
+    private final Map<String, OpenBar[]> openBars = new ConcurrentHashMap<>();
+    private final BlockingQueue<Candle> closedCandles;
+
+    // Only touched by flush(), which the scheduler never runs concurrently.
+    private List<Candle> unsaved = List.of();
+    private long backoffMs;
+    private long retryAtMs;
+
+    @Value("${apex.candles.close-grace-ms:2000}")
+    private long closeGraceMs;
+
+    public CandleAggregator(CandleRepository candleRepository, MeterRegistry meterRegistry,
+            @Value("${apex.candles.max-pending:100000}") int maxPending,
+            @Value("${apex.candles.retry-backoff-ms:1000}") long retryBackoffMs) {
+        this.candleRepository = candleRepository;
+        this.maxPending = maxPending;
+        this.retryBackoffMs = retryBackoffMs;
+        this.closedCandles = new ArrayBlockingQueue<>(maxPending);
+        this.deadLettered = meterRegistry.counter("apex.candles.dead-lettered");
+        this.dropped = meterRegistry.counter("apex.candles.dropped");
+    }
+
+    @Override
+    public void onTrade(String symbol, long eventTime, long priceE8, long quantityE8) {
+        OpenBar[] bars = openBars.computeIfAbsent(symbol, s -> newBars());
+        for (int i = 0; i < INTERVALS.length; i++) {
+            Candle closed = bars[i].add(symbol, INTERVALS[i], eventTime, priceE8, quantityE8);
+            if (closed != null) {
+                enqueue(closed);
+            }
+        }
+    }
+
+    /**
+     * Returns the bar currently being built, if one is open for the symbol.
+     */
+    public Optional<Candle> getOpenCandle(String symbol, CandleInterval interval) {
+        OpenBar[] bars = openBars.get(symbol);
+        if (bars == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(bars[interval.ordinal()].snapshot(symbol, interval));
+    }
+
+    /**
+     * Closes bars whose bucket ended more than the grace period ago, then
+     * persists everything closed since the last run, unless a failed save is
+     * still backing off.
+     */
+    @Scheduled(fixedDelayString = "${apex.candles.flush-interval-ms:1000}")
+    public void flush() {
+        long now = System.currentTimeMillis();
+        long cutoff = now - closeGraceMs;
+        openBars.forEach((symbol, bars) -> {
+            for (int i = 0; i < INTERVALS.length; i++) {
+                Candle closed = bars[i].closeIfEndedBefore(symbol, INTERVALS[i], cutoff);
+                if (closed != null) {
+                    enqueue(closed);
+                }
+            }
+        });
+        if (now < retryAtMs) {
+            return;
+        }
+
+        // Bars kept from a failed save go first; together with the queue at most 2 * maxPending are held.
+        List<Candle> batch = new ArrayList<>(unsaved);
+        closedCandles.drainTo(batch, Math.max(maxPending - batch.size(), 0));
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        unsaved = tryWrite(batch);
+        if (unsaved.isEmpty()) {
+            backoffMs = 0;
+            return;
+        }
+        backoffMs = backoffMs == 0 ? retryBackoffMs : Math.min(backoffMs * 2, MAX_RETRY_BACKOFF_MS);
+        retryAtMs = now + backoffMs;
+        log.warn("[CANDLES] {} candles not persisted, retrying in {} ms", unsaved.size(), backoffMs);
+    }
+
+    private void enqueue(Candle closed) {
+        if (!closedCandles.offer(closed)) {
+            dropped.increment();
+            log.warn("[CANDLES] Queue full, dropped {} {} candle opening {}", closed.getSymbol(),
+                    closed.getInterval(), closed.getOpenTime());
+        }
+    }
+
+    /**
+     * Saves the batch, isolating bars the database rejects as invalid.
+     *
+     * @return the bars to retry after a failure that is not about the bars
+     *         themselves (connection loss, timeout); empty when all are saved
+     *         or dead-lettered
+     */
+    private List<Candle> tryWrite(List<Candle> batch) {
+        try {
+            candleRepository.saveAll(batch);
+            log.debug("[CANDLES] Persisted {} closed candles", batch.size());
+            return List.of();
+        } catch (DataIntegrityViolationException e) {
+            clearIds(batch);
+            if (batch.size() == 1) {
+                deadLetter(batch.get(0), e.getMessage());
+                return List.of();
+            }
+            int half = batch.size() / 2;
+            List<Candle> failed = new ArrayList<>(tryWrite(batch.subList(0, half)));
+            failed.addAll(tryWrite(batch.subList(half, batch.size())));
+            return failed;
+        } catch (RuntimeException e) {
+            log.error("[CANDLES] Failed to persist {} candles, will retry: {}", batch.size(), e.getMessage());
+            clearIds(batch);
+            return new ArrayList<>(batch);
+        }
+    }
+
+    /**
+     * The rolled-back insert may have assigned ids; cleared, the retry inserts
+     * rather than merges.
+     */
+    private static void clearIds(List<Candle> batch) {
+        batch.forEach(c -> c.setId(null));
+    }
+
+    private void deadLetter(Candle candle, String reason) {
+        deadLettered.increment();
+        log.error("[CANDLES] Dead-lettered {} {} candle opening {} (o={} h={} l={} c={} v={}): {}",
+                candle.getSymbol(), candle.getInterval(), candle.getOpenTime(), candle.getOpen(), candle.getHigh(),
+                candle.getLow(), candle.getClose(), candle.getVolume(), reason);
+    }
+
+    private static OpenBar[] newBars() {
+        OpenBar[] bars = new OpenBar[INTERVALS.length];
+        for (int i = 0; i < bars.length; i++) {
+            bars[i] = new OpenBar();
+        }
+        return bars;
+    }
+
+    private static LocalDateTime toUtc(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneOffset.UTC);
+    }
+
+    /**
+     * Mutable bar for one (symbol, interval). Written by the stream thread and
+     * read or closed by the sweep and API threads, hence the monitor.
+     */
+    private static final class OpenBar {
+
+        private boolean active;
+        private long bucketStart;
+        private long lastClosedBucket = Long.MIN_VALUE;
+        private long open;
+        private long high;
+        private long low;
+        private long close;
+        private long volume;
+        private long count;
+
+        synchronized Candle add(String symbol, CandleInterval interval, long eventTime, long price, long quantity) {
+            long bucket = interval.bucketStart(eventTime);
+            Candle closed = null;
+
+            if ((active && bucket < bucketStart) || bucket <= lastClosedBucket) {
+                return null;
+            }
+            if (active && bucket > bucketStart) {
+                closed = close(symbol, interval);
+            }
+            if (!active) {
+                active = true;
+                bucketStart = bucket;
+                open = high = low = price;
+                volume = 0;
+                count = 0;
+            }
+
+            high = Math.max(high, price);
+            low = Math.min(low, price);
+            close = price;
+            volume += quantity;
+            count++;
+            return closed;
+        }
+
+        synchronized Candle closeIfEndedBefore(String symbol, CandleInterval interval, long cutoff) {
+            if (!active || bucketStart + interval.getMillis() > cutoff) {
+                return null;
+            }
+            return close(symbol, interval);
+        }
+
+        synchronized Candle snapshot(String symbol, CandleInterval interval) {
+            return active ? toCandle(symbol, interval) : null;
+        }
+
+        private Candle close(String symbol, CandleInterval interval) {
+            active = false;
+            lastClosedBucket = bucketStart;
+            return toCandle(symbol, interval);
+        }
+
+        private Candle toCandle(String symbol, CandleInterval interval) {
+            return Candle.builder()
+                    .symbol(symbol)
+                    .interval(interval)
+                    .openTime(toUtc(bucketStart))
+                    .closeTime(toUtc(bucketStart + interval.getMillis()))
+                    .open(FixedPoint.toBigDecimal(open))
+                    .high(FixedPoint.toBigDecimal(high))
+                    .low(FixedPoint.toBigDecimal(low))
+                    .close(FixedPoint.toBigDecimal(close))
+                    .volume(FixedPoint.toBigDecimal(volume))
+                    .tradeCount(count)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.Apex.market;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.Arrays;
+
+/**
+ * Candle bucket sizes maintained by {@link CandleAggregator}.
+ */
+public enum CandleInterval {
+
+    S1("1s", 1_000L),
+    M1("1m", 60_000L),
+    M5("5m", 300_000L),
+    H1("1h", 3_600_000L);
+
+    private final String code;
+    private final long millis;
+
+    CandleInterval(String code, long millis) {
+        this.code = code;
+        this.millis = millis;
+    }
+
+    @JsonValue
+    public String getCode() {
+        return code;
+    }
+
+    public long getMillis() {
+        return millis;
+    }
+
+    /**
+     * @return start of the bucket containing the given epoch ms
+     */
+    public long bucketStart(long epochMillis) {
+        return epochMillis - Math.floorMod(epochMillis, millis);
+    }
+
+    /**
+     * Accepts either the code ("1m") or the enum name ("M1").
+     */
+    public static CandleInterval fromCode(String value) {
+        return Arrays.stream(values())
+                .filter(i -> i.code.equalsIgnoreCase(value) || i.name().equalsIgnoreCase(value))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown candle interval: " + value));
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.Apex.market;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface CandleRepository extends JpaRepository<Candle, Long> {
+
+    List<Candle> findBySymbolAndIntervalAndOpenTimeBetweenOrderByOpenTimeAsc(
+            String symbol, CandleInterval interval, LocalDateTime start, LocalDateTime end);
+
+    List<Candle> findBySymbolAndIntervalOrderByOpenTimeDesc(String symbol, CandleInterval interval, Pageable page);
+}
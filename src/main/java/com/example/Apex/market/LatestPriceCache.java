@@ -0,0 +1,47 @@
+package com.example.Apex.market;
+
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free, per-symbol last-price cache fed directly by the WebSocket
+ * ingestion path.
+ *
+ * Each symbol owns an {@link AtomicReference} to an immutable
+ * {@link PriceSnapshot}. Readers never block; writers publish with a CAS loop
+ * that only moves forward in event time, so an out-of-order frame can never
+ * overwrite a newer price.
+ */
+@Component
+public class LatestPriceCache {
+
+    private final ConcurrentHashMap<String, AtomicReference<PriceSnapshot>> prices = new ConcurrentHashMap<>();
+
+    /**
+     * Publishes a price if it is at least as recent as the cached one.
+     */
+    public void update(String symbol, BigDecimal price, long eventTime) {
+        AtomicReference<PriceSnapshot> ref = prices.get(symbol);
+        if (ref == null) {
+            ref = prices.computeIfAbsent(symbol, s -> new AtomicReference<>());
+        }
+
+        PriceSnapshot next = new PriceSnapshot(price, eventTime);
+        PriceSnapshot current;
+        do {
+            current = ref.get();
+            if (current != null && current.eventTime() > eventTime) {
+                return;
+            }
+        } while (!ref.compareAndSet(current, next));
+    }
+
+    public Optional<PriceSnapshot> get(String symbol) {
+        AtomicReference<PriceSnapshot> ref = prices.get(symbol);
+        return ref == null ? Optional.empty() : Optional.ofNullable(ref.get());
+    }
+}
@@ -1,32 +1,110 @@
 package com.example.Apex.market;
 
+import com.example.Apex.exception.StalePriceException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Provides query access to the latest market data.
  *
  * Data ingestion is handled entirely by {@link BinanceWebSocketClient}.
- * This service is responsible only for reading persisted ticks.
+ * Prices are served from {@link LatestPriceCache}, which the ingestion path
+ * updates before persistence; the database is only consulted on a cold cache
+ * (e.g. right after startup, before the first frame for a symbol arrives).
  */
 @Service
 @RequiredArgsConstructor
 public class MarketDataService {
 
     private final MarketTickRepository marketTickRepository;
+    private final LatestPriceCache latestPriceCache;
+    private final CandleRepository candleRepository;
+    private final CandleAggregator candleAggregator;
+
+    @Value("${apex.market.max-price-age-ms:5000}")
+    private long maxPriceAgeMs;
+
+    @Value("${apex.market.reject-stale-prices:true}")
+    private boolean rejectStalePrices;
 
     /**
-     * Returns the most recent persisted price for the given symbol.
+     * Returns the most recent known price for the given symbol.
      *
      * @param symbol e.g. "BTCUSDT"
      * @return latest price
      * @throws RuntimeException if no data has been ingested yet
      */
     public BigDecimal getLatestPrice(String symbol) {
-        return marketTickRepository.findTopBySymbolOrderByTimestampDesc(symbol)
-                .map(MarketTick::getPrice)
+        return getLatestSnapshot(symbol).price();
+    }
+
+    /**
+     * Returns the latest price for pricing an order. Unless disabled via
+     * apex.market.reject-stale-prices, a price older than
+     * apex.market.max-price-age-ms is refused rather than silently used.
+     *
+     * @throws StalePriceException if the latest price is too old
+     */
+    public BigDecimal getTradablePrice(String symbol) {
+        PriceSnapshot snapshot = getLatestSnapshot(symbol);
+        if (rejectStalePrices) {
+            long age = snapshot.ageMillis(System.currentTimeMillis());
+            if (age > maxPriceAgeMs) {
+                throw new StalePriceException(String.format(
+                        "Latest price for %s is %d ms old (limit %d ms)", symbol, age, maxPriceAgeMs));
+            }
+        }
+        return snapshot.price();
+    }
+
+    /**
+     * Returns the latest price and its event time, loading it from the
+     * database into the cache if the symbol has not been seen on the stream.
+     */
+    public PriceSnapshot getLatestSnapshot(String symbol) {
+        return latestPriceCache.get(symbol).orElseGet(() -> loadFromDatabase(symbol));
+    }
+
+    /**
+     * Returns candles whose open time lies in [start, end], oldest first,
+     * including the bar still being built if it falls in the range.
+     */
+    public List<Candle> getCandles(String symbol, CandleInterval interval, LocalDateTime start, LocalDateTime end) {
+        List<Candle> candles = new ArrayList<>(
+                candleRepository.findBySymbolAndIntervalAndOpenTimeBetweenOrderByOpenTimeAsc(
+                        symbol, interval, start, end));
+        candleAggregator.getOpenCandle(symbol, interval)
+                .filter(open -> !open.getOpenTime().isBefore(start) && !open.getOpenTime().isAfter(end))
+                .filter(open -> candles.isEmpty()
+                        || open.getOpenTime().isAfter(candles.get(candles.size() - 1).getOpenTime()))
+                .ifPresent(candles::add);
+        return candles;
+    }
+
+    /**
+     * Returns the most recent {@code count} closed candles, oldest first.
+     */
+    public List<Candle> getRecentCandles(String symbol, CandleInterval interval, int count) {
+        List<Candle> candles = new ArrayList<>(candleRepository.findBySymbolAndIntervalOrderByOpenTimeDesc(
+                symbol, interval, PageRequest.of(0, count)));
+        Collections.reverse(candles);
+        return candles;
+    }
+
+    private PriceSnapshot loadFromDatabase(String symbol) {
+        MarketTick tick = marketTickRepository.findTopBySymbolOrderByTimestampDesc(symbol)
                 .orElseThrow(() -> new RuntimeException("No market data available for symbol: " + symbol));
+        long eventTime = tick.getTimestamp().toInstant(ZoneOffset.UTC).toEpochMilli();
+        latestPriceCache.update(symbol, tick.getPrice(), eventTime);
+        return latestPriceCache.get(symbol).orElseThrow();
     }
 }
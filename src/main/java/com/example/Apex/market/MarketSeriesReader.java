@@ -0,0 +1,110 @@
+package com.example.Apex.market;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Forward-only, fetch-size-bounded readers over historical ticks and candles.
+ *
+ * Rows are read through a server-side cursor (PostgreSQL only streams inside
+ * a transaction, hence the read-only {@link TransactionTemplate}) and handed
+ * to the consumer one at a time as detached {@link MarketTick}s. Nothing
+ * enters a persistence context and at most apex.backtest.fetch-size rows are
+ * buffered by the driver, so memory stays flat regardless of the range.
+ */
+@Slf4j
+@Component
+public class MarketSeriesReader {
+
+    private static final String TICK_SQL = "SELECT symbol, price, timestamp FROM market_tick"
+            + " WHERE timestamp BETWEEN ? AND ?";
+
+    private static final String CANDLE_SQL = "SELECT symbol, close, close_time FROM candles"
+            + " WHERE symbol = ? AND candle_interval = ? AND open_time BETWEEN ? AND ? ORDER BY open_time";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTx;
+
+    public MarketSeriesReader(DataSource dataSource, PlatformTransactionManager transactionManager,
+            @Value("${apex.backtest.fetch-size:5000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    /**
+     * Streams candles of the given interval when one is set, otherwise raw
+     * ticks.
+     *
+     * @param symbol   optional for ticks, required for candles
+     * @param interval optional
+     * @return number of points delivered
+     */
+    public long streamSeries(String symbol, CandleInterval interval, LocalDateTime start, LocalDateTime end,
+            Consumer<MarketTick> consumer) {
+        if (interval == null) {
+            return streamTicks(symbol, start, end, consumer);
+        }
+        if (symbol == null) {
+            throw new IllegalArgumentException("A symbol is required for candle backtests");
+        }
+        return streamCandles(symbol, interval, start, end, consumer);
+    }
+
+    /**
+     * Streams ticks in [start, end] in timestamp order.
+     *
+     * @param symbol optional; all symbols when null
+     * @return number of ticks delivered
+     */
+    public long streamTicks(String symbol, LocalDateTime start, LocalDateTime end,
+            Consumer<MarketTick> consumer) {
+        List<Object> args = new ArrayList<>(List.of(start, end));
+        String sql = TICK_SQL;
+        if (symbol != null) {
+            sql += " AND symbol = ?";
+            args.add(symbol);
+        }
+        return stream(sql + " ORDER BY timestamp", args.toArray(), consumer);
+    }
+
+    /**
+     * Streams candles whose open time lies in [start, end] as ticks at their
+     * close price and close time.
+     *
+     * @return number of candles delivered
+     */
+    public long streamCandles(String symbol, CandleInterval interval, LocalDateTime start,
+            LocalDateTime end, Consumer<MarketTick> consumer) {
+        return stream(CANDLE_SQL, new Object[] { symbol, interval.name(), start, end }, consumer);
+    }
+
+    private long stream(String sql, Object[] args, Consumer<MarketTick> consumer) {
+        Long count = readOnlyTx.execute(status -> {
+            long[] rows = { 0 };
+            jdbcTemplate.query(sql, rs -> {
+                consumer.accept(toTick(rs));
+                rows[0]++;
+            }, args);
+            return rows[0];
+        });
+        return count == null ? 0 : count;
+    }
+
+    private static MarketTick toTick(ResultSet rs) throws SQLException {
+        return new MarketTick(rs.getString(1), rs.getBigDecimal(2), rs.getObject(3, LocalDateTime.class));
+    }
+}
@@ -4,6 +4,9 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
@@ -11,11 +14,22 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_market_tick_symbol_timestamp", columnList = "symbol, timestamp"),
+        @Index(name = "idx_market_tick_timestamp", columnList = "timestamp")
+})
 @Data
 @NoArgsConstructor
 public class MarketTick {
+    /**
+     * Sequence-backed so Hibernate can batch inserts; IDENTITY forces one
+     * round trip per row to read back the generated key. Existing tables are
+     * migrated by {@link MarketTickSequence}.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "market_tick_seq")
+    @SequenceGenerator(name = "market_tick_seq", sequenceName = "market_tick_seq",
+            allocationSize = MarketTickSequence.INCREMENT)
     private Long id;
 
     private String symbol;
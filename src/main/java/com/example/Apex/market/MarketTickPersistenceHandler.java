@@ -4,39 +4,78 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.List;
 
 /**
  * Handles persistence of incoming Binance trade events.
  * Deliberately separated from connection logic so each class has a single
  * responsibility.
+ *
+ * Every tick first updates {@link LatestPriceCache} so order pricing sees it
+ * immediately, is fanned out to the registered {@link TradeListener}s (candle
+ * aggregation etc.), and is then handed to {@link TickIngestionPipeline}, which
+ * batches it into the database off the WebSocket thread.
  */
 @Component
 @Slf4j
 @RequiredArgsConstructor
 public class MarketTickPersistenceHandler {
 
-    private final MarketTickRepository marketTickRepository;
+    private final TickIngestionPipeline ingestionPipeline;
+    private final LatestPriceCache latestPriceCache;
+    private final List<TradeListener> tradeListeners;
 
     /**
-     * Converts a BinanceTradeEvent into a MarketTick entity and saves it.
+     * Publishes the event's price to the cache, then converts it into a
+     * MarketTick entity and enqueues it for batched persistence.
      *
      * @param event parsed trade event from the WebSocket stream
      */
     public void persist(BinanceTradeEvent event) {
         try {
-            LocalDateTime timestamp = LocalDateTime.ofInstant(
-                    Instant.ofEpochMilli(event.getEventTime()),
-                    ZoneOffset.UTC);
-
-            MarketTick tick = new MarketTick(event.getSymbol(), event.getPrice(), timestamp);
-            marketTickRepository.save(tick);
+            long quantityE8 = event.getQuantity() != null ? FixedPoint.fromBigDecimal(event.getQuantity()) : 0L;
+            publish(event.getSymbol(), event.getPrice(), FixedPoint.fromBigDecimal(event.getPrice()),
+                    quantityE8, event.getEventTime());
+        } catch (Exception e) {
+            log.error("Failed to enqueue MarketTick for event {}: {}", event, e.getMessage(), e);
+        }
+    }
 
-            log.debug("Persisted tick: {} @ {} [{}]", event.getSymbol(), event.getPrice(), timestamp);
+    /**
+     * Same as {@link #persist(BinanceTradeEvent)} for frames decoded by
+     * {@link TradeFrameParser}. The frame is not retained.
+     *
+     * @param frame parsed trade frame from the WebSocket stream
+     */
+    public void persist(TradeFrame frame) {
+        try {
+            publish(frame.getSymbol(), FixedPoint.toBigDecimal(frame.getPriceE8()), frame.getPriceE8(),
+                    frame.getQuantityE8(), frame.getEventTime());
         } catch (Exception e) {
-            log.error("Failed to persist MarketTick for event {}: {}", event, e.getMessage(), e);
+            log.error("Failed to enqueue MarketTick for frame {}: {}", frame, e.getMessage(), e);
         }
     }
+
+    private void publish(String symbol, BigDecimal price, long priceE8, long quantityE8, long eventTime) {
+        latestPriceCache.update(symbol, price, eventTime);
+
+        for (TradeListener listener : tradeListeners) {
+            try {
+                listener.onTrade(symbol, eventTime, priceE8, quantityE8);
+            } catch (Exception e) {
+                log.error("Trade listener {} failed for {}: {}", listener.getClass().getSimpleName(), symbol,
+                        e.getMessage(), e);
+            }
+        }
+
+        LocalDateTime timestamp = LocalDateTime.ofInstant(Instant.ofEpochMilli(eventTime), ZoneOffset.UTC);
+        MarketTick tick = new MarketTick(symbol, price, timestamp);
+        ingestionPipeline.enqueue(tick);
+
+        log.debug("Enqueued tick: {} @ {} [{}]", symbol, price, timestamp);
+    }
 }
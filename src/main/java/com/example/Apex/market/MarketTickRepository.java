@@ -12,4 +12,7 @@ public interface MarketTickRepository extends JpaRepository<MarketTick, Long> {
     Optional<MarketTick> findTopBySymbolOrderByTimestampDesc(String symbol);
 
     List<MarketTick> findByTimestampBetweenOrderByTimestampAsc(LocalDateTime start, LocalDateTime end);
+
+    List<MarketTick> findBySymbolAndTimestampBetweenOrderByTimestampAsc(String symbol, LocalDateTime start,
+            LocalDateTime end);
 }
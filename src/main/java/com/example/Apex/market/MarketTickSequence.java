@@ -0,0 +1,54 @@
+package com.example.Apex.market;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Startup migration for {@link MarketTick}'s id sequence. Tables created while
+ * ids were IDENTITY (bigserial) already hold ids, but {@code ddl-auto=update}
+ * creates {@code market_tick_seq} starting at 1, so new ticks would collide
+ * with them. Before the first tick is written, the sequence gets the
+ * entity's increment and is moved past the highest stored id; it never moves
+ * backwards, so running it on every start is safe.
+ *
+ * PostgreSQL only; other databases (the in-memory benchmark one) start empty.
+ */
+@Slf4j
+@Component
+public class MarketTickSequence {
+
+    private static final String SEQUENCE = "market_tick_seq";
+    /** Also the {@code allocationSize} of {@link MarketTick}'s id generator. */
+    static final int INCREMENT = 500;
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    public MarketTickSequence(DataSource dataSource) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @PostConstruct
+    void align() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!"PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) {
+                return;
+            }
+        }
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + SEQUENCE + " INCREMENT BY " + INCREMENT);
+        jdbcTemplate.execute("ALTER SEQUENCE " + SEQUENCE + " INCREMENT BY " + INCREMENT);
+        // Hibernate's pooled optimizer hands out the block ending at the value nextval returns, so the next
+        // nextval (last value + INCREMENT) must leave a whole block above every stored id.
+        Long last = jdbcTemplate.queryForObject("SELECT setval('" + SEQUENCE + "', GREATEST("
+                + "(SELECT COALESCE(MAX(id), 0) FROM market_tick), "
+                + "(SELECT last_value FROM " + SEQUENCE + ")), true)", Long.class);
+        log.info("[INGEST] {} aligned: next block starts after {}", SEQUENCE, last);
+    }
+}
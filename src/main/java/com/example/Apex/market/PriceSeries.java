@@ -0,0 +1,96 @@
+package com.example.Apex.market;
+
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable, column-oriented copy of a historical series, loaded once and
+ * shared read-only by every run of a parameter sweep.
+ *
+ * Prices and timestamps are primitive columns so the simulator never touches
+ * a BigDecimal; the ticks themselves are kept alongside because
+ * {@link com.example.Apex.strategy.TradingStrategy} consumes them, and
+ * {@link #history} hands out zero-copy windows over them.
+ */
+public final class PriceSeries {
+
+    private final MarketTick[] ticks;
+    private final double[] prices;
+    private final long[] epochMillis;
+    private final List<MarketTick> tickList;
+
+    private PriceSeries(MarketTick[] ticks, double[] prices, long[] epochMillis) {
+        this.ticks = ticks;
+        this.prices = prices;
+        this.epochMillis = epochMillis;
+        this.tickList = Arrays.asList(ticks);
+    }
+
+    public int size() {
+        return ticks.length;
+    }
+
+    public MarketTick tick(int index) {
+        return ticks[index];
+    }
+
+    public double price(int index) {
+        return prices[index];
+    }
+
+    public long epochMillis(int index) {
+        return epochMillis[index];
+    }
+
+    /**
+     * The up-to-{@code window} ticks ending at {@code index} (inclusive),
+     * oldest first. A view, not a copy.
+     */
+    public List<MarketTick> history(int index, int window) {
+        return tickList.subList(Math.max(0, index + 1 - window), index + 1);
+    }
+
+    public static Builder builder(int maxSize) {
+        return new Builder(maxSize);
+    }
+
+    /**
+     * Growable column builder; rejects series longer than maxSize so a sweep
+     * over an unexpectedly large range fails fast instead of exhausting heap.
+     */
+    public static final class Builder {
+
+        private final int maxSize;
+        private MarketTick[] ticks = new MarketTick[1024];
+        private double[] prices = new double[1024];
+        private long[] epochMillis = new long[1024];
+        private int size;
+
+        private Builder(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public Builder add(MarketTick tick) {
+            if (size == maxSize) {
+                throw new IllegalStateException("Series exceeds " + maxSize + " points; narrow the range or use candles");
+            }
+            if (size == ticks.length) {
+                int capacity = (int) Math.min((long) size * 2, maxSize);
+                ticks = Arrays.copyOf(ticks, capacity);
+                prices = Arrays.copyOf(prices, capacity);
+                epochMillis = Arrays.copyOf(epochMillis, capacity);
+            }
+            ticks[size] = tick;
+            prices[size] = tick.getPrice().doubleValue();
+            epochMillis[size] = tick.getTimestamp().toInstant(ZoneOffset.UTC).toEpochMilli();
+            size++;
+            return this;
+        }
+
+        public PriceSeries build() {
+            return new PriceSeries(Arrays.copyOf(ticks, size), Arrays.copyOf(prices, size),
+                    Arrays.copyOf(epochMillis, size));
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.Apex.market;
+
+import java.math.BigDecimal;
+
+/**
+ * Immutable last-traded price for a symbol together with the exchange event
+ * time (epoch ms) it was observed at.
+ */
+public record PriceSnapshot(BigDecimal price, long eventTime) {
+
+    public long ageMillis(long nowMillis) {
+        return nowMillis - eventTime;
+    }
+}
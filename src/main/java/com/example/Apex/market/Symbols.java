@@ -0,0 +1,28 @@
+package com.example.Apex.market;
+
+import java.util.regex.Pattern;
+
+/**
+ * Validation of symbols that arrive from clients. Binance symbols are short
+ * alphanumerics; anything else could break a stream URL or control frame, or
+ * let a client create per-symbol state without bound.
+ */
+public final class Symbols {
+
+    private static final Pattern SYMBOL = Pattern.compile("[A-Za-z0-9]{1,20}");
+
+    private Symbols() {
+    }
+
+    /**
+     * @return the symbol, trimmed
+     * @throws IllegalArgumentException if it is not 1-20 letters or digits
+     */
+    public static String require(String symbol) {
+        String trimmed = symbol == null ? "" : symbol.trim();
+        if (!SYMBOL.matcher(trimmed).matches()) {
+            throw new IllegalArgumentException("Invalid symbol: " + symbol);
+        }
+        return trimmed;
+    }
+}
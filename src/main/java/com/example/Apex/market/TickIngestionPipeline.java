@@ -0,0 +1,310 @@
+package com.example.Apex.market;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded, asynchronous buffer between the WebSocket stream and the
+ * {@code market_tick} table.
+ *
+ * Ticks are enqueued by the WebSocket thread and drained by a single flusher
+ * thread, which writes them with one batched {@code saveAll} per flush. A flush
+ * happens when {@code apex.ticks.batch-size} ticks are buffered or
+ * {@code apex.ticks.flush-interval-ms} has elapsed, whichever comes first.
+ *
+ * When the buffer is full, {@link TickOverflowPolicy} decides whether the
+ * producer blocks, the oldest tick is evicted, or the tick is spilled to a
+ * local file that is replayed once the buffer has drained.
+ *
+ * Metrics: apex.ticks.queue.depth, apex.ticks.flush.latency,
+ * apex.ticks.persisted, apex.ticks.dropped, apex.ticks.spilled.
+ */
+@Component
+@DependsOn("marketTickSequence")
+@Slf4j
+@RequiredArgsConstructor
+public class TickIngestionPipeline {
+
+    private static final String SPILL_FILE = "ticks.spill";
+    private static final String DRAINING_FILE = "ticks.draining";
+
+    private final MarketTickRepository marketTickRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${apex.ticks.buffer-capacity:65536}")
+    private int capacity;
+
+    @Value("${apex.ticks.batch-size:500}")
+    private int batchSize;
+
+    @Value("${apex.ticks.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    @Value("${apex.ticks.overflow-policy:DROP_OLDEST}")
+    private TickOverflowPolicy overflowPolicy;
+
+    @Value("${apex.ticks.spill-dir:${java.io.tmpdir}/apex-tick-spill}")
+    private String spillDirectory;
+
+    private Path spillDir;
+
+    private ArrayBlockingQueue<MarketTick> buffer;
+    private Thread flusher;
+    private volatile boolean running;
+
+    private BufferedWriter spillWriter;
+    private volatile boolean spillPending;
+
+    private Timer flushLatency;
+    private Counter persisted;
+    private Counter dropped;
+    private Counter spilled;
+
+    @PostConstruct
+    void start() {
+        buffer = new ArrayBlockingQueue<>(capacity);
+        spillDir = Path.of(spillDirectory);
+
+        Gauge.builder("apex.ticks.queue.depth", buffer, ArrayBlockingQueue::size)
+                .description("Ticks buffered and waiting to be persisted")
+                .register(meterRegistry);
+        flushLatency = Timer.builder("apex.ticks.flush.latency")
+                .description("Time taken to persist one batch of ticks")
+                .register(meterRegistry);
+        persisted = meterRegistry.counter("apex.ticks.persisted");
+        dropped = meterRegistry.counter("apex.ticks.dropped");
+        spilled = meterRegistry.counter("apex.ticks.spilled");
+
+        if (overflowPolicy == TickOverflowPolicy.SPILL_TO_DISK) {
+            spillPending = Files.exists(spillDir.resolve(SPILL_FILE))
+                    || Files.exists(spillDir.resolve(DRAINING_FILE));
+        }
+
+        running = true;
+        flusher = new Thread(this::drainLoop, "tick-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+
+        log.info("[INGEST] Tick pipeline started: capacity={}, batchSize={}, flushInterval={}ms, overflow={}",
+                capacity, batchSize, flushIntervalMs, overflowPolicy);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        flusher.interrupt();
+        flusher.join(TimeUnit.SECONDS.toMillis(10));
+        closeSpillWriter();
+        log.info("[INGEST] Tick pipeline stopped. Unflushed ticks: {}", buffer.size());
+    }
+
+    /**
+     * Hands a tick to the pipeline. Never throws; overflow is resolved according
+     * to the configured {@link TickOverflowPolicy}.
+     */
+    public void enqueue(MarketTick tick) {
+        if (buffer.offer(tick)) {
+            return;
+        }
+
+        switch (overflowPolicy) {
+            case BLOCK -> {
+                try {
+                    buffer.put(tick);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    dropped.increment();
+                }
+            }
+            case DROP_OLDEST -> {
+                while (!buffer.offer(tick)) {
+                    if (buffer.poll() != null) {
+                        dropped.increment();
+                    }
+                }
+            }
+            case SPILL_TO_DISK -> spill(List.of(tick));
+        }
+    }
+
+    public int getQueueDepth() {
+        return buffer.size();
+    }
+
+    private void drainLoop() {
+        List<MarketTick> batch = new ArrayList<>(batchSize);
+
+        while (running || !buffer.isEmpty()) {
+            try {
+                collectBatch(batch);
+            } catch (InterruptedException e) {
+                // Shutdown requested: drain whatever is left without waiting.
+                buffer.drainTo(batch, batchSize - batch.size());
+            }
+
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            } else if (spillPending && running) {
+                replaySpill();
+            }
+        }
+    }
+
+    /**
+     * Fills the batch until it reaches batchSize or the flush interval since
+     * the first tick has elapsed.
+     */
+    private void collectBatch(List<MarketTick> batch) throws InterruptedException {
+        MarketTick first = buffer.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        while (batch.size() < batchSize) {
+            buffer.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0) {
+                break;
+            }
+            MarketTick next = buffer.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<MarketTick> batch) {
+        long start = System.nanoTime();
+        try {
+            marketTickRepository.saveAll(batch);
+            persisted.increment(batch.size());
+            log.debug("[INGEST] Flushed {} ticks", batch.size());
+        } catch (Exception e) {
+            log.error("[INGEST] Failed to flush {} ticks: {}", batch.size(), e.getMessage(), e);
+            if (overflowPolicy == TickOverflowPolicy.SPILL_TO_DISK) {
+                // Fresh copies: the failed entities may already carry allocated ids.
+                spill(batch.stream()
+                        .map(t -> new MarketTick(t.getSymbol(), t.getPrice(), t.getTimestamp()))
+                        .toList());
+            } else {
+                dropped.increment(batch.size());
+            }
+        } finally {
+            flushLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private synchronized void spill(List<MarketTick> ticks) {
+        try {
+            if (spillWriter == null) {
+                Files.createDirectories(spillDir);
+                spillWriter = Files.newBufferedWriter(spillDir.resolve(SPILL_FILE), StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            for (MarketTick tick : ticks) {
+                spillWriter.write(tick.getSymbol());
+                spillWriter.write(',');
+                spillWriter.write(tick.getPrice().toPlainString());
+                spillWriter.write(',');
+                spillWriter.write(Long.toString(tick.getTimestamp().toInstant(ZoneOffset.UTC).toEpochMilli()));
+                spillWriter.newLine();
+            }
+            spillWriter.flush();
+            spilled.increment(ticks.size());
+            spillPending = true;
+        } catch (IOException e) {
+            log.error("[INGEST] Failed to spill {} ticks to {}: {}", ticks.size(), spillDir, e.getMessage());
+            dropped.increment(ticks.size());
+        }
+    }
+
+    private synchronized void closeSpillWriter() {
+        if (spillWriter != null) {
+            try {
+                spillWriter.close();
+            } catch (IOException e) {
+                log.warn("[INGEST] Failed to close spill file: {}", e.getMessage());
+            }
+            spillWriter = null;
+        }
+    }
+
+    /**
+     * Moves the spill file aside and re-persists its contents in batches.
+     * Only runs while the in-memory buffer is idle, so live ticks keep priority.
+     */
+    private void replaySpill() {
+        Path draining = spillDir.resolve(DRAINING_FILE);
+        try {
+            synchronized (this) {
+                if (!Files.exists(draining)) {
+                    closeSpillWriter();
+                    Path spillFile = spillDir.resolve(SPILL_FILE);
+                    if (!Files.exists(spillFile)) {
+                        spillPending = false;
+                        return;
+                    }
+                    Files.move(spillFile, draining, StandardCopyOption.ATOMIC_MOVE);
+                }
+                spillPending = false;
+            }
+
+            List<MarketTick> batch = new ArrayList<>(batchSize);
+            int replayed = 0;
+            try (BufferedReader reader = Files.newBufferedReader(draining, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String[] parts = line.split(",");
+                    batch.add(new MarketTick(parts[0], new BigDecimal(parts[1]),
+                            LocalDateTime.ofInstant(Instant.ofEpochMilli(Long.parseLong(parts[2])), ZoneOffset.UTC)));
+                    if (batch.size() == batchSize) {
+                        marketTickRepository.saveAll(batch);
+                        replayed += batch.size();
+                        batch.clear();
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                marketTickRepository.saveAll(batch);
+                replayed += batch.size();
+            }
+            Files.delete(draining);
+            persisted.increment(replayed);
+            log.info("[INGEST] Replayed {} spilled ticks", replayed);
+        } catch (Exception e) {
+            // Leave the draining file in place; it is retried on the next idle cycle.
+            spillPending = true;
+            log.error("[INGEST] Failed to replay spilled ticks: {}", e.getMessage(), e);
+        }
+    }
+}
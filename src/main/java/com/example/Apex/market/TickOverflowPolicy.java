@@ -0,0 +1,16 @@
+package com.example.Apex.market;
+
+/**
+ * What {@link TickIngestionPipeline} does when its in-memory buffer is full.
+ */
+public enum TickOverflowPolicy {
+
+    /** Block the WebSocket thread until the flusher frees a slot. */
+    BLOCK,
+
+    /** Evict the oldest buffered tick to make room for the newest one. */
+    DROP_OLDEST,
+
+    /** Append the tick to a local spill file that is replayed once the buffer drains. */
+    SPILL_TO_DISK
+}
@@ -0,0 +1,69 @@
+package com.example.Apex.market;
+
+import lombok.Getter;
+
+/**
+ * Mutable, reusable holder for one Binance trade event, filled in place by
+ * {@link TradeFrameParser}. Prices and quantities are fixed-point longs (see
+ * {@link FixedPoint}); the symbol is a canonical String shared across frames.
+ *
+ * Instances are owned by a single stream connection and must not be retained
+ * after the handler that received them returns.
+ */
+@Getter
+public class TradeFrame {
+
+    private boolean trade;
+    private String symbol;
+    private long eventTime;
+    private long tradeId;
+    private long priceE8;
+    private long quantityE8;
+
+    void reset() {
+        trade = false;
+        symbol = null;
+        eventTime = 0L;
+        tradeId = 0L;
+        priceE8 = 0L;
+        quantityE8 = 0L;
+    }
+
+    void setTrade(boolean trade) {
+        this.trade = trade;
+    }
+
+    void setSymbol(String symbol) {
+        this.symbol = symbol;
+    }
+
+    void setEventTime(long eventTime) {
+        this.eventTime = eventTime;
+    }
+
+    void setTradeId(long tradeId) {
+        this.tradeId = tradeId;
+    }
+
+    void setPriceE8(long priceE8) {
+        this.priceE8 = priceE8;
+    }
+
+    void setQuantityE8(long quantityE8) {
+        this.quantityE8 = quantityE8;
+    }
+
+    /**
+     * @return true if the frame was a complete trade event
+     */
+    public boolean isComplete() {
+        return trade && symbol != null && eventTime > 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TradeFrame[%s #%d %s x %s @ %d]", symbol, tradeId,
+                FixedPoint.toBigDecimal(priceE8).toPlainString(),
+                FixedPoint.toBigDecimal(quantityE8).toPlainString(), eventTime);
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.Apex.market;
+
+import io.netty.buffer.ByteBuf;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Allocation-free parser for Binance trade frames, reading directly from the
+ * Netty buffer the frame arrived in.
+ *
+ * Rather than building a tree or binding a DTO, the parser scans the frame
+ * once and only decodes the single-letter keys of the trade event
+ * ({@code e, E, s, t, p, q}); everything else, including the combined-stream
+ * envelope, is skipped. Prices and quantities are decoded straight into
+ * fixed-point longs, and symbols are resolved against a small intern table so
+ * a String is only created the first time a symbol is seen.
+ *
+ * Not thread-safe: each stream connection owns its own parser.
+ */
+public class TradeFrameParser {
+
+    private static final byte[] TRADE = "trade".getBytes(StandardCharsets.US_ASCII);
+    private static final int SYMBOL_TABLE_SIZE = 256;
+
+    private final byte[][] symbolKeys = new byte[SYMBOL_TABLE_SIZE][];
+    private final String[] symbolValues = new String[SYMBOL_TABLE_SIZE];
+
+    /**
+     * Parses the readable bytes of {@code buf} into {@code out} without moving
+     * the buffer's reader index.
+     *
+     * @return true if the frame was a complete trade event
+     */
+    public boolean parse(ByteBuf buf, TradeFrame out) {
+        out.reset();
+        int i = buf.readerIndex();
+        int end = buf.writerIndex();
+
+        while (i < end) {
+            if (buf.getByte(i) != '"') {
+                i++;
+                continue;
+            }
+
+            int keyStart = i + 1;
+            int keyEnd = skipString(buf, keyStart, end);
+            int colon = skipWhitespace(buf, keyEnd + 1, end);
+            if (colon >= end || buf.getByte(colon) != ':') {
+                // A string value, not a key.
+                i = keyEnd + 1;
+                continue;
+            }
+
+            int value = skipWhitespace(buf, colon + 1, end);
+            i = value;
+            if (keyEnd - keyStart != 1 || value >= end) {
+                continue;
+            }
+
+            switch (buf.getByte(keyStart)) {
+                case 'e' -> {
+                    int valueEnd = skipString(buf, value + 1, end);
+                    out.setTrade(bytesEqual(buf, value + 1, valueEnd, TRADE));
+                    i = valueEnd + 1;
+                }
+                case 'E' -> i = parseLong(buf, value, end, out, 'E');
+                case 't' -> i = parseLong(buf, value, end, out, 't');
+                case 's' -> {
+                    int valueEnd = skipString(buf, value + 1, end);
+                    out.setSymbol(internSymbol(buf, value + 1, valueEnd));
+                    i = valueEnd + 1;
+                }
+                case 'p' -> i = parseDecimal(buf, value, end, out, 'p');
+                case 'q' -> i = parseDecimal(buf, value, end, out, 'q');
+                default -> {
+                    // Not a field we need; keep scanning from the value.
+                }
+            }
+        }
+        return out.isComplete();
+    }
+
+    private static int skipString(ByteBuf buf, int from, int end) {
+        int i = from;
+        while (i < end) {
+            byte b = buf.getByte(i);
+            if (b == '\\') {
+                i += 2;
+            } else if (b == '"') {
+                return i;
+            } else {
+                i++;
+            }
+        }
+        return end;
+    }
+
+    private static int skipWhitespace(ByteBuf buf, int from, int end) {
+        int i = from;
+        while (i < end) {
+            byte b = buf.getByte(i);
+            if (b != ' ' && b != '\t' && b != '\n' && b != '\r') {
+                break;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    private static int parseLong(ByteBuf buf, int from, int end, TradeFrame out, char field) {
+        int i = from;
+        long value = 0;
+        while (i < end) {
+            byte b = buf.getByte(i);
+            if (b < '0' || b > '9') {
+                break;
+            }
+            value = value * 10 + (b - '0');
+            i++;
+        }
+        if (field == 'E') {
+            out.setEventTime(value);
+        } else {
+            out.setTradeId(value);
+        }
+        return i;
+    }
+
+    /**
+     * Decodes a quoted decimal such as "67234.50000000" into a value scaled by
+     * 10^8. Digits beyond the eighth decimal place are truncated.
+     */
+    private static int parseDecimal(ByteBuf buf, int from, int end, TradeFrame out, char field) {
+        int i = buf.getByte(from) == '"' ? from + 1 : from;
+        boolean negative = false;
+        if (i < end && buf.getByte(i) == '-') {
+            negative = true;
+            i++;
+        }
+
+        long value = 0;
+        int fractionDigits = -1;
+        while (i < end) {
+            byte b = buf.getByte(i);
+            if (b == '.') {
+                fractionDigits = 0;
+            } else if (b >= '0' && b <= '9') {
+                if (fractionDigits < FixedPoint.SCALE) {
+                    value = value * 10 + (b - '0');
+                    if (fractionDigits >= 0) {
+                        fractionDigits++;
+                    }
+                }
+            } else {
+                break;
+            }
+            i++;
+        }
+        for (int d = Math.max(fractionDigits, 0); d < FixedPoint.SCALE; d++) {
+            value *= 10;
+        }
+        if (negative) {
+            value = -value;
+        }
+
+        if (field == 'p') {
+            out.setPriceE8(value);
+        } else {
+            out.setQuantityE8(value);
+        }
+        return i < end && buf.getByte(i) == '"' ? i + 1 : i;
+    }
+
+    private static boolean bytesEqual(ByteBuf buf, int from, int to, byte[] expected) {
+        if (to - from != expected.length) {
+            return false;
+        }
+        for (int k = 0; k < expected.length; k++) {
+            if (buf.getByte(from + k) != expected[k]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the canonical String for the symbol bytes in [from, to),
+     * creating it only on first sight.
+     */
+    private String internSymbol(ByteBuf buf, int from, int to) {
+        int hash = 0;
+        for (int k = from; k < to; k++) {
+            hash = 31 * hash + buf.getByte(k);
+        }
+
+        int mask = SYMBOL_TABLE_SIZE - 1;
+        for (int probe = 0; probe < SYMBOL_TABLE_SIZE; probe++) {
+            int slot = (hash + probe) & mask;
+            byte[] key = symbolKeys[slot];
+            if (key == null) {
+                byte[] bytes = new byte[to - from];
+                buf.getBytes(from, bytes);
+                symbolKeys[slot] = bytes;
+                symbolValues[slot] = new String(bytes, StandardCharsets.US_ASCII);
+                return symbolValues[slot];
+            }
+            if (bytesEqual(buf, from, to, key)) {
+                return symbolValues[slot];
+            }
+        }
+        // Table full: fall back to an allocation rather than failing the frame.
+        return buf.toString(from, to - from, StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.Apex.market;
+
+/**
+ * Callback for consumers of the live trade stream.
+ *
+ * Invoked by {@link MarketTickPersistenceHandler} on the WebSocket thread of
+ * the connection that owns the symbol, before the tick is persisted. All
+ * trades of one symbol arrive on the same thread, in stream order, but
+ * different symbols may arrive concurrently. Implementations must be fast and
+ * must not block.
+ */
+public interface TradeListener {
+
+    /**
+     * @param symbol     e.g. "BTCUSDT"
+     * @param eventTime  exchange event time, epoch ms
+     * @param priceE8    trade price, fixed-point (see {@link FixedPoint})
+     * @param quantityE8 trade quantity, fixed-point (see {@link FixedPoint})
+     */
+    void onTrade(String symbol, long eventTime, long priceE8, long quantityE8);
+}
@@ -0,0 +1,119 @@
+package com.example.Apex.matching;
+
+import java.util.Arrays;
+
+/**
+ * One side of a book: price levels indexed by price for O(1) lookup, plus the
+ * active prices in a sorted array whose last element is the best price, so
+ * reading and removing the top of book are O(1). Inserting a new level scans
+ * down from the top of book and shifts the tail of the array, which is cheap
+ * because new levels mostly appear near the touch.
+ */
+final class BookSide {
+
+    private final boolean bids;
+    private final LongObjectMap<PriceLevel> levels = new LongObjectMap<>(256);
+    private long[] prices = new long[64];
+    private int count;
+
+    private PriceLevel[] pool = new PriceLevel[64];
+    private int pooled;
+
+    BookSide(boolean bids) {
+        this.bids = bids;
+    }
+
+    /**
+     * Best level, or null when the side is empty.
+     */
+    PriceLevel best() {
+        return count == 0 ? null : levels.get(prices[count - 1]);
+    }
+
+    PriceLevel get(long price) {
+        return levels.get(price);
+    }
+
+    PriceLevel getOrCreate(long price) {
+        PriceLevel level = levels.get(price);
+        if (level != null) {
+            return level;
+        }
+        level = pooled == 0 ? new PriceLevel() : pool[--pooled];
+        level.price = price;
+        levels.put(price, level);
+        insertPrice(price);
+        return level;
+    }
+
+    void remove(PriceLevel level) {
+        levels.remove(level.price);
+        removePrice(level.price);
+        level.clear();
+        if (pooled == pool.length) {
+            pool = Arrays.copyOf(pool, pooled << 1);
+        }
+        pool[pooled++] = level;
+    }
+
+    int depth() {
+        return count;
+    }
+
+    /**
+     * Price of the level {@code index} steps from the top of book.
+     */
+    long priceAt(int index) {
+        return prices[count - 1 - index];
+    }
+
+    /**
+     * Sort key ordering: bids ascending and asks descending, so the best price
+     * is always at the end of the array.
+     */
+    private boolean before(long a, long b) {
+        return bids ? a < b : a > b;
+    }
+
+    private void insertPrice(long price) {
+        if (count == prices.length) {
+            prices = Arrays.copyOf(prices, count << 1);
+        }
+        // New levels usually arrive near the top of book, so search from the end.
+        int i = count;
+        while (i > 0 && before(price, prices[i - 1])) {
+            i--;
+        }
+        System.arraycopy(prices, i, prices, i + 1, count - i);
+        prices[i] = price;
+        count++;
+    }
+
+    private void removePrice(long price) {
+        if (count > 0 && prices[count - 1] == price) {
+            count--;
+            return;
+        }
+        int i = indexOf(price);
+        System.arraycopy(prices, i + 1, prices, i, count - i - 1);
+        count--;
+    }
+
+    private int indexOf(long price) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long value = prices[mid];
+            if (value == price) {
+                return mid;
+            }
+            if (before(value, price)) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        throw new IllegalStateException("Price level " + price + " not indexed");
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.Apex.matching;
+
+/**
+ * Receives every fill produced by the {@link MatchingEngine}, synchronously
+ * on the matching thread while the book is locked, so implementations must be
+ * quick and must not call back into the engine.
+ *
+ * Arguments are primitives (prices and quantities as 10^8 fixed-point) so a
+ * fill allocates nothing.
+ */
+public interface FillListener {
+
+    /**
+     * @param takerRemaining quantity of the incoming order still unfilled
+     * @param makerRemaining quantity of the resting order still in the book
+     */
+    void onFill(String symbol, long takerOrderId, long makerOrderId, boolean takerBuy, long price,
+            long quantity, long takerRemaining, long makerRemaining);
+}
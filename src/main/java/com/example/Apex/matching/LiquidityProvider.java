@@ -0,0 +1,96 @@
+package com.example.Apex.matching;
+
+import com.example.Apex.market.FixedPoint;
+import com.example.Apex.market.TradeListener;
+import com.example.Apex.model.Order;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps synthetic two-sided liquidity in each book around the live market
+ * price, so that market orders routed to the {@link MatchingEngine} have
+ * something to trade against.
+ *
+ * On every trade whose price differs from the last quote, the previous quotes
+ * are cancelled and apex.broker.liquidity.levels bids and asks are placed
+ * apex.broker.liquidity.spread-bps apart, each of
+ * apex.broker.liquidity.quantity units. Only active when apex.broker.type is
+ * MATCHING.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LiquidityProvider implements TradeListener {
+
+    private final MatchingEngine matchingEngine;
+
+    @Value("${apex.broker.type:MOCK}")
+    private String brokerType;
+
+    @Value("${apex.broker.liquidity.enabled:true}")
+    private boolean enabled;
+
+    @Value("${apex.broker.liquidity.levels:5}")
+    private int levels;
+
+    @Value("${apex.broker.liquidity.spread-bps:5}")
+    private long spreadBps;
+
+    @Value("${apex.broker.liquidity.quantity:10}")
+    private double quantity;
+
+    private final Map<String, Quotes> quotes = new ConcurrentHashMap<>();
+
+    @Override
+    public void onTrade(String symbol, long eventTime, long priceE8, long quantityE8) {
+        if (!enabled || !"MATCHING".equalsIgnoreCase(brokerType)) {
+            return;
+        }
+        Quotes current = quotes.computeIfAbsent(symbol, s -> new Quotes(levels));
+        if (current.price == priceE8) {
+            return;
+        }
+        requote(symbol, current, priceE8);
+    }
+
+    /**
+     * Trades for a symbol arrive on one thread, so each Quotes is only ever
+     * touched by that thread.
+     */
+    private void requote(String symbol, Quotes current, long priceE8) {
+        for (int i = 0; i < current.bidIds.length; i++) {
+            matchingEngine.cancel(symbol, current.bidIds[i]);
+            matchingEngine.cancel(symbol, current.askIds[i]);
+        }
+
+        long size = Math.round(quantity * FixedPoint.ONE);
+        long step = Math.max(1, priceE8 / 10_000 * spreadBps);
+        for (int i = 0; i < current.bidIds.length; i++) {
+            long offset = step * (i + 1);
+            current.bidIds[i] = matchingEngine.nextSyntheticOrderId();
+            current.askIds[i] = matchingEngine.nextSyntheticOrderId();
+            if (priceE8 - offset > 0) {
+                matchingEngine.submitLimit(symbol, current.bidIds[i], Order.Side.BUY, priceE8 - offset, size);
+            }
+            matchingEngine.submitLimit(symbol, current.askIds[i], Order.Side.SELL, priceE8 + offset, size);
+        }
+        current.price = priceE8;
+    }
+
+    private static final class Quotes {
+
+        private final long[] bidIds;
+        private final long[] askIds;
+        private long price = Long.MIN_VALUE;
+
+        Quotes(int levels) {
+            bidIds = new long[levels];
+            askIds = new long[levels];
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.Apex.matching;
+
+import com.example.Apex.market.FixedPoint;
+import com.example.Apex.model.Order;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Holds one {@link OrderBook} per symbol and serialises access to each, so
+ * different symbols match in parallel while every book stays single-writer.
+ * Fills are fanned out to all {@link FillListener} beans.
+ *
+ * Prices and quantities are 10^8 fixed-point longs (see {@link FixedPoint}).
+ */
+@Slf4j
+@Component
+public class MatchingEngine {
+
+    private final Map<String, OrderBook> books = new ConcurrentHashMap<>();
+    private final FillListener fanOut;
+
+    /** Ids for orders the engine places itself (e.g. synthetic liquidity); negative so they never clash with order ids. */
+    private final AtomicLong syntheticIds = new AtomicLong();
+
+    public MatchingEngine(List<FillListener> fillListeners) {
+        FillListener[] listeners = fillListeners.toArray(FillListener[]::new);
+        this.fanOut = (symbol, taker, maker, takerBuy, price, quantity, takerRemaining, makerRemaining) -> {
+            for (FillListener listener : listeners) {
+                try {
+                    listener.onFill(symbol, taker, maker, takerBuy, price, quantity, takerRemaining, makerRemaining);
+                } catch (Exception e) {
+                    log.error("[MATCHING] Fill listener {} failed: {}", listener.getClass().getSimpleName(),
+                            e.getMessage(), e);
+                }
+            }
+        };
+    }
+
+    /**
+     * Result of an immediate execution.
+     *
+     * @param notional sum of price x quantity, in quote currency units
+     */
+    public record Execution(long filledQuantity, double notional) {
+
+        public BigDecimal averagePrice() {
+            if (filledQuantity == 0) {
+                return null;
+            }
+            return BigDecimal.valueOf(notional / FixedPoint.toDouble(filledQuantity)).setScale(FixedPoint.SCALE,
+                    RoundingMode.HALF_UP);
+        }
+    }
+
+    public record Level(BigDecimal price, BigDecimal quantity) {
+    }
+
+    public record BookSnapshot(String symbol, List<Level> bids, List<Level> asks, BigDecimal lastTradePrice) {
+    }
+
+    /**
+     * @return quantity filled immediately; any remainder rests in the book
+     */
+    public long submitLimit(String symbol, long orderId, Order.Side side, long price, long quantity) {
+        OrderBook book = book(symbol);
+        synchronized (book) {
+            return book.submitLimit(orderId, side, price, quantity);
+        }
+    }
+
+    /**
+     * Immediate-or-cancel market order.
+     */
+    public Execution submitMarket(String symbol, long orderId, Order.Side side, long quantity) {
+        OrderBook book = book(symbol);
+        synchronized (book) {
+            book.submitMarket(orderId, side, quantity);
+            return new Execution(book.lastFilledQuantity(), book.lastFilledNotional());
+        }
+    }
+
+    /**
+     * Fill-or-kill market order: fills completely or not at all.
+     */
+    public Execution submitMarketFillOrKill(String symbol, long orderId, Order.Side side, long quantity) {
+        OrderBook book = book(symbol);
+        synchronized (book) {
+            book.submitMarketFillOrKill(orderId, side, quantity);
+            return new Execution(book.lastFilledQuantity(), book.lastFilledNotional());
+        }
+    }
+
+    /**
+     * Fill-or-kill order that takes no liquidity beyond {@code limitPrice}.
+     */
+    public Execution submitFillOrKill(String symbol, long orderId, Order.Side side, long limitPrice, long quantity) {
+        OrderBook book = book(symbol);
+        synchronized (book) {
+            book.submitFillOrKill(orderId, side, limitPrice, quantity);
+            return new Execution(book.lastFilledQuantity(), book.lastFilledNotional());
+        }
+    }
+
+    public boolean cancel(String symbol, long orderId) {
+        OrderBook book = books.get(symbol);
+        if (book == null) {
+            return false;
+        }
+        synchronized (book) {
+            return book.cancel(orderId);
+        }
+    }
+
+    /**
+     * Last traded price, else the mid of the touch, else empty.
+     */
+    public Optional<BigDecimal> getReferencePrice(String symbol) {
+        OrderBook book = books.get(symbol);
+        if (book == null) {
+            return Optional.empty();
+        }
+        long price;
+        synchronized (book) {
+            price = book.lastTradePrice();
+            if (price == OrderBook.NO_PRICE && book.bestBid() != OrderBook.NO_PRICE
+                    && book.bestAsk() != OrderBook.NO_PRICE) {
+                price = (book.bestBid() + book.bestAsk()) / 2;
+            }
+        }
+        return price == OrderBook.NO_PRICE ? Optional.empty() : Optional.of(FixedPoint.toBigDecimal(price));
+    }
+
+    /**
+     * Aggregated top {@code depth} levels of each side.
+     */
+    public BookSnapshot snapshot(String symbol, int depth) {
+        OrderBook book = book(symbol);
+        synchronized (book) {
+            long last = book.lastTradePrice();
+            return new BookSnapshot(symbol, levels(book, Order.Side.BUY, depth), levels(book, Order.Side.SELL, depth),
+                    last == OrderBook.NO_PRICE ? null : FixedPoint.toBigDecimal(last));
+        }
+    }
+
+    public long nextSyntheticOrderId() {
+        return -syntheticIds.incrementAndGet();
+    }
+
+    private static List<Level> levels(OrderBook book, Order.Side side, int depth) {
+        int n = Math.min(depth, book.depth(side));
+        List<Level> levels = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            long price = book.priceAt(side, i);
+            levels.add(new Level(FixedPoint.toBigDecimal(price), FixedPoint.toBigDecimal(book.quantityAt(side, price))));
+        }
+        return levels;
+    }
+
+    private OrderBook book(String symbol) {
+        return books.computeIfAbsent(symbol, s -> new OrderBook(s, fanOut));
+    }
+}
@@ -0,0 +1,266 @@
+package com.example.Apex.matching;
+
+import com.example.Apex.market.FixedPoint;
+import com.example.Apex.model.Order;
+
+import java.util.Arrays;
+
+/**
+ * Price-time priority limit order book for one symbol.
+ *
+ * Prices and quantities are 10^8 fixed-point longs. Resting orders live in
+ * per-price FIFO queues ({@link PriceLevel}) and are indexed by order id in a
+ * primitive map for O(1) cancel. Order and level nodes are pooled, so the
+ * steady state allocates nothing per order.
+ *
+ * Not thread-safe: {@link MatchingEngine} serialises access per book.
+ */
+public final class OrderBook {
+
+    /** Returned by {@link #bestBid()}, {@link #bestAsk()} and {@link #lastTradePrice()} when there is none. */
+    public static final long NO_PRICE = Long.MIN_VALUE;
+
+    private final String symbol;
+    private final FillListener listener;
+    private final BookSide bids = new BookSide(true);
+    private final BookSide asks = new BookSide(false);
+    private final LongObjectMap<RestingOrder> orders = new LongObjectMap<>(1024);
+
+    private RestingOrder[] pool = new RestingOrder[256];
+    private int pooled;
+
+    private long lastTradePrice = NO_PRICE;
+    private long lastFilledQuantity;
+    private double lastFilledNotional;
+
+    public OrderBook(String symbol, FillListener listener) {
+        this.symbol = symbol;
+        this.listener = listener;
+    }
+
+    /**
+     * Matches a limit order against the opposite side and rests any remainder
+     * at {@code price}.
+     *
+     * @return quantity filled immediately
+     * @throws IllegalArgumentException if the id is already resting or the
+     *                                  quantity is not positive
+     */
+    public long submitLimit(long orderId, Order.Side side, long price, long quantity) {
+        validate(orderId, quantity);
+        boolean buy = side == Order.Side.BUY;
+        long remaining = match(orderId, buy, price, quantity);
+        if (remaining > 0) {
+            rest(orderId, buy, price, remaining);
+        }
+        return quantity - remaining;
+    }
+
+    /**
+     * Matches against the opposite side at any price; whatever cannot be
+     * filled immediately is discarded (immediate-or-cancel).
+     *
+     * @return quantity filled
+     */
+    public long submitMarket(long orderId, Order.Side side, long quantity) {
+        validate(orderId, quantity);
+        boolean buy = side == Order.Side.BUY;
+        return quantity - match(orderId, buy, buy ? Long.MAX_VALUE : Long.MIN_VALUE, quantity);
+    }
+
+    /**
+     * Fill-or-kill market order: fills completely if the opposite side holds
+     * enough quantity, otherwise leaves the book untouched.
+     *
+     * @return quantity filled, either {@code quantity} or 0
+     */
+    public long submitMarketFillOrKill(long orderId, Order.Side side, long quantity) {
+        return submitFillOrKill(orderId, side, side == Order.Side.BUY ? Long.MAX_VALUE : Long.MIN_VALUE, quantity);
+    }
+
+    /**
+     * Fill-or-kill order limited to {@code limitPrice}: fills completely if the
+     * opposite side holds enough quantity at that price or better, otherwise
+     * leaves the book untouched.
+     *
+     * @return quantity filled, either {@code quantity} or 0
+     */
+    public long submitFillOrKill(long orderId, Order.Side side, long limitPrice, long quantity) {
+        validate(orderId, quantity);
+        boolean buy = side == Order.Side.BUY;
+        if (available(buy ? asks : bids, buy, limitPrice, quantity) < quantity) {
+            lastFilledQuantity = 0;
+            lastFilledNotional = 0.0;
+            return 0;
+        }
+        return quantity - match(orderId, buy, limitPrice, quantity);
+    }
+
+    /**
+     * Removes a resting order.
+     *
+     * @return false if no such order is resting (unknown, filled or cancelled)
+     */
+    public boolean cancel(long orderId) {
+        RestingOrder order = orders.remove(orderId);
+        if (order == null) {
+            return false;
+        }
+        PriceLevel level = order.level;
+        level.unlink(order);
+        if (level.isEmpty()) {
+            (order.buy ? bids : asks).remove(level);
+        }
+        release(order);
+        return true;
+    }
+
+    public long bestBid() {
+        PriceLevel level = bids.best();
+        return level == null ? NO_PRICE : level.price;
+    }
+
+    public long bestAsk() {
+        PriceLevel level = asks.best();
+        return level == null ? NO_PRICE : level.price;
+    }
+
+    public long lastTradePrice() {
+        return lastTradePrice;
+    }
+
+    /**
+     * Resting quantity at exactly {@code price} on the given side.
+     */
+    public long quantityAt(Order.Side side, long price) {
+        PriceLevel level = (side == Order.Side.BUY ? bids : asks).get(price);
+        return level == null ? 0 : level.totalQuantity;
+    }
+
+    /**
+     * Remaining quantity of a resting order, or 0 if it is not in the book.
+     */
+    public long remaining(long orderId) {
+        RestingOrder order = orders.get(orderId);
+        return order == null ? 0 : order.remaining;
+    }
+
+    public int restingOrders() {
+        return orders.size();
+    }
+
+    /**
+     * Number of price levels on the given side.
+     */
+    public int depth(Order.Side side) {
+        return (side == Order.Side.BUY ? bids : asks).depth();
+    }
+
+    /**
+     * Price of the level {@code index} steps from the top of the given side.
+     */
+    public long priceAt(Order.Side side, int index) {
+        return (side == Order.Side.BUY ? bids : asks).priceAt(index);
+    }
+
+    /**
+     * Quantity filled by the most recent submit call.
+     */
+    public long lastFilledQuantity() {
+        return lastFilledQuantity;
+    }
+
+    /**
+     * Sum of price x quantity filled by the most recent submit call, in quote
+     * currency units (a double: fixed-point products overflow a long).
+     */
+    public double lastFilledNotional() {
+        return lastFilledNotional;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    private long match(long takerId, boolean buy, long limitPrice, long quantity) {
+        BookSide opposite = buy ? asks : bids;
+        long remaining = quantity;
+        double notional = 0.0;
+
+        PriceLevel level;
+        while (remaining > 0 && (level = opposite.best()) != null
+                && (buy ? level.price <= limitPrice : level.price >= limitPrice)) {
+            RestingOrder maker = level.head;
+            while (maker != null && remaining > 0) {
+                long fill = Math.min(remaining, maker.remaining);
+                remaining -= fill;
+                maker.remaining -= fill;
+                level.totalQuantity -= fill;
+                notional += FixedPoint.toDouble(level.price) * FixedPoint.toDouble(fill);
+                lastTradePrice = level.price;
+
+                RestingOrder next = maker.next;
+                long makerId = maker.orderId;
+                long makerRemaining = maker.remaining;
+                if (makerRemaining == 0) {
+                    level.unlink(maker);
+                    orders.remove(makerId);
+                    release(maker);
+                }
+                if (listener != null) {
+                    listener.onFill(symbol, takerId, makerId, buy, level.price, fill, remaining, makerRemaining);
+                }
+                maker = next;
+            }
+            if (level.isEmpty()) {
+                opposite.remove(level);
+            }
+        }
+
+        lastFilledQuantity = quantity - remaining;
+        lastFilledNotional = notional;
+        return remaining;
+    }
+
+    /**
+     * Resting quantity on a side, counted from the top of book until
+     * {@code enough} is reached.
+     */
+    private static long available(BookSide side, boolean buy, long limitPrice, long enough) {
+        long total = 0;
+        for (int i = 0; i < side.depth() && total < enough; i++) {
+            long price = side.priceAt(i);
+            if (buy ? price > limitPrice : price < limitPrice) {
+                break;
+            }
+            total += side.get(price).totalQuantity;
+        }
+        return total;
+    }
+
+    private void rest(long orderId, boolean buy, long price, long quantity) {
+        RestingOrder order = pooled == 0 ? new RestingOrder() : pool[--pooled];
+        order.orderId = orderId;
+        order.buy = buy;
+        order.remaining = quantity;
+        (buy ? bids : asks).getOrCreate(price).append(order);
+        orders.put(orderId, order);
+    }
+
+    private void release(RestingOrder order) {
+        order.clear();
+        if (pooled == pool.length) {
+            pool = Arrays.copyOf(pool, pooled << 1);
+        }
+        pool[pooled++] = order;
+    }
+
+    private void validate(long orderId, long quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive: " + quantity);
+        }
+        if (orders.get(orderId) != null) {
+            throw new IllegalArgumentException("Order " + orderId + " is already resting in " + symbol);
+        }
+    }
+}
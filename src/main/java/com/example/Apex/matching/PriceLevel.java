@@ -0,0 +1,57 @@
+package com.example.Apex.matching;
+
+/**
+ * All resting orders at one price, oldest first.
+ */
+final class PriceLevel {
+
+    long price;
+    long totalQuantity;
+    int orderCount;
+    RestingOrder head;
+    RestingOrder tail;
+
+    void append(RestingOrder order) {
+        order.level = this;
+        order.prev = tail;
+        order.next = null;
+        if (tail == null) {
+            head = order;
+        } else {
+            tail.next = order;
+        }
+        tail = order;
+        totalQuantity += order.remaining;
+        orderCount++;
+    }
+
+    void unlink(RestingOrder order) {
+        if (order.prev == null) {
+            head = order.next;
+        } else {
+            order.prev.next = order.next;
+        }
+        if (order.next == null) {
+            tail = order.prev;
+        } else {
+            order.next.prev = order.prev;
+        }
+        totalQuantity -= order.remaining;
+        orderCount--;
+        order.prev = null;
+        order.next = null;
+        order.level = null;
+    }
+
+    boolean isEmpty() {
+        return head == null;
+    }
+
+    void clear() {
+        price = 0;
+        totalQuantity = 0;
+        orderCount = 0;
+        head = null;
+        tail = null;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.Apex.matching;
+
+/**
+ * An order resting in the book. Doubles as its own node in the price
+ * level's FIFO queue (intrusive list), so queueing and cancelling allocate
+ * nothing and unlinking is O(1). Instances are pooled by {@link OrderBook}.
+ */
+final class RestingOrder {
+
+    long orderId;
+    long remaining;
+    boolean buy;
+    PriceLevel level;
+    RestingOrder prev;
+    RestingOrder next;
+
+    void clear() {
+        orderId = 0;
+        remaining = 0;
+        level = null;
+        prev = null;
+        next = null;
+    }
+}
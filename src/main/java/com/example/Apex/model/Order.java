@@ -34,6 +34,21 @@ public class Order {
     @Column(nullable = false)
     private Integer quantity;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "order_type")
+    private OrderType type;
+
+    /** Worst acceptable price for LIMIT orders. */
+    @Column(name = "limit_price", precision = 15, scale = 2)
+    private BigDecimal limitPrice;
+
+    /** Trade price at which a STOP order becomes a market order. */
+    @Column(name = "stop_price", precision = 15, scale = 2)
+    private BigDecimal stopPrice;
+
+    @Column(name = "filled_quantity")
+    private Integer filledQuantity;
+
     @Column(precision = 15, scale = 2)
     private BigDecimal price;
 
@@ -69,13 +84,32 @@ public class Order {
         if (status == null) {
             status = OrderStatus.PENDING_VALIDATION;
         }
+        if (type == null) {
+            type = OrderType.MARKET;
+        }
+        if (filledQuantity == null) {
+            filledQuantity = 0;
+        }
+    }
+
+    public int getRemainingQuantity() {
+        return quantity - (filledQuantity == null ? 0 : filledQuantity);
     }
 
     public enum Side {
         BUY, SELL
     }
 
+    public enum OrderType {
+        /** Fills immediately at the live price. */
+        MARKET,
+        /** Fills at limitPrice or better; rests while the market is away. */
+        LIMIT,
+        /** Rests until a trade crosses stopPrice, then fills as a market order. */
+        STOP
+    }
+
     public enum OrderStatus {
-        PENDING_VALIDATION, VALIDATED, FILLED, REJECTED, CANCELLED
+        PENDING_VALIDATION, VALIDATED, WORKING, PARTIALLY_FILLED, FILLED, REJECTED, CANCELLED
     }
 }
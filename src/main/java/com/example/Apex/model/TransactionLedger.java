@@ -10,7 +10,9 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "transaction_ledger")
+@Table(name = "transaction_ledger", indexes = {
+        @Index(name = "idx_ledger_reference", columnList = "reference")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -34,6 +36,19 @@ public class TransactionLedger {
     @Column(nullable = false)
     private LocalDateTime timestamp;
 
+    /**
+     * Set while the wallet balance change is still queued for write-behind
+     * (apex.wallet.mode=IN_MEMORY); null or false once applied.
+     */
+    @Column(name = "wallet_pending")
+    private Boolean walletPending;
+
+    /**
+     * Idempotency key of the sequenced order that moved the funds, so the
+     * journal can be checked against the ledger; null for other movements.
+     */
+    private String reference;
+
     @PrePersist
     protected void onCreate() {
         if (timestamp == null) {
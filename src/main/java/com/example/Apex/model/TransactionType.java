@@ -1,8 +1,11 @@
 package com.example.Apex.model;
 
 public enum TransactionType {
+    /** Opening balance of a wallet created with its user. */
     DEPOSIT,
     WITHDRAWAL,
     TRADE_BUY,
-    TRADE_SELL
+    TRADE_SELL,
+    /** Funds reserved for a resting BUY order returned on cancel or price improvement. */
+    TRADE_REFUND
 }
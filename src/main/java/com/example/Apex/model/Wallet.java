@@ -26,6 +26,11 @@ public class Wallet {
     @Column(nullable = false, precision = 19, scale = 4)
     private BigDecimal balance;
 
+    /** Optimistic-locking version; bumped by every balance update. */
+    @Version
+    @Column(columnDefinition = "bigint default 0 not null")
+    private Long version;
+
     public Wallet(Long userId, BigDecimal balance) {
         this.userId = userId;
         this.balance = balance;
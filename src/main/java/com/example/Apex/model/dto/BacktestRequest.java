@@ -7,6 +7,8 @@ import java.time.LocalDateTime;
 @Data
 public class BacktestRequest {
     private String strategyName;
+    private String symbol; // Optional for tick backtests, required with interval
+    private String interval; // Optional: "1s", "1m", "5m", "1h" to replay candles instead of ticks
     private LocalDateTime start;
     private LocalDateTime end;
 }
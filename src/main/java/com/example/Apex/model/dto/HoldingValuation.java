@@ -0,0 +1,25 @@
+package com.example.Apex.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * One position of a portfolio summary, marked to the last traded price.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HoldingValuation {
+
+    private String symbol;
+    private Integer quantity;
+    private BigDecimal averagePrice;
+    private BigDecimal marketPrice;
+    private BigDecimal marketValue;
+    private BigDecimal unrealizedPnl;
+}
@@ -1,11 +1,14 @@
 package com.example.Apex.model.dto;
 
 import com.example.Apex.model.Order;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 
+import java.math.BigDecimal;
+
 @Data
 public class OrderRequest {
     @NotNull
@@ -20,4 +23,15 @@ public class OrderRequest {
     @NotNull
     @Min(1)
     private Integer quantity;
+
+    /** Defaults to MARKET. */
+    private Order.OrderType type;
+
+    /** Required for LIMIT orders. */
+    @DecimalMin(value = "0", inclusive = false)
+    private BigDecimal limitPrice;
+
+    /** Required for STOP orders. */
+    @DecimalMin(value = "0", inclusive = false)
+    private BigDecimal stopPrice;
 }
@@ -1,6 +1,5 @@
 package com.example.Apex.model.dto;
 
-import com.example.Apex.model.Holding;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -11,7 +10,7 @@ import java.util.List;
 
 /**
  * DTO for portfolio summary view.
- * Aggregates user balance and all holdings.
+ * Aggregates user balance and all holdings, valued at the latest prices.
  */
 @Data
 @Builder
@@ -21,6 +20,8 @@ public class PortfolioSummary {
 
     private Long userId;
     private BigDecimal cashBalance;
+    private BigDecimal holdingsValue;
+    private BigDecimal unrealizedPnl;
     private BigDecimal totalValue;
-    private List<Holding> holdings;
+    private List<HoldingValuation> holdings;
 }
@@ -0,0 +1,17 @@
+package com.example.Apex.model.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Data
+public class SweepRequest {
+    private String strategyName;
+    private String symbol; // Optional for tick sweeps, required with interval
+    private String interval; // Optional: "1s", "1m", "5m", "1h" to replay candles instead of ticks
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private Map<String, List<Double>> parameters; // Values to try per parameter, e.g. {"period": [10, 20, 50]}
+}
@@ -6,6 +6,8 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
 
 /**
  * DTO for trade execution results.
@@ -22,4 +24,8 @@ public class TradeResponse {
     private String message;
     private BigDecimal executedPrice;
     private String details;
+    /** Wall-clock microseconds per pipeline stage, plus "total". */
+    private Map<String, Long> timings;
+    /** Stages that failed or timed out and were replaced by a fallback. */
+    private List<String> degraded;
 }
@@ -0,0 +1,86 @@
+package com.example.Apex.pipeline;
+
+import com.example.Apex.client.BrokerClient;
+import com.example.Apex.execution.OrderStateMachine;
+import com.example.Apex.execution.OrderTriggerEngine;
+import com.example.Apex.model.Order;
+import com.example.Apex.model.TradeLog;
+import com.example.Apex.repo.TradeLogRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+
+/**
+ * Sends marketable orders to the broker, bounded by the worst price funds
+ * were reserved at, and records the fill on the order; the FILLED transition
+ * happens once settlement succeeds. Orders that are
+ * not marketable go WORKING and are handed to {@link OrderTriggerEngine}
+ * once the transaction commits.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ExecuteStage implements TradeStage {
+
+    private final BrokerClient brokerClient;
+    private final OrderStateMachine orderStateMachine;
+    private final OrderTriggerEngine orderTriggerEngine;
+    private final TradeLogRepository tradeLogRepository;
+
+    @Override
+    public TradePhase phase() {
+        return TradePhase.EXECUTE;
+    }
+
+    @Override
+    public String name() {
+        return "execute";
+    }
+
+    @Override
+    public void apply(TradeContext context) {
+        Order order = context.getOrder();
+        if (context.isResting()) {
+            orderStateMachine.transition(order, Order.OrderStatus.WORKING);
+            registerAfterCommit(order);
+            return;
+        }
+        try {
+            context.setExecutionId(brokerClient.executeOrder(order, context.getWorstPrice()));
+        } catch (RuntimeException e) {
+            tradeLogRepository.save(TradeLog.builder()
+                    .orderId(order.getId())
+                    .action("ORDER_FAILED")
+                    .details(e.getMessage())
+                    .build());
+            throw e;
+        }
+        // A matching broker sets the volume-weighted price; otherwise the order fills at the market price.
+        if (order.getExecutionPrice() == null) {
+            order.setExecutionPrice(context.getPrice());
+        }
+        order.setFilledQuantity(context.getQuantity());
+        order.setFilledAt(LocalDateTime.now());
+    }
+
+    /**
+     * The trigger engine fills on another thread, so it must only see the
+     * order once it is committed.
+     */
+    private void registerAfterCommit(Order order) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            orderTriggerEngine.register(order);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                orderTriggerEngine.register(order);
+            }
+        });
+    }
+}
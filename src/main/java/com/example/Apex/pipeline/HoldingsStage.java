@@ -0,0 +1,38 @@
+package com.example.Apex.pipeline;
+
+import com.example.Apex.portfolio.PortfolioService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Updates the position of strategy trades; runs before the wallet is settled
+ * so a SELL beyond the held quantity still rejects the order.
+ */
+@Component
+@Order(1)
+@RequiredArgsConstructor
+public class HoldingsStage implements TradeStage {
+
+    private final PortfolioService portfolioService;
+
+    @Override
+    public TradePhase phase() {
+        return TradePhase.SETTLE;
+    }
+
+    @Override
+    public String name() {
+        return "holdings";
+    }
+
+    @Override
+    public boolean appliesTo(TradeContext context) {
+        return context.isStrategyTrade() && !context.isResting();
+    }
+
+    @Override
+    public void apply(TradeContext context) {
+        portfolioService.updateHoldings(context.getOrder());
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.Apex.pipeline;
+
+import com.example.Apex.model.Order;
+import com.example.Apex.portfolio.PortfolioService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Checks that a strategy SELL is covered by the current holding before it
+ * reaches the broker; {@link HoldingsStage} only books the position after the
+ * fill, when rejecting would leave the broker's fill in place. A SELL limit
+ * or stop order that will rest is checked at placement too, as its fills
+ * arrive later with nothing left to reject.
+ */
+@Component
+@RequiredArgsConstructor
+public class PositionStage implements TradeStage {
+
+    private final PortfolioService portfolioService;
+
+    @Override
+    public TradePhase phase() {
+        return TradePhase.RESERVE;
+    }
+
+    @Override
+    public String name() {
+        return "position";
+    }
+
+    @Override
+    public boolean appliesTo(TradeContext context) {
+        return context.getSide() == Order.Side.SELL && (context.isStrategyTrade() || !context.isMarketable());
+    }
+
+    @Override
+    public void apply(TradeContext context) {
+        portfolioService.requireHolding(context.getUserId(), context.getSymbol(), context.getQuantity());
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.Apex.pipeline;
+
+import com.example.Apex.market.MarketDataService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Live market price; rejects the trade if the cached price is stale.
+ */
+@Component
+@RequiredArgsConstructor
+public class PriceStage implements TradeStage {
+
+    private final MarketDataService marketDataService;
+
+    @Value("${apex.pipeline.timeout.price-ms:1000}")
+    private long timeoutMs;
+
+    @Override
+    public TradePhase phase() {
+        return TradePhase.FETCH;
+    }
+
+    @Override
+    public String name() {
+        return "price";
+    }
+
+    @Override
+    public void apply(TradeContext context) {
+        context.setPrice(marketDataService.getTradablePrice(context.getSymbol()));
+    }
+
+    @Override
+    public long timeoutMs() {
+        return timeoutMs;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.Apex.pipeline;
+
+import com.example.Apex.client.BrokerClient;
+import com.example.Apex.model.Order;
+import com.example.Apex.model.TransactionType;
+import com.example.Apex.service.RestingOrderService;
+import com.example.Apex.wallet.WalletStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+
+/**
+ * Sets funds aside for BUY orders: a reservation at the worst price the
+ * broker may fill at (see {@link BrokerClient#worstFillPrice}, capped by a
+ * LIMIT order's limit) for orders that fill now, or a debit at the limit (or
+ * stop) price for orders that will rest.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReserveStage implements TradeStage {
+
+    private final WalletStore walletStore;
+    private final BrokerClient brokerClient;
+
+    @Override
+    public TradePhase phase() {
+        return TradePhase.RESERVE;
+    }
+
+    @Override
+    public String name() {
+        return "reserve";
+    }
+
+    @Override
+    public void apply(TradeContext context) {
+        Order order = context.getOrder();
+        context.setResting(!context.isMarketable());
+        if (!context.isResting()) {
+            context.setWorstPrice(worstPrice(context));
+        }
+        if (context.getSide() != Order.Side.BUY) {
+            return;
+        }
+        BigDecimal quantity = BigDecimal.valueOf(context.getQuantity());
+        if (context.isResting()) {
+            walletStore.debit(context.getUserId(), RestingOrderService.reservePrice(order).multiply(quantity),
+                    TransactionType.TRADE_BUY);
+        } else {
+            context.setReservation(walletStore.reserve(context.getUserId(),
+                    context.getWorstPrice().multiply(quantity)));
+        }
+    }
+
+    private BigDecimal worstPrice(TradeContext context) {
+        BigDecimal worst = brokerClient.worstFillPrice(context.getSide(), context.getPrice());
+        BigDecimal limit = context.getOrder().getLimitPrice();
+        if (context.getOrder().getType() != Order.OrderType.LIMIT || limit == null) {
+            return worst;
+        }
+        return context.getSide() == Order.Side.BUY ? worst.min(limit) : worst.max(limit);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.Apex.pipeline;
+
+import com.example.Apex.execution.OrderStateMachine;
+import com.example.Apex.model.Order;
+import com.example.Apex.risk.RiskGuard;
+import com.example.Apex.service.RiskManagementService;
+import com.example.Apex.wallet.WalletStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+
+/**
+ * Risk checks at the price the order may trade at, then PENDING_VALIDATION →
+ * VALIDATED. Strategy trades also pass the {@link RiskGuard} account limits.
+ */
+@Component
+@RequiredArgsConstructor
+public class RiskStage implements TradeStage {
+
+    private final RiskManagementService riskManagementService;
+    private final RiskGuard riskGuard;
+    private final WalletStore walletStore;
+    private final OrderStateMachine orderStateMachine;
+
+    @Override
+    public TradePhase phase() {
+        return TradePhase.RISK;
+    }
+
+    @Override
+    public String name() {
+        return "risk";
+    }
+
+    @Override
+    public void apply(TradeContext context) {
+        Order order = context.getOrder();
+        order.setPrice(context.getPrice());
+        riskManagementService.validateOrder(order.getId(), context.getUserId(), context.getSymbol(),
+                context.getSide(), context.getQuantity(), context.referencePrice());
+        if (context.isStrategyTrade()) {
+            BigDecimal tradeValue = context.getPrice().multiply(BigDecimal.valueOf(context.getQuantity()));
+            riskGuard.validateTrade(context.getUserId(), walletStore.available(context.getUserId()), tradeValue,
+                    context.getQuantity());
+        }
+        // PENDING_VALIDATION → VALIDATED (enforced by state machine)
+        orderStateMachine.transition(order, Order.OrderStatus.VALIDATED);
+    }
+}
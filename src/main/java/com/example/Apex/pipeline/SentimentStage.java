@@ -0,0 +1,56 @@
+package com.example.Apex.pipeline;
+
+import com.example.Apex.client.AIClient;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * AI sentiment for strategy trades. If the AI service fails or is slower
+ * than apex.pipeline.timeout.sentiment-ms, the trade goes ahead with NEUTRAL
+ * sentiment.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SentimentStage implements TradeStage {
+
+    private final AIClient aiClient;
+
+    @Value("${apex.pipeline.timeout.sentiment-ms:500}")
+    private long timeoutMs;
+
+    @Override
+    public TradePhase phase() {
+        return TradePhase.FETCH;
+    }
+
+    @Override
+    public String name() {
+        return "sentiment";
+    }
+
+    @Override
+    public boolean appliesTo(TradeContext context) {
+        return context.isStrategyTrade();
+    }
+
+    @Override
+    public void apply(TradeContext context) {
+        context.setSentiment(aiClient.getSentiment(context.getSymbol()));
+    }
+
+    @Override
+    public long timeoutMs() {
+        return timeoutMs;
+    }
+
+    @Override
+    public boolean recover(TradeContext context, RuntimeException failure) {
+        log.warn("[PIPELINE] Sentiment for {} unavailable ({}), using NEUTRAL", context.getSymbol(),
+                failure.getMessage());
+        context.setSentiment(AIClient.Sentiment.NEUTRAL);
+        return true;
+    }
+}
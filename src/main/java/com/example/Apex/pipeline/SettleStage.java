@@ -0,0 +1,59 @@
+package com.example.Apex.pipeline;
+
+import com.example.Apex.execution.OrderStateMachine;
+import com.example.Apex.model.Order;
+import com.example.Apex.model.TradeLog;
+import com.example.Apex.model.TransactionType;
+import com.example.Apex.repo.TradeLogRepository;
+import com.example.Apex.wallet.WalletStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+
+/**
+ * Commits the BUY reservation at the executed amount or credits SELL
+ * proceeds (instant settlement for MVP), then VALIDATED → FILLED.
+ */
+@Component
+@org.springframework.core.annotation.Order(2)
+@RequiredArgsConstructor
+public class SettleStage implements TradeStage {
+
+    private final WalletStore walletStore;
+    private final OrderStateMachine orderStateMachine;
+    private final TradeLogRepository tradeLogRepository;
+
+    @Override
+    public TradePhase phase() {
+        return TradePhase.SETTLE;
+    }
+
+    @Override
+    public String name() {
+        return "settle";
+    }
+
+    @Override
+    public boolean appliesTo(TradeContext context) {
+        return !context.isResting();
+    }
+
+    @Override
+    public void apply(TradeContext context) {
+        Order order = context.getOrder();
+        BigDecimal amount = order.getExecutionPrice().multiply(BigDecimal.valueOf(context.getQuantity()));
+        if (context.getSide() == Order.Side.BUY) {
+            walletStore.commit(context.getReservation(), amount, TransactionType.TRADE_BUY);
+        } else {
+            walletStore.credit(context.getUserId(), amount, TransactionType.TRADE_SELL);
+        }
+        // VALIDATED → FILLED (enforced by state machine)
+        orderStateMachine.transition(order, Order.OrderStatus.FILLED);
+        tradeLogRepository.save(TradeLog.builder()
+                .orderId(order.getId())
+                .action("ORDER_FILLED")
+                .details("Executed via broker. ExecutionId: " + context.getExecutionId())
+                .build());
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.Apex.pipeline;
+
+import com.example.Apex.market.MarketTick;
+import com.example.Apex.strategy.StrategySignal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collections;
+
+/**
+ * Asks the requested strategy about the current price and halts the trade
+ * unless it signals BUY.
+ */
+@Slf4j
+@Component
+public class SignalStage implements TradeStage {
+
+    @Override
+    public TradePhase phase() {
+        return TradePhase.SIGNAL;
+    }
+
+    @Override
+    public String name() {
+        return "signal";
+    }
+
+    @Override
+    public boolean appliesTo(TradeContext context) {
+        return context.isStrategyTrade();
+    }
+
+    @Override
+    public void apply(TradeContext context) {
+        MarketTick currentTick = new MarketTick(context.getSymbol(), context.getPrice(),
+                LocalDateTime.now(ZoneOffset.UTC));
+        StrategySignal signal = context.getStrategy().analyze(currentTick, Collections.emptyList(),
+                context.getSentiment());
+        context.setSignal(signal);
+        if (signal.type() != StrategySignal.SignalType.BUY) {
+            log.info("Strategy decided NOT to execute trade");
+            context.halt("Strategy decision: " + signal.type(), signal.reason());
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.Apex.pipeline;
+
+import com.example.Apex.client.AIClient;
+import com.example.Apex.model.Order;
+import com.example.Apex.model.User;
+import com.example.Apex.strategy.StrategySignal;
+import com.example.Apex.strategy.TradingStrategy;
+import com.example.Apex.wallet.Reservation;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * State of one trade as it moves through {@link TradePipeline}. Concurrent
+ * stages each write their own field; the pipeline joins them before the next
+ * phase reads anything. A stage abandoned after a timeout may still write its
+ * field late, hence the volatile fetch results.
+ */
+@Getter
+@Setter
+public class TradeContext {
+
+    private final Long userId;
+    private final String symbol;
+    private final Order.Side side;
+    private final int quantity;
+    /** Set for strategy trades, which run the signal stage. */
+    private final TradingStrategy strategy;
+
+    private Order order;
+    private volatile User user;
+    private volatile BigDecimal price;
+    private volatile AIClient.Sentiment sentiment;
+    private StrategySignal signal;
+    /** Worst price the order may fill at; BUY funds are reserved at it. */
+    private BigDecimal worstPrice;
+    private Reservation reservation;
+    private String executionId;
+    /** The order was not marketable and rests on the trigger engine. */
+    private boolean resting;
+
+    private String haltMessage;
+    private String haltDetails;
+
+    private final Map<String, Long> stageNanos = Collections.synchronizedMap(new LinkedHashMap<>());
+    private final List<String> degradedStages = new CopyOnWriteArrayList<>();
+
+    public TradeContext(Long userId, String symbol, Order.Side side, int quantity, TradingStrategy strategy) {
+        this.userId = userId;
+        this.symbol = symbol;
+        this.side = side;
+        this.quantity = quantity;
+        this.strategy = strategy;
+    }
+
+    /**
+     * Context for an order that is already saved.
+     */
+    public static TradeContext forOrder(Order order) {
+        TradeContext context = new TradeContext(order.getUserId(), order.getSymbol(), order.getSide(),
+                order.getQuantity(), null);
+        context.order = order;
+        return context;
+    }
+
+    public boolean isStrategyTrade() {
+        return strategy != null;
+    }
+
+    /**
+     * Stops the pipeline after the current phase without rejecting anything,
+     * e.g. when the strategy decides not to trade.
+     */
+    public void halt(String message, String details) {
+        this.haltMessage = message;
+        this.haltDetails = details;
+    }
+
+    public boolean isHalted() {
+        return haltMessage != null;
+    }
+
+    /**
+     * The price the order may trade at: the market price for MARKET orders,
+     * else the limit (or stop) price.
+     */
+    public BigDecimal referencePrice() {
+        return switch (order.getType()) {
+            case MARKET -> price;
+            case LIMIT -> order.getLimitPrice();
+            case STOP -> order.getStopPrice();
+        };
+    }
+
+    /**
+     * Whether the order should fill right away at the market price.
+     */
+    public boolean isMarketable() {
+        boolean buy = side == Order.Side.BUY;
+        return switch (order.getType()) {
+            case MARKET -> true;
+            case LIMIT -> buy ? price.compareTo(order.getLimitPrice()) <= 0
+                    : price.compareTo(order.getLimitPrice()) >= 0;
+            case STOP -> buy ? price.compareTo(order.getStopPrice()) >= 0
+                    : price.compareTo(order.getStopPrice()) <= 0;
+        };
+    }
+
+    /**
+     * Wall-clock time of each stage that ran, in nanoseconds.
+     */
+    public Map<String, Long> getStageNanos() {
+        synchronized (stageNanos) {
+            return new LinkedHashMap<>(stageNanos);
+        }
+    }
+
+    /**
+     * Stages that failed or timed out and continued with a fallback.
+     */
+    public List<String> getDegradedStages() {
+        return List.copyOf(degradedStages);
+    }
+
+    void recordStage(String stage, long nanos) {
+        stageNanos.put(stage, nanos);
+    }
+
+    void markDegraded(String stage) {
+        degradedStages.add(stage);
+    }
+}
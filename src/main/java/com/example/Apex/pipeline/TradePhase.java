@@ -0,0 +1,33 @@
+package com.example.Apex.pipeline;
+
+/**
+ * Phases of {@link TradePipeline}, in execution order.
+ *
+ * Stages of a concurrent phase do not depend on each other and run in
+ * parallel, outside the caller's transaction; stages of the other phases run
+ * one after another on the caller's thread.
+ */
+public enum TradePhase {
+    /** Market price, sentiment and user lookups. */
+    FETCH(true),
+    /** Strategy decision; may halt the trade. */
+    SIGNAL(false),
+    /** Risk checks, ending with the order VALIDATED. */
+    RISK(false),
+    /** Funds reserved for BUY orders, SELL holdings checked. */
+    RESERVE(false),
+    /** Broker execution, or the order goes WORKING. */
+    EXECUTE(false),
+    /** Holdings and wallet settled, order FILLED. */
+    SETTLE(false);
+
+    private final boolean concurrent;
+
+    TradePhase(boolean concurrent) {
+        this.concurrent = concurrent;
+    }
+
+    public boolean isConcurrent() {
+        return concurrent;
+    }
+}
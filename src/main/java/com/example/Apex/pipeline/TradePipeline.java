@@ -0,0 +1,205 @@
+package com.example.Apex.pipeline;
+
+import com.example.Apex.exception.StageTimeoutException;
+import com.example.Apex.execution.OrderStateMachine;
+import com.example.Apex.model.Order;
+import com.example.Apex.repo.OrderRepository;
+import com.example.Apex.service.RiskManagementService;
+import com.example.Apex.wallet.WalletStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The single order path: price → signal → risk → reserve → execute → settle,
+ * each phase made of pluggable {@link TradeStage} beans.
+ *
+ * Stages of a concurrent phase (see {@link TradePhase}) run in parallel on
+ * the fetch pool, so the phase costs as much as its slowest stage rather
+ * than their sum. With {@code spring.threads.virtual.enabled} (JDK 21+) each
+ * forked stage gets its own virtual thread instead of a pooled one.
+ *
+ * A stage may have a timeout and a fallback ({@link TradeStage#recover}); a
+ * stage that recovered is listed as degraded on the context.
+ *
+ * Metrics: apex.pipeline.stage (tags stage, phase) and apex.pipeline.phase
+ * (tag phase) latency timers; the phase timers show the critical path.
+ */
+@Slf4j
+@Component
+public class TradePipeline {
+
+    private final Map<TradePhase, List<TradeStage>> stages = new EnumMap<>(TradePhase.class);
+    private final Map<TradeStage, Timer> stageTimers = new IdentityHashMap<>();
+    private final Map<TradePhase, Timer> phaseTimers = new EnumMap<>(TradePhase.class);
+    private final OrderRepository orderRepository;
+    private final OrderStateMachine orderStateMachine;
+    private final WalletStore walletStore;
+    private final Executor fetchPool;
+
+    public TradePipeline(List<TradeStage> stages, OrderRepository orderRepository,
+            OrderStateMachine orderStateMachine, WalletStore walletStore, MeterRegistry meterRegistry,
+            Environment environment, @Value("${apex.pipeline.fetch-threads:16}") int fetchThreads) {
+        this.orderRepository = orderRepository;
+        this.orderStateMachine = orderStateMachine;
+        this.walletStore = walletStore;
+        for (TradePhase phase : TradePhase.values()) {
+            this.stages.put(phase, new ArrayList<>());
+            phaseTimers.put(phase, Timer.builder("apex.pipeline.phase")
+                    .tag("phase", phase.name())
+                    .description("Time spent in one phase of the order pipeline")
+                    .register(meterRegistry));
+        }
+        // The injected list is already in @Order order.
+        for (TradeStage stage : stages) {
+            this.stages.get(stage.phase()).add(stage);
+            stageTimers.put(stage, Timer.builder("apex.pipeline.stage")
+                    .tag("stage", stage.name())
+                    .tag("phase", stage.phase().name())
+                    .description("Time spent in one stage of the order pipeline")
+                    .register(meterRegistry));
+        }
+        this.fetchPool = Threading.VIRTUAL.isActive(environment) ? virtualExecutor() : fixedPool(fetchThreads);
+        this.stages.forEach((phase, list) -> log.info("[PIPELINE] {}: {}", phase,
+                list.stream().map(TradeStage::name).toList()));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (fetchPool instanceof ExecutorService pool) {
+            pool.shutdownNow();
+        }
+    }
+
+    private static Executor fixedPool(int threads) {
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "trade-fetch-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static Executor virtualExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("trade-fetch-");
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+
+    /**
+     * Runs the phases from {@code first} to {@code last}, stopping early if a
+     * stage halts the trade.
+     *
+     * @throws RuntimeException whatever the failing stage threw
+     */
+    public void run(TradeContext context, TradePhase first, TradePhase last) {
+        for (TradePhase phase : TradePhase.values()) {
+            if (phase.compareTo(first) < 0 || phase.compareTo(last) > 0) {
+                continue;
+            }
+            long start = System.nanoTime();
+            List<TradeStage> applicable = stages.get(phase).stream().filter(s -> s.appliesTo(context)).toList();
+            if (phase.isConcurrent() && (applicable.size() > 1
+                    || applicable.stream().anyMatch(s -> s.timeoutMs() > 0))) {
+                runConcurrently(applicable, context);
+            } else {
+                for (TradeStage stage : applicable) {
+                    runStage(stage, context);
+                }
+            }
+            phaseTimers.get(phase).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (context.isHalted()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Runs the phases from {@code first} to the end for a saved order and
+     * saves it. A failing stage rejects the order and releases any funds
+     * reserved for it.
+     */
+    public Order process(TradeContext context, TradePhase first) {
+        Order order = context.getOrder();
+        try {
+            run(context, first, TradePhase.SETTLE);
+        } catch (RiskManagementService.RiskException e) {
+            log.warn("Order {} rejected by Risk Engine: {}", order.getId(), e.getMessage());
+            order.setRejectionReason(e.getMessage());
+            // PENDING_VALIDATION → REJECTED (enforced by state machine)
+            orderStateMachine.transition(order, Order.OrderStatus.REJECTED);
+        } catch (Exception e) {
+            if (context.getReservation() != null) {
+                walletStore.release(context.getReservation());
+            }
+            log.error("Order {} failed during execution: {}", order.getId(), e.getMessage());
+            order.setRejectionReason(e.getMessage());
+            // Transition from whatever current state to REJECTED — state machine validates this
+            orderStateMachine.transition(order, Order.OrderStatus.REJECTED);
+        }
+        return orderRepository.save(order);
+    }
+
+    /**
+     * Forks every stage onto the fetch pool and waits for all of them, each
+     * up to its own timeout. A stage that times out is abandoned rather than
+     * interrupted.
+     */
+    private void runConcurrently(List<TradeStage> applicable, TradeContext context) {
+        List<CompletableFuture<Void>> forked = new ArrayList<>(applicable.size());
+        for (TradeStage stage : applicable) {
+            CompletableFuture<Void> future = CompletableFuture.runAsync(() -> runStage(stage, context), fetchPool);
+            forked.add(stage.timeoutMs() > 0 ? future.orTimeout(stage.timeoutMs(), TimeUnit.MILLISECONDS) : future);
+        }
+        RuntimeException failure = null;
+        for (int i = 0; i < forked.size(); i++) {
+            TradeStage stage = applicable.get(i);
+            try {
+                forked.get(i).join();
+            } catch (CompletionException e) {
+                RuntimeException cause = e.getCause() instanceof TimeoutException
+                        ? new StageTimeoutException(stage.name() + " timed out after " + stage.timeoutMs() + " ms")
+                        : e.getCause() instanceof RuntimeException runtime ? runtime : e;
+                if (stage.recover(context, cause)) {
+                    context.markDegraded(stage.name());
+                } else if (failure == null) {
+                    failure = cause;
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void runStage(TradeStage stage, TradeContext context) {
+        long start = System.nanoTime();
+        try {
+            stage.apply(context);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            stageTimers.get(stage).record(elapsed, TimeUnit.NANOSECONDS);
+            context.recordStage(stage.name(), elapsed);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.Apex.pipeline;
+
+/**
+ * One step of the order pipeline. Implementations are Spring beans; within a
+ * sequential phase they run in {@link org.springframework.core.annotation.Order}
+ * order.
+ */
+public interface TradeStage {
+
+    TradePhase phase();
+
+    /** Tag value of the stage's latency timer. */
+    String name();
+
+    /**
+     * Whether the stage has anything to do for this trade, e.g. only strategy
+     * trades need a signal.
+     */
+    default boolean appliesTo(TradeContext context) {
+        return true;
+    }
+
+    /**
+     * Runs the stage; a failure rejects the order.
+     */
+    void apply(TradeContext context);
+
+    /**
+     * Longest the stage may take in a concurrent phase before it is abandoned
+     * and fails with a {@link com.example.Apex.exception.StageTimeoutException};
+     * 0 waits indefinitely. Sequential stages are not timed out.
+     */
+    default long timeoutMs() {
+        return 0;
+    }
+
+    /**
+     * Partial-failure policy: called when the stage failed or timed out. A
+     * stage that can do without its result fills in a fallback and returns
+     * true, and the trade continues; by default the failure rejects it.
+     */
+    default boolean recover(TradeContext context, RuntimeException failure) {
+        return false;
+    }
+}
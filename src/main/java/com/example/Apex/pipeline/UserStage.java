@@ -0,0 +1,44 @@
+package com.example.Apex.pipeline;
+
+import com.example.Apex.service.UserService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Loads the trading user for strategy trades; fails if it does not exist.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserStage implements TradeStage {
+
+    private final UserService userService;
+
+    @Value("${apex.pipeline.timeout.user-ms:1000}")
+    private long timeoutMs;
+
+    @Override
+    public TradePhase phase() {
+        return TradePhase.FETCH;
+    }
+
+    @Override
+    public String name() {
+        return "user";
+    }
+
+    @Override
+    public boolean appliesTo(TradeContext context) {
+        return context.isStrategyTrade();
+    }
+
+    @Override
+    public void apply(TradeContext context) {
+        context.setUser(userService.findById(context.getUserId()));
+    }
+
+    @Override
+    public long timeoutMs() {
+        return timeoutMs;
+    }
+}
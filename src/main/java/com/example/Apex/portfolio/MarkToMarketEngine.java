@@ -0,0 +1,269 @@
+package com.example.Apex.portfolio;
+
+import com.example.Apex.market.FixedPoint;
+import com.example.Apex.market.LatestPriceCache;
+import com.example.Apex.market.MarketTick;
+import com.example.Apex.market.MarketTickRepository;
+import com.example.Apex.market.PriceSnapshot;
+import com.example.Apex.market.TradeListener;
+import com.example.Apex.model.Holding;
+import com.example.Apex.model.dto.HoldingValuation;
+import com.example.Apex.repo.HoldingRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps every user's positions and their market value in memory and revalues
+ * them as trades arrive, so a portfolio summary is read from running totals
+ * instead of fetching a price per holding.
+ *
+ * A symbol → holders index limits each tick to the books that hold the
+ * symbol; each of those adjusts its totals by (new mark − old mark) ×
+ * quantity. Positions are loaded from {@code holdings} at startup and then
+ * follow {@link PortfolioService} after each holdings change commits. A
+ * symbol without a trade yet is marked at the cached price; at startup, at
+ * its last stored tick. Failing both, it is marked at cost until it trades:
+ * a position change never waits on a price lookup.
+ *
+ * Values are kept in {@link FixedPoint} longs, which caps a single book at
+ * about 92 billion in quote currency.
+ */
+@Slf4j
+@Component
+public class MarkToMarketEngine implements TradeListener {
+
+    private final HoldingRepository holdingRepository;
+    private final LatestPriceCache latestPriceCache;
+    private final MarketTickRepository marketTickRepository;
+
+    private final Map<Long, Book> books = new ConcurrentHashMap<>();
+    private final Map<String, Set<Book>> holders = new ConcurrentHashMap<>();
+    /** Last price per symbol; written before the holders are revalued. */
+    private final Map<String, Long> marks = new ConcurrentHashMap<>();
+    private final Counter revaluations;
+
+    public MarkToMarketEngine(HoldingRepository holdingRepository, LatestPriceCache latestPriceCache,
+            MarketTickRepository marketTickRepository, MeterRegistry meterRegistry) {
+        this.holdingRepository = holdingRepository;
+        this.latestPriceCache = latestPriceCache;
+        this.marketTickRepository = marketTickRepository;
+        this.revaluations = Counter.builder("apex.mtm.revaluations")
+                .description("Positions revalued on a price tick")
+                .register(meterRegistry);
+        Gauge.builder("apex.mtm.positions", holders, h -> h.values().stream().mapToInt(Set::size).sum())
+                .description("Positions marked to market")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void load() {
+        List<Holding> holdings = holdingRepository.findAll();
+        holdings.stream().map(Holding::getSymbol).distinct().forEach(this::seedMarkFromLastTick);
+        for (Holding holding : holdings) {
+            update(holding.getUserId(), holding.getSymbol(), holding.getQuantity(), holding.getAveragePrice());
+        }
+        log.info("[MTM] Loaded {} positions of {} users", holdings.size(), books.size());
+    }
+
+    @Override
+    public void onTrade(String symbol, long eventTime, long priceE8, long quantityE8) {
+        Long previous = marks.put(symbol, priceE8);
+        if (previous != null && previous == priceE8) {
+            return;
+        }
+        Set<Book> symbolHolders = holders.get(symbol);
+        if (symbolHolders == null) {
+            return;
+        }
+        for (Book book : symbolHolders) {
+            book.revalue(symbol, priceE8);
+        }
+        revaluations.increment(symbolHolders.size());
+    }
+
+    /**
+     * Sets a user's position in a symbol; a quantity of zero removes it.
+     */
+    public void update(Long userId, String symbol, int quantity, BigDecimal averagePrice) {
+        if (quantity > 0) {
+            seedMark(symbol);
+        }
+        Book book = books.computeIfAbsent(userId, id -> new Book());
+        synchronized (book) {
+            // Index first and read the mark afterwards, under the book's lock: a tick either finds the
+            // position or has already published the price read here.
+            if (quantity > 0) {
+                holders.computeIfAbsent(symbol, s -> ConcurrentHashMap.newKeySet()).add(book);
+                book.put(symbol, quantity, averagePrice, marks.get(symbol));
+            } else if (book.remove(symbol)) {
+                holders.get(symbol).remove(book);
+            }
+        }
+    }
+
+    /**
+     * Whether the user has (or had) positions since startup.
+     */
+    public boolean tracks(Long userId) {
+        return books.containsKey(userId);
+    }
+
+    /**
+     * Counter that changes whenever the user's valuation does (0 for a user
+     * without positions), for readers that only want to know whether to
+     * fetch a new snapshot.
+     */
+    public long version(Long userId) {
+        Book book = books.get(userId);
+        return book == null ? 0 : book.version;
+    }
+
+    /**
+     * The user's position in a symbol; 0 when there is none.
+     */
+    public int quantity(Long userId, String symbol) {
+        Book book = books.get(userId);
+        if (book == null) {
+            return 0;
+        }
+        synchronized (book) {
+            return book.quantity(symbol);
+        }
+    }
+
+    /**
+     * Current valuation of a user's positions; empty for a user without any.
+     */
+    public Valuation valuation(Long userId) {
+        Book book = books.get(userId);
+        if (book == null) {
+            return new Valuation(BigDecimal.ZERO, BigDecimal.ZERO, List.of());
+        }
+        synchronized (book) {
+            return book.snapshot();
+        }
+    }
+
+    /**
+     * Runs on commit callbacks, so only reads the in-memory cache.
+     */
+    private void seedMark(String symbol) {
+        if (marks.containsKey(symbol)) {
+            return;
+        }
+        latestPriceCache.get(symbol).map(PriceSnapshot::price)
+                .ifPresentOrElse(price -> marks.putIfAbsent(symbol, FixedPoint.fromBigDecimal(price)),
+                        () -> log.info("[MTM] No price for {} yet, marking at cost until it trades", symbol));
+    }
+
+    private void seedMarkFromLastTick(String symbol) {
+        if (marks.containsKey(symbol) || latestPriceCache.get(symbol).isPresent()) {
+            return;
+        }
+        marketTickRepository.findTopBySymbolOrderByTimestampDesc(symbol).map(MarketTick::getPrice)
+                .ifPresent(price -> marks.putIfAbsent(symbol, FixedPoint.fromBigDecimal(price)));
+    }
+
+    public record Valuation(BigDecimal holdingsValue, BigDecimal unrealizedPnl, List<HoldingValuation> holdings) {
+    }
+
+    /**
+     * One user's positions and running totals, guarded by the book's monitor.
+     */
+    private static final class Book {
+
+        private final Map<String, Position> positions = new TreeMap<>();
+        private long marketValueE8;
+        private long costE8;
+        /** Written under the monitor, read without it. */
+        private volatile long version;
+
+        synchronized void revalue(String symbol, long markE8) {
+            Position position = positions.get(symbol);
+            if (position != null) {
+                marketValueE8 += (markE8 - position.markE8) * position.quantity;
+                position.markE8 = markE8;
+                version++;
+            }
+        }
+
+        void put(String symbol, int quantity, BigDecimal averagePrice, Long markE8) {
+            remove(symbol);
+            long averageE8 = FixedPoint.fromBigDecimal(averagePrice);
+            Position position = new Position(quantity, averagePrice, averageE8, markE8 != null ? markE8 : averageE8);
+            positions.put(symbol, position);
+            marketValueE8 += position.markE8 * quantity;
+            costE8 += averageE8 * quantity;
+            version++;
+        }
+
+        int quantity(String symbol) {
+            Position position = positions.get(symbol);
+            return position == null ? 0 : position.quantity;
+        }
+
+        boolean remove(String symbol) {
+            Position position = positions.remove(symbol);
+            if (position == null) {
+                return false;
+            }
+            marketValueE8 -= position.markE8 * position.quantity;
+            costE8 -= position.averageE8 * position.quantity;
+            version++;
+            return true;
+        }
+
+        Valuation snapshot() {
+            List<HoldingValuation> holdings = new ArrayList<>(positions.size());
+            positions.forEach((symbol, position) -> {
+                long valueE8 = position.markE8 * position.quantity;
+                holdings.add(HoldingValuation.builder()
+                        .symbol(symbol)
+                        .quantity(position.quantity)
+                        .averagePrice(position.averagePrice)
+                        .marketPrice(price(position.markE8))
+                        .marketValue(money(valueE8))
+                        .unrealizedPnl(money(valueE8 - position.averageE8 * position.quantity))
+                        .build());
+            });
+            return new Valuation(money(marketValueE8), money(marketValueE8 - costE8), holdings);
+        }
+
+        private static BigDecimal price(long priceE8) {
+            BigDecimal price = FixedPoint.toBigDecimal(priceE8).stripTrailingZeros();
+            return price.scale() < 2 ? price.setScale(2) : price;
+        }
+
+        private static BigDecimal money(long valueE8) {
+            return FixedPoint.toBigDecimal(valueE8).setScale(2, RoundingMode.HALF_UP);
+        }
+    }
+
+    private static final class Position {
+
+        private final int quantity;
+        private final BigDecimal averagePrice;
+        private final long averageE8;
+        private long markE8;
+
+        Position(int quantity, BigDecimal averagePrice, long averageE8, long markE8) {
+            this.quantity = quantity;
+            this.averagePrice = averagePrice;
+            this.averageE8 = averageE8;
+            this.markE8 = markE8;
+        }
+    }
+}
@@ -1,24 +1,24 @@
 package com.example.Apex.portfolio;
 
-import com.example.Apex.client.BrokerClient;
 import com.example.Apex.model.Holding;
 import com.example.Apex.model.Order;
-import com.example.Apex.model.User;
 import com.example.Apex.model.dto.PortfolioSummary;
 import com.example.Apex.repo.HoldingRepository;
 import com.example.Apex.repo.UserRepository;
+import com.example.Apex.wallet.WalletStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
-import java.util.List;
 import java.util.Optional;
 
 /**
  * Service managing user portfolios and holdings.
- * Updates positions after trades and calculates portfolio value.
+ * Updates positions after trades and serves portfolio value from the
+ * {@link MarkToMarketEngine}; cash is the user's wallet balance.
  */
 @Slf4j
 @Service
@@ -27,44 +27,39 @@ public class PortfolioService {
 
     private final HoldingRepository holdingRepository;
     private final UserRepository userRepository;
-    private final BrokerClient brokerClient;
+    private final WalletStore walletStore;
+    private final MarkToMarketEngine markToMarketEngine;
 
     /**
-     * Update user holdings and balance after a trade.
-     * For BUY: add to holdings, deduct from balance
-     * For SELL: remove from holdings, add to balance
+     * Update user holdings after a fill at the order's execution price.
+     * For BUY: add to holdings
+     * For SELL: remove from holdings
+     * Cash is settled separately through the wallet. Runs in the caller's
+     * transaction, which a failure here does not mark rollback-only, so the
+     * order can still be rejected.
      */
-    @Transactional
-    public void updatePortfolio(Order order) {
-        log.info("Updating portfolio for order {}", order.getId());
-
-        User user = userRepository.findById(order.getUserId())
-                .orElseThrow(() -> new RuntimeException("User not found: " + order.getUserId()));
-
-        BigDecimal tradeValue = order.getPrice().multiply(BigDecimal.valueOf(order.getQuantity()));
+    public void updateHoldings(Order order) {
+        log.info("Updating holdings for order {}", order.getId());
 
         if (order.getSide() == Order.Side.BUY) {
-            handleBuy(user, order);
-            user.setBalance(user.getBalance().subtract(tradeValue));
+            handleBuy(order);
         } else {
-            handleSell(user, order);
-            user.setBalance(user.getBalance().add(tradeValue));
+            handleSell(order);
         }
 
-        userRepository.save(user);
-        log.info("Portfolio updated for user {}", user.getId());
+        log.info("Holdings updated for user {}", order.getUserId());
     }
 
-    private void handleBuy(User user, Order order) {
+    private void handleBuy(Order order) {
         Optional<Holding> existingHolding = holdingRepository
-                .findByUserIdAndSymbol(user.getId(), order.getSymbol());
+                .findByUserIdAndSymbol(order.getUserId(), order.getSymbol());
 
         if (existingHolding.isPresent()) {
             Holding holding = existingHolding.get();
             // Calculate new average price
             BigDecimal totalCost = holding.getAveragePrice()
                     .multiply(BigDecimal.valueOf(holding.getQuantity()))
-                    .add(order.getPrice().multiply(BigDecimal.valueOf(order.getQuantity())));
+                    .add(order.getExecutionPrice().multiply(BigDecimal.valueOf(order.getQuantity())));
             int newQuantity = holding.getQuantity() + order.getQuantity();
             BigDecimal newAvgPrice = totalCost.divide(BigDecimal.valueOf(newQuantity), 2,
                     java.math.RoundingMode.HALF_UP);
@@ -72,20 +67,35 @@ public class PortfolioService {
             holding.setQuantity(newQuantity);
             holding.setAveragePrice(newAvgPrice);
             holdingRepository.save(holding);
+            markAfterCommit(holding);
         } else {
             Holding newHolding = Holding.builder()
-                    .userId(user.getId())
+                    .userId(order.getUserId())
                     .symbol(order.getSymbol())
                     .quantity(order.getQuantity())
-                    .averagePrice(order.getPrice())
+                    .averagePrice(order.getExecutionPrice())
                     .build();
             holdingRepository.save(newHolding);
+            markAfterCommit(newHolding);
         }
     }
 
-    private void handleSell(User user, Order order) {
+    /**
+     * Fails unless the user holds at least {@code quantity} of
+     * {@code symbol}; checked before a SELL executes, so it is not rejected
+     * after the broker already filled it.
+     */
+    public void requireHolding(Long userId, String symbol, int quantity) {
+        Holding holding = holdingRepository.findByUserIdAndSymbol(userId, symbol)
+                .orElseThrow(() -> new RuntimeException("No holding found for symbol: " + symbol));
+        if (holding.getQuantity() < quantity) {
+            throw new RuntimeException("Cannot sell more than held quantity");
+        }
+    }
+
+    private void handleSell(Order order) {
         Holding holding = holdingRepository
-                .findByUserIdAndSymbol(user.getId(), order.getSymbol())
+                .findByUserIdAndSymbol(order.getUserId(), order.getSymbol())
                 .orElseThrow(() -> new RuntimeException("No holding found for symbol: " + order.getSymbol()));
 
         int newQuantity = holding.getQuantity() - order.getQuantity();
@@ -93,38 +103,54 @@ public class PortfolioService {
             throw new RuntimeException("Cannot sell more than held quantity");
         }
 
+        holding.setQuantity(newQuantity);
         if (newQuantity == 0) {
             holdingRepository.delete(holding);
         } else {
-            holding.setQuantity(newQuantity);
             holdingRepository.save(holding);
         }
+        markAfterCommit(holding);
     }
 
     /**
-     * Get complete portfolio summary for a user.
+     * Hands the new position to the mark-to-market engine once it is
+     * committed, so a rolled-back fill never shows up in valuations.
      */
-    public PortfolioSummary getPortfolioSummary(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found: " + userId));
-
-        List<Holding> holdings = holdingRepository.findByUserId(userId);
-
-        // Calculate total portfolio value
-        BigDecimal holdingsValue = holdings.stream()
-                .map(h -> {
-                    BigDecimal currentPrice = brokerClient.getPrice(h.getSymbol());
-                    return currentPrice.multiply(BigDecimal.valueOf(h.getQuantity()));
-                })
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    private void markAfterCommit(Holding holding) {
+        Long userId = holding.getUserId();
+        String symbol = holding.getSymbol();
+        int quantity = holding.getQuantity();
+        BigDecimal averagePrice = holding.getAveragePrice();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            markToMarketEngine.update(userId, symbol, quantity, averagePrice);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                markToMarketEngine.update(userId, symbol, quantity, averagePrice);
+            }
+        });
+    }
 
-        BigDecimal totalValue = user.getBalance().add(holdingsValue);
+    /**
+     * Get complete portfolio summary for a user. Holdings come from the
+     * in-memory valuation, already marked to the latest prices.
+     */
+    public PortfolioSummary getPortfolioSummary(Long userId) {
+        if (!markToMarketEngine.tracks(userId) && !userRepository.existsById(userId)) {
+            throw new RuntimeException("User not found: " + userId);
+        }
+        BigDecimal cash = walletStore.available(userId);
+        MarkToMarketEngine.Valuation valuation = markToMarketEngine.valuation(userId);
 
         return PortfolioSummary.builder()
                 .userId(userId)
-                .cashBalance(user.getBalance())
-                .totalValue(totalValue)
-                .holdings(holdings)
+                .cashBalance(cash)
+                .holdingsValue(valuation.holdingsValue())
+                .unrealizedPnl(valuation.unrealizedPnl())
+                .totalValue(cash.add(valuation.holdingsValue()))
+                .holdings(valuation.holdings())
                 .build();
     }
 }
@@ -6,8 +6,10 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository for Order entity operations.
@@ -19,10 +21,15 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
 
     List<Order> findByStatus(Order.OrderStatus status);
 
+    List<Order> findByStatusIn(Collection<Order.OrderStatus> statuses);
+
     Optional<Order> findByIdempotencyKey(String idempotencyKey);
 
-    boolean existsByUserIdAndSymbolAndStatus(Long userId, String symbol, Order.OrderStatus status);
+    /** Must be consumed inside a transaction and closed. */
+    @Query("SELECT o.idempotencyKey FROM Order o WHERE o.idempotencyKey IS NOT NULL AND o.createdAt >= :since")
+    Stream<String> streamIdempotencyKeysCreatedSince(LocalDateTime since);
 
-    @Query("SELECT COUNT(o) FROM Order o WHERE o.userId = :userId AND o.createdAt >= :startDate")
-    long countOrdersByUserIdSince(Long userId, LocalDateTime startDate);
+    /** Rows of (userId, order count) for users with orders created since {@code startDate}. */
+    @Query("SELECT o.userId, COUNT(o) FROM Order o WHERE o.createdAt >= :startDate GROUP BY o.userId")
+    List<Object[]> countOrdersPerUserSince(LocalDateTime startDate);
 }
@@ -2,11 +2,24 @@ package com.example.Apex.repo;
 
 import com.example.Apex.model.TransactionLedger;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface TransactionLedgerRepository extends JpaRepository<TransactionLedger, Long> {
     List<TransactionLedger> findByUserId(Long userId);
+
+    /** Movements of the sequenced order with this idempotency key. */
+    List<TransactionLedger> findByReference(String reference);
+
+    /** Movements whose wallet balance change has not been written yet. */
+    List<TransactionLedger> findByWalletPendingTrue();
+
+    @Modifying
+    @Query("UPDATE TransactionLedger l SET l.walletPending = false WHERE l.id IN :ids")
+    int markWalletApplied(Collection<Long> ids);
 }
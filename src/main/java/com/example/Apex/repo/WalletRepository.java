@@ -4,8 +4,11 @@ import com.example.Apex.model.Wallet;
 import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.util.Optional;
 
 @Repository
@@ -13,4 +16,33 @@ public interface WalletRepository extends JpaRepository<Wallet, Long> {
 
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     Optional<Wallet> findWalletByUserId(Long userId);
+
+    /** Plain read without a row lock. */
+    Optional<Wallet> findByUserId(Long userId);
+
+    /** Applies a balance delta in place, without reading the row first. */
+    @Modifying
+    @Query("UPDATE Wallet w SET w.balance = w.balance + :delta, w.version = w.version + 1 WHERE w.userId = :userId")
+    int addToBalance(Long userId, BigDecimal delta);
+
+    /**
+     * Sets the balance only if nobody changed the wallet since it was read.
+     *
+     * @return 1 on success, 0 if the version moved on
+     */
+    @Modifying
+    @Query("UPDATE Wallet w SET w.balance = :balance, w.version = w.version + 1 "
+            + "WHERE w.userId = :userId AND w.version = :version")
+    int updateBalanceIfVersion(Long userId, BigDecimal balance, Long version);
+
+    /**
+     * Creates a wallet holding {@code users.balance} for every user that has
+     * none, i.e. accounts created before balances moved to wallets.
+     *
+     * @return wallets created
+     */
+    @Modifying
+    @Query(value = "INSERT INTO wallets (user_id, balance, version) SELECT u.id, u.balance, 0 FROM users u "
+            + "WHERE NOT EXISTS (SELECT 1 FROM wallets w WHERE w.user_id = u.id)", nativeQuery = true)
+    int createMissingWallets();
 }
@@ -0,0 +1,24 @@
+package com.example.Apex.risk;
+
+import com.example.Apex.model.Order;
+
+import java.math.BigDecimal;
+
+/**
+ * One order or trade as the risk rules see it.
+ *
+ * @param symbol  null for account checks, which do not depend on the symbol
+ * @param side    null for account checks
+ * @param balance available cash; only account checks use it
+ */
+public record RiskCheck(Long userId, String symbol, Order.Side side, int quantity, BigDecimal notional,
+        BigDecimal balance) {
+
+    public static RiskCheck order(Long userId, String symbol, Order.Side side, int quantity, BigDecimal price) {
+        return new RiskCheck(userId, symbol, side, quantity, price.multiply(BigDecimal.valueOf(quantity)), null);
+    }
+
+    public static RiskCheck account(Long userId, BigDecimal balance, BigDecimal tradeValue, int quantity) {
+        return new RiskCheck(userId, null, null, quantity, tradeValue, balance);
+    }
+}
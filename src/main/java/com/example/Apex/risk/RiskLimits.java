@@ -0,0 +1,19 @@
+package com.example.Apex.risk;
+
+import java.math.BigDecimal;
+
+/**
+ * Limits of a user tier or a symbol; a null limit is not checked. Where a
+ * tier and a symbol both set a limit, the stricter one applies.
+ *
+ * @param maxOrderValue     largest notional (quantity x price) of one order
+ * @param maxOrdersPerMinute orders a user may place per clock minute
+ * @param maxOpenOrders     open orders a user may have in one symbol
+ * @param maxExposure       remaining notional of open orders plus the new order
+ * @param maxPosition       holding a buy may bring a position in one symbol to
+ * @param minBalance        cash a strategy trade must leave in the wallet
+ * @param maxDailyTrades    strategy trades a user may place per day
+ */
+public record RiskLimits(BigDecimal maxOrderValue, Integer maxOrdersPerMinute, Integer maxOpenOrders,
+        BigDecimal maxExposure, Integer maxPosition, BigDecimal minBalance, Integer maxDailyTrades) {
+}
@@ -0,0 +1,310 @@
+package com.example.Apex.risk;
+
+import com.example.Apex.model.Order;
+import com.example.Apex.portfolio.MarkToMarketEngine;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Evaluates the configured {@link RiskRuleSet} as compiled chains of rules.
+ *
+ * Each tier compiles into one chain per {@link Scope}, with the tier's and
+ * the symbols' limits folded into per-symbol lookups, so a check is a tier
+ * lookup and then one small rule per configured limit. Rules run cheapest
+ * first (plain arithmetic, then {@link RiskState} counters, then positions)
+ * and, at equal cost, the ones that rejected most often so far first; the
+ * first violation ends the check.
+ *
+ * Rules are read from {@code apex.risk.rules} at startup and can be swapped
+ * at runtime through {@link #replace} or {@link #reload}; a swap compiles
+ * the new chains aside and publishes them with one reference write, so a
+ * check runs entirely against either the old or the new rules.
+ *
+ * Metrics, tagged rule and tier: apex.risk.rule.latency (a timer, whose
+ * count is the number of evaluations) and apex.risk.rule.rejections.
+ */
+@Slf4j
+@Component
+public class RiskRuleEngine {
+
+    /**
+     * ORDER rules run for every order; ACCOUNT rules (minimum balance, daily
+     * trades) only for strategy trades.
+     */
+    public enum Scope {
+        ORDER, ACCOUNT
+    }
+
+    /**
+     * A compiled rule with its position in a chain and its counts so far.
+     */
+    public record RuleView(String tier, Scope scope, int position, String rule, long evaluations, long rejections) {
+    }
+
+    private final RiskState riskState;
+    private final MarkToMarketEngine markToMarketEngine;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+    private final ResourceLoader resourceLoader;
+    private final String location;
+    private final AtomicReference<Compiled> compiled = new AtomicReference<>();
+
+    public RiskRuleEngine(RiskState riskState, MarkToMarketEngine markToMarketEngine, MeterRegistry meterRegistry,
+            ObjectMapper objectMapper, ResourceLoader resourceLoader,
+            @Value("${apex.risk.rules:classpath:risk-rules.json}") String location) {
+        this.riskState = riskState;
+        this.markToMarketEngine = markToMarketEngine;
+        this.meterRegistry = meterRegistry;
+        this.objectMapper = objectMapper;
+        this.resourceLoader = resourceLoader;
+        this.location = location;
+    }
+
+    @PostConstruct
+    void load() {
+        replace(read());
+    }
+
+    /**
+     * Re-reads the rules from {@code apex.risk.rules} and swaps them in.
+     */
+    public RiskRuleSet reload() {
+        RiskRuleSet rules = read();
+        replace(rules);
+        return rules;
+    }
+
+    /**
+     * Compiles and swaps in new rules. Rules given here are not written
+     * back to {@code apex.risk.rules}.
+     *
+     * @throws IllegalArgumentException if the rules are invalid; the current ones stay
+     */
+    public void replace(RiskRuleSet rules) {
+        rules.validate();
+        Map<String, Map<Scope, Rule[]>> chains = new HashMap<>();
+        rules.tiers().forEach((tier, limits) -> chains.put(tier, compile(tier, limits, rules.symbols())));
+        compiled.set(new Compiled(rules, chains));
+        log.info("[RISK] Rules active: {} tiers, {} symbol overrides, {} user assignments",
+                rules.tiers().size(), rules.symbols().size(), rules.users().size());
+    }
+
+    public RiskRuleSet current() {
+        return compiled.get().rules();
+    }
+
+    /**
+     * Runs the user's chain for the scope.
+     *
+     * @return the first violation's message, or null if the check passes
+     */
+    public String check(Scope scope, RiskCheck check) {
+        Compiled current = compiled.get();
+        String tier = current.rules().users().getOrDefault(check.userId(), current.rules().defaultTier());
+        for (Rule rule : current.chains().get(tier).get(scope)) {
+            long start = System.nanoTime();
+            String violation = rule.evaluation.apply(check);
+            rule.latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (violation != null) {
+                rule.rejections.increment();
+                return violation;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The compiled chains in evaluation order.
+     */
+    public List<RuleView> chains() {
+        List<RuleView> views = new ArrayList<>();
+        compiled.get().chains().forEach((tier, byScope) -> byScope.forEach((scope, rules) -> {
+            for (int i = 0; i < rules.length; i++) {
+                views.add(new RuleView(tier, scope, i, rules[i].name, rules[i].latency.count(),
+                        (long) rules[i].rejections.count()));
+            }
+        }));
+        views.sort(Comparator.comparing(RuleView::tier).thenComparing(RuleView::scope)
+                .thenComparingInt(RuleView::position));
+        return views;
+    }
+
+    private RiskRuleSet read() {
+        Resource resource = resourceLoader.getResource(location);
+        try (InputStream in = resource.getInputStream()) {
+            return objectMapper.readValue(in, RiskRuleSet.class);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read risk rules from " + location + ": " + e.getMessage(), e);
+        }
+    }
+
+    private Map<Scope, Rule[]> compile(String tier, RiskLimits limits, Map<String, RiskLimits> symbols) {
+        List<Rule> rules = new ArrayList<>();
+
+        Limit<BigDecimal> orderValue = Limit.of(limits, symbols, RiskLimits::maxOrderValue);
+        if (orderValue != null) {
+            rules.add(rule(tier, Scope.ORDER, "order-value", 0, check -> {
+                BigDecimal max = orderValue.get(check.symbol());
+                return max != null && check.notional().compareTo(max) > 0
+                        ? String.format("Risk Rejection: Order value %s exceeds limit %s", check.notional(), max)
+                        : null;
+            }));
+        }
+        Limit<Integer> perMinute = Limit.of(limits, symbols, RiskLimits::maxOrdersPerMinute);
+        if (perMinute != null) {
+            rules.add(rule(tier, Scope.ORDER, "orders-per-minute", 1, check -> {
+                Integer max = perMinute.get(check.symbol());
+                return max != null && riskState.ordersThisMinute(check.userId()) >= max
+                        ? String.format("Risk Rejection: Order rate limit of %d per minute reached", max)
+                        : null;
+            }));
+        }
+        Limit<Integer> openOrders = Limit.of(limits, symbols, RiskLimits::maxOpenOrders);
+        if (openOrders != null) {
+            rules.add(rule(tier, Scope.ORDER, "open-orders", 1, check -> {
+                Integer max = openOrders.get(check.symbol());
+                return max != null && riskState.openOrders(check.userId(), check.symbol()) >= max
+                        ? String.format("Risk Rejection: Open order limit of %d reached for %s", max, check.symbol())
+                        : null;
+            }));
+        }
+        Limit<BigDecimal> exposure = Limit.of(limits, symbols, RiskLimits::maxExposure);
+        if (exposure != null) {
+            rules.add(rule(tier, Scope.ORDER, "exposure", 1, check -> {
+                BigDecimal max = exposure.get(check.symbol());
+                return max != null && riskState.exposure(check.userId()).add(check.notional()).compareTo(max) > 0
+                        ? String.format("Risk Rejection: Open order exposure would exceed limit %s", max)
+                        : null;
+            }));
+        }
+        Limit<Integer> position = Limit.of(limits, symbols, RiskLimits::maxPosition);
+        if (position != null) {
+            rules.add(rule(tier, Scope.ORDER, "position", 2, check -> {
+                Integer max = position.get(check.symbol());
+                return max != null && check.side() == Order.Side.BUY
+                        && (long) markToMarketEngine.quantity(check.userId(), check.symbol()) + check.quantity() > max
+                        ? String.format("Risk Rejection: Position in %s would exceed %d", check.symbol(), max)
+                        : null;
+            }));
+        }
+        // Account limits come from the tier only.
+        if (limits.minBalance() != null) {
+            BigDecimal min = limits.minBalance();
+            rules.add(rule(tier, Scope.ACCOUNT, "min-balance", 0, check ->
+                    check.balance().subtract(check.notional()).compareTo(min) < 0
+                            ? String.format("Trade would violate minimum balance requirement of %s", min)
+                            : null));
+        }
+        if (limits.maxDailyTrades() != null) {
+            int max = limits.maxDailyTrades();
+            rules.add(rule(tier, Scope.ACCOUNT, "daily-trades", 1, check -> {
+                int count = riskState.ordersToday(check.userId());
+                return count >= max
+                        ? String.format("Daily trade limit of %d exceeded. Current count: %d", max, count)
+                        : null;
+            }));
+        }
+
+        // Cheapest first; at equal cost the rule that rejected most often so far.
+        rules.sort(Comparator.comparingInt((Rule rule) -> rule.cost)
+                .thenComparing(Comparator.comparingDouble(Rule::rejectionRate).reversed()));
+        Map<Scope, Rule[]> chains = new EnumMap<>(Scope.class);
+        for (Scope scope : Scope.values()) {
+            chains.put(scope, rules.stream().filter(rule -> rule.scope == scope).toArray(Rule[]::new));
+        }
+        return chains;
+    }
+
+    private Rule rule(String tier, Scope scope, String name, int cost, Function<RiskCheck, String> evaluation) {
+        // Registering returns the existing meters, so counts carry over a swap.
+        Timer latency = Timer.builder("apex.risk.rule.latency")
+                .tags("rule", name, "tier", tier)
+                .description("Evaluation time of a risk rule")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(100))
+                .maximumExpectedValue(Duration.ofMillis(10))
+                .register(meterRegistry);
+        Counter rejections = Counter.builder("apex.risk.rule.rejections")
+                .tags("rule", name, "tier", tier)
+                .description("Checks a risk rule rejected")
+                .register(meterRegistry);
+        return new Rule(scope, name, cost, evaluation, latency, rejections);
+    }
+
+    private record Compiled(RiskRuleSet rules, Map<String, Map<Scope, Rule[]>> chains) {
+    }
+
+    private static final class Rule {
+
+        private final Scope scope;
+        private final String name;
+        private final int cost;
+        private final Function<RiskCheck, String> evaluation;
+        private final Timer latency;
+        private final Counter rejections;
+
+        Rule(Scope scope, String name, int cost, Function<RiskCheck, String> evaluation, Timer latency,
+                Counter rejections) {
+            this.scope = scope;
+            this.name = name;
+            this.cost = cost;
+            this.evaluation = evaluation;
+            this.latency = latency;
+            this.rejections = rejections;
+        }
+
+        double rejectionRate() {
+            long evaluations = latency.count();
+            return evaluations == 0 ? 0 : rejections.count() / evaluations;
+        }
+    }
+
+    /**
+     * A tier's limit with the stricter symbol limits folded in.
+     */
+    private record Limit<T extends Comparable<T>>(T fallback, Map<String, T> bySymbol) {
+
+        /**
+         * @return null if neither the tier nor any symbol sets the limit
+         */
+        static <T extends Comparable<T>> Limit<T> of(RiskLimits tier, Map<String, RiskLimits> symbols,
+                Function<RiskLimits, T> limit) {
+            T fallback = limit.apply(tier);
+            Map<String, T> bySymbol = new HashMap<>();
+            symbols.forEach((symbol, limits) -> {
+                T value = limit.apply(limits);
+                if (value != null) {
+                    bySymbol.put(symbol, fallback == null || value.compareTo(fallback) < 0 ? value : fallback);
+                }
+            });
+            return fallback == null && bySymbol.isEmpty() ? null : new Limit<>(fallback, Map.copyOf(bySymbol));
+        }
+
+        T get(String symbol) {
+            T value = symbol != null ? bySymbol.get(symbol) : null;
+            return value != null ? value : fallback;
+        }
+    }
+}
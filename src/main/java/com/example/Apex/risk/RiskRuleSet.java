@@ -0,0 +1,54 @@
+package com.example.Apex.risk;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Risk limits as configured: limits per user tier, the tier of individual
+ * users (others get {@code defaultTier}) and limits per symbol that apply on
+ * top of every tier's. The account limits (minimum balance, daily trades)
+ * are only taken from tiers.
+ */
+public record RiskRuleSet(String defaultTier, Map<String, RiskLimits> tiers, Map<Long, String> users,
+        Map<String, RiskLimits> symbols) {
+
+    public RiskRuleSet {
+        users = users != null ? users : Map.of();
+        symbols = symbols != null ? symbols : Map.of();
+    }
+
+    /**
+     * @throws IllegalArgumentException if a tier is missing or a limit is negative
+     */
+    public void validate() {
+        if (tiers == null || !tiers.containsKey(defaultTier)) {
+            throw new IllegalArgumentException("Risk rules must define the default tier '" + defaultTier + "'");
+        }
+        users.forEach((userId, tier) -> {
+            if (!tiers.containsKey(tier)) {
+                throw new IllegalArgumentException("User " + userId + " has undefined risk tier '" + tier + "'");
+            }
+        });
+        tiers.forEach((tier, limits) -> validate("tier " + tier, limits));
+        symbols.forEach((symbol, limits) -> validate("symbol " + symbol, limits));
+    }
+
+    private static void validate(String owner, RiskLimits limits) {
+        if (limits == null) {
+            throw new IllegalArgumentException("Risk limits missing for " + owner);
+        }
+        if (negative(limits.maxOrderValue()) || negative(limits.maxExposure()) || negative(limits.minBalance())
+                || negative(limits.maxOrdersPerMinute()) || negative(limits.maxOpenOrders())
+                || negative(limits.maxPosition()) || negative(limits.maxDailyTrades())) {
+            throw new IllegalArgumentException("Risk limits of " + owner + " must not be negative");
+        }
+    }
+
+    private static boolean negative(BigDecimal limit) {
+        return limit != null && limit.signum() < 0;
+    }
+
+    private static boolean negative(Integer limit) {
+        return limit != null && limit < 0;
+    }
+}
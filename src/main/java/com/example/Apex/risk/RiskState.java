@@ -0,0 +1,264 @@
+package com.example.Apex.risk;
+
+import com.example.Apex.execution.OrderStatusEvent;
+import com.example.Apex.execution.OrderStatusListener;
+import com.example.Apex.market.FixedPoint;
+import com.example.Apex.model.Order;
+import com.example.Apex.model.Order.OrderStatus;
+import com.example.Apex.repo.OrderRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-user risk counters kept in memory, so pre-trade checks read a field
+ * instead of counting rows in {@code orders}.
+ *
+ * For each user: orders placed today (reset when the local date changes)
+ * and in the current minute, the order currently being validated per
+ * symbol, and the open orders per symbol with their remaining notional,
+ * summed into the user's exposure.
+ *
+ * Counters and open orders follow the committed {@link OrderStatusEvent}s
+ * and are rebuilt from {@code orders} at startup. An order claims its symbol
+ * in {@link #claimValidation} and gives it back with its first transition
+ * out of PENDING_VALIDATION, or when its transaction rolls back. Orders left
+ * in PENDING_VALIDATION by a previous run are not reloaded. Sequenced
+ * orders are counted as they are decided, see {@link #recordPlaced}.
+ */
+@Slf4j
+@Component
+public class RiskState implements OrderStatusListener {
+
+    private static final Set<OrderStatus> OPEN = EnumSet.of(OrderStatus.VALIDATED, OrderStatus.WORKING,
+            OrderStatus.PARTIALLY_FILLED);
+
+    private final OrderRepository orderRepository;
+    private final Clock clock;
+    private final Map<Long, Account> accounts = new ConcurrentHashMap<>();
+
+    @Autowired
+    public RiskState(OrderRepository orderRepository, MeterRegistry meterRegistry) {
+        this(orderRepository, meterRegistry, Clock.systemDefaultZone());
+    }
+
+    RiskState(OrderRepository orderRepository, MeterRegistry meterRegistry, Clock clock) {
+        this.orderRepository = orderRepository;
+        this.clock = clock;
+        Gauge.builder("apex.risk.open.orders", accounts,
+                        a -> a.values().stream().mapToInt(Account::openOrders).sum())
+                .description("Open orders tracked for risk checks")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void load() {
+        LocalDate today = LocalDate.now(clock);
+        List<Object[]> counts = orderRepository.countOrdersPerUserSince(today.atStartOfDay());
+        for (Object[] row : counts) {
+            account((Long) row[0]).setOrdersToday(today.toEpochDay(), ((Number) row[1]).intValue());
+        }
+        List<Order> open = orderRepository.findByStatusIn(OPEN);
+        for (Order order : open) {
+            account(order.getUserId()).putOpen(order.getSymbol(), order.getId(),
+                    remainingNotional(order.getQuantity(), order.getFilledQuantity(), order.getPrice()));
+        }
+        log.info("[RISK] Loaded today's order counts of {} users and {} open orders", counts.size(), open.size());
+    }
+
+    @Override
+    public void onOrderStatus(OrderStatusEvent event) {
+        Account account = account(event.userId());
+        if (event.previousStatus() == OrderStatus.PENDING_VALIDATION) {
+            account.placed(LocalDate.now(clock).toEpochDay(), clock.millis() / 60_000, event.symbol(),
+                    event.orderId());
+        }
+        if (OPEN.contains(event.status())) {
+            account.putOpen(event.symbol(), event.orderId(), remainingNotional(event.quantity(),
+                    event.filledQuantity(), event.price() != null ? event.price() : event.executionPrice()));
+        } else {
+            account.removeOpen(event.symbol(), event.orderId());
+        }
+    }
+
+    /**
+     * Marks the order as being validated for its symbol, unless another order
+     * of the user on that symbol already is. A null order id only checks.
+     *
+     * @return false if another order holds the symbol
+     */
+    public boolean claimValidation(Long userId, String symbol, Long orderId) {
+        Account account = account(userId);
+        if (!account.claim(symbol, orderId)) {
+            return false;
+        }
+        if (orderId != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        account.release(symbol, orderId);
+                    }
+                }
+            });
+        }
+        return true;
+    }
+
+    /**
+     * Counts an order the {@link com.example.Apex.sequencer.OrderSequencer}
+     * decided, when it is decided rather than when its row commits; its
+     * event is published without a previous status so it is not counted
+     * again.
+     */
+    public void recordPlaced(Long userId) {
+        account(userId).placed(LocalDate.now(clock).toEpochDay(), clock.millis() / 60_000, null, null);
+    }
+
+    /**
+     * Orders the user placed today, as of the last committed order.
+     */
+    public int ordersToday(Long userId) {
+        Account account = accounts.get(userId);
+        return account == null ? 0 : account.ordersToday(LocalDate.now(clock).toEpochDay());
+    }
+
+    /**
+     * Orders the user placed in the current clock minute, as of the last
+     * committed order.
+     */
+    public int ordersThisMinute(Long userId) {
+        Account account = accounts.get(userId);
+        return account == null ? 0 : account.ordersThisMinute(clock.millis() / 60_000);
+    }
+
+    /**
+     * Open (validated, working or partially filled) orders of the user in a
+     * symbol.
+     */
+    public int openOrders(Long userId, String symbol) {
+        Account account = accounts.get(userId);
+        return account == null ? 0 : account.openOrders(symbol);
+    }
+
+    /**
+     * Remaining notional of the user's open orders at their order prices.
+     */
+    public BigDecimal exposure(Long userId) {
+        Account account = accounts.get(userId);
+        return account == null ? BigDecimal.ZERO : FixedPoint.toBigDecimal(account.exposureE8());
+    }
+
+    private Account account(Long userId) {
+        return accounts.computeIfAbsent(userId, id -> new Account());
+    }
+
+    private static long remainingNotional(Integer quantity, Integer filledQuantity, BigDecimal price) {
+        if (quantity == null || price == null) {
+            return 0;
+        }
+        int remaining = quantity - (filledQuantity != null ? filledQuantity : 0);
+        return FixedPoint.fromBigDecimal(price) * Math.max(remaining, 0);
+    }
+
+    /**
+     * One user's counters; every access holds its lock, which only that
+     * user's orders contend for.
+     */
+    private static final class Account {
+
+        private long day;
+        private int ordersToday;
+        private long minute;
+        private int ordersThisMinute;
+        private final Map<String, Long> validating = new HashMap<>();
+        private final Map<String, Map<Long, Long>> openBySymbol = new HashMap<>();
+        private long exposureE8;
+
+        synchronized void setOrdersToday(long today, int count) {
+            day = today;
+            ordersToday = count;
+        }
+
+        synchronized int ordersToday(long today) {
+            return day == today ? ordersToday : 0;
+        }
+
+        synchronized int ordersThisMinute(long now) {
+            return minute == now ? ordersThisMinute : 0;
+        }
+
+        synchronized void placed(long today, long now, String symbol, Long orderId) {
+            if (day != today) {
+                day = today;
+                ordersToday = 0;
+            }
+            ordersToday++;
+            if (minute != now) {
+                minute = now;
+                ordersThisMinute = 0;
+            }
+            ordersThisMinute++;
+            validating.remove(symbol, orderId);
+        }
+
+        synchronized boolean claim(String symbol, Long orderId) {
+            Long holder = validating.get(symbol);
+            if (holder != null && !holder.equals(orderId)) {
+                return false;
+            }
+            if (orderId != null) {
+                validating.put(symbol, orderId);
+            }
+            return true;
+        }
+
+        synchronized void release(String symbol, Long orderId) {
+            validating.remove(symbol, orderId);
+        }
+
+        synchronized void putOpen(String symbol, Long orderId, long notionalE8) {
+            Long previous = openBySymbol.computeIfAbsent(symbol, s -> new HashMap<>()).put(orderId, notionalE8);
+            exposureE8 += notionalE8 - (previous != null ? previous : 0);
+        }
+
+        synchronized void removeOpen(String symbol, Long orderId) {
+            Map<Long, Long> open = openBySymbol.get(symbol);
+            Long previous = open != null ? open.remove(orderId) : null;
+            if (previous != null) {
+                exposureE8 -= previous;
+                if (open.isEmpty()) {
+                    openBySymbol.remove(symbol);
+                }
+            }
+        }
+
+        synchronized int openOrders(String symbol) {
+            Map<Long, Long> open = openBySymbol.get(symbol);
+            return open == null ? 0 : open.size();
+        }
+
+        synchronized int openOrders() {
+            return openBySymbol.values().stream().mapToInt(Map::size).sum();
+        }
+
+        synchronized long exposureE8() {
+            return exposureE8;
+        }
+    }
+}
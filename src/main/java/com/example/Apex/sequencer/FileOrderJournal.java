@@ -0,0 +1,166 @@
+package com.example.Apex.sequencer;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * {@link OrderJournal} on a plain file, in {@link JournalCodec} frames, so a
+ * torn tail is detected and cut off on open. Appends are buffered in memory
+ * and written and (optionally) fsynced on {@link #flush()}.
+ *
+ * The checkpoint lives in a separate file. Once everything appended has been
+ * checkpointed and the journal is larger than {@code rollBytes}, it is
+ * truncated; sequence numbers keep increasing across truncations.
+ */
+@Slf4j
+public class FileOrderJournal implements OrderJournal {
+
+    static final String JOURNAL_FILE = "orders.journal";
+    static final String CHECKPOINT_FILE = "orders.checkpoint";
+
+    private final Path directory;
+    private final FileChannel channel;
+    private final boolean fsync;
+    private final long rollBytes;
+    private final ByteBuffer pending = ByteBuffer.allocateDirect(256 * 1024);
+    private final ByteBuffer scratch = ByteBuffer.allocate(
+            JournalCodec.MAX_RECORD_BYTES + JournalCodec.FRAME_OVERHEAD);
+    private final CRC32 crc = new CRC32();
+
+    private long lastSequence;
+    private volatile long lastCheckpoint;
+
+    public FileOrderJournal(Path directory, boolean fsync, long rollBytes) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.fsync = fsync;
+        this.rollBytes = rollBytes;
+        this.channel = FileChannel.open(directory.resolve(JOURNAL_FILE), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        Path checkpoint = directory.resolve(CHECKPOINT_FILE);
+        lastCheckpoint = Files.exists(checkpoint) ? Long.parseLong(Files.readString(checkpoint).trim()) : 0;
+        lastSequence = lastCheckpoint;
+        long validEnd = scan(0, record -> lastSequence = Math.max(lastSequence, record.sequence()));
+        if (validEnd < channel.size()) {
+            log.warn("[JOURNAL] Discarding {} bytes of torn records at the end of the journal",
+                    channel.size() - validEnd);
+            channel.truncate(validEnd);
+        }
+        channel.position(validEnd);
+    }
+
+    @Override
+    public synchronized JournalRecord append(JournalRecord record) throws IOException {
+        JournalRecord sequenced = record.withSequence(lastSequence + 1);
+        int frame = JournalCodec.encode(sequenced, scratch, crc);
+        if (pending.remaining() < frame) {
+            writePending();
+        }
+        pending.put(scratch);
+        lastSequence = sequenced.sequence();
+        return sequenced;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        synchronized (this) {
+            writePending();
+        }
+        // Outside the lock, so other lanes keep appending while this one syncs.
+        if (fsync) {
+            channel.force(false);
+        }
+    }
+
+    @Override
+    public synchronized long replay(long afterSequence, Consumer<JournalRecord> consumer) throws IOException {
+        writePending();
+        scan(afterSequence, consumer);
+        return lastSequence;
+    }
+
+    @Override
+    public synchronized void checkpoint(long sequence) throws IOException {
+        if (sequence <= lastCheckpoint) {
+            return;
+        }
+        Path temp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        Files.writeString(temp, Long.toString(sequence));
+        Files.move(temp, directory.resolve(CHECKPOINT_FILE), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        lastCheckpoint = sequence;
+
+        if (sequence == lastSequence && pending.position() == 0 && channel.size() > rollBytes) {
+            channel.truncate(0);
+            channel.position(0);
+            log.info("[JOURNAL] Rolled journal at sequence {}", sequence);
+        }
+    }
+
+    @Override
+    public long lastCheckpoint() {
+        return lastCheckpoint;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writePending();
+        channel.force(false);
+        channel.close();
+    }
+
+    private void writePending() throws IOException {
+        pending.flip();
+        while (pending.hasRemaining()) {
+            channel.write(pending);
+        }
+        pending.clear();
+    }
+
+    /**
+     * Reads records from the start of the file.
+     *
+     * @return the offset just past the last intact record
+     */
+    private long scan(long afterSequence, Consumer<JournalRecord> consumer) throws IOException {
+        return scan(channel, record -> {
+            if (record.sequence() > afterSequence) {
+                consumer.accept(record);
+            }
+        });
+    }
+
+    /**
+     * Feeds every intact record of the journal in {@code directory} to
+     * {@code consumer} without modifying anything.
+     */
+    public static void readAll(Path directory, Consumer<JournalRecord> consumer) throws IOException {
+        Path file = directory.resolve(JOURNAL_FILE);
+        if (!Files.exists(file)) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            scan(channel, consumer);
+        }
+    }
+
+    private static long scan(FileChannel channel, Consumer<JournalRecord> consumer) throws IOException {
+        ByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        CRC32 check = new CRC32();
+        int offset = 0;
+        int frame;
+        while ((frame = JournalCodec.read(data, offset, check, consumer)) > 0) {
+            offset += frame;
+        }
+        return offset;
+    }
+}
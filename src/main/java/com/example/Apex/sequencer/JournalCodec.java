@@ -0,0 +1,144 @@
+package com.example.Apex.sequencer;
+
+import com.example.Apex.model.Order;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Binary framing shared by the journal implementations.
+ *
+ * A frame is {@code [int length][payload][int crc32(payload)]}. The payload
+ * stores numbers as unsigned LEB128 varints and strings as a varint length
+ * (0 for null, else bytes + 1) followed by UTF-8, so a typical fill is around
+ * 50 bytes. A zero length marks the unwritten end of a pre-sized segment.
+ */
+final class JournalCodec {
+
+    static final int MAX_RECORD_BYTES = 4 * 1024;
+    static final int FRAME_OVERHEAD = 8;
+
+    private static final int MAX_STRING_BYTES = 1024;
+
+    private JournalCodec() {
+    }
+
+    /**
+     * Encodes a complete frame into {@code scratch}, flipped for reading.
+     *
+     * @return the frame size in bytes
+     */
+    static int encode(JournalRecord record, ByteBuffer scratch, CRC32 crc) {
+        scratch.clear();
+        scratch.position(4);
+        putVarLong(scratch, record.sequence());
+        putVarLong(scratch, record.timestamp());
+        putVarLong(scratch, record.userId());
+        scratch.put((byte) ((record.side() == Order.Side.BUY ? 1 : 0) | (record.isFilled() ? 2 : 0)
+                | (record.isAbandoned() ? 4 : 0)));
+        putVarLong(scratch, record.quantity());
+        putVarLong(scratch, record.priceE8());
+        putString(scratch, record.symbol());
+        putString(scratch, record.idempotencyKey());
+        putString(scratch, record.reason());
+
+        int length = scratch.position() - 4;
+        scratch.putInt(0, length);
+        crc.reset();
+        crc.update(scratch.duplicate().position(4).limit(4 + length));
+        scratch.putInt((int) crc.getValue());
+        scratch.flip();
+        return length + FRAME_OVERHEAD;
+    }
+
+    /**
+     * Reads the frame starting at absolute {@code offset} of {@code in}.
+     *
+     * @return the frame size, or -1 at the end of the data or at a torn or
+     *         corrupt frame
+     */
+    static int read(ByteBuffer in, int offset, CRC32 crc, Consumer<JournalRecord> consumer) {
+        if (offset + FRAME_OVERHEAD > in.limit()) {
+            return -1;
+        }
+        int length = in.getInt(offset);
+        if (length <= 0 || length > MAX_RECORD_BYTES || offset + FRAME_OVERHEAD + length > in.limit()) {
+            return -1;
+        }
+        ByteBuffer payload = in.duplicate().position(offset + 4).limit(offset + 4 + length);
+        crc.reset();
+        crc.update(payload.duplicate());
+        if (in.getInt(offset + 4 + length) != (int) crc.getValue()) {
+            return -1;
+        }
+        consumer.accept(decode(payload));
+        return length + FRAME_OVERHEAD;
+    }
+
+    static JournalRecord decode(ByteBuffer in) {
+        try {
+            long sequence = getVarLong(in);
+            long timestamp = getVarLong(in);
+            long userId = getVarLong(in);
+            byte flags = in.get();
+            int quantity = (int) getVarLong(in);
+            long price = getVarLong(in);
+            return new JournalRecord(sequence, timestamp, userId, getString(in),
+                    (flags & 1) != 0 ? Order.Side.BUY : Order.Side.SELL, quantity, price, getString(in),
+                    status(flags), getString(in));
+        } catch (BufferUnderflowException e) {
+            throw new IllegalStateException("Corrupt journal record", e);
+        }
+    }
+
+    private static Order.OrderStatus status(byte flags) {
+        if ((flags & 4) != 0) {
+            return Order.OrderStatus.CANCELLED;
+        }
+        return (flags & 2) != 0 ? Order.OrderStatus.FILLED : Order.OrderStatus.REJECTED;
+    }
+
+    private static void putVarLong(ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    private static long getVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("Malformed varint in journal record");
+    }
+
+    private static void putString(ByteBuffer out, String value) {
+        if (value == null) {
+            putVarLong(out, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(bytes.length, MAX_STRING_BYTES);
+        putVarLong(out, length + 1L);
+        out.put(bytes, 0, length);
+    }
+
+    private static String getString(ByteBuffer in) {
+        int length = (int) getVarLong(in) - 1;
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.Apex.sequencer;
+
+import com.example.Apex.model.Order;
+
+/**
+ * One sequenced order decision, as written to the {@link OrderJournal}. It
+ * holds everything needed to rebuild the order, its audit trail and its
+ * ledger entry, so the journal alone is enough to recover after a crash.
+ *
+ * @param sequence  assigned by the journal on append; dense and increasing
+ * @param priceE8   execution price, 10^8 fixed point; 0 for rejections
+ *                  without a price
+ * @param reason    rejection reason, or null when filled
+ * @param status    FILLED or REJECTED; CANCELLED marks an abandoned record,
+ *                  see {@link #abandoned(String)}
+ */
+public record JournalRecord(long sequence, long timestamp, long userId, String symbol, Order.Side side,
+        int quantity, long priceE8, String idempotencyKey, Order.OrderStatus status, String reason) {
+
+    public JournalRecord withSequence(long sequence) {
+        return new JournalRecord(sequence, timestamp, userId, symbol, side, quantity, priceE8, idempotencyKey,
+                status, reason);
+    }
+
+    /**
+     * A copy marking this record as abandoned: appended after a failed flush,
+     * it voids the earlier record with the same idempotency key, whose caller
+     * was told the order failed.
+     */
+    public JournalRecord abandoned(String reason) {
+        return new JournalRecord(sequence, timestamp, userId, symbol, side, quantity, priceE8, idempotencyKey,
+                Order.OrderStatus.CANCELLED, reason);
+    }
+
+    public boolean isFilled() {
+        return status == Order.OrderStatus.FILLED;
+    }
+
+    public boolean isAbandoned() {
+        return status == Order.OrderStatus.CANCELLED;
+    }
+}
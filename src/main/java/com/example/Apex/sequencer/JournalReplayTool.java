@@ -0,0 +1,191 @@
+package com.example.Apex.sequencer;
+
+import com.example.Apex.ApexApplication;
+import com.example.Apex.model.Order;
+import com.example.Apex.model.TransactionLedger;
+import com.example.Apex.model.TransactionType;
+import com.example.Apex.model.Wallet;
+import com.example.Apex.repo.OrderRepository;
+import com.example.Apex.repo.TransactionLedgerRepository;
+import com.example.Apex.repo.WalletRepository;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Offline check of the order journal against the database. Folds the journal
+ * into a {@link JournalState}, compares every journaled order with its row
+ * (looked up by idempotency key) and its cash movement with the ledger rows
+ * tagged with that key, and checks each journaled user's wallet balance
+ * against the sum of their ledger rows. Prints the rebuilt cash movements
+ * and positions per user, and exits with 1 if anything differs.
+ *
+ * Only reads: run it against a stopped instance, or one whose writer has
+ * caught up, since records past the checkpoint may not be persisted yet.
+ */
+public final class JournalReplayTool {
+
+    private JournalReplayTool() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        String[] overrides = Stream.concat(Stream.of(args), Stream.of(
+                "--apex.sequencer.enabled=false",
+                "--apex.websocket.enabled=false",
+                "--spring.main.banner-mode=off")).toArray(String[]::new);
+        int exitCode;
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ApexApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(overrides)) {
+            Environment env = context.getEnvironment();
+            Path directory = Path.of(env.getProperty("apex.sequencer.journal.dir", "data/journal"));
+            JournalType type = env.getProperty("apex.sequencer.journal.type", JournalType.class, JournalType.MAPPED);
+
+            JournalState state = new JournalState();
+            if (type == JournalType.MAPPED) {
+                MappedOrderJournal.readAll(directory, state::apply);
+            } else {
+                FileOrderJournal.readAll(directory, state::apply);
+            }
+            OrderRepository orderRepository = context.getBean(OrderRepository.class);
+            List<String> mismatches = verify(state, orderRepository);
+            mismatches.addAll(verifyWallets(state, context.getBean(TransactionLedgerRepository.class),
+                    context.getBean(WalletRepository.class), orderRepository));
+            report(state, mismatches, context.getBean(WalletRepository.class), directory, System.out);
+            exitCode = mismatches.isEmpty() ? 0 : 1;
+        }
+        System.exit(exitCode);
+    }
+
+    /**
+     * @return one line per journaled order whose row is missing or disagrees
+     *         with the journal on status, quantity or execution price
+     */
+    static List<String> verify(JournalState state, OrderRepository orderRepository) {
+        List<String> mismatches = new ArrayList<>();
+        for (JournalRecord record : state.orders().values()) {
+            Optional<Order> stored = orderRepository.findByIdempotencyKey(record.idempotencyKey());
+            if (stored.isEmpty()) {
+                mismatches.add("seq " + record.sequence() + " key " + record.idempotencyKey() + ": missing");
+                continue;
+            }
+            Order order = stored.get();
+            BigDecimal expectedPrice = record.isFilled() ? columnPrice(record.priceE8()) : null;
+            BigDecimal actualPrice = order.getExecutionPrice() == null ? null
+                    : order.getExecutionPrice().setScale(2, RoundingMode.HALF_UP);
+            if (order.getStatus() != record.status()
+                    || !Objects.equals(order.getQuantity(), record.quantity())
+                    || !Objects.equals(expectedPrice, actualPrice)) {
+                mismatches.add(String.format("seq %d key %s: journal %s %d @ %s, database %s %d @ %s",
+                        record.sequence(), record.idempotencyKey(), record.status(), record.quantity(),
+                        expectedPrice, order.getStatus(), order.getQuantity(), actualPrice));
+            }
+        }
+        return mismatches;
+    }
+
+    /**
+     * For every user with journaled orders: each order's ledger rows must add
+     * up to its journaled cash movement; ledger rows tagged with a key that
+     * has no order (funds moved, then the lane crashed before the journal
+     * flush) must net to zero; and the wallet balance must equal the sum of
+     * the user's ledger rows. Users without a DEPOSIT row predate opening
+     * balances in the ledger, so their balance is not checked.
+     *
+     * @return one line per order or user that does not add up
+     */
+    static List<String> verifyWallets(JournalState state, TransactionLedgerRepository ledgerRepository,
+            WalletRepository walletRepository, OrderRepository orderRepository) {
+        List<String> mismatches = new ArrayList<>();
+        Map<Long, List<JournalRecord>> ordersByUser = state.orders().values().stream()
+                .collect(Collectors.groupingBy(JournalRecord::userId, TreeMap::new, Collectors.toList()));
+        ordersByUser.forEach((userId, orders) -> {
+            List<TransactionLedger> ledger = ledgerRepository.findByUserId(userId);
+            Map<String, BigDecimal> byReference = ledger.stream()
+                    .filter(entry -> entry.getReference() != null)
+                    .collect(Collectors.toMap(TransactionLedger::getReference, TransactionLedger::getAmount,
+                            BigDecimal::add, TreeMap::new));
+
+            for (JournalRecord record : orders) {
+                BigDecimal journal = ledgerAmount(JournalState.cashDelta(record));
+                BigDecimal booked = ledgerAmount(byReference.remove(record.idempotencyKey()));
+                if (journal.compareTo(booked) != 0) {
+                    mismatches.add(String.format("seq %d key %s: journal moves %s, ledger %s", record.sequence(),
+                            record.idempotencyKey(), journal.toPlainString(), booked.toPlainString()));
+                }
+            }
+            // Keys of orders checkpointed out of the journal are still in the ledger; only unknown ones count.
+            byReference.forEach((key, amount) -> {
+                if (amount.signum() != 0 && orderRepository.findByIdempotencyKey(key).isEmpty()) {
+                    mismatches.add(String.format("user %d key %s: ledger moves %s without an order", userId, key,
+                            ledgerAmount(amount).toPlainString()));
+                }
+            });
+
+            if (ledger.stream().noneMatch(entry -> entry.getType() == TransactionType.DEPOSIT)) {
+                return;
+            }
+            BigDecimal expected = ledgerAmount(ledger.stream().map(TransactionLedger::getAmount)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add));
+            Optional<BigDecimal> balance = walletRepository.findByUserId(userId).map(Wallet::getBalance);
+            if (balance.isEmpty()) {
+                mismatches.add(String.format("user %d: wallet missing, ledger %s", userId, expected.toPlainString()));
+            } else if (balance.get().compareTo(expected) != 0) {
+                mismatches.add(String.format("user %d: wallet %s, ledger %s", userId,
+                        balance.get().toPlainString(), expected.toPlainString()));
+            }
+        });
+        return mismatches;
+    }
+
+    private static BigDecimal columnPrice(long priceE8) {
+        return BigDecimal.valueOf(priceE8, 8).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /** An amount as the ledger column stores it. */
+    private static BigDecimal ledgerAmount(BigDecimal amount) {
+        return (amount == null ? BigDecimal.ZERO : amount).setScale(4, RoundingMode.HALF_UP);
+    }
+
+    private static void report(JournalState state, List<String> mismatches, WalletRepository walletRepository,
+            Path directory, PrintStream out) {
+        out.printf("Journal %s: %d records, last sequence %d, %d orders%n", directory.toAbsolutePath(),
+                state.records(), state.lastSequence(), state.orders().size());
+        out.println("Cash movement per user (journal) and current wallet balance:");
+        state.cashDeltas().entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(e -> out.printf("  user %d: %s (wallet %s)%n", e.getKey(), e.getValue().toPlainString(),
+                        walletRepository.findByUserId(e.getKey()).map(Wallet::getBalance)
+                                .map(BigDecimal::toPlainString).orElse("missing")));
+        out.println("Net positions (journal):");
+        state.positions().entrySet().stream()
+                .filter(e -> e.getValue() != 0)
+                .sorted(Map.Entry.comparingByKey(Comparator
+                        .comparing(JournalState.Position::userId)
+                        .thenComparing(JournalState.Position::symbol)))
+                .forEach(e -> out.printf("  user %d %s: %d%n", e.getKey().userId(), e.getKey().symbol(),
+                        e.getValue()));
+        if (mismatches.isEmpty()) {
+            out.println("All journaled orders, their ledger rows and wallets match the database.");
+        } else {
+            out.printf("%d orders or wallets differ from the database:%n", mismatches.size());
+            mismatches.forEach(line -> out.println("  " + line));
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.Apex.sequencer;
+
+import com.example.Apex.market.FixedPoint;
+import com.example.Apex.model.Order;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * State rebuilt by folding journal records in sequence order: the cash each
+ * user gained or spent, their net position per symbol, and the final record
+ * per idempotency key. An abandoned record undoes the record it voids.
+ * Deterministic, so two folds of the same journal always
+ * agree.
+ */
+public class JournalState {
+
+    /** Net filled quantity for one user and symbol. */
+    public record Position(Long userId, String symbol) {
+    }
+
+    private final Map<Long, BigDecimal> cashDeltas = new HashMap<>();
+    private final Map<Position, Long> positions = new HashMap<>();
+    private final Map<String, JournalRecord> orders = new LinkedHashMap<>();
+    private long lastSequence;
+    private long records;
+
+    public void apply(JournalRecord record) {
+        if (record.sequence() <= lastSequence) {
+            throw new IllegalStateException("Journal out of order: " + record.sequence() + " after " + lastSequence);
+        }
+        lastSequence = record.sequence();
+        records++;
+        if (record.isAbandoned()) {
+            JournalRecord voided = orders.remove(record.idempotencyKey());
+            if (voided != null && voided.isFilled()) {
+                fold(voided, -1);
+            }
+            return;
+        }
+        if (record.idempotencyKey() != null) {
+            orders.put(record.idempotencyKey(), record);
+        }
+        if (record.isFilled()) {
+            fold(record, 1);
+        }
+    }
+
+    private void fold(JournalRecord record, int sign) {
+        boolean buy = record.side() == Order.Side.BUY;
+        cashDeltas.merge(record.userId(), cashDelta(record).multiply(BigDecimal.valueOf(sign)), BigDecimal::add);
+        positions.merge(new Position(record.userId(), record.symbol()),
+                (long) sign * (buy ? record.quantity() : -record.quantity()), Long::sum);
+    }
+
+    /**
+     * Cash the record moved for its user: minus the cost of a filled BUY,
+     * the proceeds of a filled SELL, zero otherwise.
+     */
+    public static BigDecimal cashDelta(JournalRecord record) {
+        if (!record.isFilled()) {
+            return BigDecimal.ZERO;
+        }
+        BigDecimal amount = FixedPoint.toBigDecimal(record.priceE8()).multiply(BigDecimal.valueOf(record.quantity()));
+        return record.side() == Order.Side.BUY ? amount.negate() : amount;
+    }
+
+    public Map<Long, BigDecimal> cashDeltas() {
+        return cashDeltas;
+    }
+
+    public Map<Position, Long> positions() {
+        return positions;
+    }
+
+    public Map<String, JournalRecord> orders() {
+        return orders;
+    }
+
+    public long lastSequence() {
+        return lastSequence;
+    }
+
+    public long records() {
+        return records;
+    }
+}
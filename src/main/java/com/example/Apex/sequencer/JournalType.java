@@ -0,0 +1,12 @@
+package com.example.Apex.sequencer;
+
+/**
+ * Selects the {@link OrderJournal} implementation via
+ * apex.sequencer.journal.type.
+ */
+public enum JournalType {
+    /** Memory-mapped segments with group-commit sync. */
+    MAPPED,
+    /** Single append-only file written through a FileChannel. */
+    FILE
+}
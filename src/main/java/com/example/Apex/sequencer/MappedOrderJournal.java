@@ -0,0 +1,309 @@
+package com.example.Apex.sequencer;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * {@link OrderJournal} on pre-sized, memory-mapped segment files, in
+ * {@link JournalCodec} frames. An append is a copy into the mapping, with no
+ * system call.
+ *
+ * Durability uses group commit: {@link #flush()} only waits, and a single
+ * "journal-sync" thread forces the mapping once for every flush that arrived
+ * while the previous force was running. Concurrent lanes therefore share one
+ * msync instead of queueing for their own. A failed force fails the flushes
+ * it covered; the next flush asks for a fresh one rather than inheriting the
+ * failure.
+ *
+ * Segments are named after their first sequence number. Once the checkpoint
+ * passes every record of a segment, the segment is deleted.
+ */
+@Slf4j
+public class MappedOrderJournal implements OrderJournal {
+
+    static final String CHECKPOINT_FILE = "orders.checkpoint";
+    private static final String SEGMENT_PREFIX = "orders-";
+    private static final String SEGMENT_SUFFIX = ".segment";
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final boolean fsync;
+    private final ByteBuffer scratch = ByteBuffer.allocate(
+            JournalCodec.MAX_RECORD_BYTES + JournalCodec.FRAME_OVERHEAD);
+    private final CRC32 crc = new CRC32();
+    /** First sequence number of each segment. */
+    private final TreeMap<Long, Path> segments = new TreeMap<>();
+
+    private MappedByteBuffer active;
+    private long lastSequence;
+    private volatile long lastCheckpoint;
+
+    private final Object syncLock = new Object();
+    private long syncRequested;
+    private long synced;
+    private IOException syncFailure;
+    private final Thread syncer;
+    private volatile boolean open = true;
+
+    public MappedOrderJournal(Path directory, int segmentBytes, boolean fsync) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.segmentBytes = segmentBytes;
+        this.fsync = fsync;
+
+        Path checkpoint = directory.resolve(CHECKPOINT_FILE);
+        lastCheckpoint = Files.exists(checkpoint) ? Long.parseLong(Files.readString(checkpoint).trim()) : 0;
+        lastSequence = lastCheckpoint;
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(MappedOrderJournal::isSegment).forEach(file -> segments.put(firstSequence(file), file));
+        }
+
+        if (segments.isEmpty()) {
+            active = createSegment(lastSequence + 1);
+        } else {
+            Map.Entry<Long, Path> last = segments.lastEntry();
+            active = map(last.getValue());
+            int end = scan(active, record -> lastSequence = Math.max(lastSequence, record.sequence()));
+            // Zero whatever a torn write left behind so it can never be misread later.
+            for (int i = end; i < Math.min(end + scratch.capacity(), active.limit()); i++) {
+                active.put(i, (byte) 0);
+            }
+            active.position(end);
+        }
+        synced = lastSequence;
+
+        syncer = new Thread(this::syncLoop, "journal-sync");
+        syncer.setDaemon(true);
+        syncer.start();
+    }
+
+    @Override
+    public synchronized JournalRecord append(JournalRecord record) throws IOException {
+        JournalRecord sequenced = record.withSequence(lastSequence + 1);
+        int frame = JournalCodec.encode(sequenced, scratch, crc);
+        if (active.remaining() < frame + 4) {
+            // Seal the full segment (a zero length follows its last frame) and start the next one.
+            active.force();
+            active = createSegment(sequenced.sequence());
+        }
+        active.put(scratch);
+        lastSequence = sequenced.sequence();
+        return sequenced;
+    }
+
+    /**
+     * Waits until every record appended so far is on disk.
+     *
+     * @throws IOException if the force covering these records failed, or the
+     *                     journal was closed before they were synced
+     */
+    @Override
+    public void flush() throws IOException {
+        if (!fsync) {
+            return;
+        }
+        long target;
+        synchronized (this) {
+            target = lastSequence;
+        }
+        synchronized (syncLock) {
+            if (synced < target && (target > syncRequested || syncFailure != null)) {
+                // A new request, or a retry of records whose last force failed.
+                syncRequested = Math.max(syncRequested, target);
+                syncFailure = null;
+                syncLock.notifyAll();
+            }
+            while (synced < target && syncFailure == null && open) {
+                try {
+                    syncLock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while waiting for journal sync", e);
+                }
+            }
+            if (synced >= target) {
+                return;
+            }
+            if (syncFailure != null) {
+                throw syncFailure;
+            }
+            throw new IOException("Journal closed before sequence " + target + " was synced");
+        }
+    }
+
+    @Override
+    public synchronized long replay(long afterSequence, Consumer<JournalRecord> consumer) throws IOException {
+        Consumer<JournalRecord> filtered = record -> {
+            if (record.sequence() > afterSequence) {
+                consumer.accept(record);
+            }
+        };
+        for (Map.Entry<Long, Path> segment : segments.entrySet()) {
+            Map.Entry<Long, Path> next = segments.higherEntry(segment.getKey());
+            if (next != null && next.getKey() - 1 <= afterSequence) {
+                continue;
+            }
+            scan(segment.getValue().equals(segments.lastEntry().getValue()) ? active.duplicate().clear()
+                    : map(segment.getValue()), filtered);
+        }
+        return lastSequence;
+    }
+
+    @Override
+    public synchronized void checkpoint(long sequence) throws IOException {
+        if (sequence <= lastCheckpoint) {
+            return;
+        }
+        Path temp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        Files.writeString(temp, Long.toString(sequence));
+        Files.move(temp, directory.resolve(CHECKPOINT_FILE), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        lastCheckpoint = sequence;
+
+        // A segment is done once the next one starts at or before checkpoint + 1.
+        while (segments.size() > 1) {
+            Map.Entry<Long, Path> oldest = segments.firstEntry();
+            long nextFirst = segments.higherKey(oldest.getKey());
+            if (nextFirst - 1 > sequence) {
+                break;
+            }
+            segments.pollFirstEntry();
+            Files.deleteIfExists(oldest.getValue());
+            log.info("[JOURNAL] Deleted segment {} (checkpoint {})", oldest.getValue().getFileName(), sequence);
+        }
+    }
+
+    @Override
+    public long lastCheckpoint() {
+        return lastCheckpoint;
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (syncLock) {
+            open = false;
+            syncLock.notifyAll();
+        }
+        try {
+            syncer.join(5_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            active.force();
+        }
+    }
+
+    /**
+     * Feeds every intact record of the journal in {@code directory} to
+     * {@code consumer} without modifying anything.
+     */
+    public static void readAll(Path directory, Consumer<JournalRecord> consumer) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        TreeMap<Long, Path> ordered = new TreeMap<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(MappedOrderJournal::isSegment).forEach(file -> ordered.put(firstSequence(file), file));
+        }
+        for (Path segment : ordered.values()) {
+            try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+                scan(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), consumer);
+            }
+        }
+    }
+
+    private void syncLoop() {
+        while (true) {
+            long target;
+            synchronized (syncLock) {
+                while (syncRequested <= synced && open) {
+                    try {
+                        syncLock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (!open) {
+                    return;
+                }
+                target = syncRequested;
+            }
+
+            MappedByteBuffer segment;
+            synchronized (this) {
+                // Everything requested so far is in the active segment; earlier ones were forced when sealed.
+                target = Math.max(target, lastSequence);
+                segment = active;
+            }
+            IOException failure = null;
+            try {
+                segment.force();
+            } catch (RuntimeException e) {
+                failure = new IOException("Journal sync failed", e);
+                log.error("[JOURNAL] Sync failed: {}", e.getMessage());
+            }
+
+            synchronized (syncLock) {
+                if (failure != null) {
+                    // Fail the waiting flushes and wait for the next request instead of retrying in a loop.
+                    syncFailure = failure;
+                    syncRequested = synced;
+                } else {
+                    synced = Math.max(synced, target);
+                    syncFailure = null;
+                }
+                syncLock.notifyAll();
+            }
+        }
+    }
+
+    private MappedByteBuffer createSegment(long firstSequence) throws IOException {
+        Path file = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX));
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        }
+        segments.put(firstSequence, file);
+        return buffer;
+    }
+
+    private static MappedByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        }
+    }
+
+    private static int scan(ByteBuffer data, Consumer<JournalRecord> consumer) {
+        CRC32 check = new CRC32();
+        int offset = 0;
+        int frame;
+        while ((frame = JournalCodec.read(data, offset, check, consumer)) > 0) {
+            offset += frame;
+        }
+        return offset;
+    }
+
+    private static boolean isSegment(Path file) {
+        String name = file.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+
+    private static long firstSequence(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.Apex.sequencer;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * Append-only, sequence-numbered log of order decisions. Appends become
+ * durable on {@link #flush()}, which callers invoke once per batch so one
+ * sync covers many records.
+ */
+public interface OrderJournal extends AutoCloseable {
+
+    /**
+     * Assigns the next sequence number and appends the record.
+     *
+     * @return the record with its sequence number
+     */
+    JournalRecord append(JournalRecord record) throws IOException;
+
+    /**
+     * Makes every record appended so far durable.
+     */
+    void flush() throws IOException;
+
+    /**
+     * Feeds every intact record with a sequence above {@code afterSequence} to
+     * {@code consumer}, in order. A torn record at the tail (a crash mid-write)
+     * ends the replay and is discarded.
+     *
+     * @return the highest sequence number in the journal
+     */
+    long replay(long afterSequence, Consumer<JournalRecord> consumer) throws IOException;
+
+    /**
+     * Records that everything up to and including {@code sequence} has been
+     * persisted elsewhere and need not be replayed.
+     */
+    void checkpoint(long sequence) throws IOException;
+
+    long lastCheckpoint();
+
+    @Override
+    void close() throws IOException;
+}
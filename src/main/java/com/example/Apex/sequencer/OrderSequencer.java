@@ -0,0 +1,297 @@
+package com.example.Apex.sequencer;
+
+import com.example.Apex.market.MarketDataService;
+import com.example.Apex.model.Order;
+import com.example.Apex.model.dto.OrderRequest;
+import com.example.Apex.portfolio.PortfolioService;
+import com.example.Apex.repo.OrderRepository;
+import com.example.Apex.risk.RiskState;
+import com.example.Apex.service.RiskManagementService;
+import com.example.Apex.wallet.WalletStore;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Single-writer order path: users are sharded across apex.sequencer.lanes
+ * single-threaded {@link SequencerLane}s, each of which owns its users'
+ * idempotency keys and moves their funds through the {@link WalletStore}
+ * like every other order path. Every decision is appended to the
+ * {@link OrderJournal} and acknowledged once the lane's batch is flushed;
+ * a writer thread then persists decisions to the relational tables in
+ * batches and advances the journal checkpoint.
+ *
+ * On startup, journal records past the checkpoint (accepted but not yet
+ * persisted before a crash) are replayed into the database first. Records
+ * the database rejects are retried with backoff rather than dropped; the
+ * checkpoint never passes a record that has not been written.
+ *
+ * Only MARKET orders are sequenced; with apex.sequencer.enabled=false (the
+ * default) nothing is started and orders take the transactional path.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderSequencer {
+
+    private static final long MAX_RETRY_BACKOFF_MS = 30_000;
+
+    private final SequencedOrderPersister persister;
+    private final MarketDataService marketDataService;
+    private final RiskManagementService riskManagementService;
+    private final RiskState riskState;
+    private final WalletStore walletStore;
+    private final PortfolioService portfolioService;
+    private final OrderRepository orderRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${apex.sequencer.enabled:false}")
+    private boolean enabled;
+
+    @Value("${apex.sequencer.lanes:4}")
+    private int laneCount;
+
+    @Value("${apex.sequencer.lane-capacity:4096}")
+    private int laneCapacity;
+
+    @Value("${apex.sequencer.batch-size:256}")
+    private int batchSize;
+
+    @Value("${apex.sequencer.writer-batch-size:500}")
+    private int writerBatchSize;
+
+    @Value("${apex.sequencer.idempotency-keys-per-lane:100000}")
+    private int idempotencyKeysPerLane;
+
+    @Value("${apex.sequencer.journal.type:MAPPED}")
+    private JournalType journalType;
+
+    @Value("${apex.sequencer.journal.dir:data/journal}")
+    private String journalDir;
+
+    @Value("${apex.sequencer.journal.segment-bytes:67108864}")
+    private int segmentBytes;
+
+    @Value("${apex.sequencer.journal.fsync:true}")
+    private boolean fsync;
+
+    @Value("${apex.sequencer.journal.roll-bytes:67108864}")
+    private long rollBytes;
+
+    @Value("${apex.sequencer.submit-timeout-ms:5000}")
+    private long submitTimeoutMs;
+
+    @Value("${apex.sequencer.writer-retry-ms:100}")
+    private long writerRetryMs;
+
+    private OrderJournal journal;
+    private SequencerLane[] lanes;
+    private BlockingQueue<JournalRecord> unpersisted;
+    private Thread writer;
+    private volatile boolean running;
+    private volatile boolean stopping;
+
+    @PostConstruct
+    void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        journal = openJournal(journalType, Path.of(journalDir));
+        recover();
+
+        unpersisted = new ArrayBlockingQueue<>(Math.max(writerBatchSize, laneCapacity) * laneCount);
+        SequencerLane.Services services = new SequencerLane.Services(marketDataService, riskManagementService,
+                riskState, walletStore, portfolioService, orderRepository, new TransactionTemplate(transactionManager));
+        lanes = new SequencerLane[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i] = new SequencerLane(i, laneCapacity, batchSize, idempotencyKeysPerLane, journal, services,
+                    unpersisted);
+            lanes[i].start();
+        }
+        running = true;
+        writer = new Thread(this::writeLoop, "sequencer-writer");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("[SEQUENCER] {} lanes started, {} journal at {}", laneCount, journalType, journalDir);
+    }
+
+    @PreDestroy
+    void stop() throws Exception {
+        if (!enabled) {
+            return;
+        }
+        for (SequencerLane lane : lanes) {
+            lane.stop();
+        }
+        running = false;
+        stopping = true;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        journal.close();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sequences a MARKET order and waits until its decision is journaled.
+     * The returned order has no id until the writer has persisted it.
+     *
+     * @throws IllegalStateException if the sequencer is disabled, or the lane
+     *                               is full or does not answer in time
+     */
+    public Order submit(OrderRequest request, String idempotencyKey) {
+        if (!enabled) {
+            throw new IllegalStateException("Order sequencer is disabled");
+        }
+        CompletableFuture<Order> result = lane(request.getUserId()).submit(request, idempotencyKey);
+        try {
+            return result.get(submitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while sequencing order", e);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Order sequencer timed out", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new CompletionException(e.getCause());
+        }
+    }
+
+    OrderJournal openJournal(JournalType type, Path directory) throws IOException {
+        return switch (type) {
+            case MAPPED -> new MappedOrderJournal(directory, segmentBytes, fsync);
+            case FILE -> new FileOrderJournal(directory, fsync, rollBytes);
+        };
+    }
+
+    private SequencerLane lane(Long userId) {
+        return lanes[(int) Math.floorMod(userId, (long) lanes.length)];
+    }
+
+    private void recover() throws IOException {
+        List<JournalRecord> pending = new ArrayList<>();
+        long last = journal.replay(journal.lastCheckpoint(), pending::add);
+        if (pending.isEmpty()) {
+            return;
+        }
+        log.warn("[SEQUENCER] Replaying {} journaled orders after sequence {}", pending.size(),
+                journal.lastCheckpoint());
+        List<JournalRecord> live = withoutAbandoned(pending);
+        try {
+            for (int from = 0; from < live.size(); from += writerBatchSize) {
+                List<JournalRecord> chunk = live.subList(from, Math.min(live.size(), from + writerBatchSize));
+                if (persistAll(chunk, true).size() < chunk.size()) {
+                    throw new IOException("Journal replay stopped before every record was persisted");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while replaying the journal", e);
+        }
+        journal.checkpoint(last);
+    }
+
+    /**
+     * Drops abandoned records, along with the earlier record each one voids.
+     */
+    static List<JournalRecord> withoutAbandoned(List<JournalRecord> records) {
+        List<JournalRecord> live = new ArrayList<>(records.size());
+        for (JournalRecord record : records) {
+            if (!record.isAbandoned()) {
+                live.add(record);
+                continue;
+            }
+            for (int i = live.size() - 1; i >= 0; i--) {
+                if (Objects.equals(record.idempotencyKey(), live.get(i).idempotencyKey())) {
+                    live.remove(i);
+                    break;
+                }
+            }
+        }
+        return live;
+    }
+
+    /**
+     * Persists {@code records}, retrying the ones that fail with exponential
+     * backoff until they are written or the sequencer stops; whatever is left
+     * then stays past the checkpoint and is replayed on the next start.
+     *
+     * @return the records that were persisted
+     */
+    private List<JournalRecord> persistAll(List<JournalRecord> records, boolean skipExisting)
+            throws InterruptedException {
+        List<JournalRecord> written = new ArrayList<>(persister.persist(records, skipExisting));
+        long backoff = writerRetryMs;
+        while (written.size() < records.size() && !stopping) {
+            Set<Long> done = new HashSet<>();
+            written.forEach(record -> done.add(record.sequence()));
+            List<JournalRecord> failed = records.stream().filter(r -> !done.contains(r.sequence())).toList();
+            log.warn("[SEQUENCER] {} journal records not persisted, retrying in {} ms", failed.size(), backoff);
+            Thread.sleep(backoff);
+            backoff = Math.min(backoff * 2, MAX_RETRY_BACKOFF_MS);
+            written.addAll(persister.persist(failed, true));
+        }
+        return written;
+    }
+
+    /**
+     * Persists decisions in batches. Lanes hand records over out of sequence
+     * order, so the checkpoint only advances over a gap-free prefix.
+     */
+    private void writeLoop() {
+        List<JournalRecord> batch = new ArrayList<>(writerBatchSize);
+        PriorityQueue<Long> persistedAhead = new PriorityQueue<>();
+        long watermark = journal.lastCheckpoint();
+        while (running || !unpersisted.isEmpty()) {
+            try {
+                JournalRecord first = unpersisted.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                unpersisted.drainTo(batch, writerBatchSize - 1);
+
+                for (JournalRecord record : persistAll(batch, false)) {
+                    persistedAhead.add(record.sequence());
+                }
+                while (!persistedAhead.isEmpty() && persistedAhead.peek() == watermark + 1) {
+                    watermark = persistedAhead.poll();
+                }
+                journal.checkpoint(watermark);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException e) {
+                log.error("[SEQUENCER] Could not write journal checkpoint: {}", e.getMessage());
+            } catch (RuntimeException e) {
+                log.error("[SEQUENCER] Writer failed on a batch of {}: {}", batch.size(), e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+}
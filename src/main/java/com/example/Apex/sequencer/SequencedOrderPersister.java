@@ -0,0 +1,167 @@
+package com.example.Apex.sequencer;
+
+import com.example.Apex.execution.OrderStateMachine;
+import com.example.Apex.execution.OrderStatusEvent;
+import com.example.Apex.idempotency.IdempotencyCache;
+import com.example.Apex.market.FixedPoint;
+import com.example.Apex.model.Order;
+import com.example.Apex.model.OrderAuditLog;
+import com.example.Apex.model.TradeLog;
+import com.example.Apex.repo.OrderAuditLogRepository;
+import com.example.Apex.repo.OrderRepository;
+import com.example.Apex.repo.TradeLogRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Turns journal records into rows: the order, its audit trail and, for fills,
+ * a trade log entry. The lane already moved the funds through the
+ * {@link com.example.Apex.wallet.WalletStore}, ledger row included, before
+ * journaling the record, so nothing here touches wallets. A batch is written
+ * in one transaction; if it fails, each record is retried on its own so one
+ * bad record (e.g. a duplicate idempotency key) cannot block the rest.
+ * Abandoned records write nothing.
+ */
+@Slf4j
+@Component
+public class SequencedOrderPersister {
+
+    private final OrderRepository orderRepository;
+    private final OrderAuditLogRepository auditLogRepository;
+    private final TradeLogRepository tradeLogRepository;
+    private final OrderStateMachine orderStateMachine;
+    private final IdempotencyCache idempotencyCache;
+    private final TransactionTemplate transactionTemplate;
+
+    public SequencedOrderPersister(OrderRepository orderRepository, OrderAuditLogRepository auditLogRepository,
+            TradeLogRepository tradeLogRepository, OrderStateMachine orderStateMachine,
+            IdempotencyCache idempotencyCache, PlatformTransactionManager transactionManager) {
+        this.orderRepository = orderRepository;
+        this.auditLogRepository = auditLogRepository;
+        this.tradeLogRepository = tradeLogRepository;
+        this.orderStateMachine = orderStateMachine;
+        this.idempotencyCache = idempotencyCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Materialised rows of one record; the audit entries get the order id once
+     * it is saved.
+     */
+    record Rows(Order order, List<OrderAuditLog> audits, boolean filled) {
+    }
+
+    /**
+     * Builds the order as the sequencer decided it, running the same
+     * transitions through the state machine as the synchronous path.
+     */
+    Rows materialize(JournalRecord record) {
+        LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(record.timestamp()), ZoneId.systemDefault());
+        BigDecimal price = record.priceE8() == 0 ? null : FixedPoint.toBigDecimal(record.priceE8());
+        Order order = Order.builder()
+                .userId(record.userId())
+                .symbol(record.symbol())
+                .side(record.side())
+                .quantity(record.quantity())
+                .type(Order.OrderType.MARKET)
+                .price(price)
+                .filledQuantity(0)
+                .idempotencyKey(record.idempotencyKey())
+                .status(Order.OrderStatus.PENDING_VALIDATION)
+                .createdAt(time)
+                .build();
+
+        List<OrderAuditLog> audits = new ArrayList<>(2);
+        if (!record.isFilled()) {
+            order.setRejectionReason(record.reason());
+            audits.add(orderStateMachine.transitionDeferred(order, Order.OrderStatus.REJECTED));
+            return new Rows(order, audits, false);
+        }
+
+        audits.add(orderStateMachine.transitionDeferred(order, Order.OrderStatus.VALIDATED));
+        order.setExecutionPrice(price);
+        order.setFilledQuantity(record.quantity());
+        order.setFilledAt(time);
+        audits.add(orderStateMachine.transitionDeferred(order, Order.OrderStatus.FILLED));
+        return new Rows(order, audits, true);
+    }
+
+    /**
+     * Writes a batch, skipping records whose idempotency key is already
+     * stored when {@code skipExisting} is set (journal replay).
+     *
+     * @return the records that were written, already present or abandoned;
+     *         the caller retries the others
+     */
+    public List<JournalRecord> persist(List<JournalRecord> records, boolean skipExisting) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(records, skipExisting));
+            return records;
+        } catch (RuntimeException e) {
+            log.warn("[SEQUENCER] Batch of {} failed ({}), retrying one by one", records.size(), e.getMessage());
+        }
+        List<JournalRecord> written = new ArrayList<>(records.size());
+        for (JournalRecord record : records) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> write(List.of(record), true));
+                written.add(record);
+            } catch (RuntimeException e) {
+                log.error("[SEQUENCER] Could not write journal record {} ({}): {}", record.sequence(),
+                        record.idempotencyKey(), e.getMessage());
+            }
+        }
+        return written;
+    }
+
+    private void write(List<JournalRecord> records, boolean skipExisting) {
+        List<Rows> rows = new ArrayList<>(records.size());
+        List<Long> sequences = new ArrayList<>(records.size());
+        for (JournalRecord record : records) {
+            if (record.isAbandoned()) {
+                continue;
+            }
+            if (skipExisting && record.idempotencyKey() != null
+                    && orderRepository.findByIdempotencyKey(record.idempotencyKey()).isPresent()) {
+                continue;
+            }
+            rows.add(materialize(record));
+            sequences.add(record.sequence());
+        }
+
+        List<Order> orders = orderRepository.saveAll(rows.stream().map(Rows::order).toList());
+        List<OrderAuditLog> audits = new ArrayList<>(rows.size() * 2);
+        List<TradeLog> trades = new ArrayList<>(rows.size());
+        List<OrderStatusEvent> events = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            Rows row = rows.get(i);
+            // One event per order, without a previous status: the lane already counted it with RiskState.
+            events.add(OrderStatusEvent.of(orders.get(i), null));
+            if (orders.get(i).getIdempotencyKey() != null) {
+                idempotencyCache.remember(orders.get(i).getIdempotencyKey(), orders.get(i).getId());
+            }
+            for (OrderAuditLog audit : row.audits()) {
+                audit.setOrderId(orders.get(i).getId());
+                audits.add(audit);
+            }
+            if (row.filled()) {
+                trades.add(TradeLog.builder()
+                        .orderId(orders.get(i).getId())
+                        .action("ORDER_FILLED")
+                        .details("Sequenced fill, journal sequence " + sequences.get(i))
+                        .build());
+            }
+        }
+        auditLogRepository.saveAll(audits);
+        tradeLogRepository.saveAll(trades);
+        orderStateMachine.publishAfterCommit(events);
+    }
+}
@@ -0,0 +1,296 @@
+package com.example.Apex.sequencer;
+
+import com.example.Apex.market.FixedPoint;
+import com.example.Apex.market.MarketDataService;
+import com.example.Apex.model.Order;
+import com.example.Apex.model.TransactionType;
+import com.example.Apex.model.dto.OrderRequest;
+import com.example.Apex.portfolio.PortfolioService;
+import com.example.Apex.repo.OrderRepository;
+import com.example.Apex.risk.RiskState;
+import com.example.Apex.service.RiskManagementService;
+import com.example.Apex.wallet.WalletStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One single-threaded shard of the {@link OrderSequencer}. The lane thread is
+ * the only one touching its users' idempotency keys, so it needs no locks.
+ *
+ * Commands are drained in batches: each is decided and appended to the
+ * journal, then a single flush makes the whole batch durable before any
+ * caller is answered. If the flush fails, the batch's wallet movements are
+ * reversed, its callers fail and each of its records is voided by an
+ * abandoned record, so neither the writer nor a later replay applies it.
+ *
+ * Funds move through the {@link WalletStore} when the order is decided, the
+ * same store that reserves for LIMIT and STOP orders and settles resting
+ * fills, so a purchase is checked against what the user can spend right now
+ * rather than a copy of the balance. Ledger rows carry the order's
+ * idempotency key; a crash between the movement and the flush leaves such a
+ * row without an order, which the {@link JournalReplayTool} reports.
+ */
+@Slf4j
+final class SequencerLane {
+
+    record Services(MarketDataService marketDataService, RiskManagementService riskManagementService,
+            RiskState riskState, WalletStore walletStore, PortfolioService portfolioService,
+            OrderRepository orderRepository, TransactionTemplate transactionTemplate) {
+    }
+
+    private record Command(OrderRequest request, String idempotencyKey, CompletableFuture<Order> result) {
+    }
+
+    /** Outcome of one command, kept until the batch is flushed. */
+    private record Decision(Command command, Order order, JournalRecord record, BigDecimal balanceDelta) {
+    }
+
+    private final int index;
+    private final int batchSize;
+    private final OrderJournal journal;
+    private final Services services;
+    private final BlockingQueue<JournalRecord> unpersisted;
+    private final BlockingQueue<Command> commands;
+    private final Map<String, Order> recentKeys;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    SequencerLane(int index, int capacity, int batchSize, int idempotencyKeys, OrderJournal journal,
+            Services services, BlockingQueue<JournalRecord> unpersisted) {
+        this.index = index;
+        this.batchSize = batchSize;
+        this.journal = journal;
+        this.services = services;
+        this.unpersisted = unpersisted;
+        this.commands = new ArrayBlockingQueue<>(capacity);
+        this.recentKeys = new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Order> eldest) {
+                return size() > idempotencyKeys;
+            }
+        };
+        this.thread = new Thread(this::run, "sequencer-lane-" + index);
+        this.thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    void stop() throws InterruptedException {
+        running = false;
+        thread.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    CompletableFuture<Order> submit(OrderRequest request, String idempotencyKey) {
+        Command command = new Command(request, idempotencyKey, new CompletableFuture<>());
+        if (!commands.offer(command)) {
+            command.result().completeExceptionally(new IllegalStateException("Sequencer lane " + index + " is full"));
+        }
+        return command.result();
+    }
+
+    private void run() {
+        List<Command> batch = new ArrayList<>(batchSize);
+        List<Decision> decisions = new ArrayList<>(batchSize);
+        while (running || !commands.isEmpty()) {
+            try {
+                Command first = commands.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                commands.drainTo(batch, batchSize - 1);
+                for (Command command : batch) {
+                    try {
+                        decisions.add(decide(command));
+                    } catch (RuntimeException e) {
+                        command.result().completeExceptionally(e);
+                    }
+                }
+                commit(decisions);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+                decisions.clear();
+            }
+        }
+    }
+
+    /**
+     * Flushes the journal once for the batch, then answers callers and hands
+     * the records to the writer.
+     */
+    private void commit(List<Decision> decisions) throws InterruptedException {
+        try {
+            journal.flush();
+        } catch (IOException e) {
+            log.error("[SEQUENCER] Lane {} could not flush the journal: {}", index, e.getMessage());
+            for (int i = decisions.size() - 1; i >= 0; i--) {
+                Decision decision = decisions.get(i);
+                if (decision.record() != null) {
+                    reverse(decision.order().getUserId(), decision.balanceDelta(), decision.command().idempotencyKey());
+                    recentKeys.remove(decision.command().idempotencyKey());
+                }
+                decision.command().result().completeExceptionally(new UncheckedIOException(e));
+            }
+            abandon(decisions, "Journal flush failed: " + e.getMessage());
+            return;
+        }
+        for (Decision decision : decisions) {
+            decision.command().result().complete(decision.order());
+        }
+        for (Decision decision : decisions) {
+            if (decision.record() != null) {
+                unpersisted.put(decision.record());
+            }
+        }
+    }
+
+    /**
+     * Voids the records of a batch whose flush failed. Their sequence numbers
+     * are already taken, so each is handed to the writer as abandoned (keeping
+     * the checkpoint gap-free), and an abandoned record is appended so a
+     * replay of bytes that still reach the disk skips it too.
+     */
+    private void abandon(List<Decision> decisions, String reason) throws InterruptedException {
+        for (Decision decision : decisions) {
+            JournalRecord record = decision.record();
+            if (record == null) {
+                continue;
+            }
+            unpersisted.put(record.abandoned(reason));
+            try {
+                unpersisted.put(journal.append(record.abandoned(reason)));
+            } catch (IOException e) {
+                log.error("[SEQUENCER] Lane {} could not void journal record {}: {}", index, record.sequence(),
+                        e.getMessage());
+            }
+        }
+        try {
+            journal.flush();
+        } catch (IOException e) {
+            log.warn("[SEQUENCER] Lane {} could not flush abandoned records yet: {}", index, e.getMessage());
+        }
+    }
+
+    private Decision decide(Command command) {
+        OrderRequest request = command.request();
+        String key = command.idempotencyKey();
+
+        Order existing = recentKeys.get(key);
+        if (existing == null) {
+            existing = services.orderRepository().findByIdempotencyKey(key).orElse(null);
+        }
+        if (existing != null) {
+            log.info("Idempotent request: Order with key {} already exists.", key);
+            return new Decision(command, existing, null, BigDecimal.ZERO);
+        }
+
+        Long userId = request.getUserId();
+        BigDecimal price = null;
+        String reason = null;
+        BigDecimal delta = BigDecimal.ZERO;
+        try {
+            price = services.marketDataService().getTradablePrice(request.getSymbol());
+            services.riskManagementService().validateLimits(userId, request.getSymbol(), request.getSide(),
+                    request.getQuantity(), price);
+            BigDecimal amount = price.multiply(BigDecimal.valueOf(request.getQuantity()));
+            if (request.getSide() == Order.Side.BUY) {
+                inTransaction(() -> services.walletStore().debit(userId, amount, TransactionType.TRADE_BUY, key));
+                delta = amount.negate();
+            } else {
+                services.portfolioService().requireHolding(userId, request.getSymbol(), request.getQuantity());
+                inTransaction(() -> services.walletStore().credit(userId, amount, TransactionType.TRADE_SELL,
+                        key));
+                delta = amount;
+            }
+        } catch (RuntimeException e) {
+            reason = e.getMessage();
+        }
+
+        JournalRecord record;
+        try {
+            record = journal.append(new JournalRecord(0, System.currentTimeMillis(), userId, request.getSymbol(),
+                    request.getSide(), request.getQuantity(), price == null ? 0 : FixedPoint.fromBigDecimal(price),
+                    key, reason == null ? Order.OrderStatus.FILLED : Order.OrderStatus.REJECTED, reason));
+        } catch (IOException e) {
+            reverse(userId, delta, key);
+            throw new UncheckedIOException(e);
+        }
+        // Counted now rather than when the writer commits, so the next order's limits already see it.
+        services.riskState().recordPlaced(userId);
+
+        Order order = toOrder(record, price);
+        recentKeys.put(key, order);
+        return new Decision(command, order, record, delta);
+    }
+
+    /**
+     * Undoes the wallet movement of a decision that never became durable,
+     * with the opposite sign under the same ledger type and reference, so the
+     * key's ledger rows net to zero.
+     */
+    private void reverse(Long userId, BigDecimal delta, String key) {
+        WalletStore wallet = services.walletStore();
+        try {
+            if (delta.signum() < 0) {
+                inTransaction(() -> wallet.credit(userId, delta.negate(), TransactionType.TRADE_BUY, key));
+            } else if (delta.signum() > 0) {
+                inTransaction(() -> wallet.debit(userId, delta, TransactionType.TRADE_SELL, key));
+            }
+        } catch (RuntimeException e) {
+            log.error("[SEQUENCER] Lane {} could not reverse {} for user {}: {}", index, delta, userId,
+                    e.getMessage());
+        }
+    }
+
+    /**
+     * Runs a wallet movement in its own transaction, which the locking store
+     * needs for its row lock and the in-memory store uses to queue the
+     * write-behind once the ledger row is committed.
+     */
+    private void inTransaction(Runnable movement) {
+        services.transactionTemplate().executeWithoutResult(status -> movement.run());
+    }
+
+    /**
+     * The caller's view of a sequenced order; the persisted row is built from
+     * the same record by {@link SequencedOrderPersister}.
+     */
+    private static Order toOrder(JournalRecord record, BigDecimal price) {
+        LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(record.timestamp()), ZoneId.systemDefault());
+        return Order.builder()
+                .userId(record.userId())
+                .symbol(record.symbol())
+                .side(record.side())
+                .quantity(record.quantity())
+                .type(Order.OrderType.MARKET)
+                .price(price)
+                .executionPrice(record.isFilled() ? price : null)
+                .filledQuantity(record.isFilled() ? record.quantity() : 0)
+                .idempotencyKey(record.idempotencyKey())
+                .status(record.status())
+                .rejectionReason(record.reason())
+                .createdAt(time)
+                .filledAt(record.isFilled() ? time : null)
+                .build();
+    }
+}
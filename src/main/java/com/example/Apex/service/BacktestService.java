@@ -1,7 +1,10 @@
 package com.example.Apex.service;
 
+import com.example.Apex.market.CandleInterval;
+import com.example.Apex.market.MarketSeriesReader;
 import com.example.Apex.market.MarketTick;
-import com.example.Apex.market.MarketTickRepository;
+import com.example.Apex.strategy.RollingWindow;
+import com.example.Apex.strategy.StatefulStrategy;
 import com.example.Apex.strategy.StrategyRegistry;
 import com.example.Apex.strategy.StrategySignal;
 import com.example.Apex.strategy.TradingStrategy;
@@ -9,86 +12,83 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
-
+import java.util.function.Consumer;
+/**
+ * Replays historical market data against a strategy.
+ *
+ * Data is streamed from {@link MarketSeriesReader} rather than loaded up
+ * front. A {@link StatefulStrategy} is fed tick by tick through a fresh
+ * instance; any other strategy sees a bounded {@link RollingWindow} of the
+ * last apex.backtest.history-window ticks as its history. Either way memory
+ * is independent of the range.
+ */
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class BacktestService {
 
-    private final MarketTickRepository marketTickRepository;
+    private final MarketSeriesReader marketSeriesReader;
     private final StrategyRegistry strategyRegistry;
 
+    @Value("${apex.backtest.history-window:1000}")
+    private int historyWindow;
+
     public BacktestResult runBacktest(String strategyName, LocalDateTime start, LocalDateTime end) {
+        return runBacktest(strategyName, null, null, start, end);
+    }
+
+    /**
+     * Runs a backtest over raw ticks, or over pre-aggregated candles when an
+     * interval is given (each bar is replayed as one tick at its close price
+     * and close time).
+     *
+     * @param symbol   optional for tick backtests, required for candle backtests
+     * @param interval optional candle interval code, e.g. "1m"
+     */
+    public BacktestResult runBacktest(String strategyName, String symbol, String interval,
+            LocalDateTime start, LocalDateTime end) {
         TradingStrategy strategy = strategyRegistry.getStrategy(strategyName);
         if (strategy == null) {
             throw new IllegalArgumentException("Strategy not found: " + strategyName);
         }
 
-        List<MarketTick> ticks = marketTickRepository.findByTimestampBetweenOrderByTimestampAsc(start, end);
-        if (ticks.isEmpty()) {
-            return BacktestResult.builder()
-                    .strategyName(strategyName)
-                    .message("No market data found for the given range")
-                    .build();
-        }
+        log.info("Starting backtest for {} over {} - {} (symbol={}, interval={})",
+                strategyName, start, end, symbol, interval);
 
-        log.info("Starting backtest for {} with {} ticks", strategyName, ticks.size());
+        BacktestSimulator simulator = new BacktestSimulator();
+        Consumer<MarketTick> replay;
+        if (strategy instanceof StatefulStrategy stateful) {
+            // Incremental indicators: no history window needed.
+            StatefulStrategy instance = stateful.newInstance();
+            replay = tick -> simulator.onSignal(instance.onTick(tick).type(), tick.getPrice().doubleValue());
+        } else {
+            RollingWindow<MarketTick> history = new RollingWindow<>(historyWindow);
+            replay = tick -> {
+                // Update history
+                history.add(tick);
 
-        List<MarketTick> historyProxy = new ArrayList<>();
-        double cash = 10000.0; // Initial simulated capital
-        double initialCapital = cash;
-        double holdings = 0.0;
-        int wins = 0;
-        int trades = 0;
-        double maxDrawdown = 0.0;
-        double peakCapital = initialCapital;
-
-        for (MarketTick tick : ticks) {
-            // Update history
-            historyProxy.add(tick);
-
-            // Analyze
-            StrategySignal signal = strategy.analyze(tick, historyProxy);
-            double price = tick.getPrice().doubleValue();
+                // Analyze
+                StrategySignal signal = strategy.analyze(tick, history);
+                simulator.onSignal(signal.type(), tick.getPrice().doubleValue());
+            };
+        }
 
-            // Execute (Simulated)
-            if (signal.type() == StrategySignal.SignalType.BUY && cash >= price) {
-                // Buy 1 unit
-                holdings += 1.0;
-                cash -= price;
-                trades++;
-            } else if (signal.type() == StrategySignal.SignalType.SELL && holdings >= 1.0) {
-                // Sell 1 unit
-                holdings -= 1.0;
-                cash += price;
-                trades++;
-                // Rudimentary win check: if current cash > initial, we are winning?
-                // Real win rate needs entry price tracking. ignoring for MVP simplicity.
-            }
+        CandleInterval candleInterval = interval == null ? null : CandleInterval.fromCode(interval);
+        marketSeriesReader.streamSeries(symbol, candleInterval, start, end, replay);
 
-            // Calculate Portfolio Value
-            double portValue = cash + (holdings * price);
-            peakCapital = Math.max(peakCapital, portValue);
-            double drawdown = (peakCapital - portValue) / peakCapital;
-            maxDrawdown = Math.max(maxDrawdown, drawdown);
+        if (simulator.getTicks() == 0) {
+            return BacktestResult.builder()
+                    .strategyName(strategyName)
+                    .message("No market data found for the given range")
+                    .build();
         }
 
-        double finalValue = cash + (holdings * ticks.get(ticks.size() - 1).getPrice().doubleValue());
-        double totalReturn = (finalValue - initialCapital) / initialCapital * 100;
-
-        return BacktestResult.builder()
-                .strategyName(strategyName)
-                .totalReturnPercent(totalReturn)
-                .maxDrawdownPercent(maxDrawdown * 100)
-                .totalTrades(trades)
-                .message("Backtest completed successfully")
-                .build();
+        log.info("Backtest for {} replayed {} ticks", strategyName, simulator.getTicks());
+        return simulator.toResult(strategyName);
     }
 
     @Data
@@ -1,20 +1,32 @@
 package com.example.Apex.service;
 
+import com.example.Apex.exception.InvalidRequestException;
 import com.example.Apex.execution.OrderStateMachine;
-import com.example.Apex.market.MarketDataService;
+import com.example.Apex.execution.OrderTriggerEngine;
+import com.example.Apex.idempotency.IdempotencyCache;
 import com.example.Apex.model.*;
+import com.example.Apex.model.dto.OrderRequest;
+import com.example.Apex.pipeline.TradeContext;
+import com.example.Apex.pipeline.TradePhase;
+import com.example.Apex.pipeline.TradePipeline;
 import com.example.Apex.repo.OrderRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
-import java.time.LocalDateTime;
 import java.util.Optional;
 
 /**
- * Orchestrates order execution.
+ * Entry point of the order API: idempotency and order creation, then the
+ * shared {@link TradePipeline}.
+ *
+ * MARKET orders, and LIMIT or STOP orders that are already marketable, fill
+ * immediately at the live price: BUY funds are reserved once the order is
+ * VALIDATED and committed when it is FILLED, or released if it fails in
+ * between. Otherwise the order goes WORKING: BUY funds are debited at the
+ * limit (or stop) price and the order is handed to {@link OrderTriggerEngine}
+ * once the transaction commits.
  *
  * All order status transitions are delegated entirely to
  * {@link OrderStateMachine}.
@@ -26,16 +38,43 @@ import java.util.Optional;
 public class OrderExecutionService {
 
     private final OrderRepository orderRepository;
-    private final RiskManagementService riskManagementService;
-    private final WalletService walletService;
-    private final MarketDataService marketDataService;
-    private final OrderStateMachine orderStateMachine;
+    private final OrderTriggerEngine orderTriggerEngine;
+    private final IdempotencyCache idempotencyCache;
+    private final TradePipeline tradePipeline;
 
+    /**
+     * Places a MARKET order.
+     */
     @Transactional
     public Order executeOrder(Long userId, String symbol, Order.Side side, Integer quantity, String idempotencyKey) {
+        OrderRequest request = new OrderRequest();
+        request.setUserId(userId);
+        request.setSymbol(symbol);
+        request.setSide(side);
+        request.setQuantity(quantity);
+        return executeOrder(request, idempotencyKey);
+    }
+
+    /**
+     * @throws InvalidRequestException if a LIMIT order has no limitPrice or a
+     *                                 STOP order no stopPrice
+     */
+    @Transactional
+    public Order executeOrder(OrderRequest request, String idempotencyKey) {
+        Long userId = request.getUserId();
+        String symbol = request.getSymbol();
+        Order.Side side = request.getSide();
+        Integer quantity = request.getQuantity();
+        Order.OrderType type = request.getType() != null ? request.getType() : Order.OrderType.MARKET;
+        if (type == Order.OrderType.LIMIT && request.getLimitPrice() == null) {
+            throw new InvalidRequestException("limitPrice is required for LIMIT orders");
+        }
+        if (type == Order.OrderType.STOP && request.getStopPrice() == null) {
+            throw new InvalidRequestException("stopPrice is required for STOP orders");
+        }
 
-        // 1. Idempotency Check
-        Optional<Order> existingOrder = orderRepository.findByIdempotencyKey(idempotencyKey);
+        // 1. Idempotency Check (in-memory first; the database only for probable repeats)
+        Optional<Order> existingOrder = idempotencyCache.find(idempotencyKey);
         if (existingOrder.isPresent()) {
             log.info("Idempotent request: Order {} already exists.", existingOrder.get().getId());
             return existingOrder.get();
@@ -47,52 +86,27 @@ public class OrderExecutionService {
                 .symbol(symbol)
                 .side(side)
                 .quantity(quantity)
+                .type(type)
+                .limitPrice(type == Order.OrderType.LIMIT ? request.getLimitPrice() : null)
+                .stopPrice(type == Order.OrderType.STOP ? request.getStopPrice() : null)
+                .filledQuantity(0)
                 .idempotencyKey(idempotencyKey)
                 .status(Order.OrderStatus.PENDING_VALIDATION)
                 .build();
         order = orderRepository.save(order);
+        idempotencyCache.remember(idempotencyKey, order.getId());
 
-        try {
-            // 3. Fetch live market price
-            BigDecimal marketPrice = marketDataService.getLatestPrice(symbol);
-            order.setPrice(marketPrice);
-
-            // 4. Risk check — throws RiskException on failure
-            riskManagementService.validateOrder(userId, symbol, quantity, marketPrice);
-
-            // 5. PENDING_VALIDATION → VALIDATED (enforced by state machine)
-            orderStateMachine.transition(order, Order.OrderStatus.VALIDATED);
-
-            // 6. Reserve funds for BUY orders
-            BigDecimal totalAmount = marketPrice.multiply(BigDecimal.valueOf(quantity));
-            if (side == Order.Side.BUY) {
-                walletService.adjustBalance(userId, totalAmount.negate(), TransactionType.TRADE_BUY);
-            }
-
-            // 7. VALIDATED → FILLED (enforced by state machine)
-            order.setExecutionPrice(marketPrice);
-            order.setFilledAt(LocalDateTime.now());
-            orderStateMachine.transition(order, Order.OrderStatus.FILLED);
-
-            // 8. Credit funds for SELL orders (instant settlement for MVP)
-            if (side == Order.Side.SELL) {
-                walletService.adjustBalance(userId, totalAmount, TransactionType.TRADE_SELL);
-            }
-
-        } catch (RiskManagementService.RiskException e) {
-            log.warn("Order {} rejected by Risk Engine: {}", order.getId(), e.getMessage());
-            order.setRejectionReason(e.getMessage());
-            // PENDING_VALIDATION → REJECTED (enforced by state machine)
-            orderStateMachine.transition(order, Order.OrderStatus.REJECTED);
-
-        } catch (Exception e) {
-            log.error("Order {} failed during execution: {}", order.getId(), e.getMessage());
-            order.setRejectionReason(e.getMessage());
-            // Transition from whatever current state to REJECTED — state machine validates
-            // this
-            orderStateMachine.transition(order, Order.OrderStatus.REJECTED);
-        }
+        // 3-8. Price, risk, reserve, execute, settle — failures reject the order
+        return tradePipeline.process(TradeContext.forOrder(order), TradePhase.FETCH);
+    }
 
-        return orderRepository.save(order);
+    /**
+     * Cancels the unfilled remainder of a working order.
+     *
+     * @throws com.example.Apex.exception.OrderNotFoundException if the order
+     *         does not exist
+     */
+    public Order cancelOrder(Long orderId) {
+        return orderTriggerEngine.cancel(orderId);
     }
 }
@@ -0,0 +1,258 @@
+package com.example.Apex.service;
+
+import com.example.Apex.market.CandleInterval;
+import com.example.Apex.market.MarketSeriesReader;
+import com.example.Apex.market.PriceSeries;
+import com.example.Apex.model.dto.SweepRequest;
+import com.example.Apex.strategy.StatefulStrategy;
+import com.example.Apex.strategy.StrategyRegistry;
+import com.example.Apex.strategy.StrategySignal;
+import com.example.Apex.strategy.TradingStrategy;
+import com.example.Apex.strategy.TunableStrategy;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs one strategy over one historical range for every combination of a set
+ * of parameter values, in parallel.
+ *
+ * The series is read once into a shared, read-only {@link PriceSeries};
+ * each combination then gets its own strategy instance and
+ * {@link BacktestSimulator} and runs as a task on a dedicated
+ * {@link ForkJoinPool} sized to the available cores. Sweeps run one at a time
+ * in submission order, since each one already saturates the pool.
+ *
+ * Jobs are kept in memory: the most recent apex.backtest.sweep-retained-jobs
+ * finished sweeps remain queryable.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ParameterSweepService {
+
+    /** Ticks evaluated between cancellation checks. */
+    private static final int CANCEL_CHECK_INTERVAL = 4096;
+
+    private final MarketSeriesReader marketSeriesReader;
+    private final StrategyRegistry strategyRegistry;
+
+    @Value("${apex.backtest.history-window:1000}")
+    private int historyWindow;
+
+    @Value("${apex.backtest.sweep-parallelism:0}")
+    private int parallelism;
+
+    @Value("${apex.backtest.sweep-max-runs:1000}")
+    private int maxRuns;
+
+    @Value("${apex.backtest.sweep-max-points:5000000}")
+    private int maxPoints;
+
+    @Value("${apex.backtest.sweep-retained-jobs:20}")
+    private int retainedJobs;
+
+    private final Map<String, SweepJob> jobs = new ConcurrentHashMap<>();
+
+    private ExecutorService coordinator;
+    private ForkJoinPool workers;
+
+    @PostConstruct
+    void start() {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        workers = new ForkJoinPool(threads);
+        coordinator = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "sweep-coordinator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        log.info("[SWEEP] Parameter sweeps run on {} worker threads", threads);
+    }
+
+    @PreDestroy
+    void stop() {
+        jobs.values().forEach(SweepJob::cancel);
+        coordinator.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    /**
+     * Validates the request and queues the sweep.
+     *
+     * @throws IllegalArgumentException for unknown or non-tunable strategies,
+     *                                  invalid parameters, or too many runs
+     */
+    public SweepJob submit(SweepRequest request) {
+        TradingStrategy strategy = strategyRegistry.getStrategy(request.getStrategyName());
+        if (strategy == null) {
+            throw new IllegalArgumentException("Strategy not found: " + request.getStrategyName());
+        }
+        if (!(strategy instanceof TunableStrategy tunable)) {
+            throw new IllegalArgumentException("Strategy has no tunable parameters: " + request.getStrategyName());
+        }
+
+        List<Map<String, Double>> combinations = combinations(request.getParameters(), maxRuns);
+        // Build every instance up front so bad parameter values fail the request, not the job.
+        List<TunableStrategy> instances = combinations.stream().map(tunable::withParameters).toList();
+        CandleInterval interval = request.getInterval() == null ? null : CandleInterval.fromCode(request.getInterval());
+        if (interval != null && request.getSymbol() == null) {
+            throw new IllegalArgumentException("A symbol is required for candle backtests");
+        }
+
+        SweepJob job = new SweepJob(UUID.randomUUID().toString(), request.getStrategyName(), instances.size());
+        evictFinishedJobs();
+        jobs.put(job.getId(), job);
+        job.setFuture(coordinator.submit(() -> run(job, request, interval, instances)));
+
+        log.info("[SWEEP] Queued sweep {} of {} with {} runs", job.getId(), job.getStrategyName(),
+                job.getTotalRuns());
+        return job;
+    }
+
+    public Optional<SweepJob> getJob(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    public Collection<SweepJob> getJobs() {
+        return jobs.values();
+    }
+
+    /**
+     * @return false if the job does not exist or already finished
+     */
+    public boolean cancel(String id) {
+        SweepJob job = jobs.get(id);
+        return job != null && job.cancel();
+    }
+
+    private void run(SweepJob job, SweepRequest request, CandleInterval interval, List<TunableStrategy> instances) {
+        if (job.isCancelled()) {
+            return;
+        }
+        long startNanos = System.nanoTime();
+        try {
+            job.transition(SweepJob.Status.LOADING);
+            PriceSeries.Builder builder = PriceSeries.builder(maxPoints);
+            marketSeriesReader.streamSeries(request.getSymbol(), interval, request.getStart(), request.getEnd(),
+                    builder::add);
+            PriceSeries series = builder.build();
+            job.loaded(series.size());
+            if (series.size() == 0) {
+                job.finish(SweepJob.Status.FAILED, "No market data found for the given range");
+                return;
+            }
+
+            job.transition(SweepJob.Status.RUNNING);
+            List<ForkJoinTask<?>> tasks = new ArrayList<>(instances.size());
+            for (TunableStrategy instance : instances) {
+                tasks.add(workers.submit(() -> job.record(evaluate(instance, series, job))));
+            }
+            for (ForkJoinTask<?> task : tasks) {
+                task.join();
+            }
+
+            job.finish(SweepJob.Status.COMPLETED, null);
+            log.info("[SWEEP] Sweep {} finished {} runs over {} points in {} ms", job.getId(),
+                    job.getCompletedRuns(), series.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        } catch (CancellationException e) {
+            job.finish(SweepJob.Status.CANCELLED, null);
+            log.info("[SWEEP] Sweep {} cancelled after {} of {} runs", job.getId(), job.getCompletedRuns(),
+                    job.getTotalRuns());
+        } catch (Exception e) {
+            if (job.isCancelled()) {
+                job.finish(SweepJob.Status.CANCELLED, null);
+            } else {
+                job.finish(SweepJob.Status.FAILED, e.getMessage());
+                log.error("[SWEEP] Sweep {} failed: {}", job.getId(), e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Replays the series through one strategy instance, exactly as
+     * {@link BacktestService} would for a single run.
+     */
+    SweepJob.Result evaluate(TunableStrategy strategy, PriceSeries series, SweepJob job) {
+        BacktestSimulator simulator = new BacktestSimulator();
+        StatefulStrategy stateful = strategy instanceof StatefulStrategy s ? s.newInstance() : null;
+        for (int i = 0; i < series.size(); i++) {
+            if (i % CANCEL_CHECK_INTERVAL == 0 && job.isCancelled()) {
+                throw new CancellationException();
+            }
+            StrategySignal signal = stateful != null
+                    ? stateful.onTick(series.epochMillis(i), series.price(i), 1.0)
+                    : strategy.analyze(series.tick(i), series.history(i, historyWindow));
+            simulator.onSignal(signal.type(), series.price(i));
+        }
+
+        BacktestService.BacktestResult result = simulator.toResult(strategy.getStrategyName());
+        return new SweepJob.Result(strategy.getParameters(), result.getTotalReturnPercent(),
+                result.getMaxDrawdownPercent(), result.getTotalTrades());
+    }
+
+    /**
+     * Cartesian product of the parameter value lists, in request order.
+     *
+     * @throws IllegalArgumentException if a list is empty or the product
+     *                                  exceeds maxRuns
+     */
+    static List<Map<String, Double>> combinations(Map<String, List<Double>> parameters, int maxRuns) {
+        List<Map<String, Double>> result = new ArrayList<>();
+        result.add(new LinkedHashMap<>());
+        if (parameters == null) {
+            return result;
+        }
+        long runs = 1;
+        for (Map.Entry<String, List<Double>> parameter : parameters.entrySet()) {
+            if (parameter.getValue() == null || parameter.getValue().isEmpty()) {
+                throw new IllegalArgumentException("No values given for parameter: " + parameter.getKey());
+            }
+            runs *= parameter.getValue().size();
+            if (runs > maxRuns) {
+                throw new IllegalArgumentException("Sweep exceeds the limit of " + maxRuns + " combinations");
+            }
+        }
+        for (Map.Entry<String, List<Double>> parameter : parameters.entrySet()) {
+            List<Map<String, Double>> expanded = new ArrayList<>(result.size() * parameter.getValue().size());
+            for (Map<String, Double> partial : result) {
+                for (Double value : parameter.getValue()) {
+                    Map<String, Double> combination = new LinkedHashMap<>(partial);
+                    combination.put(parameter.getKey(), value);
+                    expanded.add(combination);
+                }
+            }
+            result = expanded;
+        }
+        return result;
+    }
+
+    private void evictFinishedJobs() {
+        List<SweepJob> finished = jobs.values().stream()
+                .filter(SweepJob::isDone)
+                .sorted((a, b) -> a.getFinishedAt().compareTo(b.getFinishedAt()))
+                .toList();
+        Iterator<SweepJob> oldest = finished.iterator();
+        for (int excess = finished.size() - retainedJobs + 1; excess > 0 && oldest.hasNext(); excess--) {
+            jobs.remove(oldest.next().getId());
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.Apex.service;
+
+import com.example.Apex.exception.OrderNotFoundException;
+import com.example.Apex.execution.OrderStateMachine;
+import com.example.Apex.model.Order;
+import com.example.Apex.model.TransactionType;
+import com.example.Apex.repo.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+
+/**
+ * Applies fills, cancels and failures to working limit and stop orders.
+ *
+ * A working BUY order has funds reserved for its unfilled quantity at its
+ * limit (or stop) price. Each fill settles at the trade price and releases
+ * the difference; cancelling releases what is left. SELL proceeds are
+ * credited per fill.
+ *
+ * All status changes go through {@link OrderStateMachine}.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class RestingOrderService {
+
+    private final OrderRepository orderRepository;
+    private final WalletService walletService;
+    private final OrderStateMachine orderStateMachine;
+
+    /**
+     * Records a fill of {@code quantity} units at {@code price}, moving the
+     * order to PARTIALLY_FILLED or FILLED.
+     */
+    @Transactional
+    public Order applyFill(Long orderId, int quantity, BigDecimal price) {
+        Order order = find(orderId);
+        if (order.getStatus() != Order.OrderStatus.WORKING && order.getStatus() != Order.OrderStatus.PARTIALLY_FILLED) {
+            log.warn("[RESTING] Ignoring fill for order {} in status {}", orderId, order.getStatus());
+            return order;
+        }
+        int fill = Math.min(quantity, order.getRemainingQuantity());
+        BigDecimal amount = price.multiply(BigDecimal.valueOf(fill));
+
+        if (order.getSide() == Order.Side.BUY) {
+            BigDecimal reserved = reservePrice(order).multiply(BigDecimal.valueOf(fill));
+            BigDecimal difference = reserved.subtract(amount);
+            if (difference.signum() > 0) {
+                walletService.adjustBalance(order.getUserId(), difference, TransactionType.TRADE_REFUND);
+            } else if (difference.signum() < 0) {
+                // A stop that triggered above its stop price costs more than was reserved.
+                walletService.adjustBalance(order.getUserId(), difference, TransactionType.TRADE_BUY);
+            }
+        } else {
+            walletService.adjustBalance(order.getUserId(), amount, TransactionType.TRADE_SELL);
+        }
+
+        int previouslyFilled = order.getFilledQuantity();
+        int filled = previouslyFilled + fill;
+        BigDecimal previousNotional = order.getExecutionPrice() == null ? BigDecimal.ZERO
+                : order.getExecutionPrice().multiply(BigDecimal.valueOf(previouslyFilled));
+        order.setExecutionPrice(previousNotional.add(amount).divide(BigDecimal.valueOf(filled), 2,
+                RoundingMode.HALF_UP));
+        order.setFilledQuantity(filled);
+
+        if (filled == order.getQuantity()) {
+            order.setFilledAt(LocalDateTime.now());
+            orderStateMachine.transition(order, Order.OrderStatus.FILLED);
+        } else {
+            orderStateMachine.transition(order, Order.OrderStatus.PARTIALLY_FILLED);
+        }
+        log.info("[RESTING] Order {} filled {} @ {} ({}/{})", orderId, fill, price, filled, order.getQuantity());
+        return orderRepository.save(order);
+    }
+
+    /**
+     * Cancels the unfilled remainder and releases its reserved funds.
+     *
+     * @throws OrderNotFoundException if the order does not exist
+     * @throws com.example.Apex.exception.InvalidOrderStateTransitionException
+     *         if the order is not working
+     */
+    @Transactional
+    public Order cancel(Long orderId) {
+        Order order = find(orderId);
+        orderStateMachine.transition(order, Order.OrderStatus.CANCELLED);
+        releaseReserved(order);
+        log.info("[RESTING] Order {} cancelled with {} of {} filled", orderId, order.getFilledQuantity(),
+                order.getQuantity());
+        return orderRepository.save(order);
+    }
+
+    /**
+     * Ends a working order whose fill could not be applied: REJECTED if
+     * nothing was filled yet, otherwise CANCELLED with the partial fill kept.
+     */
+    @Transactional
+    public Order abandon(Long orderId, String reason) {
+        Order order = find(orderId);
+        order.setRejectionReason(reason);
+        orderStateMachine.transition(order, order.getStatus() == Order.OrderStatus.WORKING
+                ? Order.OrderStatus.REJECTED
+                : Order.OrderStatus.CANCELLED);
+        releaseReserved(order);
+        return orderRepository.save(order);
+    }
+
+    /**
+     * Price at which funds are reserved for a working BUY order.
+     */
+    public static BigDecimal reservePrice(Order order) {
+        return order.getType() == Order.OrderType.STOP ? order.getStopPrice() : order.getLimitPrice();
+    }
+
+    private void releaseReserved(Order order) {
+        if (order.getSide() == Order.Side.BUY && order.getRemainingQuantity() > 0) {
+            BigDecimal reserved = reservePrice(order).multiply(BigDecimal.valueOf(order.getRemainingQuantity()));
+            walletService.adjustBalance(order.getUserId(), reserved, TransactionType.TRADE_REFUND);
+        }
+    }
+
+    private Order find(Long orderId) {
+        return orderRepository.findById(orderId)
+                .orElseThrow(() -> new OrderNotFoundException(orderId));
+    }
+}
@@ -1,7 +1,9 @@
 package com.example.Apex.service;
 
 import com.example.Apex.model.Order;
-import com.example.Apex.repo.OrderRepository;
+import com.example.Apex.risk.RiskCheck;
+import com.example.Apex.risk.RiskRuleEngine;
+import com.example.Apex.risk.RiskState;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -13,35 +15,22 @@ import java.math.BigDecimal;
 @RequiredArgsConstructor
 public class RiskManagementService {
 
-    private final OrderRepository orderRepository;
+    private final RiskState riskState;
+    private final RiskRuleEngine riskRuleEngine;
 
-    private static final BigDecimal MAX_ORDER_VALUE = new BigDecimal("5000");
-
-    public void validateOrder(Long userId, String symbol, Integer quantity, BigDecimal price) {
+    /**
+     * @param orderId the order being validated, if already saved; it does not
+     *                count as a duplicate of itself
+     */
+    public void validateOrder(Long orderId, Long userId, String symbol, Order.Side side, Integer quantity,
+            BigDecimal price) {
         log.info("Validating order for user: {}, symbol: {}, quantity: {}, price: {}", userId, symbol, quantity, price);
 
-        // Rule 1: Fat Finger Check
-        BigDecimal orderValue = price.multiply(BigDecimal.valueOf(quantity));
-        if (orderValue.compareTo(MAX_ORDER_VALUE) > 0) {
-            String error = String.format("Risk Rejection: Order value %s exceeds limit %s", orderValue,
-                    MAX_ORDER_VALUE);
-            log.warn(error);
-            throw new RiskException(error);
-        }
+        // Rule 1: Configured limits (fat finger, rate, open orders, exposure, position)
+        validateLimits(userId, symbol, side, quantity, price);
 
-        // Rule 2: Wash Trade / Duplicate Active Orders
-        // Optimization: checking only for PENDING_VALIDATION or VALIDATED or PENDING
-        // orders.
-        // For simplicity as per requirements, we check if there is ALREADY an active
-        // order.
-        // Here we assume "active" means PENDING_VALIDATION or VALIDATED.
-        // But the requirements said "simplify: just check DB for 'PENDING' orders".
-        // Since I changed status to PENDING_VALIDATION/VALIDATED, I should check for
-        // those.
-        // However, standard `exists` checks a single status. Implementation detail:
-        // let's check PENDING_VALIDATION.
-
-        if (orderRepository.existsByUserIdAndSymbolAndStatus(userId, symbol, Order.OrderStatus.PENDING_VALIDATION)) {
+        // Rule 2: Wash Trade / Duplicate Active Orders - one order per symbol in validation at a time
+        if (!riskState.claimValidation(userId, symbol, orderId)) {
             String error = "Risk Rejection: Active order already exists for symbol " + symbol;
             log.warn(error);
             throw new RiskException(error);
@@ -50,6 +39,21 @@ public class RiskManagementService {
         log.info("Order validated successfully.");
     }
 
+    /**
+     * The configured order limits on their own, without the duplicate order
+     * check.
+     *
+     * @throws RiskException if a limit is breached
+     */
+    public void validateLimits(Long userId, String symbol, Order.Side side, Integer quantity, BigDecimal price) {
+        String error = riskRuleEngine.check(RiskRuleEngine.Scope.ORDER,
+                RiskCheck.order(userId, symbol, side, quantity, price));
+        if (error != null) {
+            log.warn(error);
+            throw new RiskException(error);
+        }
+    }
+
     public static class RiskException extends RuntimeException {
         public RiskException(String message) {
             super(message);
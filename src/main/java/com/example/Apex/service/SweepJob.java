@@ -0,0 +1,131 @@
+package com.example.Apex.service;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Progress and results of one parameter sweep. Updated by the sweep workers,
+ * read by the API; {@link #getResults()} ranks whatever has finished so far.
+ */
+public class SweepJob {
+
+    public enum Status {
+        QUEUED, LOADING, RUNNING, COMPLETED, CANCELLED, FAILED
+    }
+
+    /**
+     * One evaluated parameter combination.
+     */
+    public record Result(Map<String, Double> parameters, double totalReturnPercent, double maxDrawdownPercent,
+            int totalTrades) {
+    }
+
+    static final Comparator<Result> RANKING = Comparator.comparingDouble(Result::totalReturnPercent).reversed()
+            .thenComparingDouble(Result::maxDrawdownPercent);
+
+    @Getter
+    private final String id;
+    @Getter
+    private final String strategyName;
+    @Getter
+    private final int totalRuns;
+    @Getter
+    private final LocalDateTime createdAt = LocalDateTime.now();
+
+    @Getter
+    private volatile Status status = Status.QUEUED;
+    @Getter
+    private volatile int seriesSize;
+    @Getter
+    private volatile String error;
+    @Getter
+    private volatile LocalDateTime finishedAt;
+
+    private final AtomicInteger completedRuns = new AtomicInteger();
+    private final Queue<Result> completed = new ConcurrentLinkedQueue<>();
+    private volatile Future<?> future;
+
+    SweepJob(String id, String strategyName, int totalRuns) {
+        this.id = id;
+        this.strategyName = strategyName;
+        this.totalRuns = totalRuns;
+    }
+
+    public int getCompletedRuns() {
+        return completedRuns.get();
+    }
+
+    public double getProgressPercent() {
+        return totalRuns == 0 ? 100.0 : completedRuns.get() * 100.0 / totalRuns;
+    }
+
+    public List<Result> getResults() {
+        List<Result> ranked = new ArrayList<>(completed);
+        ranked.sort(RANKING);
+        return ranked;
+    }
+
+    public boolean isCancelled() {
+        return status == Status.CANCELLED;
+    }
+
+    public boolean isDone() {
+        return finishedAt != null;
+    }
+
+    /**
+     * Requests cancellation. Workers notice between batches of ticks; a
+     * series still loading is interrupted.
+     */
+    synchronized boolean cancel() {
+        if (isDone() || isCancelled()) {
+            return false;
+        }
+        Status previous = status;
+        status = Status.CANCELLED;
+        if (future != null) {
+            future.cancel(true);
+        }
+        if (previous == Status.QUEUED) {
+            // Never started, so no worker will finish it.
+            finishedAt = LocalDateTime.now();
+        }
+        return true;
+    }
+
+    void setFuture(Future<?> future) {
+        this.future = future;
+    }
+
+    synchronized void transition(Status next) {
+        if (!isCancelled()) {
+            status = next;
+        }
+    }
+
+    void loaded(int size) {
+        this.seriesSize = size;
+    }
+
+    void record(Result result) {
+        completed.add(result);
+        completedRuns.incrementAndGet();
+    }
+
+    synchronized void finish(Status terminal, String error) {
+        if (!isCancelled()) {
+            status = terminal;
+            this.error = error;
+        }
+        finishedAt = LocalDateTime.now();
+    }
+}
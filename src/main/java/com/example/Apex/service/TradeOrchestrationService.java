@@ -1,40 +1,34 @@
 package com.example.Apex.service;
 
-import com.example.Apex.client.AIClient;
-import com.example.Apex.client.BrokerClient;
-import com.example.Apex.execution.ExecutionService;
 import com.example.Apex.model.Order;
-import com.example.Apex.model.User;
 import com.example.Apex.model.dto.TradeRequest;
 import com.example.Apex.model.dto.TradeResponse;
-import com.example.Apex.portfolio.PortfolioService;
+import com.example.Apex.pipeline.TradeContext;
+import com.example.Apex.pipeline.TradePhase;
+import com.example.Apex.pipeline.TradePipeline;
 import com.example.Apex.repo.OrderRepository;
-import com.example.Apex.risk.RiskGuard;
 import com.example.Apex.strategy.TradingStrategy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
- * Main orchestration service for the trading flow.
- * Coordinates: price fetch → AI sentiment → strategy decision → risk validation
- * → execution → portfolio update.
+ * Strategy-gated trades on the shared {@link TradePipeline}.
+ * Coordinates: price, AI sentiment and user lookups (concurrently, each with
+ * a timeout; sentiment falls back to NEUTRAL) → strategy decision → risk
+ * validation → reserve → execution → settlement. Responses carry the
+ * per-stage timings.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class TradeOrchestrationService {
 
-        private final BrokerClient brokerClient;
-        private final AIClient aiClient;
-        private final UserService userService;
-        private final RiskGuard riskGuard;
-        private final ExecutionService executionService;
-        private final PortfolioService portfolioService;
+        private final TradePipeline tradePipeline;
         private final OrderRepository orderRepository;
         private final Map<String, TradingStrategy> strategies;
 
@@ -45,86 +39,81 @@ public class TradeOrchestrationService {
         @Transactional
         public TradeResponse executeTrade(TradeRequest request) {
                 log.info("=== Starting trade execution for user {} ===", request.getUserId());
+                long start = System.nanoTime();
 
-                try {
-                        // 1. Fetch user
-                        User user = userService.findById(request.getUserId());
-
-                        // 2. Fetch current price
-                        BigDecimal price = brokerClient.getPrice(request.getSymbol());
-                        log.info("Fetched price for {}: {}", request.getSymbol(), price);
-
-                        // 3. Get AI sentiment (optional for strategies)
-                        AIClient.Sentiment sentiment = aiClient.getSentiment(request.getSymbol());
-                        log.info("AI sentiment for {}: {}", request.getSymbol(), sentiment);
-
-                        // 4. Apply trading strategy
-                        String strategyName = request.getStrategyType() != null
-                                        ? request.getStrategyType()
-                                        : "SIMPLE_MOMENTUM";
-                        TradingStrategy strategy = strategies.get(strategyName);
-                        if (strategy == null) {
-                                return TradeResponse.builder()
-                                                .success(false)
-                                                .message("Unknown strategy: " + strategyName)
-                                                .build();
-                        }
-
-                        // Create a temporary MarketTick for analysis
-                        com.example.Apex.market.MarketTick currentTick = new com.example.Apex.market.MarketTick(
-                                        request.getSymbol(), price, java.time.LocalDateTime.now());
-
-                        com.example.Apex.strategy.StrategySignal signal = strategy.analyze(currentTick,
-                                        java.util.Collections.emptyList());
-
-                        if (signal.type() != com.example.Apex.strategy.StrategySignal.SignalType.BUY) {
-                                log.info("Strategy decided NOT to execute trade");
-                                return TradeResponse.builder()
-                                                .success(false)
-                                                .message("Strategy decision: " + signal.type())
-                                                .details(signal.reason())
-                                                .build();
-                        }
-
-                        // 5. Risk validation
-                        BigDecimal tradeValue = price.multiply(BigDecimal.valueOf(request.getQuantity()));
-                        riskGuard.validateTrade(user, tradeValue, request.getQuantity());
-
-                        // 6. Create pending order
-                        Order order = Order.builder()
-                                        .userId(user.getId())
-                                        .symbol(request.getSymbol())
-                                        .quantity(request.getQuantity())
-                                        .price(price)
-                                        .side(request.getSide())
-                                        .status(Order.OrderStatus.PENDING_VALIDATION)
-                                        .build();
-                        Order savedOrder = orderRepository.save(order);
-
-                        // 7. Execute order via broker
-                        Order executedOrder = executionService.executeOrder(savedOrder);
-
-                        // 8. Update portfolio
-                        portfolioService.updatePortfolio(executedOrder);
-
-                        log.info("=== Trade execution completed successfully for order {} ===", executedOrder.getId());
-
+                String strategyName = request.getStrategyType() != null
+                                ? request.getStrategyType()
+                                : "SIMPLE_MOMENTUM";
+                TradingStrategy strategy = strategies.get(strategyName);
+                if (strategy == null) {
                         return TradeResponse.builder()
-                                        .success(true)
-                                        .orderId(executedOrder.getId())
-                                        .executedPrice(price)
-                                        .message("Trade executed successfully")
-                                        .details(String.format("Executed %s %d shares of %s at %s",
-                                                        request.getSide(), request.getQuantity(), request.getSymbol(),
-                                                        price))
+                                        .success(false)
+                                        .message("Unknown strategy: " + strategyName)
                                         .build();
+                }
+                TradeContext context = new TradeContext(request.getUserId(), request.getSymbol(),
+                                request.getSide(), request.getQuantity(), strategy);
 
+                try {
+                        // 1-4. Fetch price, sentiment and user, then apply the strategy
+                        tradePipeline.run(context, TradePhase.FETCH, TradePhase.SIGNAL);
                 } catch (Exception e) {
                         log.error("Trade execution failed: {}", e.getMessage(), e);
-                        return TradeResponse.builder()
+                        return withTimings(TradeResponse.builder()
                                         .success(false)
-                                        .message(e.getMessage())
-                                        .build();
+                                        .message(e.getMessage()), context, start);
                 }
+                if (context.isHalted()) {
+                        return withTimings(TradeResponse.builder()
+                                        .success(false)
+                                        .message(context.getHaltMessage())
+                                        .details(context.getHaltDetails()), context, start);
+                }
+
+                // 5. Create pending order
+                Order order = orderRepository.save(Order.builder()
+                                .userId(request.getUserId())
+                                .symbol(request.getSymbol())
+                                .quantity(request.getQuantity())
+                                .price(context.getPrice())
+                                .side(request.getSide())
+                                .type(Order.OrderType.MARKET)
+                                .filledQuantity(0)
+                                .status(Order.OrderStatus.PENDING_VALIDATION)
+                                .build());
+                context.setOrder(order);
+
+                // 6-9. Risk, reserve, execute, settle — failures reject the order
+                Order executedOrder = tradePipeline.process(context, TradePhase.RISK);
+                if (executedOrder.getStatus() != Order.OrderStatus.FILLED) {
+                        return withTimings(TradeResponse.builder()
+                                        .success(false)
+                                        .orderId(executedOrder.getId())
+                                        .message(executedOrder.getRejectionReason()), context, start);
+                }
+
+                log.info("=== Trade execution completed successfully for order {} ===", executedOrder.getId());
+                return withTimings(TradeResponse.builder()
+                                .success(true)
+                                .orderId(executedOrder.getId())
+                                .executedPrice(executedOrder.getExecutionPrice())
+                                .message("Trade executed successfully")
+                                .details(String.format("Executed %s %d shares of %s at %s",
+                                                request.getSide(), request.getQuantity(), request.getSymbol(),
+                                                executedOrder.getExecutionPrice())), context, start);
+        }
+
+        /**
+         * Attaches the per-stage latency breakdown and any degraded stages.
+         */
+        private static TradeResponse withTimings(TradeResponse.TradeResponseBuilder response, TradeContext context,
+                        long startNanos) {
+                Map<String, Long> timings = new LinkedHashMap<>();
+                context.getStageNanos().forEach((stage, nanos) -> timings.put(stage, nanos / 1_000));
+                timings.put("total", (System.nanoTime() - startNanos) / 1_000);
+                return response
+                                .timings(timings)
+                                .degraded(context.getDegradedStages())
+                                .build();
         }
 }
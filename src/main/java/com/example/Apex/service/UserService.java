@@ -1,7 +1,12 @@
 package com.example.Apex.service;
 
+import com.example.Apex.model.TransactionLedger;
+import com.example.Apex.model.TransactionType;
 import com.example.Apex.model.User;
+import com.example.Apex.model.Wallet;
+import com.example.Apex.repo.TransactionLedgerRepository;
 import com.example.Apex.repo.UserRepository;
+import com.example.Apex.repo.WalletRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -18,9 +23,12 @@ import java.math.BigDecimal;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final WalletRepository walletRepository;
+    private final TransactionLedgerRepository ledgerRepository;
 
     /**
-     * Create a new user with initial balance.
+     * Create a new user with a wallet funded with the initial balance, booked
+     * as a DEPOSIT so the ledger adds up to the wallet balance.
      */
     @Transactional
     public User createUser(String username, String email, BigDecimal initialBalance) {
@@ -33,6 +41,12 @@ public class UserService {
                 .build();
 
         User savedUser = userRepository.save(user);
+        walletRepository.save(Wallet.builder().userId(savedUser.getId()).balance(initialBalance).build());
+        ledgerRepository.save(TransactionLedger.builder()
+                .userId(savedUser.getId())
+                .amount(initialBalance)
+                .type(TransactionType.DEPOSIT)
+                .build());
         log.info("User created: id={}", savedUser.getId());
         return savedUser;
     }
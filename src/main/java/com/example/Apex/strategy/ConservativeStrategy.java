@@ -7,6 +7,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.time.ZoneOffset;
 import java.util.List;
 
 /**
@@ -24,7 +25,12 @@ public class ConservativeStrategy implements TradingStrategy {
 
     @Override
     public StrategySignal analyze(MarketTick currentTick, List<MarketTick> history) {
-        AIClient.Sentiment sentiment = aiClient.getSentiment(currentTick.getSymbol());
+        return analyze(currentTick, history, aiClient.getSentiment(currentTick.getSymbol(),
+                currentTick.getTimestamp().toInstant(ZoneOffset.UTC).toEpochMilli()));
+    }
+
+    @Override
+    public StrategySignal analyze(MarketTick currentTick, List<MarketTick> history, AIClient.Sentiment sentiment) {
         BigDecimal price = currentTick.getPrice();
 
         boolean positiveSignal = sentiment == AIClient.Sentiment.POSITIVE;
@@ -0,0 +1,81 @@
+package com.example.Apex.strategy;
+
+import com.example.Apex.market.FixedPoint;
+import com.example.Apex.market.TradeListener;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Feeds every live trade to each {@link StatefulStrategy}, keeping one
+ * instance per (symbol, strategy), and remembers the latest signal so the API
+ * can answer in O(1) instead of replaying stored ticks.
+ *
+ * Trades for a symbol arrive on a single connection thread, so the instances
+ * need no locking; only the published signals are read concurrently.
+ */
+@Slf4j
+@Component
+public class LiveSignalEngine implements TradeListener {
+
+    private final List<StatefulStrategy> strategies;
+    private final Map<String, SymbolState> states = new ConcurrentHashMap<>();
+
+    public LiveSignalEngine(List<TradingStrategy> strategies) {
+        this.strategies = strategies.stream()
+                .filter(StatefulStrategy.class::isInstance)
+                .map(StatefulStrategy.class::cast)
+                .toList();
+        log.info("[SIGNALS] Live signals enabled for {} stateful strategies", this.strategies.size());
+    }
+
+    @Override
+    public void onTrade(String symbol, long eventTime, long priceE8, long quantityE8) {
+        if (strategies.isEmpty()) {
+            return;
+        }
+        SymbolState state = states.computeIfAbsent(symbol, s -> new SymbolState(strategies));
+        double price = FixedPoint.toDouble(priceE8);
+        double quantity = FixedPoint.toDouble(quantityE8);
+        for (int i = 0; i < state.instances.length; i++) {
+            state.latest.set(i, state.instances[i].onTick(eventTime, price, quantity));
+        }
+    }
+
+    /**
+     * Latest signal of the named strategy for the symbol, if the strategy is
+     * stateful and the symbol has traded since startup.
+     */
+    public Optional<StrategySignal> getLatestSignal(String symbol, String strategyName) {
+        SymbolState state = states.get(symbol);
+        if (state == null) {
+            return Optional.empty();
+        }
+        for (int i = 0; i < state.instances.length; i++) {
+            if (state.instances[i].getStrategyName().equals(strategyName)) {
+                return Optional.ofNullable(state.latest.get(i));
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static final class SymbolState {
+
+        private final StatefulStrategy[] instances;
+        /**
+         * Written by the stream thread, read by API threads; the atomic array
+         * makes each new signal visible to readers (signals are immutable records).
+         */
+        private final AtomicReferenceArray<StrategySignal> latest;
+
+        SymbolState(List<StatefulStrategy> prototypes) {
+            instances = prototypes.stream().map(StatefulStrategy::newInstance).toArray(StatefulStrategy[]::new);
+            latest = new AtomicReferenceArray<>(instances.length);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.Apex.strategy;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * Fixed-capacity, array-backed view of the most recent elements of a
+ * sequence, oldest first. Appending past capacity overwrites the oldest
+ * element, so memory stays O(capacity) however long the sequence runs.
+ *
+ * Used as the {@code history} passed to {@link TradingStrategy#analyze} when
+ * replaying long ranges. Not thread-safe.
+ */
+public class RollingWindow<T> extends AbstractList<T> implements RandomAccess {
+
+    private final Object[] elements;
+    private int head;
+    private int size;
+
+    public RollingWindow(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.elements = new Object[capacity];
+    }
+
+    @Override
+    public boolean add(T element) {
+        int tail = (head + size) % elements.length;
+        elements[tail] = element;
+        if (size < elements.length) {
+            size++;
+        } else {
+            head = (head + 1) % elements.length;
+        }
+        modCount++;
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return (T) elements[(head + index) % elements.length];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(elements, null);
+        head = 0;
+        size = 0;
+        modCount++;
+    }
+
+    public int capacity() {
+        return elements.length;
+    }
+}
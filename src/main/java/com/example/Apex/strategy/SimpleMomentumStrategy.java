@@ -6,6 +6,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.time.ZoneOffset;
 import java.util.List;
 
 /**
@@ -22,7 +23,12 @@ public class SimpleMomentumStrategy implements TradingStrategy {
 
     @Override
     public StrategySignal analyze(MarketTick currentTick, List<MarketTick> history) {
-        AIClient.Sentiment sentiment = aiClient.getSentiment(currentTick.getSymbol());
+        return analyze(currentTick, history, aiClient.getSentiment(currentTick.getSymbol(),
+                currentTick.getTimestamp().toInstant(ZoneOffset.UTC).toEpochMilli()));
+    }
+
+    @Override
+    public StrategySignal analyze(MarketTick currentTick, List<MarketTick> history, AIClient.Sentiment sentiment) {
         boolean decision = sentiment == AIClient.Sentiment.POSITIVE;
 
         log.info("Strategy {}: symbol={}, price={}, sentiment={}, decision={}",
@@ -0,0 +1,53 @@
+package com.example.Apex.strategy;
+
+import com.example.Apex.market.MarketTick;
+
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * A strategy that keeps its indicators as rolling state and is fed one tick
+ * at a time, so each signal costs O(1) regardless of how much history lies
+ * behind it.
+ *
+ * An instance tracks exactly one series and is not thread-safe. The
+ * registered bean serves as a prototype: callers obtain their own state with
+ * {@link #newInstance()} per symbol or per backtest run.
+ */
+public interface StatefulStrategy extends TradingStrategy {
+
+    /**
+     * Returns an instance with the same configuration and empty state.
+     */
+    StatefulStrategy newInstance();
+
+    /**
+     * Advances the strategy by one trade and returns the resulting signal.
+     *
+     * @param quantity traded quantity, or 1 when unknown (historical ticks)
+     */
+    StrategySignal onTick(long epochMillis, double price, double quantity);
+
+    default StrategySignal onTick(MarketTick tick) {
+        return onTick(tick.getTimestamp().toInstant(ZoneOffset.UTC).toEpochMilli(),
+                tick.getPrice().doubleValue(), 1.0);
+    }
+
+    /**
+     * Compatibility with the history-based contract: replays the history
+     * through a fresh instance. O(history), so prefer {@link #onTick} where the
+     * caller can keep an instance.
+     */
+    @Override
+    default StrategySignal analyze(MarketTick currentTick, List<MarketTick> history) {
+        StatefulStrategy instance = newInstance();
+        StrategySignal signal = null;
+        for (MarketTick tick : history) {
+            signal = instance.onTick(tick);
+        }
+        if (signal == null || history.get(history.size() - 1) != currentTick) {
+            signal = instance.onTick(currentTick);
+        }
+        return signal;
+    }
+}
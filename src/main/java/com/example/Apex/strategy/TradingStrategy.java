@@ -1,10 +1,20 @@
 package com.example.Apex.strategy;
 
+import com.example.Apex.client.AIClient;
 import com.example.Apex.market.MarketTick;
 import java.util.List;
 
 public interface TradingStrategy {
     StrategySignal analyze(MarketTick currentTick, List<MarketTick> history);
 
+    /**
+     * Same as {@link #analyze(MarketTick, List)}, with the sentiment already
+     * fetched by the caller (possibly a NEUTRAL fallback). Strategies that use
+     * sentiment should prefer it over a lookup of their own.
+     */
+    default StrategySignal analyze(MarketTick currentTick, List<MarketTick> history, AIClient.Sentiment sentiment) {
+        return analyze(currentTick, history);
+    }
+
     String getStrategyName();
 }
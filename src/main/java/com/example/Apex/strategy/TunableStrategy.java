@@ -0,0 +1,24 @@
+package com.example.Apex.strategy;
+
+import java.util.Map;
+
+/**
+ * A strategy whose numeric parameters can be varied, e.g. by a parameter
+ * sweep. Instances returned by {@link #withParameters} are independent of
+ * the registered bean, so many can be evaluated concurrently.
+ */
+public interface TunableStrategy extends TradingStrategy {
+
+    /**
+     * Current parameter values by name.
+     */
+    Map<String, Double> getParameters();
+
+    /**
+     * Returns a new instance configured with the given parameters. Parameters
+     * that are not supplied keep their current value.
+     *
+     * @throws IllegalArgumentException for unknown parameters or invalid values
+     */
+    TunableStrategy withParameters(Map<String, Double> parameters);
+}
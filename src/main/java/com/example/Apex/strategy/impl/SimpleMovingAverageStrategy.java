@@ -1,48 +1,118 @@
 package com.example.Apex.strategy.impl;
 
 import com.example.Apex.market.MarketTick;
+import com.example.Apex.strategy.StatefulStrategy;
 import com.example.Apex.strategy.StrategySignal;
-import com.example.Apex.strategy.TradingStrategy;
+import com.example.Apex.strategy.TunableStrategy;
+import com.example.Apex.strategy.indicator.SimpleMovingAverage;
 import org.springframework.stereotype.Component;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.util.List;
+import java.util.Map;
 
+/**
+ * Buys while price is above its simple moving average and sells while below.
+ * The average is maintained incrementally, so each tick is O(1).
+ */
 @Component("SMA")
-public class SimpleMovingAverageStrategy implements TradingStrategy {
+public class SimpleMovingAverageStrategy implements TunableStrategy, StatefulStrategy {
 
-    private static final int PERIOD = 20;
+    static final String PERIOD = "period";
+    private static final int DEFAULT_PERIOD = 20;
+    private static final String NAME = "Simple Moving Average (SMA)";
+
+    // Signals carry no per-tick numbers so that onTick does not allocate; analyze() adds them to the reason.
+    private static final StrategySignal WARMING_UP = new StrategySignal(NAME, StrategySignal.SignalType.HOLD, 0.0,
+            "Insufficient data history");
+    private static final StrategySignal ABOVE = new StrategySignal(NAME, StrategySignal.SignalType.BUY, 0.8,
+            "Price above SMA");
+    private static final StrategySignal BELOW = new StrategySignal(NAME, StrategySignal.SignalType.SELL, 0.8,
+            "Price below SMA");
+    private static final StrategySignal EQUAL = new StrategySignal(NAME, StrategySignal.SignalType.HOLD, 0.5,
+            "Price equals SMA");
+
+    private final int period;
+    private final SimpleMovingAverage average;
+
+    public SimpleMovingAverageStrategy() {
+        this(DEFAULT_PERIOD);
+    }
+
+    SimpleMovingAverageStrategy(int period) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("SMA period must be positive: " + period);
+        }
+        this.period = period;
+        this.average = new SimpleMovingAverage(period);
+    }
 
     @Override
     public String getStrategyName() {
-        return "Simple Moving Average (SMA)";
+        return NAME;
     }
 
     @Override
-    public StrategySignal analyze(MarketTick currentTick, List<MarketTick> history) {
-        if (history.size() < PERIOD) {
-            return new StrategySignal(getStrategyName(), StrategySignal.SignalType.HOLD, 0.0,
-                    "Insufficient data history");
+    public Map<String, Double> getParameters() {
+        return Map.of(PERIOD, (double) period);
+    }
+
+    @Override
+    public TunableStrategy withParameters(Map<String, Double> parameters) {
+        for (String name : parameters.keySet()) {
+            if (!PERIOD.equals(name)) {
+                throw new IllegalArgumentException("Unknown SMA parameter: " + name);
+            }
         }
+        Double value = parameters.get(PERIOD);
+        return new SimpleMovingAverageStrategy(value == null ? period : value.intValue());
+    }
 
-        // Calculate Average of last 20 ticks
-        double sum = history.stream()
-                .skip(Math.max(0, history.size() - PERIOD))
-                .map(tick -> tick.getPrice().doubleValue())
-                .reduce(0.0, Double::sum);
+    @Override
+    public StatefulStrategy newInstance() {
+        return new SimpleMovingAverageStrategy(period);
+    }
+
+    /**
+     * Replays the history like {@link StatefulStrategy#analyze}, and states
+     * the price and average in the reason of a BUY or SELL.
+     */
+    @Override
+    public StrategySignal analyze(MarketTick currentTick, List<MarketTick> history) {
+        SimpleMovingAverageStrategy instance = new SimpleMovingAverageStrategy(period);
+        StrategySignal signal = null;
+        for (MarketTick tick : history) {
+            signal = instance.onTick(tick);
+        }
+        if (signal == null || history.get(history.size() - 1) != currentTick) {
+            signal = instance.onTick(currentTick);
+        }
 
-        double average = sum / Math.min(history.size(), PERIOD);
         double currentPrice = currentTick.getPrice().doubleValue();
+        double sma = instance.average.value();
+        if (signal == ABOVE) {
+            return new StrategySignal(NAME, StrategySignal.SignalType.BUY, 0.8,
+                    String.format("Price %.2f > SMA %.2f", currentPrice, sma));
+        } else if (signal == BELOW) {
+            return new StrategySignal(NAME, StrategySignal.SignalType.SELL, 0.8,
+                    String.format("Price %.2f < SMA %.2f", currentPrice, sma));
+        }
+        return signal;
+    }
+
+    @Override
+    public StrategySignal onTick(long epochMillis, double price, double quantity) {
+        average.update(price);
+        if (!average.isReady()) {
+            return WARMING_UP;
+        }
 
-        if (currentPrice > average) {
-            return new StrategySignal(getStrategyName(), StrategySignal.SignalType.BUY, 0.8,
-                    String.format("Price %.2f > SMA %.2f", currentPrice, average));
-        } else if (currentPrice < average) {
-            return new StrategySignal(getStrategyName(), StrategySignal.SignalType.SELL, 0.8,
-                    String.format("Price %.2f < SMA %.2f", currentPrice, average));
+        double sma = average.value();
+        if (price > sma) {
+            return ABOVE;
+        } else if (price < sma) {
+            return BELOW;
         } else {
-            return new StrategySignal(getStrategyName(), StrategySignal.SignalType.HOLD, 0.5, "Price equals SMA");
+            return EQUAL;
         }
     }
 }
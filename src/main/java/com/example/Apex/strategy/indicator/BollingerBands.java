@@ -0,0 +1,79 @@
+package com.example.Apex.strategy.indicator;
+
+/**
+ * Bollinger bands: a {@code period} simple moving average (the middle band,
+ * returned by {@link #value()}) plus and minus {@code k} population standard
+ * deviations. Mean and variance come from running sums of values and squares.
+ */
+public final class BollingerBands implements Indicator {
+
+    private final DoubleRingBuffer window;
+    private final double k;
+    private double sum;
+    private double sumOfSquares;
+    private int sinceResync;
+
+    public BollingerBands(int period, double k) {
+        this.window = new DoubleRingBuffer(period);
+        this.k = k;
+    }
+
+    public void update(double value) {
+        double evicted = window.add(value);
+        sum += value;
+        sumOfSquares += value * value;
+        if (!Double.isNaN(evicted)) {
+            sum -= evicted;
+            sumOfSquares -= evicted * evicted;
+        }
+        if (++sinceResync == window.capacity()) {
+            resync();
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return window.isFull();
+    }
+
+    @Override
+    public double value() {
+        return isReady() ? sum / window.capacity() : Double.NaN;
+    }
+
+    public double upper() {
+        return value() + k * standardDeviation();
+    }
+
+    public double lower() {
+        return value() - k * standardDeviation();
+    }
+
+    public double standardDeviation() {
+        if (!isReady()) {
+            return Double.NaN;
+        }
+        double mean = sum / window.capacity();
+        // Clamp: cancellation in the running sums can leave a tiny negative variance.
+        return Math.sqrt(Math.max(0.0, sumOfSquares / window.capacity() - mean * mean));
+    }
+
+    @Override
+    public void reset() {
+        window.clear();
+        sum = 0.0;
+        sumOfSquares = 0.0;
+        sinceResync = 0;
+    }
+
+    private void resync() {
+        sum = 0.0;
+        sumOfSquares = 0.0;
+        for (int i = 0; i < window.size(); i++) {
+            double v = window.get(i);
+            sum += v;
+            sumOfSquares += v * v;
+        }
+        sinceResync = 0;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.Apex.strategy.indicator;
+
+/**
+ * Fixed-capacity ring of primitive doubles. Once full, each {@link #add}
+ * overwrites and returns the oldest value.
+ */
+public final class DoubleRingBuffer {
+
+    private final double[] values;
+    private int head;
+    private int size;
+
+    public DoubleRingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.values = new double[capacity];
+    }
+
+    /**
+     * Appends a value.
+     *
+     * @return the evicted value, or {@code Double.NaN} if nothing was evicted
+     */
+    public double add(double value) {
+        double evicted = Double.NaN;
+        int tail = head + size;
+        if (tail >= values.length) {
+            tail -= values.length;
+        }
+        if (size == values.length) {
+            evicted = values[head];
+            head = head + 1 == values.length ? 0 : head + 1;
+        } else {
+            size++;
+        }
+        values[tail] = value;
+        return evicted;
+    }
+
+    /**
+     * Value at position {@code index}, 0 being the oldest.
+     */
+    public double get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        int slot = head + index;
+        return values[slot >= values.length ? slot - values.length : slot];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return values.length;
+    }
+
+    public boolean isFull() {
+        return size == values.length;
+    }
+
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    /**
+     * Exact sum of the buffered values, in O(size). Used by indicators to
+     * periodically discard floating-point drift from their running sums.
+     */
+    public double sum() {
+        double sum = 0.0;
+        for (int i = 0; i < size; i++) {
+            sum += get(i);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.Apex.strategy.indicator;
+
+/**
+ * Exponential moving average with smoothing factor {@code 2 / (period + 1)},
+ * seeded with the simple average of the first {@code period} values.
+ */
+public final class ExponentialMovingAverage implements Indicator {
+
+    private final int period;
+    private final double alpha;
+    private double value;
+    private double seedSum;
+    private int count;
+
+    public ExponentialMovingAverage(int period) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("Period must be positive: " + period);
+        }
+        this.period = period;
+        this.alpha = 2.0 / (period + 1);
+    }
+
+    public void update(double price) {
+        if (count < period) {
+            seedSum += price;
+            count++;
+            if (count == period) {
+                value = seedSum / period;
+            }
+            return;
+        }
+        value += alpha * (price - value);
+    }
+
+    @Override
+    public boolean isReady() {
+        return count >= period;
+    }
+
+    @Override
+    public double value() {
+        return isReady() ? value : Double.NaN;
+    }
+
+    @Override
+    public void reset() {
+        value = 0.0;
+        seedSum = 0.0;
+        count = 0;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.Apex.strategy.indicator;
+
+/**
+ * A rolling technical indicator updated one observation at a time in O(1).
+ *
+ * Indicators hold primitive state only and are not thread-safe; each series
+ * (symbol, backtest run) owns its own instances.
+ */
+public interface Indicator {
+
+    /**
+     * True once enough observations have been seen for {@link #value()} to be
+     * meaningful.
+     */
+    boolean isReady();
+
+    /**
+     * Current value, or {@code Double.NaN} while not ready.
+     */
+    double value();
+
+    /**
+     * Discards all observations.
+     */
+    void reset();
+}
@@ -0,0 +1,68 @@
+package com.example.Apex.strategy.indicator;
+
+/**
+ * Wilder's relative strength index, in [0, 100].
+ *
+ * Average gain and loss are seeded with the simple mean of the first
+ * {@code period} price changes and smoothed with factor {@code 1 / period}
+ * afterwards.
+ */
+public final class RelativeStrengthIndex implements Indicator {
+
+    private final int period;
+    private double previous = Double.NaN;
+    private double averageGain;
+    private double averageLoss;
+    private int changes;
+
+    public RelativeStrengthIndex(int period) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("Period must be positive: " + period);
+        }
+        this.period = period;
+    }
+
+    public void update(double price) {
+        if (Double.isNaN(previous)) {
+            previous = price;
+            return;
+        }
+        double change = price - previous;
+        previous = price;
+        double gain = Math.max(change, 0.0);
+        double loss = Math.max(-change, 0.0);
+
+        if (changes < period) {
+            averageGain += gain / period;
+            averageLoss += loss / period;
+        } else {
+            averageGain = (averageGain * (period - 1) + gain) / period;
+            averageLoss = (averageLoss * (period - 1) + loss) / period;
+        }
+        changes++;
+    }
+
+    @Override
+    public boolean isReady() {
+        return changes >= period;
+    }
+
+    @Override
+    public double value() {
+        if (!isReady()) {
+            return Double.NaN;
+        }
+        if (averageLoss == 0.0) {
+            return averageGain == 0.0 ? 50.0 : 100.0;
+        }
+        return 100.0 - 100.0 / (1.0 + averageGain / averageLoss);
+    }
+
+    @Override
+    public void reset() {
+        previous = Double.NaN;
+        averageGain = 0.0;
+        averageLoss = 0.0;
+        changes = 0;
+    }
+}
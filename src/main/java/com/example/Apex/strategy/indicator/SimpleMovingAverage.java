@@ -0,0 +1,50 @@
+package com.example.Apex.strategy.indicator;
+
+/**
+ * Arithmetic mean of the last {@code period} values, maintained as a running
+ * sum over a ring buffer.
+ */
+public final class SimpleMovingAverage implements Indicator {
+
+    private final DoubleRingBuffer window;
+    private double sum;
+    private int sinceResync;
+
+    public SimpleMovingAverage(int period) {
+        this.window = new DoubleRingBuffer(period);
+    }
+
+    public void update(double value) {
+        double evicted = window.add(value);
+        sum += value;
+        if (!Double.isNaN(evicted)) {
+            sum -= evicted;
+        }
+        // Recompute once per full rotation: still O(1) amortised, and bounds drift.
+        if (++sinceResync == window.capacity()) {
+            sum = window.sum();
+            sinceResync = 0;
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return window.isFull();
+    }
+
+    @Override
+    public double value() {
+        return isReady() ? sum / window.capacity() : Double.NaN;
+    }
+
+    @Override
+    public void reset() {
+        window.clear();
+        sum = 0.0;
+        sinceResync = 0;
+    }
+
+    public int period() {
+        return window.capacity();
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.Apex.strategy.indicator;
+
+/**
+ * Volume-weighted average price over the last {@code window} trades.
+ *
+ * Historical ticks carry no quantity; feeding them with a quantity of 1
+ * makes this a plain moving average of price.
+ */
+public final class VolumeWeightedAveragePrice implements Indicator {
+
+    private final DoubleRingBuffer notionals;
+    private final DoubleRingBuffer quantities;
+    private double notionalSum;
+    private double quantitySum;
+    private int sinceResync;
+
+    public VolumeWeightedAveragePrice(int window) {
+        this.notionals = new DoubleRingBuffer(window);
+        this.quantities = new DoubleRingBuffer(window);
+    }
+
+    public void update(double price, double quantity) {
+        double notional = price * quantity;
+        double evictedNotional = notionals.add(notional);
+        double evictedQuantity = quantities.add(quantity);
+        notionalSum += notional;
+        quantitySum += quantity;
+        if (!Double.isNaN(evictedNotional)) {
+            notionalSum -= evictedNotional;
+            quantitySum -= evictedQuantity;
+        }
+        if (++sinceResync == notionals.capacity()) {
+            notionalSum = notionals.sum();
+            quantitySum = quantities.sum();
+            sinceResync = 0;
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return notionals.size() > 0 && quantitySum > 0.0;
+    }
+
+    @Override
+    public double value() {
+        return isReady() ? notionalSum / quantitySum : Double.NaN;
+    }
+
+    @Override
+    public void reset() {
+        notionals.clear();
+        quantities.clear();
+        notionalSum = 0.0;
+        quantitySum = 0.0;
+        sinceResync = 0;
+    }
+}
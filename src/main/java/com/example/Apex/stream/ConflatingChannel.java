@@ -0,0 +1,104 @@
+package com.example.Apex.stream;
+
+import io.micrometer.core.instrument.Counter;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * One subscriber's outbox with latest-value-wins conflation per key.
+ *
+ * Producers {@link #offer} a value under a key and never block. A value that
+ * was not sent yet is replaced by a newer one for the same key (keeping its
+ * place in line), so a slow subscriber holds at most {@code maxKeys} pending
+ * values and receives the newest of each once it asks for more. Past
+ * {@code maxKeys} the oldest pending key is dropped.
+ *
+ * Values are suppliers evaluated when sent, so a snapshot offered many times
+ * while the subscriber is busy is built once, from the state at send time.
+ */
+@Slf4j
+public final class ConflatingChannel<K, V> {
+
+    private final Map<K, Supplier<? extends V>> pending = new LinkedHashMap<>();
+    private final int maxKeys;
+    private final Counter conflated;
+    private final Counter dropped;
+    private final AtomicInteger wip = new AtomicInteger();
+    private final Flux<V> flux;
+    private volatile FluxSink<V> sink;
+
+    public ConflatingChannel(int maxKeys, Counter conflated, Counter dropped) {
+        this.maxKeys = maxKeys;
+        this.conflated = conflated;
+        this.dropped = dropped;
+        this.flux = Flux.create(created -> {
+            sink = created;
+            created.onRequest(n -> drain());
+            drain();
+        });
+    }
+
+    /**
+     * The subscriber's side; subscribe to it once.
+     */
+    public Flux<V> flux() {
+        return flux;
+    }
+
+    public void offer(K key, Supplier<? extends V> value) {
+        synchronized (pending) {
+            if (pending.put(key, value) != null) {
+                conflated.increment();
+            } else if (pending.size() > maxKeys) {
+                Iterator<K> oldest = pending.keySet().iterator();
+                oldest.next();
+                oldest.remove();
+                dropped.increment();
+            }
+        }
+        drain();
+    }
+
+    /**
+     * Sends pending values while the subscriber has demand. Only one thread
+     * drains at a time; a call that arrives meanwhile makes it loop again.
+     */
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            FluxSink<V> target = sink;
+            while (target != null && !target.isCancelled() && target.requestedFromDownstream() > 0) {
+                Supplier<? extends V> next;
+                synchronized (pending) {
+                    Iterator<Supplier<? extends V>> values = pending.values().iterator();
+                    if (!values.hasNext()) {
+                        break;
+                    }
+                    next = values.next();
+                    values.remove();
+                }
+                V value;
+                try {
+                    value = next.get();
+                } catch (RuntimeException e) {
+                    log.warn("[STREAM] Skipping a value that could not be built: {}", e.getMessage());
+                    continue;
+                }
+                if (value != null) {
+                    target.next(value);
+                }
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+}
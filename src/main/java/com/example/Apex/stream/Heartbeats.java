@@ -0,0 +1,27 @@
+package com.example.Apex.stream;
+
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+
+/**
+ * SSE comment frames sent alongside a stream so idle connections stay open
+ * through proxies and a gone client is noticed on the next write.
+ */
+final class Heartbeats {
+
+    private Heartbeats() {
+    }
+
+    /**
+     * Merges heartbeats into {@code events} with a prefetch of one, so values
+     * wait (and conflate) upstream rather than in the merge queue.
+     */
+    static Flux<ServerSentEvent<Object>> merge(Flux<ServerSentEvent<Object>> events, Duration interval) {
+        Flux<ServerSentEvent<Object>> heartbeats = Flux.interval(interval)
+                .onBackpressureDrop()
+                .map(i -> ServerSentEvent.<Object>builder().comment("heartbeat").build());
+        return Flux.merge(1, events, heartbeats);
+    }
+}
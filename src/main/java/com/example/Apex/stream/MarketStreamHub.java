@@ -0,0 +1,214 @@
+package com.example.Apex.stream;
+
+import com.example.Apex.market.Candle;
+import com.example.Apex.market.CandleAggregator;
+import com.example.Apex.market.CandleInterval;
+import com.example.Apex.market.FixedPoint;
+import com.example.Apex.market.LatestPriceCache;
+import com.example.Apex.market.Symbols;
+import com.example.Apex.market.TradeListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Fans the live trade stream out to SSE subscribers, per symbol, as raw ticks
+ * or as the candle currently being built.
+ *
+ * Every watched symbol has one multicast sink that the WebSocket thread
+ * emits into; a symbol nobody watches costs a map lookup per trade. The sink
+ * is created by the symbol's first subscriber and removed when its last one
+ * leaves, and malformed symbols are rejected, so clients cannot grow the map
+ * without bound. Each subscriber conflates behind the sink: while it is
+ * busy, newer ticks replace the one waiting for it, so it always gets the
+ * latest price and never a backlog. Candle frames are read from {@link CandleAggregator} when sent,
+ * which is why this listener runs after it.
+ *
+ * Metrics, tagged stream=ticks|candles: apex.stream.subscribers,
+ * apex.stream.conflated (ticks replaced before a slow subscriber took them),
+ * apex.stream.dropped (ticks the sink could not emit) and
+ * apex.stream.fanout.latency (from receipt of the trade to hand-off to the
+ * subscriber's connection).
+ */
+@Slf4j
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class MarketStreamHub implements TradeListener {
+
+    static final String TICKS = "ticks";
+    static final String CANDLES = "candles";
+
+    private final CandleAggregator candleAggregator;
+    private final LatestPriceCache latestPriceCache;
+    private final Duration heartbeat;
+    private final Map<String, Channel> channels = new ConcurrentHashMap<>();
+    private final Map<String, Metrics> metrics;
+    private final Counter dropped;
+
+    public MarketStreamHub(CandleAggregator candleAggregator, LatestPriceCache latestPriceCache,
+            MeterRegistry meterRegistry, @Value("${apex.stream.heartbeat-ms:15000}") long heartbeatMs) {
+        this.candleAggregator = candleAggregator;
+        this.latestPriceCache = latestPriceCache;
+        this.heartbeat = Duration.ofMillis(heartbeatMs);
+        this.metrics = Map.of(TICKS, new Metrics(TICKS, meterRegistry), CANDLES, new Metrics(CANDLES, meterRegistry));
+        this.dropped = Counter.builder("apex.stream.dropped")
+                .tag("stream", TICKS)
+                .description("Ticks the per-symbol sink failed to emit")
+                .register(meterRegistry);
+    }
+
+    /**
+     * A trade as received, stamped for the fan-out latency timer.
+     */
+    record Tick(String symbol, long eventTime, long priceE8, long quantityE8, long receivedNanos) {
+    }
+
+    /**
+     * A symbol's sink and the number of streams subscribed to it.
+     */
+    private record Channel(Sinks.Many<Tick> sink, AtomicInteger subscribers) {
+    }
+
+    /**
+     * Tick frame as sent to subscribers.
+     */
+    public record TickView(String symbol, long eventTime, BigDecimal price, BigDecimal quantity) {
+    }
+
+    @Override
+    public void onTrade(String symbol, long eventTime, long priceE8, long quantityE8) {
+        Channel channel = channels.get(symbol);
+        if (channel == null || channel.sink().currentSubscriberCount() == 0) {
+            return;
+        }
+        Sinks.Many<Tick> sink = channel.sink();
+        // Trades of one symbol arrive on one thread, so emissions into its sink are serialized.
+        Sinks.EmitResult result = sink.tryEmitNext(new Tick(symbol, eventTime, priceE8, quantityE8,
+                System.nanoTime()));
+        if (result.isFailure() && result != Sinks.EmitResult.FAIL_ZERO_SUBSCRIBER) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Every trade of the symbol, conflated to the latest for a slow
+     * subscriber, starting with the last known price.
+     *
+     * @throws IllegalArgumentException if the symbol is not 1-20 letters or digits
+     */
+    public Flux<ServerSentEvent<Object>> ticks(String symbol) {
+        Symbols.require(symbol);
+        Flux<ServerSentEvent<Object>> initial = Flux.defer(() -> Flux.fromStream(latestPriceCache.get(symbol)
+                .map(price -> frame("tick", new TickView(symbol, price.eventTime(), price.price(), null)))
+                .stream()));
+        return stream(symbol, TICKS, initial, tick -> frame("tick", new TickView(tick.symbol(), tick.eventTime(),
+                FixedPoint.toBigDecimal(tick.priceE8()), FixedPoint.toBigDecimal(tick.quantityE8()))));
+    }
+
+    /**
+     * The symbol's open candle of the given interval, re-sent after every
+     * trade (conflated like ticks), starting with its current state.
+     *
+     * @throws IllegalArgumentException if the symbol is not 1-20 letters or digits
+     */
+    public Flux<ServerSentEvent<Object>> candles(String symbol, CandleInterval interval) {
+        Symbols.require(symbol);
+        Flux<ServerSentEvent<Object>> initial = Flux.defer(() -> Flux.fromStream(
+                candleAggregator.getOpenCandle(symbol, interval).map(this::candleFrame).stream()));
+        return stream(symbol, CANDLES, initial, tick -> candleAggregator.getOpenCandle(symbol, interval)
+                .map(this::candleFrame)
+                .orElse(null));
+    }
+
+    private Flux<ServerSentEvent<Object>> stream(String symbol, String kind, Flux<ServerSentEvent<Object>> initial,
+            Function<Tick, ServerSentEvent<Object>> toFrame) {
+        Metrics meters = metrics.get(kind);
+        return Flux.defer(() -> {
+            Channel channel = acquire(symbol);
+            Flux<ServerSentEvent<Object>> live = channel.sink().asFlux()
+                    // Conflation: a one-slot buffer that drops the older tick when a newer one arrives.
+                    .onBackpressureBuffer(1, stale -> meters.conflated.increment(),
+                            BufferOverflowStrategy.DROP_OLDEST)
+                    .handle((tick, next) -> {
+                        ServerSentEvent<Object> frame = toFrame.apply(tick);
+                        meters.latency.record(System.nanoTime() - tick.receivedNanos(), TimeUnit.NANOSECONDS);
+                        if (frame != null) {
+                            next.next(frame);
+                        }
+                    });
+            return Heartbeats.merge(initial.concatWith(live), heartbeat)
+                    .doOnSubscribe(s -> meters.subscribers.incrementAndGet())
+                    .doFinally(signal -> {
+                        meters.subscribers.decrementAndGet();
+                        release(symbol, channel);
+                    });
+        });
+    }
+
+    private Channel acquire(String symbol) {
+        return channels.compute(symbol, (s, current) -> {
+            Channel channel = current != null ? current
+                    : new Channel(Sinks.many().multicast().directBestEffort(), new AtomicInteger());
+            channel.subscribers().incrementAndGet();
+            return channel;
+        });
+    }
+
+    private void release(String symbol, Channel channel) {
+        channels.computeIfPresent(symbol, (s, current) ->
+                current == channel && channel.subscribers().decrementAndGet() == 0 ? null : current);
+    }
+
+    int watchedSymbols() {
+        return channels.size();
+    }
+
+    private ServerSentEvent<Object> candleFrame(Candle candle) {
+        return frame("candle", candle);
+    }
+
+    private static ServerSentEvent<Object> frame(String event, Object data) {
+        return ServerSentEvent.<Object>builder(data).event(event).build();
+    }
+
+    private static final class Metrics {
+
+        private final AtomicInteger subscribers = new AtomicInteger();
+        private final Counter conflated;
+        private final Timer latency;
+
+        Metrics(String kind, MeterRegistry meterRegistry) {
+            Gauge.builder("apex.stream.subscribers", subscribers, AtomicInteger::get)
+                    .tag("stream", kind)
+                    .description("Open stream subscriptions")
+                    .register(meterRegistry);
+            conflated = Counter.builder("apex.stream.conflated")
+                    .tag("stream", kind)
+                    .description("Ticks replaced by a newer one before a slow subscriber took them")
+                    .register(meterRegistry);
+            latency = Timer.builder("apex.stream.fanout.latency")
+                    .tag("stream", kind)
+                    .description("From receipt of a trade to hand-off to a subscriber")
+                    .publishPercentiles(0.5, 0.99)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.Apex.stream;
+
+import com.example.Apex.execution.OrderStatusEvent;
+import com.example.Apex.execution.OrderStatusListener;
+import com.example.Apex.portfolio.MarkToMarketEngine;
+import com.example.Apex.portfolio.PortfolioService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pushes portfolio snapshots and order status changes to SSE subscribers, so
+ * dashboards stop polling the portfolio and history endpoints.
+ *
+ * Each subscriber has a {@link ConflatingChannel}: one pending "portfolio"
+ * snapshot and the latest status of each order, sent as the client keeps up.
+ * Snapshots are only built when sent and only offered when the user's
+ * valuation changed (checked every {@code apex.stream.portfolio.refresh-ms})
+ * or one of their orders moved, so price ticks cost nothing here until a
+ * subscriber is ready for the next frame.
+ */
+@Slf4j
+@Component
+public class PortfolioStreamService implements OrderStatusListener {
+
+    static final String PORTFOLIO = "portfolio";
+    static final String ORDER = "order";
+
+    private final PortfolioService portfolioService;
+    private final MarkToMarketEngine markToMarketEngine;
+    private final int maxPending;
+    private final Duration heartbeat;
+    private final Counter conflated;
+    private final Counter dropped;
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    public PortfolioStreamService(PortfolioService portfolioService, MarkToMarketEngine markToMarketEngine,
+            MeterRegistry meterRegistry,
+            @Value("${apex.stream.max-pending:256}") int maxPending,
+            @Value("${apex.stream.heartbeat-ms:15000}") long heartbeatMs) {
+        this.portfolioService = portfolioService;
+        this.markToMarketEngine = markToMarketEngine;
+        this.maxPending = maxPending;
+        this.heartbeat = Duration.ofMillis(heartbeatMs);
+        this.conflated = Counter.builder("apex.stream.conflated")
+                .tag("stream", PORTFOLIO)
+                .description("Pending frames replaced by a newer value before a slow subscriber took them")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("apex.stream.dropped")
+                .tag("stream", PORTFOLIO)
+                .description("Pending frames dropped because a subscriber had too many")
+                .register(meterRegistry);
+        Gauge.builder("apex.stream.subscribers", subscribers, s -> s.values().stream().mapToInt(Set::size).sum())
+                .tag("stream", PORTFOLIO)
+                .description("Open stream subscriptions")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Stream of "portfolio" and "order" events for a user, starting with the
+     * current portfolio, plus heartbeat comments so idle connections stay
+     * open and dead ones are noticed.
+     */
+    public Flux<ServerSentEvent<Object>> subscribe(Long userId) {
+        // Fails here, before the response is committed, for an unknown user.
+        portfolioService.getPortfolioSummary(userId);
+        Subscriber subscriber = new Subscriber(new ConflatingChannel<>(maxPending, conflated, dropped));
+        subscriber.version = markToMarketEngine.version(userId);
+        subscriber.channel.offer(PORTFOLIO, () -> portfolioEvent(userId));
+
+        return Heartbeats.merge(subscriber.channel.flux(), heartbeat)
+                .doOnSubscribe(s -> subscribers.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet())
+                        .add(subscriber))
+                .doFinally(signal -> subscribers.computeIfPresent(userId, (id, set) -> {
+                    set.remove(subscriber);
+                    return set.isEmpty() ? null : set;
+                }));
+    }
+
+    @Override
+    public void onOrderStatus(OrderStatusEvent event) {
+        Set<Subscriber> forUser = subscribers.get(event.userId());
+        if (forUser == null) {
+            return;
+        }
+        ServerSentEvent<Object> frame = ServerSentEvent.<Object>builder(event)
+                .event(ORDER)
+                .id(String.valueOf(event.orderId()))
+                .build();
+        for (Subscriber subscriber : forUser) {
+            subscriber.channel.offer(ORDER + ":" + event.orderId(), () -> frame);
+            // A fill also moves cash and holdings.
+            subscriber.channel.offer(PORTFOLIO, () -> portfolioEvent(event.userId()));
+        }
+    }
+
+    /**
+     * Offers a new snapshot to the subscribers whose valuation changed since
+     * they were last offered one.
+     */
+    @Scheduled(fixedDelayString = "${apex.stream.portfolio.refresh-ms:250}")
+    public void refresh() {
+        subscribers.forEach((userId, forUser) -> {
+            long version = markToMarketEngine.version(userId);
+            for (Subscriber subscriber : forUser) {
+                if (subscriber.version != version) {
+                    subscriber.version = version;
+                    subscriber.channel.offer(PORTFOLIO, () -> portfolioEvent(userId));
+                }
+            }
+        });
+    }
+
+    private ServerSentEvent<Object> portfolioEvent(Long userId) {
+        return ServerSentEvent.<Object>builder(portfolioService.getPortfolioSummary(userId))
+                .event(PORTFOLIO)
+                .build();
+    }
+
+    private static final class Subscriber {
+
+        private final ConflatingChannel<String, ServerSentEvent<Object>> channel;
+        /** Valuation version last offered; only the refresh thread writes it after subscribing. */
+        private volatile long version;
+
+        Subscriber(ConflatingChannel<String, ServerSentEvent<Object>> channel) {
+            this.channel = channel;
+        }
+    }
+}
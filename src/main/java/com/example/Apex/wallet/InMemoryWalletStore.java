@@ -0,0 +1,332 @@
+package com.example.Apex.wallet;
+
+import com.example.Apex.exception.InsufficientBalanceException;
+import com.example.Apex.model.TransactionLedger;
+import com.example.Apex.model.TransactionType;
+import com.example.Apex.model.Wallet;
+import com.example.Apex.repo.TransactionLedgerRepository;
+import com.example.Apex.repo.WalletRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+/**
+ * {@link WalletStore} holding each wallet's balance and open reservations in
+ * memory, updated with compare-and-set. No row is locked on the order path.
+ *
+ * A wallet is loaded on first use. Every committed movement inserts a ledger
+ * row flagged {@code wallet_pending} in the caller's transaction; once that
+ * transaction commits, the movement is queued and a writer thread applies the
+ * summed deltas to {@code wallets} and clears the flags in one transaction
+ * per batch. On startup, rows still flagged (a crash before write-behind) are
+ * applied first, so the ledger doubles as the redo log. If the caller's
+ * transaction rolls back, the in-memory change is undone and open
+ * reservations are released.
+ *
+ * Assumes this instance is the only writer of the wallets it serves; use
+ * {@link WalletMode#OPTIMISTIC} for multi-node deployments.
+ *
+ * Metrics: apex.wallet.write-behind.queue.depth,
+ * apex.wallet.write-behind.latency, apex.wallet.write-behind.retries.
+ */
+@Slf4j
+public class InMemoryWalletStore implements WalletStore {
+
+    private record Funds(BigDecimal balance, BigDecimal reserved) {
+        BigDecimal available() {
+            return balance.subtract(reserved);
+        }
+    }
+
+    private record Movement(Long userId, BigDecimal delta, Long ledgerId) {
+    }
+
+    private final WalletRepository walletRepository;
+    private final TransactionLedgerRepository ledgerRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final long retryBackoffMs;
+
+    private final Map<Long, AtomicReference<Funds>> accounts = new ConcurrentHashMap<>();
+    private final ArrayBlockingQueue<Movement> pending;
+    private Thread writer;
+    private volatile boolean running;
+
+    private Timer writeLatency;
+    private Counter retries;
+
+    public InMemoryWalletStore(WalletRepository walletRepository, TransactionLedgerRepository ledgerRepository,
+            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry, int capacity,
+            int batchSize, long flushIntervalMs, long retryBackoffMs) {
+        this.walletRepository = walletRepository;
+        this.ledgerRepository = ledgerRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Movements are queued from afterCommit callbacks; the writer never joins a caller's transaction.
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.retryBackoffMs = retryBackoffMs;
+        this.pending = new ArrayBlockingQueue<>(capacity);
+    }
+
+    @PostConstruct
+    void start() {
+        Gauge.builder("apex.wallet.write-behind.queue.depth", pending, ArrayBlockingQueue::size)
+                .description("Committed wallet movements not yet written to the wallets table")
+                .register(meterRegistry);
+        writeLatency = Timer.builder("apex.wallet.write-behind.latency")
+                .description("Time taken to write one batch of wallet movements")
+                .register(meterRegistry);
+        retries = meterRegistry.counter("apex.wallet.write-behind.retries");
+
+        recover();
+        running = true;
+        writer = new Thread(this::drainLoop, "wallet-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        if (!pending.isEmpty()) {
+            log.warn("[WALLET] {} movements left for the ledger replay on next start", pending.size());
+        }
+    }
+
+    @Override
+    public Reservation reserve(Long userId, BigDecimal amount) {
+        update(userId, funds -> {
+            if (funds.available().compareTo(amount) < 0) {
+                throw new InsufficientBalanceException("Insufficient funds for user: " + userId);
+            }
+            return new Funds(funds.balance(), funds.reserved().add(amount));
+        });
+        Reservation reservation = new Reservation(userId, amount);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // A reservation never outlives the transaction it was made in.
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (reservation.isOpen()) {
+                        release(reservation);
+                    }
+                }
+            });
+        }
+        return reservation;
+    }
+
+    @Override
+    public void commit(Reservation reservation, BigDecimal amount, TransactionType type) {
+        if (!reservation.settle()) {
+            throw new IllegalStateException("Reservation already settled");
+        }
+        try {
+            update(reservation.getUserId(), funds -> {
+                Funds next = new Funds(funds.balance().subtract(amount),
+                        funds.reserved().subtract(reservation.getAmount()));
+                if (next.available().signum() < 0) {
+                    throw new InsufficientBalanceException("Insufficient funds for user: " + reservation.getUserId());
+                }
+                return next;
+            });
+        } catch (InsufficientBalanceException e) {
+            update(reservation.getUserId(),
+                    funds -> new Funds(funds.balance(), funds.reserved().subtract(reservation.getAmount())));
+            throw e;
+        }
+        record(reservation.getUserId(), amount.negate(), type, null);
+    }
+
+    @Override
+    public void release(Reservation reservation) {
+        if (reservation.settle()) {
+            update(reservation.getUserId(),
+                    funds -> new Funds(funds.balance(), funds.reserved().subtract(reservation.getAmount())));
+        }
+    }
+
+    @Override
+    public void debit(Long userId, BigDecimal amount, TransactionType type, String reference) {
+        update(userId, funds -> {
+            if (funds.available().compareTo(amount) < 0) {
+                throw new InsufficientBalanceException("Insufficient funds for user: " + userId);
+            }
+            return new Funds(funds.balance().subtract(amount), funds.reserved());
+        });
+        record(userId, amount.negate(), type, reference);
+    }
+
+    @Override
+    public void credit(Long userId, BigDecimal amount, TransactionType type, String reference) {
+        update(userId, funds -> new Funds(funds.balance().add(amount), funds.reserved()));
+        record(userId, amount, type, reference);
+    }
+
+    @Override
+    public BigDecimal available(Long userId) {
+        return account(userId).get().available();
+    }
+
+    public int getPendingWrites() {
+        return pending.size();
+    }
+
+    private AtomicReference<Funds> account(Long userId) {
+        return accounts.computeIfAbsent(userId, id -> new AtomicReference<>(new Funds(
+                walletRepository.findByUserId(id).map(Wallet::getBalance)
+                        .orElseThrow(() -> new IllegalStateException("Wallet not found for user: " + id)),
+                BigDecimal.ZERO)));
+    }
+
+    /**
+     * CAS loop; {@code change} may throw to abort without changing anything.
+     */
+    private void update(Long userId, UnaryOperator<Funds> change) {
+        AtomicReference<Funds> account = account(userId);
+        Funds current;
+        do {
+            current = account.get();
+        } while (!account.compareAndSet(current, change.apply(current)));
+    }
+
+    /**
+     * Writes the ledger row in the caller's transaction and queues the
+     * balance delta once it commits, or undoes the in-memory change if it
+     * rolls back.
+     */
+    private void record(Long userId, BigDecimal delta, TransactionType type, String reference) {
+        TransactionLedger entry = ledgerRepository.save(TransactionLedger.builder()
+                .userId(userId)
+                .amount(delta)
+                .type(type)
+                .reference(reference)
+                .walletPending(true)
+                .build());
+        Movement movement = new Movement(userId, delta, entry.getId());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(movement);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    enqueue(movement);
+                } else {
+                    update(userId, funds -> new Funds(funds.balance().subtract(delta), funds.reserved()));
+                }
+            }
+        });
+    }
+
+    private void enqueue(Movement movement) {
+        try {
+            // Bounded: a writer that cannot keep up slows committers down rather than growing without limit.
+            pending.put(movement);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("[WALLET] Interrupted while queueing ledger {}; it is applied on next start",
+                    movement.ledgerId());
+        }
+    }
+
+    /**
+     * Applies ledger rows whose balance delta never reached the wallets table.
+     */
+    private void recover() {
+        List<TransactionLedger> unapplied = ledgerRepository.findByWalletPendingTrue();
+        if (unapplied.isEmpty()) {
+            return;
+        }
+        write(unapplied.stream().map(l -> new Movement(l.getUserId(), l.getAmount(), l.getId())).toList());
+        log.info("[WALLET] Applied {} pending ledger movements left from the last run", unapplied.size());
+    }
+
+    private void drainLoop() {
+        List<Movement> batch = new ArrayList<>(batchSize);
+        while (running || !pending.isEmpty()) {
+            try {
+                Movement first = pending.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                pending.drainTo(batch, batchSize - 1);
+            } catch (InterruptedException e) {
+                // Shutdown requested: drain whatever is left without waiting.
+                pending.drainTo(batch, batchSize - batch.size());
+            }
+            if (batch.isEmpty()) {
+                continue;
+            }
+            while (!tryWrite(batch)) {
+                retries.increment();
+                if (!running) {
+                    // The ledger rows stay flagged and are applied on next start.
+                    return;
+                }
+                try {
+                    Thread.sleep(retryBackoffMs);
+                } catch (InterruptedException e) {
+                    // Shutdown: retry once more without waiting.
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    private boolean tryWrite(List<Movement> batch) {
+        try {
+            write(batch);
+            return true;
+        } catch (RuntimeException e) {
+            log.error("[WALLET] Failed to write {} wallet movements, will retry: {}", batch.size(), e.getMessage());
+            return false;
+        }
+    }
+
+    private void write(List<Movement> batch) {
+        long start = System.nanoTime();
+        try {
+            Map<Long, BigDecimal> deltas = new HashMap<>();
+            List<Long> ledgerIds = new ArrayList<>(batch.size());
+            for (Movement movement : batch) {
+                deltas.merge(movement.userId(), movement.delta(), BigDecimal::add);
+                ledgerIds.add(movement.ledgerId());
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                deltas.forEach(walletRepository::addToBalance);
+                ledgerRepository.markWalletApplied(ledgerIds);
+            });
+        } finally {
+            writeLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
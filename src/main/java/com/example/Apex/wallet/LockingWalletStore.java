@@ -0,0 +1,102 @@
+package com.example.Apex.wallet;
+
+import com.example.Apex.exception.InsufficientBalanceException;
+import com.example.Apex.model.TransactionLedger;
+import com.example.Apex.model.TransactionType;
+import com.example.Apex.model.Wallet;
+import com.example.Apex.repo.TransactionLedgerRepository;
+import com.example.Apex.repo.WalletRepository;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+
+/**
+ * {@link WalletStore} on pessimistic row locks: every movement locks the
+ * wallet row with {@code SELECT ... FOR UPDATE} in the caller's transaction
+ * and holds it until that transaction ends. A reservation is an immediate
+ * debit; commit and release settle the difference.
+ */
+@Slf4j
+public class LockingWalletStore implements WalletStore {
+
+    private final WalletRepository walletRepository;
+    private final TransactionLedgerRepository ledgerRepository;
+
+    public LockingWalletStore(WalletRepository walletRepository, TransactionLedgerRepository ledgerRepository) {
+        this.walletRepository = walletRepository;
+        this.ledgerRepository = ledgerRepository;
+    }
+
+    @Override
+    public Reservation reserve(Long userId, BigDecimal amount) {
+        adjust(userId, amount.negate(), TransactionType.TRADE_BUY, null);
+        return new Reservation(userId, amount);
+    }
+
+    @Override
+    public void commit(Reservation reservation, BigDecimal amount, TransactionType type) {
+        if (!reservation.settle()) {
+            throw new IllegalStateException("Reservation already settled");
+        }
+        BigDecimal unused = reservation.getAmount().subtract(amount);
+        if (unused.signum() > 0) {
+            adjust(reservation.getUserId(), unused, TransactionType.TRADE_REFUND, null);
+        } else if (unused.signum() < 0) {
+            try {
+                adjust(reservation.getUserId(), unused, type, null);
+            } catch (InsufficientBalanceException e) {
+                adjust(reservation.getUserId(), reservation.getAmount(), TransactionType.TRADE_REFUND, null);
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public void release(Reservation reservation) {
+        if (reservation.settle()) {
+            adjust(reservation.getUserId(), reservation.getAmount(), TransactionType.TRADE_REFUND, null);
+        }
+    }
+
+    @Override
+    public void debit(Long userId, BigDecimal amount, TransactionType type, String reference) {
+        adjust(userId, amount.negate(), type, reference);
+    }
+
+    @Override
+    public void credit(Long userId, BigDecimal amount, TransactionType type, String reference) {
+        adjust(userId, amount, type, reference);
+    }
+
+    @Override
+    public BigDecimal available(Long userId) {
+        return walletRepository.findByUserId(userId).map(Wallet::getBalance)
+                .orElseThrow(() -> new IllegalStateException("Wallet not found for user: " + userId));
+    }
+
+    private void adjust(Long userId, BigDecimal amount, TransactionType type, String reference) {
+        log.debug("Adjusting balance for user: {}, amount: {}, type: {}", userId, amount, type);
+
+        // 1. Acquire PESSIMISTIC Lock
+        Wallet wallet = walletRepository.findWalletByUserId(userId)
+                .orElseThrow(() -> new IllegalStateException("Wallet not found for user: " + userId));
+
+        // 2. Validate funds (for withdrawals or trades that decrease balance)
+        BigDecimal newBalance = wallet.getBalance().add(amount);
+        if (amount.signum() < 0 && newBalance.signum() < 0) {
+            throw new InsufficientBalanceException("Insufficient funds for user: " + userId);
+        }
+
+        // 3. Insert record into TransactionLedger
+        ledgerRepository.save(TransactionLedger.builder()
+                .userId(userId)
+                .amount(amount)
+                .type(type)
+                .reference(reference)
+                .build());
+
+        // 4. Update Wallet balance
+        wallet.setBalance(newBalance);
+        walletRepository.save(wallet);
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.Apex.wallet;
+
+import com.example.Apex.exception.InsufficientBalanceException;
+import com.example.Apex.model.TransactionLedger;
+import com.example.Apex.model.TransactionType;
+import com.example.Apex.model.Wallet;
+import com.example.Apex.repo.TransactionLedgerRepository;
+import com.example.Apex.repo.WalletRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+/**
+ * {@link WalletStore} for multi-node deployments, using the wallet's version
+ * column instead of a lock held across the order transaction.
+ *
+ * Each movement runs in its own short transaction: read the wallet, check
+ * funds, then {@code UPDATE ... WHERE version = ?}; a lost race re-reads and
+ * retries up to {@code maxAttempts} times. Because the movement commits
+ * before the caller's transaction does, a rollback of the caller is
+ * compensated by the opposite movement.
+ *
+ * A reservation is an immediate debit; commit and release settle the
+ * difference.
+ *
+ * Metrics: apex.wallet.version-conflicts.
+ */
+@Slf4j
+public class OptimisticWalletStore implements WalletStore {
+
+    private final WalletRepository walletRepository;
+    private final TransactionLedgerRepository ledgerRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final Counter conflicts;
+
+    public OptimisticWalletStore(WalletRepository walletRepository, TransactionLedgerRepository ledgerRepository,
+            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry, int maxAttempts) {
+        this.walletRepository = walletRepository;
+        this.ledgerRepository = ledgerRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.maxAttempts = maxAttempts;
+        this.conflicts = meterRegistry.counter("apex.wallet.version-conflicts");
+    }
+
+    @Override
+    public Reservation reserve(Long userId, BigDecimal amount) {
+        move(userId, amount.negate(), TransactionType.TRADE_BUY, null);
+        return new Reservation(userId, amount);
+    }
+
+    @Override
+    public void commit(Reservation reservation, BigDecimal amount, TransactionType type) {
+        if (!reservation.settle()) {
+            throw new IllegalStateException("Reservation already settled");
+        }
+        BigDecimal unused = reservation.getAmount().subtract(amount);
+        if (unused.signum() > 0) {
+            move(reservation.getUserId(), unused, TransactionType.TRADE_REFUND, null);
+        } else if (unused.signum() < 0) {
+            try {
+                move(reservation.getUserId(), unused, type, null);
+            } catch (InsufficientBalanceException e) {
+                move(reservation.getUserId(), reservation.getAmount(), TransactionType.TRADE_REFUND, null);
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public void release(Reservation reservation) {
+        if (reservation.settle()) {
+            move(reservation.getUserId(), reservation.getAmount(), TransactionType.TRADE_REFUND, null);
+        }
+    }
+
+    @Override
+    public void debit(Long userId, BigDecimal amount, TransactionType type, String reference) {
+        move(userId, amount.negate(), type, reference);
+    }
+
+    @Override
+    public void credit(Long userId, BigDecimal amount, TransactionType type, String reference) {
+        move(userId, amount, type, reference);
+    }
+
+    @Override
+    public BigDecimal available(Long userId) {
+        return walletRepository.findByUserId(userId).map(Wallet::getBalance)
+                .orElseThrow(() -> new IllegalStateException("Wallet not found for user: " + userId));
+    }
+
+    /**
+     * Applies {@code delta} in its own transaction and, if the caller's
+     * transaction later rolls back, applies the opposite.
+     */
+    private void move(Long userId, BigDecimal delta, TransactionType type, String reference) {
+        apply(userId, delta, type, reference);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        log.warn("[WALLET] Compensating {} {} for user {} after rollback", type, delta, userId);
+                        apply(userId, delta.negate(), type, reference);
+                    }
+                }
+            });
+        }
+    }
+
+    private void apply(Long userId, BigDecimal delta, TransactionType type, String reference) {
+        for (int attempt = 1; ; attempt++) {
+            Boolean applied = transactionTemplate.execute(status -> {
+                Wallet wallet = walletRepository.findByUserId(userId)
+                        .orElseThrow(() -> new IllegalStateException("Wallet not found for user: " + userId));
+                BigDecimal newBalance = wallet.getBalance().add(delta);
+                if (delta.signum() < 0 && newBalance.signum() < 0) {
+                    throw new InsufficientBalanceException("Insufficient funds for user: " + userId);
+                }
+                if (walletRepository.updateBalanceIfVersion(userId, newBalance, wallet.getVersion()) == 0) {
+                    return false;
+                }
+                ledgerRepository.save(TransactionLedger.builder()
+                        .userId(userId)
+                        .amount(delta)
+                        .type(type)
+                        .reference(reference)
+                        .build());
+                return true;
+            });
+            if (Boolean.TRUE.equals(applied)) {
+                return;
+            }
+            conflicts.increment();
+            if (attempt >= maxAttempts) {
+                throw new OptimisticLockingFailureException(
+                        "Wallet of user " + userId + " changed concurrently " + attempt + " times");
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.Apex.wallet;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Funds set aside for one purchase by {@link WalletStore#reserve}. Settled
+ * exactly once, by {@link WalletStore#commit} or {@link WalletStore#release}.
+ */
+public final class Reservation {
+
+    private final Long userId;
+    private final BigDecimal amount;
+    private final AtomicBoolean open = new AtomicBoolean(true);
+
+    Reservation(Long userId, BigDecimal amount) {
+        this.userId = userId;
+        this.amount = amount;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public boolean isOpen() {
+        return open.get();
+    }
+
+    /**
+     * @return true for the one caller that settles the reservation
+     */
+    boolean settle() {
+        return open.compareAndSet(true, false);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.Apex.wallet;
+
+import com.example.Apex.repo.WalletRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Gives users created before the {@code wallets} table existed a wallet
+ * funded from {@code users.balance}, once at startup, so their trades and
+ * portfolio reads find one. Users created since get theirs from
+ * {@link com.example.Apex.service.UserService#createUser}.
+ */
+@Slf4j
+@Component
+public class WalletBackfill {
+
+    private final WalletRepository walletRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public WalletBackfill(WalletRepository walletRepository, PlatformTransactionManager transactionManager) {
+        this.walletRepository = walletRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    void backfill() {
+        try {
+            Integer created = transactionTemplate.execute(status -> walletRepository.createMissingWallets());
+            if (created != null && created > 0) {
+                log.info("[WALLET] Created {} wallets from users.balance", created);
+            }
+        } catch (DataIntegrityViolationException e) {
+            // Another node backfilled the same users concurrently.
+            log.warn("[WALLET] Wallet backfill skipped: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.Apex.wallet;
+
+/**
+ * Selects the {@link WalletStore} implementation via apex.wallet.mode.
+ */
+public enum WalletMode {
+    /** Balances held in memory with CAS updates, written behind to the database. Single node only. */
+    IN_MEMORY,
+    /** Short version-checked updates with retries, safe across nodes. */
+    OPTIMISTIC,
+    /** {@code SELECT ... FOR UPDATE} held for the caller's whole transaction. */
+    LOCKING
+}
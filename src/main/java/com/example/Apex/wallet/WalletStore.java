@@ -0,0 +1,69 @@
+package com.example.Apex.wallet;
+
+import com.example.Apex.exception.InsufficientBalanceException;
+import com.example.Apex.model.TransactionType;
+
+import java.math.BigDecimal;
+
+/**
+ * Owns wallet balances for the order path.
+ *
+ * Purchases reserve funds when the order is validated and commit the actual
+ * cost when it fills; anything not committed is released. Every balance
+ * movement gets a {@code transaction_ledger} row.
+ *
+ * Implementations are selected by apex.wallet.mode (see {@link WalletMode}).
+ */
+public interface WalletStore {
+
+    /**
+     * Sets {@code amount} aside for a purchase.
+     *
+     * @throws InsufficientBalanceException if the available balance is lower
+     */
+    Reservation reserve(Long userId, BigDecimal amount);
+
+    /**
+     * Spends {@code amount} against the reservation and releases the rest. An
+     * amount above the reservation is charged if the balance allows it.
+     *
+     * @throws InsufficientBalanceException if the excess cannot be covered; the
+     *                                      reservation is released
+     */
+    void commit(Reservation reservation, BigDecimal amount, TransactionType type);
+
+    /**
+     * Returns reserved funds. Does nothing if the reservation is already
+     * settled.
+     */
+    void release(Reservation reservation);
+
+    /**
+     * @throws InsufficientBalanceException if the available balance is lower
+     */
+    default void debit(Long userId, BigDecimal amount, TransactionType type) {
+        debit(userId, amount, type, null);
+    }
+
+    /**
+     * Debits with {@code reference} (the idempotency key of a sequenced
+     * order) stored on the ledger row.
+     *
+     * @throws InsufficientBalanceException if the available balance is lower
+     */
+    void debit(Long userId, BigDecimal amount, TransactionType type, String reference);
+
+    default void credit(Long userId, BigDecimal amount, TransactionType type) {
+        credit(userId, amount, type, null);
+    }
+
+    /**
+     * Credits with {@code reference} stored on the ledger row.
+     */
+    void credit(Long userId, BigDecimal amount, TransactionType type, String reference);
+
+    /**
+     * Balance minus open reservations.
+     */
+    BigDecimal available(Long userId);
+}
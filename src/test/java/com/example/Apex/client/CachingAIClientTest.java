@@ -0,0 +1,164 @@
+package com.example.Apex.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachingAIClientTest {
+
+    private final MutableClock clock = new MutableClock(1_700_000_000_000L);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicInteger backendCalls = new AtomicInteger();
+    private volatile CountDownLatch backendGate = new CountDownLatch(0);
+
+    private final AIClient backend = symbol -> {
+        backendCalls.incrementAndGet();
+        try {
+            backendGate.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return AIClient.Sentiment.POSITIVE;
+    };
+
+    private final CachingAIClient client = new CachingAIClient(backend, registry, clock,
+            Duration.ofSeconds(30), Duration.ofSeconds(5), true, 7L, Duration.ofMinutes(1));
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+    }
+
+    @Test
+    void servesHitsWithinTtlAndReloadsAfterExpiry() {
+        assertThat(client.getSentiment("BTCUSDT")).isEqualTo(AIClient.Sentiment.POSITIVE);
+        clock.advance(10_000);
+        client.getSentiment("BTCUSDT");
+        assertThat(backendCalls).hasValue(1);
+
+        clock.advance(30_000);
+        client.getSentiment("BTCUSDT");
+        assertThat(backendCalls).hasValue(2);
+        assertThat(count("hit")).isEqualTo(1.0);
+        assertThat(count("miss")).isEqualTo(2.0);
+    }
+
+    @Test
+    void coalescesConcurrentMisses() throws Exception {
+        backendGate = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<AIClient.Sentiment>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(callers.submit(() -> client.getSentiment("ETHUSDT")));
+            }
+            // Let every caller reach the in-flight load before releasing it.
+            while (count("miss") + count("coalesced") < 8) {
+                Thread.sleep(5);
+            }
+            backendGate.countDown();
+
+            for (Future<AIClient.Sentiment> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo(AIClient.Sentiment.POSITIVE);
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+        assertThat(backendCalls).hasValue(1);
+        assertThat(count("coalesced")).isEqualTo(7.0);
+    }
+
+    @Test
+    void refreshesInTheBackgroundBeforeExpiry() throws Exception {
+        client.getSentiment("BTCUSDT");
+        clock.advance(26_000); // inside the 5s refresh-ahead window
+
+        client.getSentiment("BTCUSDT");
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (backendCalls.get() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(backendCalls).hasValue(2);
+
+        // The refreshed entry is still fresh well past the original expiry.
+        clock.advance(20_000);
+        client.getSentiment("BTCUSDT");
+        assertThat(backendCalls).hasValue(2);
+    }
+
+    @Test
+    void replaysHistoricalLookupsDeterministicallyWithoutTheBackend() {
+        long historic = Instant.parse("2023-01-01T10:15:00Z").toEpochMilli();
+        CachingAIClient other = new CachingAIClient(backend, new SimpleMeterRegistry(), clock,
+                Duration.ofSeconds(30), Duration.ofSeconds(5), true, 7L, Duration.ofMinutes(1));
+        try {
+            for (int minute = 0; minute < 50; minute++) {
+                long asOf = historic + minute * 60_000L;
+                assertThat(client.getSentiment("BTCUSDT", asOf)).isEqualTo(other.getSentiment("BTCUSDT", asOf));
+                // Same bucket, same answer.
+                assertThat(client.getSentiment("BTCUSDT", asOf + 59_000))
+                        .isEqualTo(client.getSentiment("BTCUSDT", asOf));
+            }
+        } finally {
+            other.close();
+        }
+        assertThat(backendCalls).hasValue(0);
+
+        // Recent timestamps take the live, cached path.
+        client.getSentiment("BTCUSDT", clock.millis());
+        assertThat(backendCalls).hasValue(1);
+    }
+
+    private double count(String result) {
+        return registry.counter("apex.ai.sentiment.requests", "result", result).count();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private volatile long millis;
+
+        MutableClock(long millis) {
+            this.millis = millis;
+        }
+
+        void advance(long delta) {
+            millis += delta;
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
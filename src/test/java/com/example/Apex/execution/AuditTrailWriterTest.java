@@ -0,0 +1,179 @@
+package com.example.Apex.execution;
+
+import com.example.Apex.model.Order;
+import com.example.Apex.model.OrderAuditLog;
+import com.example.Apex.repo.OrderAuditLogRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class AuditTrailWriterTest {
+
+    private final OrderAuditLogRepository repository = mock(OrderAuditLogRepository.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final List<Long> written = new CopyOnWriteArrayList<>();
+    private AuditTrailWriter writer;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (writer != null) {
+            writer.stop();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void retriesFailedBatchesUntilEveryRowIsWritten() {
+        AtomicInteger attempts = new AtomicInteger();
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class))).thenAnswer(inv -> {
+                    if (attempts.incrementAndGet() == 1) {
+                        throw new IllegalStateException("connection reset");
+                    }
+                    Collection<OrderAuditLog> batch = inv.getArgument(1);
+                    batch.forEach(entry -> written.add(entry.getOrderId()));
+                    return new int[0][];
+                });
+        writer = start(AuditMode.ASYNC);
+
+        for (long id = 1; id <= 5; id++) {
+            writer.record(entry(id));
+        }
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> written.size() == 5);
+        assertThat(written).containsExactly(1L, 2L, 3L, 4L, 5L);
+        assertThat(attempts.get()).isGreaterThan(1);
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void deadLettersRejectedRowsAndWritesTheRestOfTheBatch() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class))).thenAnswer(inv -> {
+                    Collection<OrderAuditLog> batch = inv.getArgument(1);
+                    if (batch.stream().anyMatch(entry -> entry.getOrderId() == 3L)) {
+                        throw new DataIntegrityViolationException("violates foreign key constraint");
+                    }
+                    batch.forEach(entry -> written.add(entry.getOrderId()));
+                    return new int[0][];
+                });
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        writer = start(AuditMode.ASYNC, meterRegistry);
+
+        for (long id = 1; id <= 8; id++) {
+            writer.record(entry(id));
+        }
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> written.size() == 7);
+        assertThat(written).containsExactlyInAnyOrder(1L, 2L, 4L, 5L, 6L, 7L, 8L);
+        assertThat(meterRegistry.counter("apex.audit.dead-lettered").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("apex.audit.retries").count()).isZero();
+    }
+
+    @Test
+    void deadLettersRowsWithoutAnOrderIdInsteadOfQueueingThem() {
+        recordWrites();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        writer = start(AuditMode.ASYNC, meterRegistry);
+
+        writer.record(entry(null));
+        writer.record(entry(2L));
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> written.equals(List.of(2L)));
+        assertThat(meterRegistry.counter("apex.audit.dead-lettered").count()).isEqualTo(1);
+    }
+
+    @Test
+    void queuesRowsOnlyOnceTheTransactionCommits() {
+        recordWrites();
+        writer = start(AuditMode.ASYNC);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            writer.record(entry(1L));
+            assertThat(writer.getQueueDepth()).isZero();
+            assertThat(TransactionSynchronizationManager.getSynchronizations()).hasSize(1);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> written.equals(List.of(1L)));
+    }
+
+    @Test
+    void savesInTheCallersTransactionWhenConfigured() {
+        writer = start(AuditMode.IN_TRANSACTION);
+        OrderAuditLog entry = entry(1L);
+
+        writer.record(entry);
+
+        verify(repository).save(entry);
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void recordWrites() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class))).thenAnswer(inv -> {
+                    Collection<OrderAuditLog> batch = inv.getArgument(1);
+                    batch.forEach(entry -> written.add(entry.getOrderId()));
+                    return new int[0][];
+                });
+    }
+
+    private AuditTrailWriter start(AuditMode mode) {
+        return start(mode, new SimpleMeterRegistry());
+    }
+
+    private AuditTrailWriter start(AuditMode mode, SimpleMeterRegistry meterRegistry) {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        AuditTrailWriter started = new AuditTrailWriter(repository, jdbcTemplate, transactionManager,
+                meterRegistry);
+        ReflectionTestUtils.setField(started, "mode", mode);
+        ReflectionTestUtils.setField(started, "capacity", 16);
+        ReflectionTestUtils.setField(started, "batchSize", 4);
+        ReflectionTestUtils.setField(started, "flushIntervalMs", 10L);
+        ReflectionTestUtils.setField(started, "retryBackoffMs", 10L);
+        started.start();
+        return started;
+    }
+
+    private static OrderAuditLog entry(Long orderId) {
+        return OrderAuditLog.builder()
+                .orderId(orderId)
+                .oldStatus(Order.OrderStatus.PENDING_VALIDATION)
+                .newStatus(Order.OrderStatus.VALIDATED)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.Apex.execution;
+
+import com.example.Apex.market.FixedPoint;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TriggerBookTest {
+
+    private final TriggerBook book = new TriggerBook();
+    private final List<TriggerBook.Fill> fills = new ArrayList<>();
+
+    @Test
+    void buyLimitFillsOnlyWhenTheTradeIsAtOrBelowItsPrice() {
+        book.add(1, true, false, px(100), 2);
+
+        book.onTrade(px(100.5), qty(10), fills);
+        assertThat(fills).isEmpty();
+
+        book.onTrade(px(99.5), qty(10), fills);
+        assertThat(fills).containsExactly(new TriggerBook.Fill(1, 2, px(99.5), true));
+        assertThat(book.isEmpty()).isTrue();
+    }
+
+    @Test
+    void limitOrdersArePartiallyFilledFromCrossingVolumeInPriceTimeOrder() {
+        book.add(1, false, false, px(101), 3);
+        book.add(2, false, false, px(100), 2);
+        book.add(3, false, false, px(100), 1);
+
+        book.onTrade(px(101), qty(2.5), fills);
+        assertThat(fills).containsExactly(new TriggerBook.Fill(2, 2, px(101), true));
+
+        // The half unit carried over from the first trade completes order 3.
+        fills.clear();
+        book.onTrade(px(101), qty(1.5), fills);
+        assertThat(fills).containsExactly(new TriggerBook.Fill(3, 1, px(101), true),
+                new TriggerBook.Fill(1, 1, px(101), false));
+        assertThat(book.size()).isEqualTo(1);
+    }
+
+    @Test
+    void stopsTriggerForTheirWholeRemainderOnceCrossed() {
+        book.add(1, true, true, px(105), 4);
+        book.add(2, false, true, px(95), 4);
+
+        book.onTrade(px(100), qty(0.01), fills);
+        assertThat(fills).isEmpty();
+
+        book.onTrade(px(106), qty(0.01), fills);
+        assertThat(fills).containsExactly(new TriggerBook.Fill(1, 4, px(106), true));
+        assertThat(book.contains(2)).isTrue();
+    }
+
+    @Test
+    void removedOrdersNeverFill() {
+        book.add(1, true, false, px(100), 1);
+        assertThatThrownBy(() -> book.add(1, true, false, px(100), 1)).isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(book.remove(1)).isTrue();
+        assertThat(book.remove(1)).isFalse();
+        book.onTrade(px(90), qty(10), fills);
+        assertThat(fills).isEmpty();
+    }
+
+    private static long px(double price) {
+        return Math.round(price * FixedPoint.ONE);
+    }
+
+    private static long qty(double quantity) {
+        return Math.round(quantity * FixedPoint.ONE);
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.Apex.idempotency;
+
+import com.example.Apex.model.Order;
+import com.example.Apex.repo.OrderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IdempotencyCacheTest {
+
+    private final OrderRepository orders = mock(OrderRepository.class);
+
+    @Test
+    void answersFreshKeysWithoutTheDatabaseAndRepeatsFromTheCache() {
+        IdempotencyCache cache = start();
+        Order placed = order(42L, "k1");
+        when(orders.findById(42L)).thenReturn(Optional.of(placed));
+
+        assertThat(cache.find("k1")).isEmpty();
+        cache.remember("k1", 42L);
+
+        assertThat(cache.find("k1")).containsSame(placed);
+        verify(orders, never()).findByIdempotencyKey(any());
+    }
+
+    @Test
+    void collapsesConcurrentRequestsWithTheSameKey() throws Exception {
+        IdempotencyCache cache = start();
+        AtomicInteger placements = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        Order placed = order(7L, "dup");
+
+        List<CompletableFuture<Order>> callers = IntStream.range(0, 8)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> cache.execute("dup", () -> {
+                    placements.incrementAndGet();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return placed;
+                })))
+                .toList();
+        Thread.sleep(100);
+        release.countDown();
+
+        for (CompletableFuture<Order> caller : callers) {
+            assertThat(caller.get(5, TimeUnit.SECONDS)).isSameAs(placed);
+        }
+        assertThat(placements.get()).isEqualTo(1);
+    }
+
+    @Test
+    void answersAConstraintViolationWithTheStoredOrder() {
+        IdempotencyCache cache = start();
+        Order stored = order(9L, "old");
+        when(orders.findByIdempotencyKey("old")).thenReturn(Optional.of(stored));
+
+        Order result = cache.execute("old", () -> {
+            throw new DataIntegrityViolationException("duplicate key value violates unique constraint");
+        });
+
+        assertThat(result).isSameAs(stored);
+    }
+
+    private IdempotencyCache start() {
+        when(orders.streamIdempotencyKeysCreatedSince(any())).thenReturn(Stream.empty());
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        IdempotencyCache cache = new IdempotencyCache(orders, transactionManager, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cache, "ttl", Duration.ofHours(1));
+        ReflectionTestUtils.setField(cache, "expectedKeys", 1000);
+        ReflectionTestUtils.setField(cache, "falsePositiveRate", 0.01);
+        ReflectionTestUtils.setField(cache, "recentKeys", 100);
+        ReflectionTestUtils.setField(cache, "waitTimeoutMs", 5000L);
+        cache.start();
+        return cache;
+    }
+
+    private static Order order(Long id, String key) {
+        return Order.builder().id(id).idempotencyKey(key).status(Order.OrderStatus.FILLED).build();
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.Apex.idempotency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimeWindowedBloomFilterTest {
+
+    private static final long WINDOW = 60_000;
+
+    @Test
+    void hasNoFalseNegativesAndFewFalsePositives() {
+        TimeWindowedBloomFilter filter = new TimeWindowedBloomFilter(10_000, 0.01, WINDOW, 0);
+        IntStream.range(0, 10_000).forEach(i -> filter.put("key-" + i, 0));
+
+        assertThat(IntStream.range(0, 10_000).allMatch(i -> filter.mightContain("key-" + i, 0))).isTrue();
+        long falsePositives = IntStream.range(0, 10_000).filter(i -> filter.mightContain("other-" + i, 0)).count();
+        assertThat(falsePositives).isLessThan(300);
+    }
+
+    @Test
+    void remembersKeysForOneToTwoWindows() {
+        TimeWindowedBloomFilter filter = new TimeWindowedBloomFilter(1_000, 0.01, WINDOW, 0);
+        filter.put("early", 0);
+        filter.put("late", WINDOW - 1);
+
+        assertThat(filter.mightContain("early", WINDOW + 1)).isTrue();
+        filter.put("next", WINDOW + 1);
+
+        assertThat(filter.mightContain("early", 2 * WINDOW + 1)).isFalse();
+        assertThat(filter.mightContain("next", 2 * WINDOW + 1)).isTrue();
+        assertThat(filter.mightContain("late", 3 * WINDOW + 1)).isFalse();
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.Apex.market;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Runs the client against a local stand-in for the Binance combined-stream
+ * endpoint that replays recorded frames for the streams requested in the URL
+ * and for any stream later added with a SUBSCRIBE control frame.
+ */
+class BinanceWebSocketClientTest {
+
+    private final MarketTickPersistenceHandler persistenceHandler = mock(MarketTickPersistenceHandler.class);
+    private final Queue<String> connectedStreams = new ConcurrentLinkedQueue<>();
+    private final Queue<String> controlFrames = new ConcurrentLinkedQueue<>();
+
+    private final Queue<String> persistedSymbols = new ConcurrentLinkedQueue<>();
+
+    private DisposableServer server;
+    private BinanceWebSocketClient client;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        // Frames are reused by the parser, so record what matters at call time.
+        doAnswer(inv -> persistedSymbols.add(inv.<TradeFrame>getArgument(0).getSymbol()))
+                .when(persistenceHandler).persist(any(TradeFrame.class));
+
+        List<String> recorded = Files.readAllLines(
+                Path.of("src/test/resources/binance/combined-trade-frames.jsonl"), StandardCharsets.UTF_8);
+
+        server = HttpServer.create()
+                .port(0)
+                .route(routes -> routes.get("/stream", (request, response) -> {
+                    String query = URI.create(request.uri()).getQuery();
+                    Set<String> streams = Arrays.stream(query.substring("streams=".length()).split("/"))
+                            .collect(Collectors.toSet());
+                    connectedStreams.addAll(streams);
+                    return response.sendWebsocket((in, out) -> {
+                        Flux<String> subscribed = in.receive().asString()
+                                .doOnNext(controlFrames::add)
+                                .filter(frame -> frame.contains("\"SUBSCRIBE\""))
+                                .flatMapIterable(frame -> framesFor(recorded,
+                                        Set.of(frame.replaceAll(".*\\[\"([^\"]+)\"].*", "$1"))));
+                        return out.sendString(Flux.fromIterable(framesFor(recorded, streams))
+                                .concatWith(subscribed));
+                    });
+                }))
+                .bindNow();
+    }
+
+    @AfterEach
+    void stop() {
+        if (client != null) {
+            client.stopStreaming();
+        }
+        server.disposeNow();
+    }
+
+    @Test
+    void shardsSymbolsAndReplaysTradesIntoPersistence() {
+        client = newClient(2, "BTCUSDT", "ETHUSDT");
+        client.startStreaming();
+
+        verify(persistenceHandler, timeout(5_000).times(5)).persist(any(TradeFrame.class));
+
+        assertThat(connectedStreams).containsExactlyInAnyOrder("btcusdt@trade", "ethusdt@trade");
+        assertThat(persistedSymbols).containsOnly("BTCUSDT", "ETHUSDT");
+        assertThat(client.getSubscribedSymbols()).containsExactly("BTCUSDT", "ETHUSDT");
+    }
+
+    @Test
+    void runtimeSubscribeSendsControlFrameOnOpenConnection() {
+        client = newClient(1, "BTCUSDT");
+        client.startStreaming();
+        verify(persistenceHandler, timeout(5_000).times(3)).persist(any(TradeFrame.class));
+
+        client.subscribe("ETHUSDT");
+        verify(persistenceHandler, timeout(5_000).times(5)).persist(any(TradeFrame.class));
+        client.unsubscribe("BTCUSDT");
+
+        await().untilAsserted(() -> assertThat(controlFrames).hasSize(2));
+        assertThat(controlFrames).element(0).asString()
+                .contains("\"method\":\"SUBSCRIBE\"", "ethusdt@trade");
+        assertThat(controlFrames).element(1).asString()
+                .contains("\"method\":\"UNSUBSCRIBE\"", "btcusdt@trade");
+        assertThat(client.getSubscribedSymbols()).containsExactly("ETHUSDT");
+    }
+
+    @Test
+    void rejectsSymbolsThatCouldBreakTheUrlOrAControlFrame() {
+        client = newClient(1, "BTCUSDT");
+        client.startStreaming();
+
+        assertThatThrownBy(() -> client.subscribe("eth\"],\"method\":\"x"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> client.subscribe("btc/usdt")).isInstanceOf(IllegalArgumentException.class);
+        assertThat(client.getSubscribedSymbols()).containsExactly("BTCUSDT");
+    }
+
+    private static List<String> framesFor(List<String> recorded, Set<String> streams) {
+        return recorded.stream()
+                .filter(f -> streams.stream().anyMatch(s -> f.contains("\"stream\":\"" + s + "\"")))
+                .toList();
+    }
+
+    private BinanceWebSocketClient newClient(int connections, String... symbols) {
+        BinanceWebSocketClient c = new BinanceWebSocketClient(persistenceHandler,
+                Jackson2ObjectMapperBuilder.json().build());
+        ReflectionTestUtils.setField(c, "enabled", true);
+        ReflectionTestUtils.setField(c, "baseUrl", "ws://localhost:" + server.port());
+        ReflectionTestUtils.setField(c, "symbols", symbols);
+        ReflectionTestUtils.setField(c, "connections", connections);
+        ReflectionTestUtils.setField(c, "parserMode", BinanceWebSocketClient.ParserMode.STREAMING);
+        return c;
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.Apex.market;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CandleAggregatorTest {
+
+    private static final long T0 = 1_718_000_040_000L; // aligned to a minute
+
+    private final CandleRepository repository = mock(CandleRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CandleAggregator aggregator = new CandleAggregator(repository, meterRegistry, 1024, 0);
+
+    @Test
+    void buildsOhlcvAndClosesBarWhenNextBucketStarts() {
+        aggregator.onTrade("BTCUSDT", T0 + 100, price("100"), qty("1"));
+        aggregator.onTrade("BTCUSDT", T0 + 20_000, price("105"), qty("2"));
+        aggregator.onTrade("BTCUSDT", T0 + 40_000, price("98"), qty("0.5"));
+        aggregator.onTrade("BTCUSDT", T0 + 59_999, price("101"), qty("1"));
+
+        Candle open = aggregator.getOpenCandle("BTCUSDT", CandleInterval.M1).orElseThrow();
+        assertThat(open.getOpen()).isEqualByComparingTo("100");
+        assertThat(open.getHigh()).isEqualByComparingTo("105");
+        assertThat(open.getLow()).isEqualByComparingTo("98");
+        assertThat(open.getClose()).isEqualByComparingTo("101");
+        assertThat(open.getVolume()).isEqualByComparingTo("4.5");
+        assertThat(open.getTradeCount()).isEqualTo(4);
+
+        aggregator.onTrade("BTCUSDT", T0 + 60_000, price("102"), qty("1"));
+        // Historic timestamps: keep the wall-clock sweep from closing the new bar too.
+        ReflectionTestUtils.setField(aggregator, "closeGraceMs", Long.MAX_VALUE / 2);
+        aggregator.flush();
+
+        ArgumentCaptor<List<Candle>> saved = ArgumentCaptor.forClass(List.class);
+        verify(repository).saveAll(saved.capture());
+        List<Candle> minuteBars = saved.getValue().stream()
+                .filter(c -> c.getInterval() == CandleInterval.M1)
+                .toList();
+        assertThat(minuteBars).hasSize(1);
+        assertThat(minuteBars.get(0).getClose()).isEqualByComparingTo("101");
+        assertThat(aggregator.getOpenCandle("BTCUSDT", CandleInterval.M1).orElseThrow().getOpen())
+                .isEqualByComparingTo("102");
+    }
+
+    @Test
+    void ignoresTradesForAlreadyClosedBuckets() {
+        aggregator.onTrade("ETHUSDT", T0, price("10"), qty("1"));
+        aggregator.onTrade("ETHUSDT", T0 + 60_000, price("11"), qty("1"));
+        aggregator.onTrade("ETHUSDT", T0 + 30_000, price("50"), qty("1"));
+
+        Candle open = aggregator.getOpenCandle("ETHUSDT", CandleInterval.M1).orElseThrow();
+        assertThat(open.getHigh()).isEqualByComparingTo("11");
+        assertThat(open.getTradeCount()).isEqualTo(1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void requeuesClosedCandlesWhenSavingFails() {
+        when(repository.saveAll(anyList())).thenThrow(new IllegalStateException("connection refused"))
+                .thenReturn(List.of());
+        aggregator.onTrade("BTCUSDT", T0 + 100, price("100"), qty("1"));
+        aggregator.onTrade("BTCUSDT", T0 + 60_000, price("102"), qty("1"));
+        ReflectionTestUtils.setField(aggregator, "closeGraceMs", Long.MAX_VALUE / 2);
+
+        aggregator.flush();
+        aggregator.flush();
+
+        ArgumentCaptor<List<Candle>> saved = ArgumentCaptor.forClass(List.class);
+        verify(repository, times(2)).saveAll(saved.capture());
+        assertThat(saved.getAllValues().get(1))
+                .filteredOn(c -> c.getInterval() == CandleInterval.M1)
+                .singleElement()
+                .satisfies(c -> assertThat(c.getClose()).isEqualByComparingTo("100"));
+    }
+
+    @Test
+    void deadLettersACandleTheDatabaseRejectsAndSavesTheRest() {
+        List<Candle> saved = new ArrayList<>();
+        when(repository.saveAll(anyList())).thenAnswer(inv -> {
+            List<Candle> batch = inv.getArgument(0);
+            // ETHUSDT's minute bar is already stored, so any batch holding it breaks the unique key.
+            if (batch.stream().anyMatch(c -> c.getSymbol().equals("ETHUSDT")
+                    && c.getInterval() == CandleInterval.M1)) {
+                throw new DataIntegrityViolationException("duplicate key value violates unique constraint");
+            }
+            saved.addAll(batch);
+            return batch;
+        });
+        aggregator.onTrade("BTCUSDT", T0 + 100, price("100"), qty("1"));
+        aggregator.onTrade("ETHUSDT", T0 + 100, price("10"), qty("1"));
+        aggregator.onTrade("BTCUSDT", T0 + 60_000, price("102"), qty("1"));
+        aggregator.onTrade("ETHUSDT", T0 + 60_000, price("11"), qty("1"));
+        ReflectionTestUtils.setField(aggregator, "closeGraceMs", Long.MAX_VALUE / 2);
+
+        aggregator.flush();
+        aggregator.flush();
+
+        assertThat(saved).filteredOn(c -> c.getInterval() == CandleInterval.M1)
+                .extracting(Candle::getSymbol)
+                .containsExactly("BTCUSDT");
+        assertThat(saved).filteredOn(c -> c.getInterval() == CandleInterval.S1)
+                .extracting(Candle::getSymbol)
+                .containsExactlyInAnyOrder("BTCUSDT", "ETHUSDT");
+        assertThat(meterRegistry.counter("apex.candles.dead-lettered").count()).isEqualTo(1);
+    }
+
+    private static long price(String value) {
+        return FixedPoint.fromBigDecimal(new BigDecimal(value));
+    }
+
+    private static long qty(String value) {
+        return FixedPoint.fromBigDecimal(new BigDecimal(value));
+    }
+}
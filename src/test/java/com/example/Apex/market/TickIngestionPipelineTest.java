@@ -0,0 +1,99 @@
+package com.example.Apex.market;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class TickIngestionPipelineTest {
+
+    @TempDir
+    Path spillDir;
+
+    private final MarketTickRepository repository = mock(MarketTickRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<MarketTick> saved = Collections.synchronizedList(new ArrayList<>());
+    private TickIngestionPipeline pipeline;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (pipeline != null) {
+            pipeline.stop();
+        }
+    }
+
+    @Test
+    void flushesInBatchesOfConfiguredSize() throws InterruptedException {
+        CountDownLatch flushed = new CountDownLatch(3);
+        List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        doAnswer(inv -> {
+            List<MarketTick> batch = inv.getArgument(0);
+            batchSizes.add(batch.size());
+            saved.addAll(batch);
+            flushed.countDown();
+            return batch;
+        }).when(repository).saveAll(anyList());
+
+        pipeline = newPipeline(1024, 10, 5_000, TickOverflowPolicy.BLOCK);
+        for (int i = 0; i < 30; i++) {
+            pipeline.enqueue(tick(i));
+        }
+
+        assertThat(flushed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(batchSizes).containsOnly(10);
+        assertThat(saved).hasSize(30);
+    }
+
+    @Test
+    void dropOldestEvictsAndCountsWhenFull() throws InterruptedException {
+        CountDownLatch blockFlusher = new CountDownLatch(1);
+        doAnswer(inv -> {
+            blockFlusher.await();
+            saved.addAll(inv.getArgument(0));
+            return inv.getArgument(0);
+        }).when(repository).saveAll(anyList());
+
+        pipeline = newPipeline(4, 1, 10, TickOverflowPolicy.DROP_OLDEST);
+        pipeline.enqueue(tick(0));
+        // Give the flusher time to take tick 0 and park inside saveAll.
+        Thread.sleep(100);
+        for (int i = 1; i <= 10; i++) {
+            pipeline.enqueue(tick(i));
+        }
+
+        assertThat(pipeline.getQueueDepth()).isEqualTo(4);
+        assertThat(meterRegistry.counter("apex.ticks.dropped").count()).isEqualTo(6.0);
+        blockFlusher.countDown();
+    }
+
+    private TickIngestionPipeline newPipeline(int capacity, int batchSize, long flushIntervalMs,
+            TickOverflowPolicy policy) {
+        TickIngestionPipeline p = new TickIngestionPipeline(repository, meterRegistry);
+        ReflectionTestUtils.setField(p, "capacity", capacity);
+        ReflectionTestUtils.setField(p, "batchSize", batchSize);
+        ReflectionTestUtils.setField(p, "flushIntervalMs", flushIntervalMs);
+        ReflectionTestUtils.setField(p, "overflowPolicy", policy);
+        ReflectionTestUtils.setField(p, "spillDirectory", spillDir.toString());
+        p.start();
+        return p;
+    }
+
+    private static MarketTick tick(int i) {
+        return new MarketTick("BTCUSDT", BigDecimal.valueOf(60_000 + i), LocalDateTime.now());
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.Apex.market;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TradeFrameParserTest {
+
+    private final TradeFrameParser parser = new TradeFrameParser();
+    private final TradeFrame frame = new TradeFrame();
+
+    @Test
+    void parsesCombinedStreamTradeFrame() {
+        ByteBuf buf = buffer("{\"stream\":\"btcusdt@trade\",\"data\":{\"e\":\"trade\",\"E\":1718000000100,"
+                + "\"s\":\"BTCUSDT\",\"t\":3611000001,\"p\":\"67234.50000000\",\"q\":\"0.00120000\","
+                + "\"T\":1718000000099,\"m\":true,\"M\":true}}");
+        int readerIndex = buf.readerIndex();
+
+        assertThat(parser.parse(buf, frame)).isTrue();
+        assertThat(frame.getSymbol()).isEqualTo("BTCUSDT");
+        assertThat(frame.getEventTime()).isEqualTo(1718000000100L);
+        assertThat(frame.getTradeId()).isEqualTo(3611000001L);
+        assertThat(frame.getPriceE8()).isEqualTo(6_723_450_000_000L);
+        assertThat(frame.getQuantityE8()).isEqualTo(120_000L);
+        assertThat(buf.readerIndex()).isEqualTo(readerIndex);
+    }
+
+    @Test
+    void parsesRawStreamFrameWithWhitespaceAndShortDecimals() {
+        ByteBuf buf = buffer("{ \"e\": \"trade\", \"E\": 1672515782136, \"s\": \"ETHUSDT\", \"t\": 7,"
+                + " \"p\": \"3512.1\", \"q\": \"2\" }");
+
+        assertThat(parser.parse(buf, frame)).isTrue();
+        assertThat(frame.getPriceE8()).isEqualTo(351_210_000_000L);
+        assertThat(frame.getQuantityE8()).isEqualTo(2 * FixedPoint.ONE);
+    }
+
+    @Test
+    void ignoresSubscriptionAcknowledgementsAndOtherEvents() {
+        assertThat(parser.parse(buffer("{\"result\":null,\"id\":1}"), frame)).isFalse();
+        assertThat(parser.parse(buffer("{\"stream\":\"btcusdt@aggTrade\",\"data\":{\"e\":\"aggTrade\","
+                + "\"E\":1,\"s\":\"BTCUSDT\",\"p\":\"1.0\"}}"), frame)).isFalse();
+    }
+
+    @Test
+    void reusesSymbolInstancesAcrossFrames() {
+        parser.parse(buffer("{\"e\":\"trade\",\"E\":1,\"s\":\"BTCUSDT\",\"p\":\"1\"}"), frame);
+        String first = frame.getSymbol();
+        parser.parse(buffer("{\"e\":\"trade\",\"E\":2,\"s\":\"BTCUSDT\",\"p\":\"2\"}"), frame);
+
+        assertThat(frame.getSymbol()).isSameAs(first);
+    }
+
+    private static ByteBuf buffer(String json) {
+        return Unpooled.wrappedBuffer(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.Apex.matching;
+
+import com.example.Apex.market.FixedPoint;
+import com.example.Apex.model.Order;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderBookTest {
+
+    private final List<long[]> fills = new ArrayList<>();
+    private final OrderBook book = new OrderBook("BTCUSDT",
+            (symbol, taker, maker, takerBuy, price, quantity, takerRemaining, makerRemaining) -> fills
+                    .add(new long[] { taker, maker, price, quantity }));
+
+    @Test
+    void matchesBestPriceFirstThenTimePriority() {
+        book.submitLimit(1, Order.Side.SELL, px(101), qty(1));
+        book.submitLimit(2, Order.Side.SELL, px(100), qty(1));
+        book.submitLimit(3, Order.Side.SELL, px(100), qty(1));
+
+        long filled = book.submitLimit(4, Order.Side.BUY, px(101), qty(2.5));
+
+        assertThat(filled).isEqualTo(qty(2.5));
+        assertThat(fills).extracting(f -> f[1]).containsExactly(2L, 3L, 1L);
+        assertThat(fills.get(2)[3]).isEqualTo(qty(0.5));
+        assertThat(book.remaining(1)).isEqualTo(qty(0.5));
+        assertThat(book.bestAsk()).isEqualTo(px(101));
+        assertThat(book.lastTradePrice()).isEqualTo(px(101));
+        assertThat(book.lastFilledNotional()).isEqualTo(100 + 100 + 50.5);
+    }
+
+    @Test
+    void restsTheUnfilledRemainderOfALimitOrder() {
+        book.submitLimit(1, Order.Side.SELL, px(100), qty(1));
+
+        book.submitLimit(2, Order.Side.BUY, px(100), qty(3));
+
+        assertThat(book.bestAsk()).isEqualTo(OrderBook.NO_PRICE);
+        assertThat(book.bestBid()).isEqualTo(px(100));
+        assertThat(book.quantityAt(Order.Side.BUY, px(100))).isEqualTo(qty(2));
+        assertThat(book.restingOrders()).isEqualTo(1);
+    }
+
+    @Test
+    void cancelRemovesTheOrderAndEmptyLevels() {
+        book.submitLimit(1, Order.Side.BUY, px(99), qty(1));
+        book.submitLimit(2, Order.Side.BUY, px(98), qty(1));
+
+        assertThat(book.cancel(1)).isTrue();
+        assertThat(book.cancel(1)).isFalse();
+        assertThat(book.bestBid()).isEqualTo(px(98));
+        assertThat(book.depth(Order.Side.BUY)).isEqualTo(1);
+        assertThatThrownBy(() -> book.submitLimit(2, Order.Side.BUY, px(97), qty(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void marketOrdersNeverRest() {
+        book.submitLimit(1, Order.Side.BUY, px(99), qty(1));
+
+        assertThat(book.submitMarket(2, Order.Side.SELL, qty(3))).isEqualTo(qty(1));
+        assertThat(book.restingOrders()).isZero();
+        assertThat(book.bestAsk()).isEqualTo(OrderBook.NO_PRICE);
+    }
+
+    @Test
+    void fillOrKillLeavesTheBookUntouchedWhenLiquidityIsShort() {
+        book.submitLimit(1, Order.Side.SELL, px(100), qty(1));
+        book.submitLimit(2, Order.Side.SELL, px(101), qty(1));
+
+        assertThat(book.submitMarketFillOrKill(3, Order.Side.BUY, qty(3))).isZero();
+        assertThat(fills).isEmpty();
+        assertThat(book.restingOrders()).isEqualTo(2);
+
+        assertThat(book.submitMarketFillOrKill(4, Order.Side.BUY, qty(2))).isEqualTo(qty(2));
+        assertThat(book.restingOrders()).isZero();
+    }
+
+    @Test
+    void boundedFillOrKillIgnoresLiquidityBeyondItsLimit() {
+        book.submitLimit(1, Order.Side.SELL, px(100), qty(1));
+        book.submitLimit(2, Order.Side.SELL, px(102), qty(1));
+
+        assertThat(book.submitFillOrKill(3, Order.Side.BUY, px(101), qty(2))).isZero();
+        assertThat(fills).isEmpty();
+        assertThat(book.restingOrders()).isEqualTo(2);
+
+        assertThat(book.submitFillOrKill(4, Order.Side.BUY, px(102), qty(2))).isEqualTo(qty(2));
+        assertThat(book.restingOrders()).isZero();
+    }
+
+    @Test
+    void keepsPriceLevelsSortedAcrossManyInserts() {
+        for (int i = 0; i < 200; i++) {
+            book.submitLimit(i + 1, Order.Side.BUY, px(1000 - (i * 37) % 200), qty(1));
+        }
+
+        for (int i = 1; i < book.depth(Order.Side.BUY); i++) {
+            assertThat(book.priceAt(Order.Side.BUY, i)).isLessThan(book.priceAt(Order.Side.BUY, i - 1));
+        }
+        assertThat(book.bestBid()).isEqualTo(px(1000));
+    }
+
+    private static long px(double price) {
+        return Math.round(price * FixedPoint.ONE);
+    }
+
+    private static long qty(double quantity) {
+        return Math.round(quantity * FixedPoint.ONE);
+    }
+}
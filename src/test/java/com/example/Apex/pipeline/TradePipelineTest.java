@@ -0,0 +1,216 @@
+package com.example.Apex.pipeline;
+
+import com.example.Apex.client.AIClient;
+import com.example.Apex.exception.StageTimeoutException;
+import com.example.Apex.execution.OrderStateMachine;
+import com.example.Apex.model.Order;
+import com.example.Apex.repo.OrderRepository;
+import com.example.Apex.wallet.Reservation;
+import com.example.Apex.wallet.WalletStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TradePipelineTest {
+
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final OrderStateMachine orderStateMachine = mock(OrderStateMachine.class);
+    private final WalletStore walletStore = mock(WalletStore.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<String> ran = new ArrayList<>();
+    private TradePipeline pipeline;
+
+    @AfterEach
+    void tearDown() {
+        pipeline.shutdown();
+    }
+
+    @Test
+    void runsTheStagesOfAConcurrentPhaseInParallel() {
+        // Each fetch stage waits for the other: this only completes if they overlap.
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        Consumer<TradeContext> rendezvous = context -> {
+            bothStarted.countDown();
+            try {
+                assertThat(bothStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        };
+        pipeline = pipeline(
+                stage("price", TradePhase.FETCH, rendezvous.andThen(c -> c.setPrice(BigDecimal.TEN))),
+                stage("user", TradePhase.FETCH, rendezvous),
+                stage("risk", TradePhase.RISK, c -> ran.add("risk at " + c.getPrice())));
+
+        TradeContext context = context();
+        pipeline.run(context, TradePhase.FETCH, TradePhase.SETTLE);
+
+        assertThat(ran).containsExactly("risk at 10");
+        assertThat(context.getStageNanos()).containsKeys("price", "user", "risk");
+        assertThat(meterRegistry.get("apex.pipeline.stage").tag("stage", "user").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("apex.pipeline.phase").tag("phase", "FETCH").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void stopsAfterThePhaseThatHaltsAndSkipsStagesThatDoNotApply() {
+        pipeline = pipeline(
+                stage("signal", TradePhase.SIGNAL, c -> {
+                    ran.add("signal");
+                    c.halt("Strategy decision: HOLD", "flat");
+                }),
+                new RecordingStage("sentiment", TradePhase.FETCH, c -> ran.add("sentiment")) {
+                    @Override
+                    public boolean appliesTo(TradeContext context) {
+                        return context.isStrategyTrade();
+                    }
+                },
+                stage("risk", TradePhase.RISK, c -> ran.add("risk")));
+
+        TradeContext context = context();
+        pipeline.run(context, TradePhase.FETCH, TradePhase.SETTLE);
+
+        assertThat(ran).containsExactly("signal");
+        assertThat(context.getHaltMessage()).isEqualTo("Strategy decision: HOLD");
+    }
+
+    @Test
+    void failingStageRejectsTheOrderAndReleasesItsReservation() {
+        Reservation reservation = mock(Reservation.class);
+        when(orderRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+        pipeline = pipeline(
+                stage("reserve", TradePhase.RESERVE, c -> c.setReservation(reservation)),
+                stage("execute", TradePhase.EXECUTE, c -> {
+                    throw new IllegalStateException("Insufficient liquidity");
+                }),
+                stage("settle", TradePhase.SETTLE, c -> ran.add("settle")));
+        TradeContext context = context();
+
+        Order order = pipeline.process(context, TradePhase.RISK);
+
+        assertThat(ran).isEmpty();
+        assertThat(order.getRejectionReason()).isEqualTo("Insufficient liquidity");
+        verify(walletStore).release(reservation);
+        verify(orderStateMachine).transition(order, Order.OrderStatus.REJECTED);
+    }
+
+    @Test
+    void concurrentFailureIsRethrownAsItself() {
+        pipeline = pipeline(
+                stage("price", TradePhase.FETCH, c -> c.setPrice(BigDecimal.ONE)),
+                stage("user", TradePhase.FETCH, c -> {
+                    throw new IllegalArgumentException("User not found: 1");
+                }));
+
+        assertThatThrownBy(() -> pipeline.run(context(), TradePhase.FETCH, TradePhase.FETCH))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("User not found: 1");
+    }
+
+    @Test
+    void slowStageFailsWithATimeoutUnlessItRecovers() {
+        CountDownLatch never = new CountDownLatch(1);
+        Consumer<TradeContext> hang = c -> {
+            try {
+                never.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        pipeline = pipeline(
+                stage("price", TradePhase.FETCH, c -> c.setPrice(BigDecimal.ONE)),
+                new RecordingStage("sentiment", TradePhase.FETCH, hang) {
+                    @Override
+                    public long timeoutMs() {
+                        return 50;
+                    }
+
+                    @Override
+                    public boolean recover(TradeContext context, RuntimeException failure) {
+                        context.setSentiment(AIClient.Sentiment.NEUTRAL);
+                        return failure instanceof StageTimeoutException;
+                    }
+                });
+
+        TradeContext context = context();
+        pipeline.run(context, TradePhase.FETCH, TradePhase.FETCH);
+
+        assertThat(context.getSentiment()).isEqualTo(AIClient.Sentiment.NEUTRAL);
+        assertThat(context.getDegradedStages()).containsExactly("sentiment");
+        assertThat(context.getPrice()).isEqualTo(BigDecimal.ONE);
+
+        pipeline.shutdown();
+        pipeline = pipeline(new RecordingStage("user", TradePhase.FETCH, hang) {
+            @Override
+            public long timeoutMs() {
+                return 50;
+            }
+        });
+        assertThatThrownBy(() -> pipeline.run(context(), TradePhase.FETCH, TradePhase.FETCH))
+                .isInstanceOf(StageTimeoutException.class)
+                .hasMessage("user timed out after 50 ms");
+        never.countDown();
+    }
+
+    private TradePipeline pipeline(TradeStage... stages) {
+        return new TradePipeline(List.of(stages), orderRepository, orderStateMachine, walletStore, meterRegistry,
+                new MockEnvironment(), 2);
+    }
+
+    private static TradeContext context() {
+        return TradeContext.forOrder(Order.builder()
+                .id(1L)
+                .userId(1L)
+                .symbol("BTCUSDT")
+                .side(Order.Side.BUY)
+                .quantity(1)
+                .type(Order.OrderType.MARKET)
+                .status(Order.OrderStatus.PENDING_VALIDATION)
+                .build());
+    }
+
+    private static TradeStage stage(String name, TradePhase phase, Consumer<TradeContext> action) {
+        return new RecordingStage(name, phase, action);
+    }
+
+    private static class RecordingStage implements TradeStage {
+        private final String name;
+        private final TradePhase phase;
+        private final Consumer<TradeContext> action;
+
+        RecordingStage(String name, TradePhase phase, Consumer<TradeContext> action) {
+            this.name = name;
+            this.phase = phase;
+            this.action = action;
+        }
+
+        @Override
+        public TradePhase phase() {
+            return phase;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public void apply(TradeContext context) {
+            action.accept(context);
+        }
+    }
+}
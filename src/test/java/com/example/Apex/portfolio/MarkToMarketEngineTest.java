@@ -0,0 +1,105 @@
+package com.example.Apex.portfolio;
+
+import com.example.Apex.market.FixedPoint;
+import com.example.Apex.market.LatestPriceCache;
+import com.example.Apex.market.MarketTick;
+import com.example.Apex.market.MarketTickRepository;
+import com.example.Apex.model.Holding;
+import com.example.Apex.repo.HoldingRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MarkToMarketEngineTest {
+
+    private final HoldingRepository holdingRepository = mock(HoldingRepository.class);
+    private final MarketTickRepository marketTickRepository = mock(MarketTickRepository.class);
+    private final LatestPriceCache latestPriceCache = new LatestPriceCache();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private MarkToMarketEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        latestPriceCache.update("BTCUSDT", new BigDecimal("100"), 1);
+        when(marketTickRepository.findTopBySymbolOrderByTimestampDesc(anyString())).thenReturn(Optional.empty());
+        when(marketTickRepository.findTopBySymbolOrderByTimestampDesc("ETHUSDT"))
+                .thenReturn(Optional.of(new MarketTick("ETHUSDT", new BigDecimal("10"), LocalDateTime.now())));
+        when(holdingRepository.findAll()).thenReturn(List.of(
+                holding(1L, "BTCUSDT", 2, "90.00"),
+                holding(1L, "ETHUSDT", 10, "12.00"),
+                holding(2L, "BTCUSDT", 1, "110.00")));
+        engine = new MarkToMarketEngine(holdingRepository, latestPriceCache, marketTickRepository, meterRegistry);
+        engine.load();
+        clearInvocations(marketTickRepository);
+    }
+
+    @Test
+    void marksLoadedPositionsAtTheCachedPriceOrLastStoredTick() {
+        MarkToMarketEngine.Valuation valuation = engine.valuation(1L);
+
+        // 2 x 100 + 10 x 10, against a cost of 2 x 90 + 10 x 12
+        assertThat(valuation.holdingsValue()).isEqualByComparingTo("300");
+        assertThat(valuation.unrealizedPnl()).isEqualByComparingTo("0");
+        assertThat(valuation.holdings()).extracting("symbol").containsExactly("BTCUSDT", "ETHUSDT");
+        assertThat(valuation.holdings().get(0).getUnrealizedPnl()).isEqualByComparingTo("20");
+        assertThat(valuation.holdings().get(1).getUnrealizedPnl()).isEqualByComparingTo("-20");
+    }
+
+    @Test
+    void revaluesOnlyTheHoldersOfTheTickedSymbol() {
+        engine.onTrade("BTCUSDT", 2, FixedPoint.fromBigDecimal(new BigDecimal("150")), FixedPoint.ONE);
+        engine.onTrade("SOLUSDT", 2, FixedPoint.fromBigDecimal(new BigDecimal("5")), FixedPoint.ONE);
+
+        assertThat(engine.valuation(1L).holdingsValue()).isEqualByComparingTo("400");
+        assertThat(engine.valuation(2L).holdingsValue()).isEqualByComparingTo("150");
+        assertThat(engine.valuation(2L).unrealizedPnl()).isEqualByComparingTo("40");
+        assertThat(meterRegistry.counter("apex.mtm.revaluations").count()).isEqualTo(2);
+    }
+
+    @Test
+    void followsPositionChangesAndStopsRevaluingClosedOnes() {
+        engine.onTrade("SOLUSDT", 1, FixedPoint.fromBigDecimal(new BigDecimal("5")), FixedPoint.ONE);
+        engine.update(2L, "BTCUSDT", 0, new BigDecimal("110.00"));
+        engine.update(2L, "SOLUSDT", 4, new BigDecimal("5.00"));
+        engine.onTrade("BTCUSDT", 2, FixedPoint.fromBigDecimal(new BigDecimal("150")), FixedPoint.ONE);
+        engine.onTrade("SOLUSDT", 2, FixedPoint.fromBigDecimal(new BigDecimal("6")), FixedPoint.ONE);
+
+        MarkToMarketEngine.Valuation valuation = engine.valuation(2L);
+        assertThat(valuation.holdings()).extracting("symbol").containsExactly("SOLUSDT");
+        assertThat(valuation.holdingsValue()).isEqualByComparingTo("24");
+        assertThat(valuation.unrealizedPnl()).isEqualByComparingTo("4");
+        assertThat(engine.valuation(3L).holdings()).isEmpty();
+        verify(marketTickRepository, never()).findTopBySymbolOrderByTimestampDesc(anyString());
+    }
+
+    @Test
+    void marksANewSymbolWithoutAPriceAtCost() {
+        engine.update(3L, "ADAUSDT", 10, new BigDecimal("2.00"));
+
+        assertThat(engine.valuation(3L).holdingsValue()).isEqualByComparingTo("20");
+        assertThat(engine.valuation(3L).unrealizedPnl()).isEqualByComparingTo("0");
+        verify(marketTickRepository, never()).findTopBySymbolOrderByTimestampDesc(anyString());
+    }
+
+    private static Holding holding(Long userId, String symbol, int quantity, String averagePrice) {
+        return Holding.builder()
+                .userId(userId)
+                .symbol(symbol)
+                .quantity(quantity)
+                .averagePrice(new BigDecimal(averagePrice))
+                .build();
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.Apex.risk;
+
+import com.example.Apex.model.Order;
+import com.example.Apex.portfolio.MarkToMarketEngine;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RiskRuleEngineTest {
+
+    private final RiskState riskState = mock(RiskState.class);
+    private final MarkToMarketEngine markToMarketEngine = mock(MarkToMarketEngine.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RiskRuleEngine engine = new RiskRuleEngine(riskState, markToMarketEngine, meterRegistry,
+            new ObjectMapper(), new DefaultResourceLoader(), "classpath:risk-rules.json");
+
+    @BeforeEach
+    void setUp() {
+        when(riskState.exposure(anyLong())).thenReturn(BigDecimal.ZERO);
+        engine.load();
+    }
+
+    @Test
+    void defaultRulesKeepTheFormerFixedLimits() {
+        assertThat(check(1L, "BTCUSDT", 50, "100")).isNull();
+        assertThat(check(1L, "BTCUSDT", 51, "100")).startsWith("Risk Rejection: Order value 5100");
+
+        assertThat(engine.check(RiskRuleEngine.Scope.ACCOUNT, RiskCheck.account(1L, money("1000"), money("950"), 1)))
+                .contains("minimum balance requirement of 100.00");
+        when(riskState.ordersToday(1L)).thenReturn(50);
+        assertThat(engine.check(RiskRuleEngine.Scope.ACCOUNT, RiskCheck.account(1L, money("1000"), money("10"), 1)))
+                .isEqualTo("Daily trade limit of 50 exceeded. Current count: 50");
+    }
+
+    @Test
+    void appliesTheUsersTierAndTheStricterSymbolLimit() {
+        engine.replace(new RiskRuleSet("standard",
+                Map.of("standard", limits(money("5000"), null, null),
+                        "pro", limits(money("50000"), 3, 10)),
+                Map.of(7L, "pro"),
+                Map.of("DOGEUSDT", limits(money("1000"), null, null))));
+
+        assertThat(check(7L, "BTCUSDT", 6, "1000")).isNull();
+        assertThat(check(1L, "BTCUSDT", 6, "1000")).contains("exceeds limit 5000");
+        assertThat(check(7L, "DOGEUSDT", 20, "100")).contains("exceeds limit 1000");
+
+        when(riskState.openOrders(7L, "BTCUSDT")).thenReturn(3);
+        assertThat(check(7L, "BTCUSDT", 1, "100")).contains("Open order limit of 3");
+        when(riskState.openOrders(7L, "BTCUSDT")).thenReturn(0);
+        when(markToMarketEngine.quantity(7L, "BTCUSDT")).thenReturn(9);
+        assertThat(check(7L, "BTCUSDT", 2, "100")).contains("Position in BTCUSDT would exceed 10");
+        assertThat(engine.check(RiskRuleEngine.Scope.ORDER,
+                RiskCheck.order(7L, "BTCUSDT", Order.Side.SELL, 2, money("100")))).isNull();
+    }
+
+    @Test
+    void runsCheapRulesFirstAndStopsAtTheFirstViolation() {
+        engine.replace(new RiskRuleSet("standard",
+                Map.of("standard", limits(money("5000"), 3, 10)), Map.of(), Map.of()));
+
+        assertThat(engine.chains()).extracting(RiskRuleEngine.RuleView::rule)
+                .containsExactly("order-value", "open-orders", "position");
+        assertThat(check(1L, "BTCUSDT", 100, "100")).contains("Order value");
+        verify(riskState, never()).openOrders(1L, "BTCUSDT");
+        verify(markToMarketEngine, never()).quantity(1L, "BTCUSDT");
+        assertThat(meterRegistry.counter("apex.risk.rule.rejections", "rule", "order-value", "tier", "standard")
+                .count()).isEqualTo(1);
+        assertThat(meterRegistry.timer("apex.risk.rule.latency", "rule", "order-value", "tier", "standard")
+                .count()).isEqualTo(1);
+    }
+
+    @Test
+    void keepsTheCurrentRulesWhenNewOnesAreInvalid() {
+        RiskRuleSet broken = new RiskRuleSet("gold", Map.of("standard", limits(null, null, null)), null, null);
+
+        assertThatThrownBy(() -> engine.replace(broken)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(engine.current().defaultTier()).isEqualTo("standard");
+        assertThat(check(1L, "BTCUSDT", 51, "100")).contains("exceeds limit 5000");
+    }
+
+    private String check(Long userId, String symbol, int quantity, String price) {
+        return engine.check(RiskRuleEngine.Scope.ORDER,
+                RiskCheck.order(userId, symbol, Order.Side.BUY, quantity, money(price)));
+    }
+
+    private static RiskLimits limits(BigDecimal maxOrderValue, Integer maxOpenOrders, Integer maxPosition) {
+        return new RiskLimits(maxOrderValue, null, maxOpenOrders, null, maxPosition, null, null);
+    }
+
+    private static BigDecimal money(String value) {
+        return new BigDecimal(value);
+    }
+}
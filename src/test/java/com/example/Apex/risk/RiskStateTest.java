@@ -0,0 +1,121 @@
+package com.example.Apex.risk;
+
+import com.example.Apex.execution.OrderStatusEvent;
+import com.example.Apex.model.Order;
+import com.example.Apex.model.Order.OrderStatus;
+import com.example.Apex.repo.OrderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RiskStateTest {
+
+    private static final LocalDateTime MORNING = LocalDateTime.of(2024, 6, 10, 9, 0);
+
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final MutableClock clock = new MutableClock(MORNING.toInstant(ZoneOffset.UTC));
+    private RiskState riskState;
+
+    @BeforeEach
+    void setUp() {
+        when(orderRepository.countOrdersPerUserSince(MORNING.toLocalDate().atStartOfDay()))
+                .thenReturn(List.<Object[]>of(new Object[] { 1L, 3L }));
+        when(orderRepository.findByStatusIn(any())).thenReturn(List.of(Order.builder()
+                .id(10L)
+                .userId(1L)
+                .symbol("BTCUSDT")
+                .quantity(4)
+                .filledQuantity(1)
+                .price(new BigDecimal("100"))
+                .status(OrderStatus.WORKING)
+                .build()));
+        riskState = new RiskState(orderRepository, new SimpleMeterRegistry(), clock);
+        riskState.load();
+    }
+
+    @Test
+    void countsPlacedOrdersAndResetsThemAtMidnight() {
+        assertThat(riskState.ordersToday(1L)).isEqualTo(3);
+
+        riskState.onOrderStatus(event(11L, 1L, "ETHUSDT", OrderStatus.PENDING_VALIDATION, OrderStatus.VALIDATED));
+        riskState.onOrderStatus(event(11L, 1L, "ETHUSDT", OrderStatus.VALIDATED, OrderStatus.FILLED));
+        riskState.onOrderStatus(event(12L, 1L, "ETHUSDT", OrderStatus.PENDING_VALIDATION, OrderStatus.REJECTED));
+        assertThat(riskState.ordersToday(1L)).isEqualTo(5);
+        assertThat(riskState.ordersToday(2L)).isZero();
+
+        clock.instant = MORNING.plusDays(1).toInstant(ZoneOffset.UTC);
+        assertThat(riskState.ordersToday(1L)).isZero();
+        riskState.onOrderStatus(event(13L, 1L, "ETHUSDT", OrderStatus.PENDING_VALIDATION, OrderStatus.VALIDATED));
+        assertThat(riskState.ordersToday(1L)).isEqualTo(1);
+    }
+
+    @Test
+    void tracksOpenOrdersAndTheirRemainingNotional() {
+        // The loaded working order: 3 of 4 left at 100
+        assertThat(riskState.openOrders(1L, "BTCUSDT")).isEqualTo(1);
+        assertThat(riskState.exposure(1L)).isEqualByComparingTo("300");
+
+        riskState.onOrderStatus(event(11L, 1L, "BTCUSDT", OrderStatus.VALIDATED, OrderStatus.WORKING));
+        assertThat(riskState.openOrders(1L, "BTCUSDT")).isEqualTo(2);
+        assertThat(riskState.exposure(1L)).isEqualByComparingTo("500");
+
+        riskState.onOrderStatus(event(10L, 1L, "BTCUSDT", OrderStatus.WORKING, OrderStatus.CANCELLED));
+        assertThat(riskState.openOrders(1L, "BTCUSDT")).isEqualTo(1);
+        assertThat(riskState.exposure(1L)).isEqualByComparingTo("200");
+    }
+
+    @Test
+    void letsOneOrderPerSymbolThroughValidationAtATime() {
+        assertThat(riskState.claimValidation(1L, "BTCUSDT", 20L)).isTrue();
+        assertThat(riskState.claimValidation(1L, "BTCUSDT", 20L)).isTrue();
+        assertThat(riskState.claimValidation(1L, "BTCUSDT", 21L)).isFalse();
+        assertThat(riskState.claimValidation(1L, "ETHUSDT", 21L)).isTrue();
+        assertThat(riskState.claimValidation(2L, "BTCUSDT", 22L)).isTrue();
+
+        riskState.onOrderStatus(event(20L, 1L, "BTCUSDT", OrderStatus.PENDING_VALIDATION, OrderStatus.VALIDATED));
+        assertThat(riskState.claimValidation(1L, "BTCUSDT", 21L)).isTrue();
+    }
+
+    private static OrderStatusEvent event(Long orderId, Long userId, String symbol, OrderStatus previous,
+            OrderStatus status) {
+        return new OrderStatusEvent(orderId, userId, symbol, Order.Side.BUY, Order.OrderType.LIMIT, 2, 0, previous,
+                status, new BigDecimal("100"), null, null, LocalDateTime.now());
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
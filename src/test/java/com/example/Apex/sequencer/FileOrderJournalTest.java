@@ -0,0 +1,85 @@
+package com.example.Apex.sequencer;
+
+import com.example.Apex.model.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileOrderJournalTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void replaysAppendedRecordsAfterReopening() throws IOException {
+        try (FileOrderJournal journal = new FileOrderJournal(dir, false, Long.MAX_VALUE)) {
+            assertThat(journal.append(record("k1", Order.OrderStatus.FILLED)).sequence()).isEqualTo(1);
+            assertThat(journal.append(record("k2", Order.OrderStatus.REJECTED)).sequence()).isEqualTo(2);
+            journal.flush();
+        }
+
+        try (FileOrderJournal journal = new FileOrderJournal(dir, false, Long.MAX_VALUE)) {
+            List<JournalRecord> replayed = new ArrayList<>();
+            assertThat(journal.replay(0, replayed::add)).isEqualTo(2);
+
+            assertThat(replayed).extracting(JournalRecord::idempotencyKey).containsExactly("k1", "k2");
+            assertThat(replayed.get(0)).isEqualTo(record("k1", Order.OrderStatus.FILLED).withSequence(1));
+            assertThat(replayed.get(1).reason()).isEqualTo("reason");
+            assertThat(journal.append(record("k3", Order.OrderStatus.FILLED)).sequence()).isEqualTo(3);
+        }
+    }
+
+    @Test
+    void skipsCheckpointedRecordsAndKeepsSequencesAcrossRolls() throws IOException {
+        try (FileOrderJournal journal = new FileOrderJournal(dir, false, 0)) {
+            journal.append(record("k1", Order.OrderStatus.FILLED));
+            journal.append(record("k2", Order.OrderStatus.FILLED));
+            journal.flush();
+            journal.checkpoint(2);
+            journal.append(record("k3", Order.OrderStatus.FILLED));
+            journal.flush();
+        }
+
+        try (FileOrderJournal journal = new FileOrderJournal(dir, false, 0)) {
+            List<JournalRecord> replayed = new ArrayList<>();
+            journal.replay(journal.lastCheckpoint(), replayed::add);
+
+            assertThat(journal.lastCheckpoint()).isEqualTo(2);
+            assertThat(replayed).extracting(JournalRecord::sequence).containsExactly(3L);
+        }
+    }
+
+    @Test
+    void discardsATornRecordAtTheTail() throws IOException {
+        try (FileOrderJournal journal = new FileOrderJournal(dir, false, Long.MAX_VALUE)) {
+            journal.append(record("k1", Order.OrderStatus.FILLED));
+            journal.append(record("k2", Order.OrderStatus.FILLED));
+            journal.flush();
+        }
+        Path file = dir.resolve(FileOrderJournal.JOURNAL_FILE);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        try (FileOrderJournal journal = new FileOrderJournal(dir, false, Long.MAX_VALUE)) {
+            List<JournalRecord> replayed = new ArrayList<>();
+            journal.replay(0, replayed::add);
+
+            assertThat(replayed).extracting(JournalRecord::idempotencyKey).containsExactly("k1");
+            assertThat(journal.append(record("k2", Order.OrderStatus.FILLED)).sequence()).isEqualTo(2);
+        }
+    }
+
+    private static JournalRecord record(String key, Order.OrderStatus status) {
+        return new JournalRecord(0, 1_700_000_000_000L, 7, "BTCUSDT", Order.Side.BUY, 3, 4_200_000_000_000L, key,
+                status, status == Order.OrderStatus.FILLED ? null : "reason");
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.Apex.sequencer;
+
+import com.example.Apex.model.Order;
+import com.example.Apex.model.TransactionLedger;
+import com.example.Apex.model.TransactionType;
+import com.example.Apex.model.Wallet;
+import com.example.Apex.repo.OrderRepository;
+import com.example.Apex.repo.TransactionLedgerRepository;
+import com.example.Apex.repo.WalletRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JournalReplayToolTest {
+
+    private static final long PRICE_100 = 100_0000_0000L;
+
+    private final TransactionLedgerRepository ledger = mock(TransactionLedgerRepository.class);
+    private final WalletRepository wallets = mock(WalletRepository.class);
+    private final OrderRepository orders = mock(OrderRepository.class);
+    private final JournalState state = new JournalState();
+
+    @Test
+    void passesWhenLedgerAndWalletAddUpToTheJournal() {
+        state.apply(fill(1, "a", Order.Side.BUY, 4));
+        state.apply(fill(2, "b", Order.Side.SELL, 1));
+        when(ledger.findByUserId(1L)).thenReturn(List.of(
+                entry("1000", TransactionType.DEPOSIT, null),
+                entry("-400", TransactionType.TRADE_BUY, "a"),
+                entry("100", TransactionType.TRADE_SELL, "b"),
+                entry("-50", TransactionType.TRADE_BUY, null)));
+        when(wallets.findByUserId(1L)).thenReturn(Optional.of(new Wallet(1L, new BigDecimal("650"))));
+
+        assertThat(JournalReplayTool.verifyWallets(state, ledger, wallets, orders)).isEmpty();
+    }
+
+    @Test
+    void reportsAWalletThatDriftedFromItsLedger() {
+        state.apply(fill(1, "a", Order.Side.BUY, 4));
+        when(ledger.findByUserId(1L)).thenReturn(List.of(
+                entry("1000", TransactionType.DEPOSIT, null),
+                entry("-400", TransactionType.TRADE_BUY, "a")));
+        when(wallets.findByUserId(1L)).thenReturn(Optional.of(new Wallet(1L, new BigDecimal("200"))));
+
+        assertThat(JournalReplayTool.verifyWallets(state, ledger, wallets, orders))
+                .containsExactly("user 1: wallet 200, ledger 600.0000");
+    }
+
+    @Test
+    void reportsFillsTheLedgerDisagreesWithAndMovementsWithoutAnOrder() {
+        state.apply(fill(1, "a", Order.Side.BUY, 4));
+        state.apply(fill(2, "b", Order.Side.BUY, 1));
+        when(ledger.findByUserId(1L)).thenReturn(List.of(
+                entry("-300", TransactionType.TRADE_BUY, "a"),
+                // Lane crashed after debiting "c", before its journal flush.
+                entry("-200", TransactionType.TRADE_BUY, "c"),
+                // Flush of "d" failed and the debit was reversed.
+                entry("-100", TransactionType.TRADE_BUY, "d"),
+                entry("100", TransactionType.TRADE_BUY, "d")));
+        when(orders.findByIdempotencyKey(anyString())).thenReturn(Optional.empty());
+
+        assertThat(JournalReplayTool.verifyWallets(state, ledger, wallets, orders)).containsExactly(
+                "seq 1 key a: journal moves -400.0000, ledger -300.0000",
+                "seq 2 key b: journal moves -100.0000, ledger 0.0000",
+                "user 1 key c: ledger moves -200.0000 without an order");
+    }
+
+    @Test
+    void reportsJournaledOrdersMissingFromTheDatabase() {
+        state.apply(fill(1, "a", Order.Side.BUY, 4));
+        when(orders.findByIdempotencyKey("a")).thenReturn(Optional.empty());
+
+        assertThat(JournalReplayTool.verify(state, orders)).containsExactly("seq 1 key a: missing");
+    }
+
+    private static JournalRecord fill(long sequence, String key, Order.Side side, int quantity) {
+        return new JournalRecord(sequence, sequence, 1L, "BTCUSDT", side, quantity, PRICE_100, key,
+                Order.OrderStatus.FILLED, null);
+    }
+
+    private static TransactionLedger entry(String amount, TransactionType type, String reference) {
+        return TransactionLedger.builder().userId(1L).amount(new BigDecimal(amount)).type(type)
+                .reference(reference).build();
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.Apex.sequencer;
+
+import com.example.Apex.model.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MappedOrderJournalTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void groupCommitsConcurrentFlushesAndReplaysAfterReopening() throws Exception {
+        ExecutorService lanes = Executors.newFixedThreadPool(4);
+        try (MappedOrderJournal journal = new MappedOrderJournal(dir, 1 << 20, true)) {
+            List<Future<?>> done = new ArrayList<>();
+            for (int lane = 0; lane < 4; lane++) {
+                int id = lane;
+                done.add(lanes.submit(() -> {
+                    for (int i = 0; i < 50; i++) {
+                        try {
+                            journal.append(record("k" + id + "-" + i, Order.OrderStatus.FILLED));
+                            journal.flush();
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> f : done) {
+                f.get();
+            }
+        } finally {
+            lanes.shutdown();
+        }
+
+        try (MappedOrderJournal journal = new MappedOrderJournal(dir, 1 << 20, true)) {
+            List<JournalRecord> replayed = new ArrayList<>();
+            assertThat(journal.replay(0, replayed::add)).isEqualTo(200);
+            assertThat(replayed).extracting(JournalRecord::sequence)
+                    .containsExactlyElementsOf(Stream.iterate(1L, s -> s + 1).limit(200).toList());
+            assertThat(journal.append(record("next", Order.OrderStatus.FILLED)).sequence()).isEqualTo(201);
+        }
+    }
+
+    @Test
+    void rollsSegmentsAndDeletesThemOnceCheckpointed() throws IOException {
+        try (MappedOrderJournal journal = new MappedOrderJournal(dir, 256, false)) {
+            for (int i = 1; i <= 20; i++) {
+                journal.append(record("k" + i, i % 5 == 0 ? Order.OrderStatus.REJECTED : Order.OrderStatus.FILLED));
+            }
+            journal.flush();
+            assertThat(segmentCount()).isGreaterThan(2);
+
+            journal.checkpoint(18);
+            List<JournalRecord> replayed = new ArrayList<>();
+            journal.replay(journal.lastCheckpoint(), replayed::add);
+            assertThat(replayed).extracting(JournalRecord::sequence).containsExactly(19L, 20L);
+        }
+
+        JournalState state = new JournalState();
+        MappedOrderJournal.readAll(dir, state::apply);
+        assertThat(state.lastSequence()).isEqualTo(20);
+        assertThat(state.records()).isLessThan(20);
+        assertThat(segmentCount()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void stopsAtACorruptFrameAndOverwritesIt() throws IOException {
+        try (MappedOrderJournal journal = new MappedOrderJournal(dir, 4096, false)) {
+            journal.append(record("k1", Order.OrderStatus.FILLED));
+            journal.append(record("k2", Order.OrderStatus.FILLED));
+        }
+        int firstFrame = JournalCodec.encode(record("k1", Order.OrderStatus.FILLED).withSequence(1),
+                ByteBuffer.allocate(512), new CRC32());
+        try (Stream<Path> files = Files.list(dir);
+                FileChannel channel = FileChannel.open(files.filter(f -> f.toString().endsWith(".segment"))
+                        .findFirst().orElseThrow(), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] { 0x7F }), firstFrame + 6);
+        }
+
+        try (MappedOrderJournal journal = new MappedOrderJournal(dir, 4096, false)) {
+            List<JournalRecord> replayed = new ArrayList<>();
+            journal.replay(0, replayed::add);
+
+            assertThat(replayed).extracting(JournalRecord::idempotencyKey).containsExactly("k1");
+            assertThat(journal.append(record("k2", Order.OrderStatus.FILLED)).sequence()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void failsFlushesThatWereNotSyncedBeforeClose() throws Exception {
+        MappedOrderJournal journal = new MappedOrderJournal(dir, 1 << 20, true);
+        journal.append(record("k1", Order.OrderStatus.FILLED));
+        journal.flush();
+        journal.close();
+
+        journal.append(record("k2", Order.OrderStatus.FILLED));
+
+        assertThatThrownBy(journal::flush).isInstanceOf(IOException.class).hasMessageContaining("closed");
+    }
+
+    @Test
+    void foldsFillsIntoCashAndPositions() {
+        JournalState state = new JournalState();
+        state.apply(new JournalRecord(1, 0, 7, "BTCUSDT", Order.Side.BUY, 3, 10_000_000_000L, "a",
+                Order.OrderStatus.FILLED, null));
+        state.apply(new JournalRecord(2, 0, 7, "BTCUSDT", Order.Side.SELL, 1, 12_000_000_000L, "b",
+                Order.OrderStatus.FILLED, null));
+        state.apply(new JournalRecord(3, 0, 7, "ETHUSDT", Order.Side.BUY, 5, 0, "c",
+                Order.OrderStatus.REJECTED, "Stale price"));
+
+        assertThat(state.cashDeltas().get(7L)).isEqualByComparingTo(new BigDecimal("-180"));
+        assertThat(state.positions()).containsExactly(
+                Map.entry(new JournalState.Position(7L, "BTCUSDT"), 2L));
+        assertThat(state.orders()).containsOnlyKeys("a", "b", "c");
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(f -> f.toString().endsWith(".segment")).count();
+        }
+    }
+
+    private static JournalRecord record(String key, Order.OrderStatus status) {
+        return new JournalRecord(0, 1_700_000_000_000L, 7, "BTCUSDT", Order.Side.BUY, 3, 4_200_000_000_000L, key,
+                status, status == Order.OrderStatus.FILLED ? null : "reason");
+    }
+}
@@ -0,0 +1,369 @@
+package com.example.Apex.sequencer;
+
+import com.example.Apex.market.MarketDataService;
+import com.example.Apex.model.Order;
+import com.example.Apex.model.TransactionLedger;
+import com.example.Apex.model.Wallet;
+import com.example.Apex.model.dto.OrderRequest;
+import com.example.Apex.portfolio.MarkToMarketEngine;
+import com.example.Apex.portfolio.PortfolioService;
+import com.example.Apex.repo.OrderRepository;
+import com.example.Apex.repo.TransactionLedgerRepository;
+import com.example.Apex.repo.WalletRepository;
+import com.example.Apex.risk.RiskRuleEngine;
+import com.example.Apex.risk.RiskState;
+import com.example.Apex.service.RiskManagementService;
+import com.example.Apex.wallet.InMemoryWalletStore;
+import com.example.Apex.wallet.Reservation;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OrderSequencerTest {
+
+    @TempDir
+    Path dir;
+
+    private final MarketDataService marketData = mock(MarketDataService.class);
+    private final WalletRepository wallets = mock(WalletRepository.class);
+    private final TransactionLedgerRepository ledger = mock(TransactionLedgerRepository.class);
+    private final OrderRepository orders = mock(OrderRepository.class);
+    private final PortfolioService portfolio = mock(PortfolioService.class);
+    private final SequencedOrderPersister persister = mock(SequencedOrderPersister.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final List<JournalRecord> persisted = new CopyOnWriteArrayList<>();
+    private InMemoryWalletStore walletStore;
+    private OrderSequencer sequencer;
+
+    @BeforeEach
+    void setUp() {
+        AtomicLong ledgerIds = new AtomicLong();
+        when(ledger.save(any())).thenAnswer(inv -> {
+            TransactionLedger entry = inv.getArgument(0);
+            entry.setId(ledgerIds.incrementAndGet());
+            return entry;
+        });
+        when(wallets.addToBalance(anyLong(), any())).thenReturn(1);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        walletStore = new InMemoryWalletStore(wallets, ledger, transactionManager, new SimpleMeterRegistry(),
+                64, 16, 10, 10);
+        ReflectionTestUtils.invokeMethod(walletStore, "start");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (sequencer != null) {
+            sequencer.stop();
+        }
+        ReflectionTestUtils.invokeMethod(walletStore, "stop");
+    }
+
+    @Test
+    void decidesOrdersAgainstTheWalletStoreAndPersistsThemAsync() throws Exception {
+        when(marketData.getTradablePrice("BTCUSDT")).thenReturn(new BigDecimal("100"));
+        when(wallets.findByUserId(1L)).thenReturn(Optional.of(new Wallet(1L, new BigDecimal("1000"))));
+        when(orders.findByIdempotencyKey(anyString())).thenReturn(Optional.empty());
+        when(persister.persist(any(), anyBoolean())).thenAnswer(inv -> {
+            List<JournalRecord> batch = inv.getArgument(0);
+            persisted.addAll(batch);
+            return batch;
+        });
+        sequencer = start();
+
+        Order first = sequencer.submit(buy(1L, 4), "a");
+        Order second = sequencer.submit(buy(1L, 4), "b");
+        Order third = sequencer.submit(buy(1L, 4), "c");
+        Order retried = sequencer.submit(buy(1L, 4), "a");
+
+        assertThat(first.getStatus()).isEqualTo(Order.OrderStatus.FILLED);
+        assertThat(first.getExecutionPrice()).isEqualByComparingTo("100");
+        assertThat(second.getStatus()).isEqualTo(Order.OrderStatus.FILLED);
+        assertThat(third.getStatus()).isEqualTo(Order.OrderStatus.REJECTED);
+        assertThat(third.getRejectionReason()).contains("Insufficient funds");
+        assertThat(retried).isSameAs(first);
+
+        awaitPersisted(3);
+        assertThat(persisted).extracting(JournalRecord::sequence).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void replaysUnpersistedRecordsOnRestart() throws Exception {
+        try (MappedOrderJournal journal = new MappedOrderJournal(dir, 1 << 20, false)) {
+            journal.append(new JournalRecord(0, 1L, 1L, "BTCUSDT", Order.Side.BUY, 1, 100, "a",
+                    Order.OrderStatus.FILLED, null));
+            journal.append(new JournalRecord(0, 2L, 1L, "BTCUSDT", Order.Side.BUY, 1, 100, "b",
+                    Order.OrderStatus.FILLED, null));
+            journal.flush();
+            journal.checkpoint(1);
+        }
+        when(persister.persist(any(), anyBoolean())).thenAnswer(inv -> {
+            List<JournalRecord> batch = inv.getArgument(0);
+            persisted.addAll(batch);
+            return batch;
+        });
+
+        sequencer = start();
+
+        assertThat(persisted).extracting(JournalRecord::idempotencyKey).containsExactly("b");
+    }
+
+    @Test
+    void voidsABatchWhoseFlushFailedAndKeepsCheckpointing() throws Exception {
+        when(marketData.getTradablePrice("BTCUSDT")).thenReturn(new BigDecimal("100"));
+        when(wallets.findByUserId(1L)).thenReturn(Optional.of(new Wallet(1L, new BigDecimal("1000"))));
+        when(orders.findByIdempotencyKey(anyString())).thenReturn(Optional.empty());
+        when(persister.persist(any(), anyBoolean())).thenAnswer(inv -> {
+            List<JournalRecord> batch = inv.getArgument(0);
+            persisted.addAll(batch);
+            return batch;
+        });
+        FailingJournal[] journal = new FailingJournal[1];
+        sequencer = start(delegate -> journal[0] = new FailingJournal(delegate));
+
+        journal[0].failNextFlush.set(true);
+        assertThatThrownBy(() -> sequencer.submit(buy(1L, 10), "a")).isInstanceOf(UncheckedIOException.class);
+        Order retried = sequencer.submit(buy(1L, 10), "a");
+
+        // The rolled-back balance pays for the retry; the failed record and its void are skipped, not written.
+        assertThat(retried.getStatus()).isEqualTo(Order.OrderStatus.FILLED);
+        awaitCheckpoint(journal[0], 3);
+        assertThat(persisted).filteredOn(r -> !r.isAbandoned())
+                .extracting(JournalRecord::sequence).containsExactly(3L);
+
+        List<JournalRecord> onDisk = new ArrayList<>();
+        journal[0].replay(0, onDisk::add);
+        assertThat(OrderSequencer.withoutAbandoned(onDisk)).extracting(JournalRecord::sequence)
+                .containsExactly(3L);
+    }
+
+    @Test
+    void retriesRecordsTheDatabaseRejectedBeforeCheckpointing() throws Exception {
+        when(marketData.getTradablePrice("BTCUSDT")).thenReturn(new BigDecimal("100"));
+        when(wallets.findByUserId(1L)).thenReturn(Optional.of(new Wallet(1L, new BigDecimal("1000"))));
+        when(orders.findByIdempotencyKey(anyString())).thenReturn(Optional.empty());
+        AtomicInteger attempts = new AtomicInteger();
+        when(persister.persist(any(), anyBoolean())).thenAnswer(inv -> {
+            if (attempts.incrementAndGet() <= 2) {
+                return List.of();
+            }
+            List<JournalRecord> batch = inv.getArgument(0);
+            persisted.addAll(batch);
+            return batch;
+        });
+        FailingJournal[] journal = new FailingJournal[1];
+        sequencer = start(delegate -> journal[0] = new FailingJournal(delegate));
+
+        sequencer.submit(buy(1L, 1), "a");
+
+        awaitPersisted(1);
+        awaitCheckpoint(journal[0], 1);
+        assertThat(attempts.get()).isEqualTo(3);
+        assertThat(persisted).extracting(JournalRecord::idempotencyKey).containsExactly("a");
+    }
+
+    @Test
+    void skipsAbandonedRecordsOnReplay() throws Exception {
+        try (MappedOrderJournal journal = new MappedOrderJournal(dir, 1 << 20, false)) {
+            JournalRecord failed = journal.append(new JournalRecord(0, 1L, 1L, "BTCUSDT", Order.Side.BUY, 1, 100,
+                    "a", Order.OrderStatus.FILLED, null));
+            journal.append(failed.abandoned("Journal flush failed"));
+            journal.append(new JournalRecord(0, 2L, 1L, "BTCUSDT", Order.Side.BUY, 1, 100, "a",
+                    Order.OrderStatus.FILLED, null));
+            journal.flush();
+        }
+        when(persister.persist(any(), anyBoolean())).thenAnswer(inv -> {
+            List<JournalRecord> batch = inv.getArgument(0);
+            persisted.addAll(batch);
+            return batch;
+        });
+
+        sequencer = start();
+
+        assertThat(persisted).extracting(JournalRecord::sequence).containsExactly(3L);
+    }
+
+    @Test
+    void seesFundsReservedByALimitOrderOfTheSameUser() throws Exception {
+        when(marketData.getTradablePrice("BTCUSDT")).thenReturn(new BigDecimal("100"));
+        when(wallets.findByUserId(1L)).thenReturn(Optional.of(new Wallet(1L, new BigDecimal("1000"))));
+        when(orders.findByIdempotencyKey(anyString())).thenReturn(Optional.empty());
+        when(persister.persist(any(), anyBoolean())).thenAnswer(inv -> inv.getArgument(0));
+        sequencer = start();
+
+        // A resting LIMIT BUY placed through the pipeline holds 700 of the 1000.
+        Reservation limit = walletStore.reserve(1L, new BigDecimal("700"));
+        Order tooLarge = sequencer.submit(buy(1L, 4), "a");
+        Order covered = sequencer.submit(buy(1L, 3), "b");
+
+        assertThat(tooLarge.getStatus()).isEqualTo(Order.OrderStatus.REJECTED);
+        assertThat(tooLarge.getRejectionReason()).contains("Insufficient funds");
+        assertThat(covered.getStatus()).isEqualTo(Order.OrderStatus.FILLED);
+        assertThat(walletStore.available(1L)).isEqualByComparingTo("0");
+
+        walletStore.release(limit);
+        assertThat(walletStore.available(1L)).isEqualByComparingTo("700");
+    }
+
+    @Test
+    void rejectsSellsBeyondTheHolding() throws Exception {
+        when(marketData.getTradablePrice("BTCUSDT")).thenReturn(new BigDecimal("100"));
+        when(wallets.findByUserId(1L)).thenReturn(Optional.of(new Wallet(1L, new BigDecimal("1000"))));
+        when(orders.findByIdempotencyKey(anyString())).thenReturn(Optional.empty());
+        when(persister.persist(any(), anyBoolean())).thenAnswer(inv -> inv.getArgument(0));
+        doThrow(new RuntimeException("Cannot sell more than held quantity"))
+                .when(portfolio).requireHolding(eq(1L), eq("BTCUSDT"), eq(5));
+        sequencer = start();
+
+        Order oversold = sequencer.submit(sell(1L, 5), "a");
+        Order held = sequencer.submit(sell(1L, 2), "b");
+
+        assertThat(oversold.getStatus()).isEqualTo(Order.OrderStatus.REJECTED);
+        assertThat(oversold.getRejectionReason()).isEqualTo("Cannot sell more than held quantity");
+        assertThat(held.getStatus()).isEqualTo(Order.OrderStatus.FILLED);
+        assertThat(walletStore.available(1L)).isEqualByComparingTo("1200");
+    }
+
+    private OrderSequencer start() throws Exception {
+        return start(UnaryOperator.identity());
+    }
+
+    private OrderSequencer start(UnaryOperator<OrderJournal> decorate) throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RiskState riskState = new RiskState(orders, meterRegistry);
+        RiskRuleEngine riskRules = new RiskRuleEngine(riskState, mock(MarkToMarketEngine.class), meterRegistry,
+                new ObjectMapper(), new DefaultResourceLoader(), "classpath:risk-rules.json");
+        riskRules.reload();
+        OrderSequencer started = new OrderSequencer(persister, marketData,
+                new RiskManagementService(riskState, riskRules), riskState, walletStore, portfolio, orders,
+                transactionManager) {
+            @Override
+            OrderJournal openJournal(JournalType type, Path directory) throws IOException {
+                return decorate.apply(super.openJournal(type, directory));
+            }
+        };
+        ReflectionTestUtils.setField(started, "enabled", true);
+        ReflectionTestUtils.setField(started, "laneCount", 2);
+        ReflectionTestUtils.setField(started, "laneCapacity", 16);
+        ReflectionTestUtils.setField(started, "batchSize", 8);
+        ReflectionTestUtils.setField(started, "writerBatchSize", 8);
+        ReflectionTestUtils.setField(started, "idempotencyKeysPerLane", 100);
+        ReflectionTestUtils.setField(started, "journalType", JournalType.MAPPED);
+        ReflectionTestUtils.setField(started, "segmentBytes", 1 << 20);
+        ReflectionTestUtils.setField(started, "journalDir", dir.toString());
+        ReflectionTestUtils.setField(started, "fsync", false);
+        ReflectionTestUtils.setField(started, "rollBytes", Long.MAX_VALUE);
+        ReflectionTestUtils.setField(started, "submitTimeoutMs", 5000L);
+        ReflectionTestUtils.setField(started, "writerRetryMs", 10L);
+        started.start();
+        return started;
+    }
+
+    private static OrderRequest buy(Long userId, int quantity) {
+        return request(userId, Order.Side.BUY, quantity);
+    }
+
+    private static OrderRequest sell(Long userId, int quantity) {
+        return request(userId, Order.Side.SELL, quantity);
+    }
+
+    private static OrderRequest request(Long userId, Order.Side side, int quantity) {
+        OrderRequest request = new OrderRequest();
+        request.setUserId(userId);
+        request.setSymbol("BTCUSDT");
+        request.setSide(side);
+        request.setQuantity(quantity);
+        return request;
+    }
+
+    private void awaitPersisted(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (persisted.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static void awaitCheckpoint(OrderJournal journal, long sequence) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (journal.lastCheckpoint() < sequence && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(journal.lastCheckpoint()).isEqualTo(sequence);
+    }
+
+    /** Delegating journal whose next flush can be made to fail. */
+    private static final class FailingJournal implements OrderJournal {
+
+        final AtomicBoolean failNextFlush = new AtomicBoolean();
+        private final OrderJournal delegate;
+
+        FailingJournal(OrderJournal delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public JournalRecord append(JournalRecord record) throws IOException {
+            return delegate.append(record);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (failNextFlush.getAndSet(false)) {
+                throw new IOException("injected flush failure");
+            }
+            delegate.flush();
+        }
+
+        @Override
+        public long replay(long afterSequence, Consumer<JournalRecord> consumer) throws IOException {
+            return delegate.replay(afterSequence, consumer);
+        }
+
+        @Override
+        public void checkpoint(long sequence) throws IOException {
+            delegate.checkpoint(sequence);
+        }
+
+        @Override
+        public long lastCheckpoint() {
+            return delegate.lastCheckpoint();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.Apex.service;
+
+import com.example.Apex.market.MarketSeriesReader;
+import com.example.Apex.market.MarketTick;
+import com.example.Apex.model.dto.SweepRequest;
+import com.example.Apex.strategy.StrategyRegistry;
+import com.example.Apex.strategy.impl.SimpleMovingAverageStrategy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class ParameterSweepServiceTest {
+
+    private static final String SMA = "Simple Moving Average (SMA)";
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private final MarketSeriesReader reader = mock(MarketSeriesReader.class);
+    private final StrategyRegistry registry = new StrategyRegistry(List.of(new SimpleMovingAverageStrategy()));
+    private final ParameterSweepService sweeps = new ParameterSweepService(reader, registry);
+    private final BacktestService backtests = new BacktestService(reader, registry);
+
+    @BeforeEach
+    void setUp() {
+        List<MarketTick> ticks = sineSeries(2_000);
+        doAnswer(inv -> {
+            Consumer<MarketTick> consumer = inv.getArgument(4);
+            ticks.forEach(consumer);
+            return (long) ticks.size();
+        }).when(reader).streamSeries(any(), any(), any(), any(), any());
+
+        ReflectionTestUtils.setField(sweeps, "historyWindow", 1000);
+        ReflectionTestUtils.setField(sweeps, "parallelism", 4);
+        ReflectionTestUtils.setField(sweeps, "maxRuns", 100);
+        ReflectionTestUtils.setField(sweeps, "maxPoints", 10_000);
+        ReflectionTestUtils.setField(sweeps, "retainedJobs", 5);
+        ReflectionTestUtils.setField(backtests, "historyWindow", 1000);
+        sweeps.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        sweeps.stop();
+    }
+
+    @Test
+    void evaluatesEveryCombinationAndMatchesSingleBacktests() throws Exception {
+        SweepJob job = sweeps.submit(request(Map.of("period", List.of(5.0, 20.0, 50.0))));
+        awaitDone(job);
+
+        assertThat(job.getStatus()).isEqualTo(SweepJob.Status.COMPLETED);
+        assertThat(job.getCompletedRuns()).isEqualTo(3);
+        assertThat(job.getSeriesSize()).isEqualTo(2_000);
+
+        List<SweepJob.Result> results = job.getResults();
+        assertThat(results).extracting(r -> r.parameters().get("period"))
+                .containsExactlyInAnyOrder(5.0, 20.0, 50.0);
+        assertThat(results).isSortedAccordingTo(SweepJob.RANKING);
+
+        // The default SMA period is 20; the sweep must reproduce the single-run backtest.
+        BacktestService.BacktestResult single = backtests.runBacktest(SMA, T0, T0.plusDays(1));
+        SweepJob.Result swept = results.stream().filter(r -> r.parameters().get("period") == 20.0).findFirst()
+                .orElseThrow();
+        assertThat(swept.totalReturnPercent()).isEqualTo(single.getTotalReturnPercent());
+        assertThat(swept.totalTrades()).isEqualTo(single.getTotalTrades());
+    }
+
+    @Test
+    void rejectsInvalidGridsUpFront() {
+        assertThatThrownBy(() -> sweeps.submit(request(Map.of("lookback", List.of(1.0)))))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> sweeps.submit(request(Map.of("period", List.of(0.0)))))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ParameterSweepService.combinations(
+                Map.of("a", List.of(1.0, 2.0, 3.0), "b", List.of(1.0, 2.0, 3.0)), 8))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void cartesianProductCoversEveryPair() {
+        List<Map<String, Double>> grid = ParameterSweepService.combinations(
+                Map.of("a", List.of(1.0, 2.0), "b", List.of(10.0, 20.0, 30.0)), 100);
+
+        assertThat(grid).hasSize(6).doesNotHaveDuplicates();
+    }
+
+    private static SweepRequest request(Map<String, List<Double>> parameters) {
+        SweepRequest request = new SweepRequest();
+        request.setStrategyName(SMA);
+        request.setStart(T0);
+        request.setEnd(T0.plusDays(1));
+        request.setParameters(parameters);
+        return request;
+    }
+
+    private static List<MarketTick> sineSeries(int n) {
+        return IntStream.range(0, n)
+                .mapToObj(i -> new MarketTick("BTCUSDT",
+                        BigDecimal.valueOf(100 + 10 * Math.sin(i / 25.0)).setScale(2, RoundingMode.HALF_UP),
+                        T0.plusSeconds(i)))
+                .toList();
+    }
+
+    private static void awaitDone(SweepJob job) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!job.isDone() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
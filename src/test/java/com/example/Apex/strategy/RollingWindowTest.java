@@ -0,0 +1,34 @@
+package com.example.Apex.strategy;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RollingWindowTest {
+
+    @Test
+    void keepsOnlyTheMostRecentElementsOldestFirst() {
+        RollingWindow<Integer> window = new RollingWindow<>(3);
+        for (int i = 1; i <= 5; i++) {
+            window.add(i);
+        }
+
+        assertThat(window).containsExactly(3, 4, 5);
+        assertThat(window.get(window.size() - 1)).isEqualTo(5);
+        assertThat(window.stream().skip(1).toList()).isEqualTo(List.of(4, 5));
+    }
+
+    @Test
+    void behavesLikeAListBeforeReachingCapacity() {
+        RollingWindow<String> window = new RollingWindow<>(4);
+        window.add("a");
+        window.add("b");
+
+        assertThat(window).hasSize(2).containsExactly("a", "b");
+
+        window.clear();
+        assertThat(window).isEmpty();
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.Apex.strategy.impl;
+
+import com.example.Apex.market.MarketTick;
+import com.example.Apex.strategy.StrategySignal;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SimpleMovingAverageStrategyTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 6, 10, 12, 0);
+
+    @Test
+    void analyzeStatesPriceAndAverageInTheReason() {
+        SimpleMovingAverageStrategy strategy = new SimpleMovingAverageStrategy(3);
+        List<MarketTick> history = new ArrayList<>();
+        for (String price : List.of("100", "100", "103")) {
+            history.add(new MarketTick("BTCUSDT", new BigDecimal(price), T0.plusSeconds(history.size())));
+        }
+
+        StrategySignal signal = strategy.analyze(history.get(2), history);
+
+        assertThat(signal.type()).isEqualTo(StrategySignal.SignalType.BUY);
+        assertThat(signal.reason()).isEqualTo(String.format("Price %.2f > SMA %.2f", 103.0, 101.0));
+    }
+
+    @Test
+    void onTickReusesPreallocatedSignals() {
+        SimpleMovingAverageStrategy strategy = new SimpleMovingAverageStrategy(2);
+        strategy.onTick(0, 100, 1);
+
+        assertThat(strategy.onTick(1, 90, 1)).isSameAs(strategy.onTick(2, 80, 1));
+    }
+}
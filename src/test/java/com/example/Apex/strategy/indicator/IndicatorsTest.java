@@ -0,0 +1,121 @@
+package com.example.Apex.strategy.indicator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class IndicatorsTest {
+
+    private static final double[] PRICES = randomWalk(5_000);
+
+    @Test
+    void simpleMovingAverageMatchesNaiveMean() {
+        SimpleMovingAverage sma = new SimpleMovingAverage(20);
+        for (int i = 0; i < PRICES.length; i++) {
+            sma.update(PRICES[i]);
+            if (i < 19) {
+                assertThat(sma.isReady()).isFalse();
+                assertThat(sma.value()).isNaN();
+            } else {
+                assertThat(sma.value()).isCloseTo(mean(i - 19, i), within(1e-9));
+            }
+        }
+    }
+
+    @Test
+    void exponentialMovingAverageIsSeededWithTheSimpleMean() {
+        ExponentialMovingAverage ema = new ExponentialMovingAverage(10);
+        double expected = 0.0;
+        for (int i = 0; i < PRICES.length; i++) {
+            ema.update(PRICES[i]);
+            if (i == 9) {
+                expected = mean(0, 9);
+            } else if (i > 9) {
+                expected += 2.0 / 11 * (PRICES[i] - expected);
+            }
+            if (i >= 9) {
+                assertThat(ema.value()).isCloseTo(expected, within(1e-9));
+            }
+        }
+    }
+
+    @Test
+    void relativeStrengthIndexStaysInRangeAndSaturates() {
+        RelativeStrengthIndex rsi = new RelativeStrengthIndex(14);
+        for (double price : PRICES) {
+            rsi.update(price);
+            if (rsi.isReady()) {
+                assertThat(rsi.value()).isBetween(0.0, 100.0);
+            }
+        }
+
+        RelativeStrengthIndex rising = new RelativeStrengthIndex(14);
+        for (int i = 0; i < 30; i++) {
+            rising.update(100 + i);
+        }
+        assertThat(rising.value()).isEqualTo(100.0);
+    }
+
+    @Test
+    void volumeWeightedAveragePriceWeightsByQuantity() {
+        VolumeWeightedAveragePrice vwap = new VolumeWeightedAveragePrice(3);
+        vwap.update(100, 1);
+        vwap.update(110, 3);
+        assertThat(vwap.value()).isCloseTo(107.5, within(1e-9));
+
+        vwap.update(120, 0);
+        vwap.update(90, 1); // evicts (100, 1)
+        assertThat(vwap.value()).isCloseTo((110 * 3 + 90) / 4.0, within(1e-9));
+    }
+
+    @Test
+    void bollingerBandsMatchNaiveStandardDeviation() {
+        BollingerBands bands = new BollingerBands(20, 2.0);
+        for (int i = 0; i < PRICES.length; i++) {
+            bands.update(PRICES[i]);
+            if (i >= 19) {
+                double mean = mean(i - 19, i);
+                double variance = 0.0;
+                for (int j = i - 19; j <= i; j++) {
+                    variance += (PRICES[j] - mean) * (PRICES[j] - mean);
+                }
+                double sd = Math.sqrt(variance / 20);
+                assertThat(bands.value()).isCloseTo(mean, within(1e-9));
+                assertThat(bands.upper()).isCloseTo(mean + 2 * sd, within(1e-6));
+                assertThat(bands.lower()).isCloseTo(mean - 2 * sd, within(1e-6));
+            }
+        }
+    }
+
+    @Test
+    void ringBufferEvictsOldestFirst() {
+        DoubleRingBuffer ring = new DoubleRingBuffer(2);
+        assertThat(ring.add(1)).isNaN();
+        assertThat(ring.add(2)).isNaN();
+        assertThat(ring.add(3)).isEqualTo(1.0);
+        assertThat(ring.get(0)).isEqualTo(2.0);
+        assertThat(ring.get(1)).isEqualTo(3.0);
+    }
+
+    private static double mean(int from, int to) {
+        double sum = 0.0;
+        for (int j = from; j <= to; j++) {
+            sum += PRICES[j];
+        }
+        return sum / (to - from + 1);
+    }
+
+    private static double[] randomWalk(int n) {
+        Random random = new Random(42);
+        double[] prices = new double[n];
+        double price = 30_000;
+        for (int i = 0; i < n; i++) {
+            price += random.nextGaussian() * 25;
+            prices[i] = price;
+        }
+        return prices;
+    }
+}
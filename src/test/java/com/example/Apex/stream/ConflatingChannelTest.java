@@ -0,0 +1,92 @@
+package com.example.Apex.stream;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConflatingChannelTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Counter conflated = meterRegistry.counter("conflated");
+    private final Counter dropped = meterRegistry.counter("dropped");
+
+    @Test
+    void keepsTheLatestValuePerKeyUntilTheSubscriberAsks() {
+        ConflatingChannel<String, String> channel = new ConflatingChannel<>(10, conflated, dropped);
+        Recorder recorder = subscribe(channel);
+
+        channel.offer("portfolio", () -> "p1");
+        channel.offer("order:1", () -> "o1-validated");
+        channel.offer("portfolio", () -> "p2");
+        channel.offer("order:2", () -> "o2-validated");
+        channel.offer("order:1", () -> "o1-filled");
+        assertThat(recorder.received).isEmpty();
+
+        recorder.request(2);
+        assertThat(recorder.received).containsExactly("p2", "o1-filled");
+        recorder.request(5);
+        assertThat(recorder.received).containsExactly("p2", "o1-filled", "o2-validated");
+        assertThat(conflated.count()).isEqualTo(2);
+
+        channel.offer("portfolio", () -> "p3");
+        assertThat(recorder.received).endsWith("p3");
+    }
+
+    @Test
+    void dropsTheOldestKeyPastTheLimit() {
+        ConflatingChannel<String, String> channel = new ConflatingChannel<>(2, conflated, dropped);
+        Recorder recorder = subscribe(channel);
+
+        channel.offer("a", () -> "a");
+        channel.offer("b", () -> "b");
+        channel.offer("c", () -> "c");
+        recorder.request(10);
+
+        assertThat(recorder.received).containsExactly("b", "c");
+        assertThat(dropped.count()).isEqualTo(1);
+    }
+
+    @Test
+    void buildsAValueOnlyWhenItIsSent() {
+        ConflatingChannel<String, String> channel = new ConflatingChannel<>(10, conflated, dropped);
+        Recorder recorder = subscribe(channel);
+        AtomicInteger builds = new AtomicInteger();
+
+        for (int i = 0; i < 5; i++) {
+            channel.offer("portfolio", () -> "snapshot-" + builds.incrementAndGet());
+        }
+        recorder.request(1);
+
+        assertThat(builds.get()).isEqualTo(1);
+        assertThat(recorder.received).containsExactly("snapshot-1");
+    }
+
+    private static Recorder subscribe(ConflatingChannel<String, String> channel) {
+        Recorder recorder = new Recorder();
+        channel.flux().subscribe(recorder);
+        return recorder;
+    }
+
+    private static final class Recorder extends BaseSubscriber<String> {
+
+        private final List<String> received = new CopyOnWriteArrayList<>();
+
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+            // No initial demand: the test requests explicitly.
+        }
+
+        @Override
+        protected void hookOnNext(String value) {
+            received.add(value);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.Apex.stream;
+
+import com.example.Apex.market.Candle;
+import com.example.Apex.market.CandleAggregator;
+import com.example.Apex.market.CandleInterval;
+import com.example.Apex.market.CandleRepository;
+import com.example.Apex.market.FixedPoint;
+import com.example.Apex.market.LatestPriceCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.BaseSubscriber;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class MarketStreamHubTest {
+
+    private static final long T0 = 1_718_000_040_000L; // aligned to a minute
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CandleAggregator candleAggregator = new CandleAggregator(mock(CandleRepository.class),
+            meterRegistry, 1024, 0);
+    private final LatestPriceCache latestPriceCache = new LatestPriceCache();
+    private final MarketStreamHub hub = new MarketStreamHub(candleAggregator, latestPriceCache, meterRegistry,
+            3_600_000);
+
+    @Test
+    void slowSubscriberGetsTheLatestTickWithoutHoldingUpAFastOne() {
+        Recorder slow = new Recorder(0);
+        Recorder fast = new Recorder(Long.MAX_VALUE);
+        hub.ticks("BTCUSDT").subscribe(slow);
+        hub.ticks("BTCUSDT").subscribe(fast);
+
+        for (int i = 1; i <= 10; i++) {
+            trade("BTCUSDT", T0 + i, String.valueOf(100 + i));
+        }
+
+        assertThat(fast.prices()).hasSize(10).endsWith("110");
+        assertThat(slow.received).isEmpty();
+        slow.request(10);
+        // The first tick was already queued for it; of the rest only the latest is left.
+        assertThat(slow.prices()).containsExactly("101", "110");
+        assertThat(meterRegistry.counter("apex.stream.conflated", "stream", "ticks").count()).isEqualTo(8);
+        assertThat(meterRegistry.timer("apex.stream.fanout.latency", "stream", "ticks").count()).isEqualTo(12);
+    }
+
+    @Test
+    void startsWithTheLastPriceAndTracksSubscribers() {
+        latestPriceCache.update("ETHUSDT", new BigDecimal("10"), T0);
+        Recorder recorder = new Recorder(Long.MAX_VALUE);
+        hub.ticks("ETHUSDT").subscribe(recorder);
+
+        assertThat(recorder.prices()).containsExactly("10");
+        assertThat(meterRegistry.get("apex.stream.subscribers").tag("stream", "ticks").gauge().value()).isEqualTo(1);
+        recorder.dispose();
+        assertThat(meterRegistry.get("apex.stream.subscribers").tag("stream", "ticks").gauge().value()).isEqualTo(0);
+    }
+
+    @Test
+    void sendsTheOpenCandleAfterEachTrade() {
+        Recorder recorder = new Recorder(Long.MAX_VALUE);
+        hub.candles("BTCUSDT", CandleInterval.M1).subscribe(recorder);
+
+        trade("BTCUSDT", T0 + 100, "100");
+        trade("BTCUSDT", T0 + 200, "104");
+
+        assertThat(recorder.received).extracting(ServerSentEvent::event).containsOnly("candle");
+        Candle last = (Candle) recorder.received.get(recorder.received.size() - 1).data();
+        assertThat(last.getHigh()).isEqualByComparingTo("104");
+        assertThat(last.getTradeCount()).isEqualTo(2);
+    }
+
+    @Test
+    void removesTheSymbolWhenItsLastSubscriberLeaves() {
+        Recorder first = new Recorder(Long.MAX_VALUE);
+        Recorder second = new Recorder(Long.MAX_VALUE);
+        hub.ticks("BTCUSDT").subscribe(first);
+        hub.candles("BTCUSDT", CandleInterval.M1).subscribe(second);
+        assertThat(hub.watchedSymbols()).isEqualTo(1);
+
+        first.dispose();
+        trade("BTCUSDT", T0 + 100, "100");
+        assertThat(second.received).hasSize(1);
+        second.dispose();
+
+        assertThat(hub.watchedSymbols()).isZero();
+    }
+
+    @Test
+    void rejectsMalformedSymbols() {
+        assertThatThrownBy(() -> hub.ticks("BTC/USDT")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> hub.candles("", CandleInterval.M1)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(hub.watchedSymbols()).isZero();
+    }
+
+    private void trade(String symbol, long eventTime, String price) {
+        long priceE8 = FixedPoint.fromBigDecimal(new BigDecimal(price));
+        // Same order as the trade listeners run in.
+        candleAggregator.onTrade(symbol, eventTime, priceE8, FixedPoint.ONE);
+        hub.onTrade(symbol, eventTime, priceE8, FixedPoint.ONE);
+    }
+
+    private static final class Recorder extends BaseSubscriber<ServerSentEvent<Object>> {
+
+        private final long initialDemand;
+        private final List<ServerSentEvent<Object>> received = new CopyOnWriteArrayList<>();
+
+        Recorder(long initialDemand) {
+            this.initialDemand = initialDemand;
+        }
+
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+            if (initialDemand > 0) {
+                request(initialDemand);
+            }
+        }
+
+        @Override
+        protected void hookOnNext(ServerSentEvent<Object> value) {
+            received.add(value);
+        }
+
+        List<String> prices() {
+            return received.stream()
+                    .map(event -> ((MarketStreamHub.TickView) event.data()).price().stripTrailingZeros().toPlainString())
+                    .toList();
+        }
+    }
+}
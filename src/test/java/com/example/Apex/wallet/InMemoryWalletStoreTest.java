@@ -0,0 +1,167 @@
+package com.example.Apex.wallet;
+
+import com.example.Apex.exception.InsufficientBalanceException;
+import com.example.Apex.model.TransactionLedger;
+import com.example.Apex.model.TransactionType;
+import com.example.Apex.model.Wallet;
+import com.example.Apex.repo.TransactionLedgerRepository;
+import com.example.Apex.repo.WalletRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class InMemoryWalletStoreTest {
+
+    private final WalletRepository walletRepository = mock(WalletRepository.class);
+    private final TransactionLedgerRepository ledgerRepository = mock(TransactionLedgerRepository.class);
+    private final Map<Long, BigDecimal> stored = new ConcurrentHashMap<>();
+    private final List<Long> applied = new CopyOnWriteArrayList<>();
+    private final AtomicLong ledgerIds = new AtomicLong();
+    private InMemoryWalletStore store;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        stored.put(1L, new BigDecimal("1000"));
+        when(walletRepository.findByUserId(anyLong())).thenAnswer(inv -> Optional.ofNullable(
+                stored.get(inv.<Long>getArgument(0))).map(b -> Wallet.builder().balance(b).build()));
+        when(walletRepository.addToBalance(anyLong(), any())).thenAnswer(inv -> {
+            stored.merge(inv.getArgument(0), inv.getArgument(1), BigDecimal::add);
+            return 1;
+        });
+        when(ledgerRepository.save(any())).thenAnswer(inv -> {
+            TransactionLedger entry = inv.getArgument(0);
+            entry.setId(ledgerIds.incrementAndGet());
+            return entry;
+        });
+        when(ledgerRepository.markWalletApplied(anyCollection())).thenAnswer(inv -> {
+            applied.addAll(inv.<Collection<Long>>getArgument(0));
+            return 1;
+        });
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        store.stop();
+    }
+
+    @Test
+    void concurrentReservationsNeverOverspend() throws Exception {
+        store = start();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch go = new CountDownLatch(1);
+        AtomicInteger granted = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            futures.add(pool.submit(() -> {
+                go.await();
+                try {
+                    store.reserve(1L, new BigDecimal("100"));
+                    granted.incrementAndGet();
+                } catch (InsufficientBalanceException e) {
+                    // expected once the balance is spoken for
+                }
+                return null;
+            }));
+        }
+        go.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+
+        assertThat(granted.get()).isEqualTo(10);
+        assertThat(store.available(1L)).isEqualByComparingTo("0");
+    }
+
+    @Test
+    void commitDebitsAndWritesBehindWhileReleaseOnlyFreesFunds() {
+        store = start();
+
+        Reservation filled = store.reserve(1L, new BigDecimal("300"));
+        Reservation failed = store.reserve(1L, new BigDecimal("200"));
+        assertThat(store.available(1L)).isEqualByComparingTo("500");
+
+        store.commit(filled, new BigDecimal("300"), TransactionType.TRADE_BUY);
+        store.release(failed);
+        store.release(failed);
+
+        assertThat(store.available(1L)).isEqualByComparingTo("700");
+        assertThatThrownBy(() -> store.commit(filled, new BigDecimal("300"), TransactionType.TRADE_BUY))
+                .isInstanceOf(IllegalStateException.class);
+        await().atMost(Duration.ofSeconds(5)).until(() -> applied.equals(List.of(1L)));
+        assertThat(stored.get(1L)).isEqualByComparingTo("700");
+    }
+
+    @Test
+    void rollbackUndoesTheMovementAndReleasesReservations() {
+        store = start();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            store.reserve(1L, new BigDecimal("400"));
+            store.credit(1L, new BigDecimal("50"), TransactionType.TRADE_SELL);
+            assertThat(store.available(1L)).isEqualByComparingTo("650");
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(store.available(1L)).isEqualByComparingTo("1000");
+        assertThat(store.getPendingWrites()).isZero();
+        assertThat(applied).isEmpty();
+    }
+
+    @Test
+    void appliesLedgerRowsLeftPendingByTheLastRun() {
+        when(ledgerRepository.findByWalletPendingTrue()).thenReturn(List.of(
+                TransactionLedger.builder().id(7L).userId(1L).amount(new BigDecimal("-250"))
+                        .type(TransactionType.TRADE_BUY).walletPending(true).build()));
+
+        store = start();
+
+        assertThat(applied).containsExactly(7L);
+        assertThat(store.available(1L)).isEqualByComparingTo("750");
+    }
+
+    private InMemoryWalletStore start() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        InMemoryWalletStore started = new InMemoryWalletStore(walletRepository, ledgerRepository,
+                transactionManager, new SimpleMeterRegistry(), 64, 16, 10, 10);
+        started.start();
+        return started;
+    }
+}